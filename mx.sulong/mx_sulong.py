@@ -178,6 +178,20 @@ def _sulong_gate_runner(args, tasks):
             if t: mx_testsuites.runSuite('callback')
         with Task('TestVarargs', tasks, tags=['vaargs', 'sulongMisc']) as t:
             if t: mx_testsuites.runSuite('vaargs')
+        with Task('TestStackOverflow', tasks, tags=['stackoverflow', 'sulongMisc']) as t:
+            if t: mx_testsuites.runSuite('stackoverflow')
+        with Task('TestMemoryMappings', tasks, tags=['memoryMappings', 'sulongMisc']) as t:
+            if t: mx_testsuites.runSuite('memoryMappings')
+        with Task('TestManagedMemory', tasks, tags=['managedMemory', 'sulongMisc']) as t:
+            if t: mx_testsuites.runSuite('managedMemory')
+        with Task('TestSampler', tasks, tags=['sampler', 'sulongMisc']) as t:
+            if t: mx_testsuites.runSuite('sampler')
+        with Task('TestAllocationTracker', tasks, tags=['allocationTracker', 'sulongMisc']) as t:
+            if t: mx_testsuites.runSuite('allocationTracker')
+        with Task('TestManagedSulong', tasks, tags=['managedSulong', 'sulongMisc']) as t:
+            if t: mx_testsuites.runSuite('managedSulong')
+        with Task('TestEagerSulong', tasks, tags=['eagerSulong', 'sulongMisc']) as t:
+            if t: mx_testsuites.runSuite('eagerSulong')
 
 add_gate_runner(_suite, _sulong_gate_runner)
 
@@ -653,6 +667,8 @@ class SulongDocsProject(ArchiveProject):
 
 
 mx_benchmark.add_bm_suite(mx_sulong_benchmarks.SulongBenchmarkSuite())
+mx_benchmark.add_bm_suite(mx_sulong_benchmarks.SulongPolyglotBenchmarkSuite())
+mx_benchmark.add_bm_suite(mx_sulong_benchmarks.SulongJMHBenchmarkSuite())
 
 mx_sdk.register_graalvm_component(mx_sdk.GraalVmLanguage(
     suite=_suite,
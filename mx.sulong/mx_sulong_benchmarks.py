@@ -32,7 +32,7 @@ import mx, mx_benchmark, mx_sulong, mx_buildtools
 import os
 import mx_subst
 from os.path import join, exists
-from mx_benchmark import VmRegistry, java_vm_registry, Vm, GuestVm, VmBenchmarkSuite
+from mx_benchmark import VmRegistry, java_vm_registry, Vm, GuestVm, VmBenchmarkSuite, JavaBenchmarkSuite
 
 
 def _benchmarksDirectory():
@@ -92,6 +92,98 @@ class SulongBenchmarkSuite(VmBenchmarkSuite):
         return native_vm_registry
 
 
+class SulongPolyglotBenchmarkSuite(JavaBenchmarkSuite):
+    """Runs the kernels of com.oracle.truffle.llvm.tests.benchmarks in a polyglot context.
+
+    In contrast to the csuite, the benchmarks are part of the repository and every invocation is
+    timed separately, so the warm-up curve, the time to the first result and the peak performance
+    are reported as separate metrics.
+
+    The run arguments are passed to the harness, so the managed configuration is measured with
+    `mx benchmark sulong-polyglot:* -- -- --configuration managed`.
+    """
+
+    _project = 'com.oracle.truffle.llvm.tests.benchmarks'
+    _prefix = 'benchmarks' + os.sep
+
+    def group(self):
+        return 'Graal'
+
+    def subgroup(self):
+        return 'sulong'
+
+    def name(self):
+        return 'sulong-polyglot'
+
+    def benchmarkList(self, bmSuiteArgs):
+        return sorted(t[len(self._prefix):] for t in mx.project(self._project).getTests() if t.startswith(self._prefix))
+
+    def failurePatterns(self):
+        return [
+            re.compile(r'error:'),
+            re.compile(r'Exception')
+        ]
+
+    def successPatterns(self):
+        return [re.compile(r'^[a-zA-Z0-9\.\-_]+: throughput: [0-9]+(?:\.[0-9]+)? ops/s$', re.MULTILINE)]
+
+    def rules(self, out, benchmarks, bmSuiteArgs):
+        def metric(name, unit, better, iteration=0):
+            return {
+                "benchmark": ("<benchmark>", str),
+                "metric.name": name,
+                "metric.unit": unit,
+                "metric.type": "numeric",
+                "metric.value": ("<value>", float),
+                "metric.score-function": "id",
+                "metric.better": better,
+                "metric.iteration": iteration,
+            }
+        benchmark = r'^(?P<benchmark>[a-zA-Z0-9\.\-_]+): '
+        value = r'(?P<value>[0-9]+(?:\.[0-9]+)?)'
+        return [
+            mx_benchmark.StdOutRule(benchmark + r'iteration (?P<iteration>[0-9]+): ' + value + ' ms$',
+                                    metric("warmup", "ms", "lower", ("<iteration>", int))),
+            mx_benchmark.StdOutRule(benchmark + r'time-to-first-result: ' + value + ' ms$',
+                                    metric("time-to-first-result", "ms", "lower")),
+            mx_benchmark.StdOutRule(benchmark + r'peak: ' + value + ' ms$',
+                                    metric("time", "ms", "lower")),
+            mx_benchmark.StdOutRule(benchmark + r'throughput: ' + value + ' ops/s$',
+                                    metric("throughput", "op/s", "higher")),
+        ]
+
+    def createCommandLineArgs(self, benchmarks, bmSuiteArgs):
+        if benchmarks is None or len(benchmarks) != 1:
+            mx.abort("Please run a specific benchmark (mx benchmark sulong-polyglot:<benchmark-name>) or all the benchmarks (mx benchmark sulong-polyglot:*)")
+        benchmark = benchmarks[0]
+        bitcode = join(mx_subst.path_substitutions.substitute('<path:SULONG_TEST_SUITES>'), 'benchmarks', benchmark, 'O1.bc')
+        if not exists(bitcode):
+            mx.abort('Benchmark {} is missing, please build SULONG_TEST_SUITES first'.format(bitcode))
+        return (self.vmArgs(bmSuiteArgs) + mx.get_runtime_jvm_args(['SULONG', 'SULONG_TEST']) +
+                ['com.oracle.truffle.llvm.test.benchmarks.PolyglotBenchmarkHarness', bitcode, '--name', benchmark] + self.runArgs(bmSuiteArgs))
+
+
+class SulongJMHBenchmarkSuite(mx_benchmark.JMHRunnerBenchmarkSuite):
+    """Runs the JMH micro benchmarks of com.oracle.truffle.llvm.bench.
+
+    The parser benchmarks use the bitcode files of com.oracle.truffle.llvm.tests.benchmarks as
+    input, so SULONG_TEST_SUITES has to be built first.
+    """
+
+    def group(self):
+        return 'Graal'
+
+    def subgroup(self):
+        return 'sulong'
+
+    def name(self):
+        return 'sulong-jmh'
+
+    def extraVmArgs(self):
+        fixturePath = join(mx_subst.path_substitutions.substitute('<path:SULONG_TEST_SUITES>'), 'benchmarks')
+        return ['-XX:-UseJVMCIClassLoader', '-Dsulongbench.fixturePath=' + fixturePath] + super(SulongJMHBenchmarkSuite, self).extraVmArgs()
+
+
 class GccLikeVm(Vm):
     def __init__(self, config_name, options):
         self._config_name = config_name
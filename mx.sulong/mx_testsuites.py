@@ -123,6 +123,39 @@ def runVAargsTests(vmArgs):
     compileSuite(['vaargs'])
     return run(vmArgs, "com.oracle.truffle.llvm.test.VAArgsTest")
 
+def runStackOverflowTests(vmArgs):
+    """runs the stack overflow tests"""
+    compileSuite(['stackoverflow'])
+    return run(vmArgs, "com.oracle.truffle.llvm.test.StackOverflowTest")
+
+def runMemoryMappingsTests(vmArgs):
+    """runs the memory mappings tests"""
+    compileSuite(['memoryMappings'])
+    return run(vmArgs, "com.oracle.truffle.llvm.test.MemoryMappingsTest")
+
+def runManagedMemoryTests(vmArgs):
+    """runs the managed memory tests"""
+    compileSuite(['managedMemory'])
+    return run(vmArgs, "com.oracle.truffle.llvm.test.ManagedMemoryTest")
+
+def runSamplerTests(vmArgs):
+    """runs the sampling profiler tests"""
+    compileSuite(['sampler'])
+    return run(vmArgs, "com.oracle.truffle.llvm.test.SamplingProfilerTest")
+
+def runAllocationTrackerTests(vmArgs):
+    """runs the allocation tracker tests"""
+    compileSuite(['allocationTracker'])
+    return run(vmArgs, "com.oracle.truffle.llvm.test.AllocationTrackerTest")
+
+def runManagedSulongSuite(vmArgs):
+    """runs the Sulong test suite with the managed memory configuration"""
+    return run(vmArgs, "com.oracle.truffle.llvm.test.ManagedSulongSuite")
+
+def runEagerSulongSuite(vmArgs):
+    """runs the Sulong test suite with lazy parsing disabled"""
+    return run(vmArgs, "com.oracle.truffle.llvm.test.EagerSulongSuite")
+
 def runInlineAssemblySuite(vmArgs):
     """runs the InlineAssembly test suite"""
     compileSuite(['assembly'])
@@ -210,6 +243,13 @@ testSuites = {
     'args' : (compileOtherTests, runArgsTests),
     'callback' : (compileOtherTests, runCallbackTests),
     'vaargs' : (compileOtherTests, runVAargsTests),
+    'stackoverflow' : (compileOtherTests, runStackOverflowTests),
+    'memoryMappings' : (compileOtherTests, runMemoryMappingsTests),
+    'managedMemory' : (compileOtherTests, runManagedMemoryTests),
+    'sampler' : (compileOtherTests, runSamplerTests),
+    'allocationTracker' : (compileOtherTests, runAllocationTrackerTests),
+    'managedSulong' : (None, runManagedSulongSuite),
+    'eagerSulong' : (None, runEagerSulongSuite),
     'nwcc' : (compileNWCCSuite, runNWCCSuite),
     'assembly' : (compileInlineAssemblySuite, runInlineAssemblySuite),
     'gcc_c' : (compileGCCSuite_C_files, runGCCSuite_c),
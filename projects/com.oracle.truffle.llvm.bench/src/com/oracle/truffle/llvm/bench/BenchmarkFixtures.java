@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Locates the bitcode files of the {@code com.oracle.truffle.llvm.tests.benchmarks} test suite,
+ * which serve as parser input for the micro benchmarks. The {@code sulong} benchmark suite passes
+ * the location of the built test suite in the system property {@value #FIXTURE_PATH_PROPERTY}.
+ */
+public final class BenchmarkFixtures {
+
+    public static final String FIXTURE_PATH_PROPERTY = "sulongbench.fixturePath";
+
+    private static final String FIXTURE_VARIANT = "O1.bc";
+
+    private BenchmarkFixtures() {
+    }
+
+    public static Path getFixture(String name) {
+        String fixturePath = System.getProperty(FIXTURE_PATH_PROPERTY);
+        if (fixturePath == null) {
+            throw new IllegalStateException("The system property " + FIXTURE_PATH_PROPERTY + " is not set.");
+        }
+        Path file = Paths.get(fixturePath, name, FIXTURE_VARIANT);
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalStateException("The bitcode file " + file + " does not exist.");
+        }
+        return file;
+    }
+
+    public static byte[] readFixture(String name) throws IOException {
+        return Files.readAllBytes(getFixture(name));
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.bench;
+
+import java.util.Random;
+
+import org.graalvm.polyglot.io.ByteSequence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.oracle.truffle.llvm.parser.scanner.BitStream;
+
+/**
+ * Reads a stream of generated variable bit rate values, as they make up most of the records in a
+ * bitcode file.
+ */
+@State(Scope.Thread)
+public class BitStreamBenchmark {
+
+    private static final int VALUES = 1 << 16;
+
+    @Param({"4", "6", "8"}) public int width;
+
+    /**
+     * The largest value in the stream, in bits. Small values fit into a single chunk, large ones
+     * need several.
+     */
+    @Param({"5", "32"}) public int valueBits;
+
+    private BitStream stream;
+    private long[] fixedWidthOffsets;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        long[] values = new long[VALUES];
+        long bits = 0;
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = random.nextLong() & ((1L << valueBits) - 1);
+            bits += BitStream.widthVBR(values[i], width);
+        }
+
+        byte[] bytes = new byte[(int) ((bits + Byte.SIZE - 1) / Byte.SIZE) + Long.BYTES];
+        long offset = 0;
+        for (long value : values) {
+            offset = writeVBR(bytes, offset, value);
+        }
+        stream = BitStream.create(ByteSequence.create(bytes));
+
+        fixedWidthOffsets = new long[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            fixedWidthOffsets[i] = (long) i * width;
+        }
+    }
+
+    private long writeVBR(byte[] bytes, long offset, long value) {
+        long threshold = 1L << (width - 1);
+        long v = value;
+        long o = offset;
+        while (v >= threshold) {
+            o = write(bytes, o, (v & (threshold - 1)) | threshold);
+            v >>>= width - 1;
+        }
+        return write(bytes, o, v);
+    }
+
+    private long write(byte[] bytes, long offset, long chunk) {
+        for (int i = 0; i < width; i++) {
+            if ((chunk & (1L << i)) != 0) {
+                long bit = offset + i;
+                bytes[(int) (bit / Byte.SIZE)] |= 1 << (bit % Byte.SIZE);
+            }
+        }
+        return offset + width;
+    }
+
+    @Benchmark
+    public long readVBR() {
+        long sum = 0;
+        long offset = 0;
+        for (int i = 0; i < VALUES; i++) {
+            long value = stream.readVBR(offset, width);
+            offset += BitStream.widthVBR(value, width);
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long readFixedWidth() {
+        long sum = 0;
+        for (int i = 0; i < VALUES; i++) {
+            sum += stream.read(fixedWidthOffsets[i], width);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.oracle.truffle.llvm.runtime.datalayout.DataLayout;
+import com.oracle.truffle.llvm.runtime.types.ArrayType;
+import com.oracle.truffle.llvm.runtime.types.PointerType;
+import com.oracle.truffle.llvm.runtime.types.PrimitiveType;
+import com.oracle.truffle.llvm.runtime.types.StructureType;
+import com.oracle.truffle.llvm.runtime.types.Type;
+import com.oracle.truffle.llvm.runtime.types.VariableBitWidthType;
+import com.oracle.truffle.llvm.runtime.types.VectorType;
+
+/**
+ * Queries the sizes and alignments of a mix of primitive and aggregate types, as done when
+ * building memory access nodes.
+ */
+@State(Scope.Thread)
+public class DataLayoutBenchmark {
+
+    private static final String X86_64_LAYOUT = "e-m:e-i64:64-f80:128-n8:16:32:64-S128";
+
+    private DataLayout layout;
+    private Type[] primitiveTypes;
+    private Type[] aggregateTypes;
+
+    @Setup
+    public void setup() {
+        layout = new DataLayout(X86_64_LAYOUT);
+        primitiveTypes = new Type[]{PrimitiveType.I1, PrimitiveType.I8, PrimitiveType.I16, PrimitiveType.I32, PrimitiveType.I64, PrimitiveType.FLOAT, PrimitiveType.DOUBLE, PrimitiveType.X86_FP80,
+                        new PointerType(PrimitiveType.I8), new VariableBitWidthType(128)};
+
+        StructureType node = new StructureType("struct.node", false, new Type[]{PrimitiveType.I32, new PointerType(PrimitiveType.I8), PrimitiveType.DOUBLE});
+        StructureType packed = new StructureType(true, new Type[]{PrimitiveType.I8, PrimitiveType.I64, PrimitiveType.I16});
+        aggregateTypes = new Type[]{node, packed, new ArrayType(PrimitiveType.I32, 16), new ArrayType(node, 8), new VectorType(PrimitiveType.FLOAT, 4),
+                        new StructureType(false, new Type[]{node, new ArrayType(packed, 4), PrimitiveType.X86_FP80})};
+    }
+
+    @Benchmark
+    public int primitiveSize() {
+        int sum = 0;
+        for (Type type : primitiveTypes) {
+            sum += layout.getSize(type);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int primitiveAlignment() {
+        int sum = 0;
+        for (Type type : primitiveTypes) {
+            sum += type.getAlignment(layout);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int aggregateSize() {
+        int sum = 0;
+        for (Type type : aggregateTypes) {
+            sum += type.getSize(layout);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.bench;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
+
+/**
+ * Converts between {@link LLVM80BitFloat} and Java primitives and byte arrays, as done for every
+ * load, store and cast of an {@code x86_fp80} value.
+ */
+@State(Scope.Thread)
+public class LLVM80BitFloatBenchmark {
+
+    private static final int VALUES = 1024;
+
+    private double[] doubles;
+    private long[] longs;
+    private LLVM80BitFloat[] floats;
+    private byte[][] bytes;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        doubles = new double[VALUES];
+        longs = new long[VALUES];
+        floats = new LLVM80BitFloat[VALUES];
+        bytes = new byte[VALUES][];
+        for (int i = 0; i < VALUES; i++) {
+            doubles[i] = (random.nextDouble() - 0.5) * Math.pow(2, random.nextInt(128) - 64);
+            longs[i] = random.nextLong() >> random.nextInt(Long.SIZE);
+            floats[i] = LLVM80BitFloat.fromDouble(doubles[i]);
+            bytes[i] = floats[i].getBytes();
+        }
+    }
+
+    @Benchmark
+    public void fromDouble(Blackhole blackhole) {
+        for (double value : doubles) {
+            blackhole.consume(LLVM80BitFloat.fromDouble(value));
+        }
+    }
+
+    @Benchmark
+    public double getDoubleValue() {
+        double sum = 0;
+        for (LLVM80BitFloat value : floats) {
+            sum += value.getDoubleValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void fromLong(Blackhole blackhole) {
+        for (long value : longs) {
+            blackhole.consume(LLVM80BitFloat.fromLong(value));
+        }
+    }
+
+    @Benchmark
+    public long getLongValue() {
+        long sum = 0;
+        for (LLVM80BitFloat value : floats) {
+            sum += value.getLongValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void fromBytes(Blackhole blackhole) {
+        for (byte[] value : bytes) {
+            blackhole.consume(LLVM80BitFloat.fromBytes(value));
+        }
+    }
+
+    @Benchmark
+    public void getBytes(Blackhole blackhole) {
+        for (LLVM80BitFloat value : floats) {
+            blackhole.consume(value.getBytes());
+        }
+    }
+}
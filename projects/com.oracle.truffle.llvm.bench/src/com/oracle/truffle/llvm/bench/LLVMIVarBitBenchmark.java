@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.bench;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
+
+/**
+ * Arithmetic on {@link LLVMIVarBit} values. 128-bit values take the two-long fast path, all other
+ * widths go through byte arrays and {@link BigInteger}.
+ */
+@State(Scope.Thread)
+public class LLVMIVarBitBenchmark {
+
+    private static final int VALUES = 1024;
+
+    @Param({"128", "256"}) public int bits;
+
+    private LLVMIVarBit[] left;
+    private LLVMIVarBit[] right;
+    private LLVMIVarBit[] shifts;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        left = new LLVMIVarBit[VALUES];
+        right = new LLVMIVarBit[VALUES];
+        shifts = new LLVMIVarBit[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            left[i] = LLVMIVarBit.fromBigInteger(bits, new BigInteger(bits, random));
+            // keep the divisors non-zero
+            right[i] = LLVMIVarBit.fromBigInteger(bits, new BigInteger(bits - 1 - random.nextInt(bits - 1), random).setBit(0));
+            shifts[i] = LLVMIVarBit.fromInt(bits, random.nextInt(bits));
+        }
+    }
+
+    @Benchmark
+    public void add(Blackhole blackhole) {
+        for (int i = 0; i < VALUES; i++) {
+            blackhole.consume(left[i].add(right[i]));
+        }
+    }
+
+    @Benchmark
+    public void mul(Blackhole blackhole) {
+        for (int i = 0; i < VALUES; i++) {
+            blackhole.consume(left[i].mul(right[i]));
+        }
+    }
+
+    @Benchmark
+    public void div(Blackhole blackhole) {
+        for (int i = 0; i < VALUES; i++) {
+            blackhole.consume(left[i].div(right[i]));
+        }
+    }
+
+    @Benchmark
+    public void unsignedDiv(Blackhole blackhole) {
+        for (int i = 0; i < VALUES; i++) {
+            blackhole.consume(left[i].unsignedDiv(right[i]));
+        }
+    }
+
+    @Benchmark
+    public int compare() {
+        int result = 0;
+        for (int i = 0; i < VALUES; i++) {
+            result += left[i].compare(right[i]);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public void leftShift(Blackhole blackhole) {
+        for (int i = 0; i < VALUES; i++) {
+            blackhole.consume(left[i].leftShift(shifts[i]));
+        }
+    }
+}
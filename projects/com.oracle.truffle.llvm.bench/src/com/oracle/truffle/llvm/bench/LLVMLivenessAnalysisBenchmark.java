@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.bench;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.graalvm.polyglot.io.ByteSequence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.llvm.parser.LLVMAllocaPromotion;
+import com.oracle.truffle.llvm.parser.LLVMLivenessAnalysis;
+import com.oracle.truffle.llvm.parser.LLVMParserRuntime;
+import com.oracle.truffle.llvm.parser.LLVMPhiManager;
+import com.oracle.truffle.llvm.parser.LLVMPhiManager.Phi;
+import com.oracle.truffle.llvm.parser.StackManager;
+import com.oracle.truffle.llvm.parser.model.ModelModule;
+import com.oracle.truffle.llvm.parser.model.blocks.InstructionBlock;
+import com.oracle.truffle.llvm.parser.model.functions.FunctionDefinition;
+import com.oracle.truffle.llvm.parser.scanner.LLVMScanner;
+import com.oracle.truffle.llvm.runtime.LLVMContext.ExternalLibrary;
+import com.oracle.truffle.llvm.runtime.LLVMLanguage;
+import com.oracle.truffle.llvm.runtime.LLVMScope;
+
+/**
+ * Computes the liveness of the frame slots of all functions in a bitcode file. The function bodies
+ * are parsed and the frames are set up in the same way as in {@code LazyToTruffleConverterImpl}
+ * before the measurement starts.
+ */
+public class LLVMLivenessAnalysisBenchmark extends SulongContextBenchmark {
+
+    @Param({"binarytrees", "compression", "crypto", "interpreter", "query"}) public String fixture;
+
+    private final List<FunctionDefinition> functions = new ArrayList<>();
+    private final List<FrameDescriptor> frames = new ArrayList<>();
+    private final List<Map<InstructionBlock, List<Phi>>> phis = new ArrayList<>();
+
+    @Setup
+    public void setup() throws IOException {
+        Path file = BenchmarkFixtures.getFixture(fixture);
+        Source source = Source.newBuilder(LLVMLanguage.NAME, context.getEnv().getTruffleFile(file.toString())).build();
+        ModelModule model = LLVMScanner.parse(ByteSequence.create(BenchmarkFixtures.readFixture(fixture)), source, context);
+        LLVMParserRuntime runtime = new LLVMParserRuntime(context, new ExternalLibrary(file, false), new LLVMScope());
+
+        for (FunctionDefinition function : model.getDefinedFunctions()) {
+            model.getFunctionParser(function).parse(model.getFunctionProcessor(), source, runtime);
+            FrameDescriptor frame = StackManager.createFrame(function);
+            LLVMAllocaPromotion.promoteAllocas(function, frame, false);
+            functions.add(function);
+            frames.add(frame);
+            phis.add(LLVMPhiManager.getPhis(function));
+        }
+    }
+
+    @Benchmark
+    public void computeLiveness(Blackhole blackhole) {
+        for (int i = 0; i < functions.size(); i++) {
+            blackhole.consume(LLVMLivenessAnalysis.computeLiveness(frames.get(i), context, phis.get(i), functions.get(i)));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.oracle.truffle.llvm.runtime.memory.LLVMNativeMemory;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
+
+/**
+ * Accesses a native buffer through {@link LLVMNativeMemory}, both with raw addresses and with
+ * {@link LLVMNativePointer}s.
+ */
+@State(Scope.Thread)
+public class LLVMNativeMemoryBenchmark {
+
+    private static final int SIZE = 1 << 16;
+
+    private LLVMNativeMemory memory;
+    private LLVMNativePointer buffer;
+    private long address;
+
+    @Setup
+    @SuppressWarnings("deprecation")
+    public void setup() {
+        memory = LLVMNativeMemory.getInstance();
+        buffer = memory.allocateMemory(SIZE);
+        address = buffer.asNative();
+        for (int i = 0; i < SIZE; i += Long.BYTES) {
+            memory.putI64(address + i, i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        memory.free(buffer);
+    }
+
+    @Benchmark
+    public int getI32() {
+        int sum = 0;
+        for (int i = 0; i < SIZE; i += Integer.BYTES) {
+            sum += memory.getI32(address + i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void putI32() {
+        for (int i = 0; i < SIZE; i += Integer.BYTES) {
+            memory.putI32(address + i, i);
+        }
+    }
+
+    @Benchmark
+    public long getI64() {
+        long sum = 0;
+        for (int i = 0; i < SIZE; i += Long.BYTES) {
+            sum += memory.getI64(address + i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void putI64() {
+        for (int i = 0; i < SIZE; i += Long.BYTES) {
+            memory.putI64(address + i, i);
+        }
+    }
+
+    @Benchmark
+    public double getDouble() {
+        double sum = 0;
+        for (int i = 0; i < SIZE; i += Double.BYTES) {
+            sum += memory.getDouble(address + i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void putDouble() {
+        for (int i = 0; i < SIZE; i += Double.BYTES) {
+            memory.putDouble(address + i, i);
+        }
+    }
+
+    @Benchmark
+    public long getI64Pointer() {
+        long sum = 0;
+        for (int i = 0; i < SIZE; i += Long.BYTES) {
+            sum += memory.getI64(buffer.increment(i));
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void putI64Pointer() {
+        for (int i = 0; i < SIZE; i += Long.BYTES) {
+            memory.putI64(buffer.increment(i), i);
+        }
+    }
+}
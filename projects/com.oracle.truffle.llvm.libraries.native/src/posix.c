@@ -46,6 +46,8 @@
 #include <sys/klog.h>
 #include <sys/syscall.h>
 #include <sys/sendfile.h>
+#include <sys/epoll.h>
+#include <sys/eventfd.h>
 #endif
 
 #ifdef __linux__
@@ -95,6 +97,26 @@ ssize_t __sulong_posix_writev(int fd, const struct iovec* iov, int iovcnt)
 	CALL(ssize_t, writev, fd, iov, iovcnt);
 }
 
+ssize_t __sulong_posix_pread(int fd, void* buf, size_t count, off_t offset)
+{
+	CALL(ssize_t, pread, fd, buf, count, offset);
+}
+
+ssize_t __sulong_posix_pwrite(int fd, const void* buf, size_t count, off_t offset)
+{
+	CALL(ssize_t, pwrite, fd, buf, count, offset);
+}
+
+ssize_t __sulong_posix_preadv(int fd, const struct iovec* iov, int iovcnt, off_t offset)
+{
+	CALL(ssize_t, preadv, fd, iov, iovcnt, offset);
+}
+
+ssize_t __sulong_posix_pwritev(int fd, const struct iovec* iov, int iovcnt, off_t offset)
+{
+	CALL(ssize_t, pwritev, fd, iov, iovcnt, offset);
+}
+
 int __sulong_posix_dup(int oldfd)
 {
 	CALL(int, dup, oldfd)
@@ -150,6 +172,21 @@ int __sulong_posix_munmap(void* addr, size_t length)
 	CALL(int, munmap, addr, length);
 }
 
+void* __sulong_posix_mremap(void* old_address, size_t old_size, size_t new_size, int flags, void* new_address)
+{
+	CALL(void*, mremap, old_address, old_size, new_size, flags, new_address);
+}
+
+int __sulong_posix_mprotect(void* addr, size_t length, int prot)
+{
+	CALL(int, mprotect, addr, length, prot);
+}
+
+int __sulong_posix_madvise(void* addr, size_t length, int advice)
+{
+	CALL(int, madvise, addr, length, advice);
+}
+
 int __sulong_posix_unlink(const char *path)
 {
 	CALL(int, unlink, path);
@@ -240,6 +277,11 @@ int __sulong_posix_accept(int socket, struct sockaddr* restrict address, socklen
 	CALL(int, accept, socket, address, address_len);
 }
 
+int __sulong_posix_accept4(int socket, struct sockaddr* restrict address, socklen_t* restrict address_len, int flags)
+{
+	CALL(int, accept4, socket, address, address_len, flags);
+}
+
 int __sulong_posix_getuid(void)
 {
 	CALL(int, getuid);
@@ -255,6 +297,16 @@ int __sulong_posix_ftruncate(int fildes, off_t length)
 	CALL(int, ftruncate, fildes, length);
 }
 
+int __sulong_posix_fallocate(int fd, int mode, off_t offset, off_t len)
+{
+	CALL(int, fallocate, fd, mode, offset, len);
+}
+
+int __sulong_posix_fdatasync(int fd)
+{
+	CALL(int, fdatasync, fd);
+}
+
 off_t __sulong_posix_lseek(int fildes, off_t offset, int whence)
 {
 	CALL(off_t, lseek, fildes, offset, whence);
@@ -330,6 +382,26 @@ int __sulong_posix_poll(struct pollfd* fds, nfds_t nfds, int timeout)
 	CALL(int, poll, fds, nfds, timeout);
 }
 
+int __sulong_posix_epoll_create1(int flags)
+{
+	CALL(int, epoll_create1, flags);
+}
+
+int __sulong_posix_epoll_ctl(int epfd, int op, int fd, struct epoll_event* event)
+{
+	CALL(int, epoll_ctl, epfd, op, fd, event);
+}
+
+int __sulong_posix_epoll_wait(int epfd, struct epoll_event* events, int maxevents, int timeout)
+{
+	CALL(int, epoll_wait, epfd, events, maxevents, timeout);
+}
+
+int __sulong_posix_eventfd(unsigned int initval, int flags)
+{
+	CALL(int, eventfd, initval, flags);
+}
+
 pid_t __sulong_posix_getpgid(pid_t pid)
 {
 	CALL(pid_t, getpgid, pid);
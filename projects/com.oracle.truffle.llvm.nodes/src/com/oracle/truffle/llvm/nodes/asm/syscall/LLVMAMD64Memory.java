@@ -29,8 +29,6 @@
  */
 package com.oracle.truffle.llvm.nodes.asm.syscall;
 
-import com.oracle.truffle.llvm.runtime.pointer.LLVMPointer;
-
 public class LLVMAMD64Memory {
     public static final int PROT_READ = 0x1;
     public static final int PROT_WRITE = 0x2;
@@ -47,7 +45,13 @@ public class LLVMAMD64Memory {
     public static final int MAP_ANONYMOUS = 0x20;
     public static final int MAP_UNINITIALIZED = 0x4000000;
 
-    public static long brk(@SuppressWarnings("unused") LLVMPointer ptr) {
-        return -LLVMAMD64Error.ENOSYS; // this will never be supported
-    }
+    public static final int MREMAP_MAYMOVE = 0x1;
+    public static final int MREMAP_FIXED = 0x2;
+
+    public static final int MADV_NORMAL = 0;
+    public static final int MADV_RANDOM = 1;
+    public static final int MADV_SEQUENTIAL = 2;
+    public static final int MADV_WILLNEED = 3;
+    public static final int MADV_DONTNEED = 4;
+    public static final int MADV_FREE = 8;
 }
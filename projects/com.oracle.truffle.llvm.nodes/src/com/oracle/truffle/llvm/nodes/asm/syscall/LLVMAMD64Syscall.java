@@ -40,15 +40,20 @@ public class LLVMAMD64Syscall {
     public static final int SYS_poll = 7;
     public static final int SYS_lseek = 8;
     public static final int SYS_mmap = 9;
+    public static final int SYS_mprotect = 10;
     public static final int SYS_munmap = 11;
     public static final int SYS_brk = 12;
     public static final int SYS_rt_sigaction = 13;
     public static final int SYS_rt_sigprocmask = 14;
     public static final int SYS_ioctl = 16;
+    public static final int SYS_pread64 = 17;
+    public static final int SYS_pwrite64 = 18;
     public static final int SYS_readv = 19;
     public static final int SYS_writev = 20;
     public static final int SYS_access = 21;
     public static final int SYS_pipe = 22;
+    public static final int SYS_mremap = 25;
+    public static final int SYS_madvise = 28;
     public static final int SYS_dup = 32;
     public static final int SYS_dup2 = 33;
     public static final int SYS_getpid = 39;
@@ -74,6 +79,7 @@ public class LLVMAMD64Syscall {
     public static final int SYS_exit = 60;
     public static final int SYS_uname = 63;
     public static final int SYS_fcntl = 72;
+    public static final int SYS_fdatasync = 75;
     public static final int SYS_ftruncate = 77;
     public static final int SYS_getcwd = 79;
     public static final int SYS_rename = 82;
@@ -104,8 +110,16 @@ public class LLVMAMD64Syscall {
     public static final int SYS_set_tid_address = 218;
     public static final int SYS_clock_gettime = 228;
     public static final int SYS_exit_group = 231;
+    public static final int SYS_epoll_wait = 232;
+    public static final int SYS_epoll_ctl = 233;
     public static final int SYS_renameat = 264;
     public static final int SYS_faccessat = 269;
     public static final int SYS_utimensat = 280;
+    public static final int SYS_fallocate = 285;
+    public static final int SYS_accept4 = 288;
+    public static final int SYS_eventfd2 = 290;
+    public static final int SYS_epoll_create1 = 291;
     public static final int SYS_pipe2 = 293;
+    public static final int SYS_preadv = 295;
+    public static final int SYS_pwritev = 296;
 }
@@ -29,12 +29,20 @@
  */
 package com.oracle.truffle.llvm.nodes.asm.syscall;
 
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.llvm.nodes.asm.syscall.posix.LLVMAMD64PosixCallNode;
+import com.oracle.truffle.llvm.nodes.asm.syscall.posix.LLVMAMD64PosixCallNodeGen;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
 import com.oracle.truffle.llvm.runtime.memory.LLVMSyscallOperationNode;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
-import com.oracle.truffle.llvm.runtime.pointer.LLVMPointer;
 
 public abstract class LLVMAMD64SyscallBrkNode extends LLVMSyscallOperationNode {
+    @Child private LLVMAMD64PosixCallNode madvise;
+
+    public LLVMAMD64SyscallBrkNode() {
+        madvise = LLVMAMD64PosixCallNodeGen.create("madvise", "(POINTER,UINT64,SINT32):SINT32");
+    }
 
     @Override
     public final String getName() {
@@ -42,12 +50,18 @@ public abstract class LLVMAMD64SyscallBrkNode extends LLVMSyscallOperationNode {
     }
 
     @Specialization
-    protected long doOp(LLVMPointer brk) {
-        return LLVMAMD64Memory.brk(brk);
+    protected long doOp(LLVMNativePointer brk,
+                    @Cached("getLLVMMemory()") LLVMMemory memory) {
+        return doOp(brk.asNative(), memory);
     }
 
     @Specialization
-    protected long doOp(long brk) {
-        return doOp(LLVMNativePointer.create(brk));
+    protected long doOp(long brk,
+                    @Cached("getLLVMMemory()") LLVMMemory memory) {
+        return getContextReference().get().getProgramBreak().brk(memory, brk, this::releasePages);
+    }
+
+    private boolean releasePages(long start, long length) {
+        return (int) madvise.execute(start, length, LLVMAMD64Memory.MADV_DONTNEED) == 0;
     }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.asm.syscall;
+
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.llvm.nodes.asm.syscall.posix.LLVMAMD64PosixCallNode;
+import com.oracle.truffle.llvm.nodes.asm.syscall.posix.LLVMAMD64PosixCallNodeGen;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemoryMappings;
+import com.oracle.truffle.llvm.runtime.memory.LLVMSyscallOperationNode;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
+
+public abstract class LLVMAMD64SyscallMadviseNode extends LLVMSyscallOperationNode {
+    @Child private LLVMAMD64PosixCallNode madvise;
+
+    public LLVMAMD64SyscallMadviseNode() {
+        madvise = LLVMAMD64PosixCallNodeGen.create("madvise", "(POINTER,UINT64,SINT32):SINT32");
+    }
+
+    @Override
+    public final String getName() {
+        return "madvise";
+    }
+
+    @Specialization
+    protected long doOp(LLVMNativePointer addr, long len, long advice) {
+        LLVMMemoryMappings mappings = getContextReference().get().getMemoryMappings();
+        if (!mappings.isMapped(addr.asNative(), len)) {
+            return -LLVMAMD64Error.ENOMEM;
+        }
+        int result = (int) madvise.execute(addr.asNative(), len, (int) advice);
+        if (result == 0 && (advice == LLVMAMD64Memory.MADV_DONTNEED || advice == LLVMAMD64Memory.MADV_FREE)) {
+            mappings.release(addr.asNative(), len);
+        }
+        return result;
+    }
+
+    @Specialization
+    protected long doOp(long addr, long len, long advice) {
+        return doOp(LLVMNativePointer.create(addr), len, advice);
+    }
+}
@@ -29,35 +29,41 @@
  */
 package com.oracle.truffle.llvm.nodes.asm.syscall;
 
-import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.profiles.ConditionProfile;
-import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.nodes.asm.syscall.posix.LLVMAMD64PosixCallNode;
+import com.oracle.truffle.llvm.nodes.asm.syscall.posix.LLVMAMD64PosixCallNodeGen;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemoryMappings;
 import com.oracle.truffle.llvm.runtime.memory.LLVMSyscallOperationNode;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
 
 public abstract class LLVMAMD64SyscallMmapNode extends LLVMSyscallOperationNode {
+    @Child private LLVMAMD64PosixCallNode mmap;
+
+    public LLVMAMD64SyscallMmapNode() {
+        mmap = LLVMAMD64PosixCallNodeGen.create("mmap", "(POINTER,UINT64,SINT32,SINT32,SINT32,SINT64):SINT64");
+    }
 
     @Override
     public final String getName() {
         return "mmap";
     }
 
-    private final ConditionProfile mapAnonymousProfile = ConditionProfile.createCountingProfile();
-
-    @SuppressWarnings("unused")
     @Specialization
-    protected long doOp(LLVMNativePointer addr, long len, long prot, long flags, long fildes, long off,
-                    @Cached("getLLVMMemory()") LLVMMemory memory) {
-        if (mapAnonymousProfile.profile((flags & LLVMAMD64Memory.MAP_ANONYMOUS) != 0)) {
-            LLVMNativePointer ptr = memory.allocateMemory(len);
-            return ptr.asNative();
+    protected long doOp(LLVMNativePointer addr, long len, long prot, long flags, long fildes, long off) {
+        LLVMMemoryMappings mappings = getContextReference().get().getMemoryMappings();
+        if ((flags & LLVMAMD64Memory.MAP_FIXED) != 0 && !mappings.isMapped(addr.asNative(), len)) {
+            // a fixed mapping must not replace memory that is owned by the VM
+            return -LLVMAMD64Error.EINVAL;
+        }
+        long result = (long) mmap.execute(addr.asNative(), len, (int) prot, (int) flags, (int) fildes, off);
+        if (result >= 0) {
+            mappings.map(result, len);
         }
-        return -LLVMAMD64Error.ENOMEM;
+        return result;
     }
 
     @Specialization
     protected long doOp(long addr, long len, long prot, long flags, long fildes, long off) {
-        return execute(LLVMNativePointer.create(addr), len, prot, flags, fildes, off);
+        return doOp(LLVMNativePointer.create(addr), len, prot, flags, fildes, off);
     }
 }
@@ -147,6 +147,15 @@ public class LLVMBasicBlockNode extends LLVMStatementNode {
         return successorBranchProbability;
     }
 
+    /**
+     * Checks whether the given successor was taken at least once. In compiled code, the result is a
+     * constant.
+     */
+    public boolean wasSuccessorTaken(int successorIndex) {
+        assert termInstruction.needsBranchProfiling();
+        return successorExecutionCount[successorIndex] != 0;
+    }
+
     public void increaseBranchProbability(int successorIndex) {
         CompilerAsserts.neverPartOfCompilation();
         if (termInstruction.needsBranchProfiling()) {
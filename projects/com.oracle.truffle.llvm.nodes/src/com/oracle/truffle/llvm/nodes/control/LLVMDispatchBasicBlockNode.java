@@ -29,9 +29,16 @@
  */
 package com.oracle.truffle.llvm.nodes.control;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.instrumentation.StandardTags;
@@ -39,8 +46,11 @@ import com.oracle.truffle.api.instrumentation.Tag;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.nodes.ExplodeLoop.LoopExplosionKind;
 import com.oracle.truffle.api.nodes.LoopNode;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
 import com.oracle.truffle.llvm.nodes.base.LLVMBasicBlockNode;
 import com.oracle.truffle.llvm.nodes.base.LLVMFrameNullerUtil;
+import com.oracle.truffle.llvm.nodes.func.LLVMFunctionStartNode;
 import com.oracle.truffle.llvm.nodes.func.LLVMInvokeNode;
 import com.oracle.truffle.llvm.nodes.func.LLVMResumeNode;
 import com.oracle.truffle.llvm.nodes.others.LLVMUnreachableNode;
@@ -49,7 +59,9 @@ import com.oracle.truffle.llvm.runtime.memory.LLVMUniquesRegionAllocNode;
 import com.oracle.truffle.llvm.runtime.debug.scope.LLVMSourceLocation;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMControlFlowNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMStatementNode;
+import com.oracle.truffle.llvm.runtime.profiling.LLVMSamplingProfiler;
 
 public final class LLVMDispatchBasicBlockNode extends LLVMExpressionNode {
 
@@ -61,9 +73,12 @@ public final class LLVMDispatchBasicBlockNode extends LLVMExpressionNode {
     @CompilationFinal(dimensions = 2) private final FrameSlot[][] afterBlockNuller;
     @Children private final LLVMStatementNode[] copyArgumentsToFrame;
 
+    private final LLVMSamplingProfiler samplingProfiler;
+    @CompilationFinal(dimensions = 1) private final boolean[] loopHeaders;
+
     public LLVMDispatchBasicBlockNode(FrameSlot exceptionValueSlot, LLVMBasicBlockNode[] bodyNodes, LLVMUniquesRegionAllocNode uniquesRegionAllocNode, FrameSlot[][] beforeBlockNuller,
                     FrameSlot[][] afterBlockNuller, LLVMSourceLocation source,
-                    LLVMStatementNode[] copyArgumentsToFrame) {
+                    LLVMStatementNode[] copyArgumentsToFrame, LLVMSamplingProfiler samplingProfiler) {
         this.exceptionValueSlot = exceptionValueSlot;
         this.bodyNodes = bodyNodes;
         this.uniquesRegionAllocNode = uniquesRegionAllocNode;
@@ -71,6 +86,71 @@ public final class LLVMDispatchBasicBlockNode extends LLVMExpressionNode {
         this.afterBlockNuller = afterBlockNuller;
         this.source = source;
         this.copyArgumentsToFrame = copyArgumentsToFrame;
+        this.samplingProfiler = samplingProfiler;
+        this.loopHeaders = samplingProfiler == null ? null : findLoopHeaders(bodyNodes);
+    }
+
+    /**
+     * Marks every block that is the target of a back edge of a depth-first search from the entry
+     * block, i.e., of an edge to a block that is still on the search stack. Every cycle in the
+     * control flow graph contains such an edge, regardless of the order of the blocks. Together
+     * with the function entry, these are the sampling polls.
+     */
+    private static boolean[] findLoopHeaders(LLVMBasicBlockNode[] bodyNodes) {
+        boolean[] loopHeaders = new boolean[bodyNodes.length];
+        BitSet visited = new BitSet(bodyNodes.length);
+        BitSet onStack = new BitSet(bodyNodes.length);
+        ArrayDeque<int[]> successors = new ArrayDeque<>();
+        ArrayDeque<Integer> stack = new ArrayDeque<>();
+        ArrayDeque<Integer> nextSuccessor = new ArrayDeque<>();
+
+        visited.set(0);
+        onStack.set(0);
+        stack.push(0);
+        successors.push(getSuccessors(bodyNodes[0].termInstruction));
+        nextSuccessor.push(0);
+        while (!stack.isEmpty()) {
+            int[] blockSuccessors = successors.peek();
+            int successorIndex = nextSuccessor.pop();
+            if (successorIndex < blockSuccessors.length) {
+                nextSuccessor.push(successorIndex + 1);
+                int successor = blockSuccessors[successorIndex];
+                if (successor < 0) {
+                    continue;
+                }
+                if (onStack.get(successor)) {
+                    loopHeaders[successor] = true;
+                } else if (!visited.get(successor)) {
+                    visited.set(successor);
+                    onStack.set(successor);
+                    stack.push(successor);
+                    successors.push(getSuccessors(bodyNodes[successor].termInstruction));
+                    nextSuccessor.push(0);
+                }
+            } else {
+                onStack.clear(stack.pop());
+                successors.pop();
+            }
+        }
+        return loopHeaders;
+    }
+
+    private static int[] getSuccessors(LLVMControlFlowNode controlFlowNode) {
+        if (controlFlowNode instanceof LLVMConditionalBranchNode) {
+            LLVMConditionalBranchNode conditionalBranchNode = (LLVMConditionalBranchNode) controlFlowNode;
+            return new int[]{conditionalBranchNode.getTrueSuccessor(), conditionalBranchNode.getFalseSuccessor()};
+        } else if (controlFlowNode instanceof LLVMSwitchNode) {
+            return ((LLVMSwitchNode) controlFlowNode).getSuccessors();
+        } else if (controlFlowNode instanceof LLVMIndirectBranchNode) {
+            return ((LLVMIndirectBranchNode) controlFlowNode).getSuccessors();
+        } else if (controlFlowNode instanceof LLVMBrUnconditionalNode) {
+            return new int[]{((LLVMBrUnconditionalNode) controlFlowNode).getSuccessor()};
+        } else if (controlFlowNode instanceof LLVMInvokeNode) {
+            LLVMInvokeNode invokeNode = (LLVMInvokeNode) controlFlowNode;
+            return new int[]{invokeNode.getNormalSuccessor(), invokeNode.getUnwindSuccessor()};
+        } else {
+            return new int[0];
+        }
     }
 
     @ExplodeLoop
@@ -85,6 +165,9 @@ public final class LLVMDispatchBasicBlockNode extends LLVMExpressionNode {
     public Object executeGeneric(VirtualFrame frame) {
         copyArgumentsToFrame(frame);
         uniquesRegionAllocNode.execute(frame);
+        if (samplingProfiler != null) {
+            pollSample(bodyNodes[0]);
+        }
 
         Object returnValue = null;
 
@@ -94,6 +177,9 @@ public final class LLVMDispatchBasicBlockNode extends LLVMExpressionNode {
         outer: while (basicBlockIndex != LLVMBasicBlockNode.RETURN_FROM_FUNCTION) {
             CompilerAsserts.partialEvaluationConstant(basicBlockIndex);
             LLVMBasicBlockNode bb = bodyNodes[basicBlockIndex];
+            if (samplingProfiler != null && loopHeaders[basicBlockIndex]) {
+                pollSample(bb);
+            }
 
             // execute all statements
             bb.execute(frame);
@@ -164,34 +250,30 @@ public final class LLVMDispatchBasicBlockNode extends LLVMExpressionNode {
                 nullDeadSlots(frame, basicBlockIndex, beforeBlockNuller);
                 continue outer;
             } else if (controlFlowNode instanceof LLVMIndirectBranchNode) {
-                // TODO (chaeubl): we need a different approach here - this is awfully
-                // inefficient (see GR-3664)
                 LLVMIndirectBranchNode indirectBranchNode = (LLVMIndirectBranchNode) controlFlowNode;
                 int[] successors = indirectBranchNode.getSuccessors();
                 int successorBasicBlockIndex = indirectBranchNode.executeCondition(frame);
-                for (int i = 0; i < successors.length - 1; i++) {
-                    if (CompilerDirectives.injectBranchProbability(bb.getBranchProbability(i), successors[i] == successorBasicBlockIndex)) {
-                        if (CompilerDirectives.inInterpreter()) {
-                            bb.increaseBranchProbability(i);
-                            if (successors[i] <= basicBlockIndex) {
-                                backEdgeCounter++;
-                            }
+                if (CompilerDirectives.inCompiledCode()) {
+                    // only the successors that were taken in the interpreter are compiled, which
+                    // keeps threaded code (computed goto) with many labels per branch small
+                    for (int i = 0; i < successors.length; i++) {
+                        if (bb.wasSuccessorTaken(i) && CompilerDirectives.injectBranchProbability(bb.getBranchProbability(i), successors[i] == successorBasicBlockIndex)) {
+                            executePhis(frame, indirectBranchNode, i);
+                            nullDeadSlots(frame, basicBlockIndex, afterBlockNuller);
+                            basicBlockIndex = successors[i];
+                            nullDeadSlots(frame, basicBlockIndex, beforeBlockNuller);
+                            continue outer;
                         }
-                        executePhis(frame, indirectBranchNode, i);
-                        nullDeadSlots(frame, basicBlockIndex, afterBlockNuller);
-                        basicBlockIndex = successors[i];
-                        nullDeadSlots(frame, basicBlockIndex, beforeBlockNuller);
-                        continue outer;
                     }
+                    // a new target, the profile below makes it part of the next compilation
+                    CompilerDirectives.transferToInterpreterAndInvalidate();
                 }
 
-                int i = successors.length - 1;
-                assert successorBasicBlockIndex == successors[i];
-                if (CompilerDirectives.inInterpreter()) {
-                    bb.increaseBranchProbability(i);
-                    if (successors[i] <= basicBlockIndex) {
-                        backEdgeCounter++;
-                    }
+                // in the interpreter, the successor is looked up instead of being searched for
+                int i = indirectBranchNode.getSuccessorIndex(successorBasicBlockIndex);
+                bb.increaseBranchProbability(i);
+                if (successors[i] <= basicBlockIndex) {
+                    backEdgeCounter++;
                 }
                 executePhis(frame, indirectBranchNode, i);
                 nullDeadSlots(frame, basicBlockIndex, afterBlockNuller);
@@ -268,6 +350,44 @@ public final class LLVMDispatchBasicBlockNode extends LLVMExpressionNode {
         return returnValue;
     }
 
+    private void pollSample(LLVMBasicBlockNode bb) {
+        if (CompilerDirectives.injectBranchProbability(CompilerDirectives.SLOWPATH_PROBABILITY, samplingProfiler.isSampleRequested())) {
+            takeSample(bb);
+        }
+    }
+
+    @TruffleBoundary
+    private void takeSample(LLVMBasicBlockNode bb) {
+        List<String> frames = new ArrayList<>();
+        LLVMSourceLocation location = bb.termInstruction.getSourceLocation();
+        frames.add(describeFrame(getRootNode(), location != null ? location : source));
+        Truffle.getRuntime().iterateFrames(frameInstance -> {
+            Node callNode = frameInstance.getCallNode();
+            if (callNode != null) {
+                frames.add(describeFrame(callNode.getRootNode(), findSourceLocation(callNode)));
+            }
+            return null;
+        });
+        samplingProfiler.addSample(frames);
+    }
+
+    private static LLVMSourceLocation findSourceLocation(Node node) {
+        for (Node current = node; current != null; current = current.getParent()) {
+            if (current instanceof LLVMNode && ((LLVMNode) current).getSourceLocation() != null) {
+                return ((LLVMNode) current).getSourceLocation();
+            }
+        }
+        return null;
+    }
+
+    private static String describeFrame(RootNode rootNode, LLVMSourceLocation location) {
+        String name = rootNode == null ? "<unknown>" : rootNode.getName();
+        if (rootNode instanceof LLVMFunctionStartNode && location != null) {
+            return name + " (" + location.describeLocation() + ")";
+        }
+        return name;
+    }
+
     @ExplodeLoop
     private static void executePhis(VirtualFrame frame, LLVMControlFlowNode controlFlowNode, int successorIndex) {
         LLVMStatementNode phi = controlFlowNode.getPhiNode(successorIndex);
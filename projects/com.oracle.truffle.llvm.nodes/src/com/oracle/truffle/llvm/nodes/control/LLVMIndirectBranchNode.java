@@ -29,6 +29,8 @@
  */
 package com.oracle.truffle.llvm.nodes.control;
 
+import java.util.Arrays;
+
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.frame.VirtualFrame;
@@ -71,20 +73,44 @@ public abstract class LLVMIndirectBranchNode extends LLVMControlFlowNode impleme
 
     public abstract int[] getSuccessors();
 
+    /**
+     * Maps the basic block index that is returned by {@link #executeCondition} to the index of the
+     * successor, without comparing it against all successors.
+     */
+    public abstract int getSuccessorIndex(int basicBlockIndex);
+
     private static final class LLVMIndirectBranchNodeImpl extends LLVMIndirectBranchNode {
 
         @Child private LLVMBranchAddressNode branchAddress;
         @Children private final LLVMStatementNode[] phiWriteNodes;
         @CompilationFinal(dimensions = 1) private final int[] successors;
+        private final int[] successorIndexOfBlock;
 
         private LLVMIndirectBranchNodeImpl(LLVMBranchAddressNode branchAddress, int[] indices, LLVMStatementNode[] phiWriteNodes, LLVMSourceLocation sourceSection) {
             super(sourceSection);
             assert indices.length > 1;
             this.successors = indices;
+            this.successorIndexOfBlock = createSuccessorIndexTable(indices);
             this.branchAddress = branchAddress;
             this.phiWriteNodes = phiWriteNodes;
         }
 
+        private static int[] createSuccessorIndexTable(int[] successors) {
+            int maxBlockIndex = 0;
+            for (int successor : successors) {
+                maxBlockIndex = Math.max(maxBlockIndex, successor);
+            }
+            int[] table = new int[maxBlockIndex + 1];
+            Arrays.fill(table, -1);
+            for (int i = 0; i < successors.length; i++) {
+                // a block may be listed more than once, the first entry wins
+                if (table[successors[i]] == -1) {
+                    table[successors[i]] = i;
+                }
+            }
+            return table;
+        }
+
         @Override
         public int getSuccessorCount() {
             return successors.length;
@@ -104,6 +130,14 @@ public abstract class LLVMIndirectBranchNode extends LLVMControlFlowNode impleme
         public int[] getSuccessors() {
             return successors;
         }
+
+        @Override
+        public int getSuccessorIndex(int basicBlockIndex) {
+            int index = basicBlockIndex >= 0 && basicBlockIndex < successorIndexOfBlock.length ? successorIndexOfBlock[basicBlockIndex] : -1;
+            // branching to a block that is not listed is undefined behavior, we take the last one
+            assert index >= 0 : "invalid target of indirect branch: " + basicBlockIndex;
+            return index >= 0 ? index : successors.length - 1;
+        }
     }
 
     public abstract static class LLVMBranchAddressNode extends LLVMNode {
@@ -44,6 +44,12 @@ import com.oracle.truffle.llvm.runtime.types.FunctionType;
 
 public final class LLVMCallNode extends LLVMExpressionNode {
 
+    /*
+     * The arguments of a call are passed as the Object[] of the Truffle call, with the caller's
+     * StackPointer in the first slot and the user arguments after it. Primitive arguments are boxed
+     * unless the callee is inlined. Passing them in frame slots instead would need the caller's
+     * frame in the callee, i.e., a MaterializedFrame, which allocates more than the boxes it saves.
+     */
     public static final int USER_ARGUMENT_OFFSET = 1;
 
     @Child private LLVMExpressionNode functionNode;
@@ -69,7 +69,23 @@ public abstract class LLVMLookupDispatchNode extends LLVMNode {
         this.type = type;
     }
 
-    public abstract Object executeDispatch(Object function, Object[] arguments);
+    /**
+     * Calls {@code function} with the caller's {@link StackPointer} and afterwards pops everything
+     * the callee allocated on the stack, also if it is left with an exception. This is the only
+     * place where the stack is restored after a call, the dispatch nodes below just call.
+     */
+    public final Object executeDispatch(Object function, Object[] arguments) {
+        StackPointer stack = (StackPointer) arguments[0];
+        long savedStackPointer = stack.save();
+        long savedUniquesRegionPointer = stack.getUniquesRegionPointer();
+        try {
+            return executeLookup(function, arguments);
+        } finally {
+            stack.restore(savedStackPointer, savedUniquesRegionPointer);
+        }
+    }
+
+    protected abstract Object executeLookup(Object function, Object[] arguments);
 
     @Specialization(limit = "INLINE_CACHE_SIZE", guards = {"isSameObject(pointer.getObject(), cachedDescriptor)", "cachedDescriptor != null", "pointer.getOffset() == 0"})
     protected static Object doDirectCached(@SuppressWarnings("unused") LLVMManagedPointer pointer, Object[] arguments,
@@ -168,10 +184,7 @@ public abstract class LLVMLookupDispatchNode extends LLVMNode {
                         @Cached("createToLLVMNode()") ForeignToLLVM toLLVMNode) {
             try {
                 Object[] args = getForeignArguments(dataEscapeNodes, arguments, functionType);
-                Object ret;
-                try (StackPointer save = ((StackPointer) arguments[0]).newFrame()) {
-                    ret = ForeignAccess.sendExecute(crossLanguageCallNode, function, args);
-                }
+                Object ret = ForeignAccess.sendExecute(crossLanguageCallNode, function, args);
                 if (!(type.getReturnType() instanceof VoidType) && functionType != null) {
                     LLVMInteropType retType = functionType.getReturnType();
                     if (retType instanceof LLVMInteropType.Value) {
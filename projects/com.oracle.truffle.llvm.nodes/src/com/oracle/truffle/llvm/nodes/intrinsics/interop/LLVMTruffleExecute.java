@@ -31,7 +31,6 @@ package com.oracle.truffle.llvm.nodes.intrinsics.interop;
 
 import com.oracle.truffle.llvm.runtime.interop.LLVMAsForeignNode;
 import com.oracle.truffle.api.CompilerDirectives;
-import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.TruffleLanguage.ContextReference;
 import com.oracle.truffle.api.dsl.Cached;
@@ -55,7 +54,6 @@ import com.oracle.truffle.llvm.runtime.interop.LLVMDataEscapeNode;
 import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM;
 import com.oracle.truffle.llvm.runtime.memory.LLVMStack;
 import com.oracle.truffle.llvm.runtime.memory.LLVMStack.StackPointer;
-import com.oracle.truffle.llvm.runtime.memory.LLVMThreadingStack;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMManagedPointer;
 
@@ -78,16 +76,6 @@ public abstract class LLVMTruffleExecute extends LLVMIntrinsic {
         this.foreignExecute = Message.EXECUTE.createNode();
     }
 
-    @CompilationFinal private LLVMThreadingStack threadingStack = null;
-
-    private LLVMThreadingStack getThreadingStack(LLVMContext context) {
-        if (threadingStack == null) {
-            CompilerDirectives.transferToInterpreterAndInvalidate();
-            threadingStack = context.getThreadingStack();
-        }
-        return threadingStack;
-    }
-
     @ExplodeLoop
     private Object doExecute(VirtualFrame frame, TruffleObject value, LLVMContext context, LLVMGetStackNode getStack) {
         Object[] evaluatedArgs = new Object[args.length];
@@ -95,7 +83,7 @@ public abstract class LLVMTruffleExecute extends LLVMIntrinsic {
             evaluatedArgs[i] = prepareValuesForEscape[i].executeWithTarget(args[i].executeGeneric(frame));
         }
         try {
-            LLVMStack stack = getStack.executeWithTarget(getThreadingStack(context), Thread.currentThread());
+            LLVMStack stack = getStack.executeWithTarget(context.getThreadingStack(), Thread.currentThread());
             Object rawValue;
             try (StackPointer save = stack.newFrame()) {
                 rawValue = ForeignAccess.sendExecute(foreignExecute, value, evaluatedArgs);
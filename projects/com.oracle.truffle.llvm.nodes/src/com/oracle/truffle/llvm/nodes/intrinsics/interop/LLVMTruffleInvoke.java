@@ -31,7 +31,6 @@ package com.oracle.truffle.llvm.nodes.intrinsics.interop;
 
 import com.oracle.truffle.llvm.runtime.interop.LLVMAsForeignNode;
 import com.oracle.truffle.api.CompilerDirectives;
-import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.TruffleLanguage.ContextReference;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Fallback;
@@ -55,7 +54,6 @@ import com.oracle.truffle.llvm.runtime.interop.LLVMDataEscapeNode;
 import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM;
 import com.oracle.truffle.llvm.runtime.memory.LLVMStack;
 import com.oracle.truffle.llvm.runtime.memory.LLVMStack.StackPointer;
-import com.oracle.truffle.llvm.runtime.memory.LLVMThreadingStack;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMManagedPointer;
 
@@ -77,16 +75,6 @@ public abstract class LLVMTruffleInvoke extends LLVMIntrinsic {
         this.foreignInvoke = Message.INVOKE.createNode();
     }
 
-    @CompilationFinal private LLVMThreadingStack threadingStack = null;
-
-    private LLVMThreadingStack getThreadingStack(LLVMContext context) {
-        if (threadingStack == null) {
-            CompilerDirectives.transferToInterpreterAndInvalidate();
-            threadingStack = context.getThreadingStack();
-        }
-        return threadingStack;
-    }
-
     @ExplodeLoop
     private Object doInvoke(VirtualFrame frame, TruffleObject value, String id, ContextReference<LLVMContext> contextReference,
                     LLVMGetStackNode getStack) {
@@ -96,7 +84,7 @@ public abstract class LLVMTruffleInvoke extends LLVMIntrinsic {
         }
         try {
             LLVMContext context = contextReference.get();
-            LLVMStack stack = getStack.executeWithTarget(getThreadingStack(context), Thread.currentThread());
+            LLVMStack stack = getStack.executeWithTarget(context.getThreadingStack(), Thread.currentThread());
             Object rawValue;
             try (StackPointer save = stack.newFrame()) {
                 rawValue = ForeignAccess.sendInvoke(foreignInvoke, value, id, evaluatedArgs);
@@ -117,6 +117,14 @@ public abstract class LLVMTruffleManagedMalloc extends LLVMIntrinsic {
             return contents.length;
         }
 
+        /**
+         * Copies {@code count} entries to another managed allocation without converting them;
+         * overlapping ranges are handled like {@code memmove}.
+         */
+        public void copyTo(int sourceIndex, ManagedMallocObject target, int targetIndex, int count) {
+            System.arraycopy(contents, sourceIndex, target.contents, targetIndex, count);
+        }
+
         @Override
         public ForeignAccess getForeignAccess() {
             return ManagedMallocForeignAccessForeign.ACCESS;
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.intrinsics.llvm;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.llvm.runtime.memory.LLVMManagedHeapObject;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.memory.UnsafeArrayAccess;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMToNativeNode;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMManagedPointer;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMPointer;
+
+/**
+ * Replacements for malloc, calloc, realloc and free that are used by the managed configuration.
+ * Allocations are backed by {@link LLVMManagedHeapObject}s, so that they can be reclaimed by the
+ * GC; free only releases the native copy of an allocation that has escaped, and marks the allocation
+ * as freed so that later accesses and double frees raise an error. Very large allocations and
+ * pointers that come from native code are still handled in native memory.
+ */
+public abstract class LLVMManagedMemoryIntrinsic extends LLVMExpressionNode {
+
+    static final long MAX_MANAGED_ALLOCATION_SIZE = 1L << 30;
+
+    static boolean isManagedSize(long size) {
+        return size >= 0 && size <= MAX_MANAGED_ALLOCATION_SIZE;
+    }
+
+    static boolean isManagedHeapObject(LLVMManagedPointer pointer) {
+        return pointer.getObject() instanceof LLVMManagedHeapObject;
+    }
+
+    protected static LLVMToNativeNode createToNativeWithTarget() {
+        return LLVMToNativeNode.createToNativeWithTarget();
+    }
+
+    @NodeChildren({@NodeChild(type = LLVMExpressionNode.class)})
+    public abstract static class LLVMManagedMalloc extends LLVMManagedMemoryIntrinsic {
+
+        @Specialization
+        protected LLVMPointer doVoid(int size,
+                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+            return doVoid((long) size, memory);
+        }
+
+        @Specialization
+        protected LLVMPointer doVoid(long size,
+                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+            if (isManagedSize(size)) {
+                return LLVMManagedPointer.create(new LLVMManagedHeapObject(size));
+            }
+            try {
+                return memory.allocateMemory(size);
+            } catch (OutOfMemoryError e) {
+                CompilerDirectives.transferToInterpreter();
+                return LLVMNativePointer.createNull();
+            }
+        }
+    }
+
+    @NodeChildren({@NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class)})
+    public abstract static class LLVMManagedCalloc extends LLVMManagedMemoryIntrinsic {
+
+        @Specialization
+        protected LLVMPointer doVoid(int n, int size,
+                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+            return doVoid((long) n, (long) size, memory);
+        }
+
+        @Specialization
+        protected LLVMPointer doVoid(long n, long size,
+                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+            try {
+                long length = Math.multiplyExact(n, size);
+                if (isManagedSize(length)) {
+                    // managed allocations are zero-initialized
+                    return LLVMManagedPointer.create(new LLVMManagedHeapObject(length));
+                }
+                LLVMNativePointer address = memory.allocateMemory(length);
+                memory.memset(address, length, (byte) 0);
+                return address;
+            } catch (OutOfMemoryError | ArithmeticException e) {
+                CompilerDirectives.transferToInterpreter();
+                return LLVMNativePointer.createNull();
+            }
+        }
+    }
+
+    @NodeChildren({@NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class)})
+    public abstract static class LLVMManagedRealloc extends LLVMManagedMemoryIntrinsic {
+
+        @Specialization(guards = "isManagedHeapObject(addr)")
+        protected LLVMPointer doManaged(LLVMManagedPointer addr, int size,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess,
+                        @Cached("getLLVMMemory()") LLVMMemory memory,
+                        @Cached("createToNativeWithTarget()") LLVMToNativeNode toNative) {
+            return doManaged(addr, (long) size, arrayAccess, memory, toNative);
+        }
+
+        @Specialization(guards = "isManagedHeapObject(addr)")
+        @SuppressWarnings("deprecation")
+        protected LLVMPointer doManaged(LLVMManagedPointer addr, long size,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess,
+                        @Cached("getLLVMMemory()") LLVMMemory memory,
+                        @Cached("createToNativeWithTarget()") LLVMToNativeNode toNative) {
+            assert addr.getOffset() == 0 : "realloc of an interior pointer";
+            LLVMManagedHeapObject object = (LLVMManagedHeapObject) addr.getObject();
+            long length = Math.min(object.getSize(), size);
+            if (isManagedSize(size)) {
+                LLVMManagedHeapObject newObject = new LLVMManagedHeapObject(size);
+                // the new object is not shared yet, so the managed copy cannot fail
+                if (!object.canCopyManaged(0, newObject, 0, length) || !object.copyTo(arrayAccess, 0, newObject, 0, length)) {
+                    long source = toNative.executeWithTarget(addr).asNative();
+                    newObject.copyFromNative(arrayAccess, source, 0, length);
+                }
+                object.free(memory);
+                return LLVMManagedPointer.create(newObject);
+            }
+            long source = toNative.executeWithTarget(addr).asNative();
+            try {
+                LLVMNativePointer result = memory.allocateMemory(size);
+                memory.copyMemory(source, result.asNative(), length);
+                object.free(memory);
+                return result;
+            } catch (OutOfMemoryError e) {
+                CompilerDirectives.transferToInterpreter();
+                return LLVMNativePointer.createNull();
+            }
+        }
+
+        @Specialization(guards = "addr.isNull()")
+        protected LLVMPointer doNull(@SuppressWarnings("unused") LLVMNativePointer addr, long size,
+                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+            if (isManagedSize(size)) {
+                return LLVMManagedPointer.create(new LLVMManagedHeapObject(size));
+            }
+            return memory.allocateMemory(size);
+        }
+
+        @Specialization(guards = "!addr.isNull()")
+        @SuppressWarnings("deprecation")
+        protected LLVMPointer doNative(LLVMNativePointer addr, long size,
+                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+            try {
+                return memory.reallocateMemory(addr, size);
+            } catch (OutOfMemoryError e) {
+                CompilerDirectives.transferToInterpreter();
+                return LLVMNativePointer.createNull();
+            }
+        }
+
+        @Specialization
+        protected LLVMPointer doNative(LLVMNativePointer addr, int size,
+                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+            if (addr.isNull()) {
+                return doNull(addr, size, memory);
+            }
+            return doNative(addr, (long) size, memory);
+        }
+    }
+
+    @NodeChildren({@NodeChild(type = LLVMExpressionNode.class)})
+    public abstract static class LLVMManagedFree extends LLVMManagedMemoryIntrinsic {
+
+        @Specialization(guards = "isManagedHeapObject(address)")
+        protected Object doManaged(LLVMManagedPointer address,
+                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+            if (address.getOffset() != 0) {
+                CompilerDirectives.transferToInterpreter();
+                throw new IllegalAccessError("Cannot free an interior pointer of a managed allocation.");
+            }
+            ((LLVMManagedHeapObject) address.getObject()).free(memory);
+            return null;
+        }
+
+        @Specialization
+        protected Object doNative(LLVMNativePointer address,
+                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+            memory.free(address);
+            return null;
+        }
+    }
+}
@@ -35,7 +35,6 @@ import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.llvm.runtime.LLVMVirtualAllocationAddress;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemMoveNode;
-import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
 import com.oracle.truffle.llvm.runtime.memory.UnsafeArrayAccess;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
@@ -62,16 +61,14 @@ public abstract class LLVMMemCopy extends LLVMBuiltin {
 
     @Specialization
     protected Object doVoid(LLVMVirtualAllocationAddress target, LLVMNativePointer source, int length, int align, boolean isVolatile,
-                    @Cached("getLLVMMemory()") LLVMMemory memory,
                     @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess) {
-        return doVoid(target, source, (long) length, align, isVolatile, memory, arrayAccess);
+        return doVoid(target, source, (long) length, align, isVolatile, arrayAccess);
     }
 
     @Specialization
     protected Object doVoid(LLVMNativePointer target, LLVMVirtualAllocationAddress source, int length, int align, boolean isVolatile,
-                    @Cached("getLLVMMemory()") LLVMMemory memory,
                     @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess) {
-        return doVoid(target, source, (long) length, align, isVolatile, memory, arrayAccess);
+        return doVoid(target, source, (long) length, align, isVolatile, arrayAccess);
     }
 
     @Specialization
@@ -90,18 +87,16 @@ public abstract class LLVMMemCopy extends LLVMBuiltin {
     @SuppressWarnings("unused")
     @Specialization
     protected Object doVoid(LLVMVirtualAllocationAddress target, LLVMNativePointer source, long length, int align, boolean isVolatile,
-                    @Cached("getLLVMMemory()") LLVMMemory memory,
                     @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess) {
-        copy(arrayAccess, memory, target, source.asNative(), length);
+        copy(arrayAccess, target, source.asNative(), length);
         return null;
     }
 
     @SuppressWarnings("unused")
     @Specialization
     protected Object doVoid(LLVMNativePointer target, LLVMVirtualAllocationAddress source, long length, int align, boolean isVolatile,
-                    @Cached("getLLVMMemory()") LLVMMemory memory,
                     @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess) {
-        copy(arrayAccess, memory, target.asNative(), source, length);
+        copy(arrayAccess, target.asNative(), source, length);
         return null;
     }
 
@@ -112,36 +107,15 @@ public abstract class LLVMMemCopy extends LLVMBuiltin {
         return null;
     }
 
-    private static void copy(UnsafeArrayAccess arrayAccess, LLVMMemory memory, LLVMVirtualAllocationAddress target, long source, long length) {
-        long sourcePointer = source;
-        LLVMVirtualAllocationAddress targetAddress = target;
-        for (long i = 0; i < length; i++) {
-            byte value = memory.getI8(sourcePointer);
-            targetAddress.writeI8(arrayAccess, value);
-            targetAddress = targetAddress.increment(1);
-            sourcePointer++;
-        }
+    static void copy(UnsafeArrayAccess arrayAccess, LLVMVirtualAllocationAddress target, long source, long length) {
+        arrayAccess.copyFromNative(source, target.getObject(), target.getOffset(), length);
     }
 
-    private static void copy(UnsafeArrayAccess arrayAccess, LLVMMemory memory, long target, LLVMVirtualAllocationAddress source, long length) {
-        LLVMVirtualAllocationAddress sourcePointer = source;
-        long targetAddress = target;
-        for (long i = 0; i < length; i++) {
-            byte value = sourcePointer.getI8(arrayAccess);
-            sourcePointer = sourcePointer.increment(1);
-            memory.putI8(targetAddress, value);
-            targetAddress++;
-        }
+    static void copy(UnsafeArrayAccess arrayAccess, long target, LLVMVirtualAllocationAddress source, long length) {
+        arrayAccess.copyToNative(source.getObject(), source.getOffset(), target, length);
     }
 
-    private static void copy(UnsafeArrayAccess memory, LLVMVirtualAllocationAddress target, LLVMVirtualAllocationAddress source, long length) {
-        LLVMVirtualAllocationAddress sourcePointer = source;
-        LLVMVirtualAllocationAddress targetAddress = target;
-        for (long i = 0; i < length; i++) {
-            byte value = sourcePointer.getI8(memory);
-            sourcePointer = sourcePointer.increment(1);
-            targetAddress.writeI8(memory, value);
-            targetAddress = targetAddress.increment(1);
-        }
+    static void copy(UnsafeArrayAccess arrayAccess, LLVMVirtualAllocationAddress target, LLVMVirtualAllocationAddress source, long length) {
+        arrayAccess.copy(source.getObject(), source.getOffset(), target.getObject(), target.getOffset(), length);
     }
 }
@@ -29,11 +29,15 @@
  */
 package com.oracle.truffle.llvm.nodes.intrinsics.llvm;
 
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.llvm.runtime.LLVMVirtualAllocationAddress;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemMoveNode;
+import com.oracle.truffle.llvm.runtime.memory.UnsafeArrayAccess;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMPointer;
 
 public abstract class LLVMMemMove {
@@ -49,6 +53,30 @@ public abstract class LLVMMemMove {
             this.memMove = memMove;
         }
 
+        @SuppressWarnings("unused")
+        @Specialization
+        protected Object doVoid(LLVMVirtualAllocationAddress dest, LLVMVirtualAllocationAddress source, long length, int align, boolean isVolatile,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess) {
+            LLVMMemCopy.copy(arrayAccess, dest, source, length);
+            return null;
+        }
+
+        @SuppressWarnings("unused")
+        @Specialization
+        protected Object doVoid(LLVMVirtualAllocationAddress dest, LLVMNativePointer source, long length, int align, boolean isVolatile,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess) {
+            LLVMMemCopy.copy(arrayAccess, dest, source.asNative(), length);
+            return null;
+        }
+
+        @SuppressWarnings("unused")
+        @Specialization
+        protected Object doVoid(LLVMNativePointer dest, LLVMVirtualAllocationAddress source, long length, int align, boolean isVolatile,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess) {
+            LLVMMemCopy.copy(arrayAccess, dest.asNative(), source, length);
+            return null;
+        }
+
         @SuppressWarnings("unused")
         @Specialization
         protected Object doVoid(LLVMPointer dest, LLVMPointer source, long length, int align, boolean isVolatile) {
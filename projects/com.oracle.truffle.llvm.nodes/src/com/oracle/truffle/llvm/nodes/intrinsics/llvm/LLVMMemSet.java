@@ -67,9 +67,7 @@ public abstract class LLVMMemSet extends LLVMBuiltin {
     @Specialization
     protected Object doOp(LLVMVirtualAllocationAddress address, byte value, long length, int align, boolean isVolatile,
                     @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
-        for (int i = 0; i < length; i++) {
-            address.writeI8(memory, value);
-        }
+        memory.setMemory(address.getObject(), address.getOffset(), length, value);
         return address;
     }
 }
@@ -30,36 +30,45 @@
 package com.oracle.truffle.llvm.nodes.intrinsics.llvm;
 
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.TruffleLanguage.ContextReference;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.llvm.runtime.LLVMContext;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemSetNode;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
+import com.oracle.truffle.llvm.runtime.profiling.LLVMAllocationTracker;
 
 public abstract class LLVMMemoryIntrinsic extends LLVMExpressionNode {
 
+    protected static void trackAllocation(ContextReference<LLVMContext> context, LLVMNativePointer address, long size) {
+        LLVMAllocationTracker tracker = context.get().getAllocationTracker();
+        if (tracker != null) {
+            tracker.allocated(address.asNative(), size);
+        }
+    }
+
     @NodeChildren({@NodeChild(type = LLVMExpressionNode.class)})
     public abstract static class LLVMMalloc extends LLVMMemoryIntrinsic {
 
         @Specialization
         protected LLVMNativePointer doVoid(int size,
+                        @Cached("getContextReference()") ContextReference<LLVMContext> context,
                         @Cached("getLLVMMemory()") LLVMMemory memory) {
-            try {
-                return memory.allocateMemory(size);
-            } catch (OutOfMemoryError e) {
-                CompilerDirectives.transferToInterpreter();
-                return LLVMNativePointer.createNull();
-            }
+            return doVoid((long) size, context, memory);
         }
 
         @Specialization
         protected LLVMNativePointer doVoid(long size,
+                        @Cached("getContextReference()") ContextReference<LLVMContext> context,
                         @Cached("getLLVMMemory()") LLVMMemory memory) {
             try {
-                return memory.allocateMemory(size);
+                LLVMNativePointer address = memory.allocateMemory(size);
+                trackAllocation(context, address, size);
+                return address;
             } catch (OutOfMemoryError e) {
                 CompilerDirectives.transferToInterpreter();
                 return LLVMNativePointer.createNull();
@@ -77,11 +86,13 @@ public abstract class LLVMMemoryIntrinsic extends LLVMExpressionNode {
 
         @Specialization
         protected LLVMNativePointer doVoid(int n, int size,
+                        @Cached("getContextReference()") ContextReference<LLVMContext> context,
                         @Cached("getLLVMMemory()") LLVMMemory memory) {
             try {
                 long length = Math.multiplyExact(n, size);
                 LLVMNativePointer address = memory.allocateMemory(length);
                 memSet.executeWithTarget(address, (byte) 0, length);
+                trackAllocation(context, address, length);
                 return address;
             } catch (OutOfMemoryError | ArithmeticException e) {
                 CompilerDirectives.transferToInterpreter();
@@ -91,11 +102,13 @@ public abstract class LLVMMemoryIntrinsic extends LLVMExpressionNode {
 
         @Specialization
         protected LLVMNativePointer doVoid(long n, long size,
+                        @Cached("getContextReference()") ContextReference<LLVMContext> context,
                         @Cached("getLLVMMemory()") LLVMMemory memory) {
             try {
                 long length = Math.multiplyExact(n, size);
                 LLVMNativePointer address = memory.allocateMemory(length);
                 memSet.executeWithTarget(address, (byte) 0, length);
+                trackAllocation(context, address, length);
                 return address;
             } catch (OutOfMemoryError | ArithmeticException e) {
                 CompilerDirectives.transferToInterpreter();
@@ -111,16 +124,23 @@ public abstract class LLVMMemoryIntrinsic extends LLVMExpressionNode {
 
         @Specialization
         protected LLVMNativePointer doVoid(LLVMNativePointer addr, int size,
+                        @Cached("getContextReference()") ContextReference<LLVMContext> context,
                         @Cached("getLLVMMemory()") LLVMMemory memory) {
-            return doVoid(addr, (long) size, memory);
+            return doVoid(addr, (long) size, context, memory);
         }
 
         @Specialization
         @SuppressWarnings("deprecation")
         protected LLVMNativePointer doVoid(LLVMNativePointer addr, long size,
+                        @Cached("getContextReference()") ContextReference<LLVMContext> context,
                         @Cached("getLLVMMemory()") LLVMMemory memory) {
             try {
-                return memory.reallocateMemory(addr, size);
+                LLVMNativePointer result = memory.reallocateMemory(addr, size);
+                LLVMAllocationTracker tracker = context.get().getAllocationTracker();
+                if (tracker != null) {
+                    tracker.reallocated(addr.asNative(), result.asNative(), size);
+                }
+                return result;
             } catch (OutOfMemoryError e) {
                 CompilerDirectives.transferToInterpreter();
                 return LLVMNativePointer.createNull();
@@ -133,7 +153,12 @@ public abstract class LLVMMemoryIntrinsic extends LLVMExpressionNode {
 
         @Specialization
         protected Object doVoid(LLVMNativePointer address,
+                        @Cached("getContextReference()") ContextReference<LLVMContext> context,
                         @Cached("getLLVMMemory()") LLVMMemory memory) {
+            LLVMAllocationTracker tracker = context.get().getAllocationTracker();
+            if (tracker != null) {
+                tracker.freed(address.asNative());
+            }
             memory.free(address);
             return null;
         }
@@ -168,22 +168,26 @@ public abstract class LLVMX86_64VAStart extends LLVMExpressionNode {
         }
     }
 
-    private static Object[] getArgumentsArray(VirtualFrame frame) {
-        Object[] arguments = frame.getArguments();
-        Object[] newArguments = new Object[arguments.length - LLVMCallNode.USER_ARGUMENT_OFFSET];
-        System.arraycopy(arguments, LLVMCallNode.USER_ARGUMENT_OFFSET, newArguments, 0, newArguments.length);
+    /*
+     * The arguments are read directly from the frame, where the user arguments start at
+     * LLVMCallNode.USER_ARGUMENT_OFFSET, instead of copying them into a new array first.
+     */
+    private static int getUserArgumentCount(Object[] arguments) {
+        return arguments.length - LLVMCallNode.USER_ARGUMENT_OFFSET;
+    }
 
-        return newArguments;
+    private static Object getUserArgument(Object[] arguments, int index) {
+        return arguments[LLVMCallNode.USER_ARGUMENT_OFFSET + index];
     }
 
-    private int computeOverflowArgAreaSize(Object[] realArguments) {
-        assert numberOfExplicitArguments <= realArguments.length;
+    private int computeOverflowArgAreaSize(Object[] arguments) {
+        assert numberOfExplicitArguments <= getUserArgumentCount(arguments);
 
         int overflowArea = 0;
-        int gpOffset = calculateUsedGpArea(realArguments);
-        int fpOffset = X86_64BitVarArgs.GP_LIMIT + calculateUsedFpArea(realArguments);
-        for (int i = numberOfExplicitArguments; i < realArguments.length; i++) {
-            final Object arg = realArguments[i];
+        int gpOffset = calculateUsedGpArea(arguments);
+        int fpOffset = X86_64BitVarArgs.GP_LIMIT + calculateUsedFpArea(arguments);
+        for (int i = numberOfExplicitArguments; i < getUserArgumentCount(arguments); i++) {
+            final Object arg = getUserArgument(arguments, i);
             final VarArgArea area = getVarArgArea(arg);
             if (area == VarArgArea.GP_AREA && gpOffset < X86_64BitVarArgs.GP_LIMIT) {
                 gpOffset += X86_64BitVarArgs.GP_STEP;
@@ -205,13 +209,13 @@ public abstract class LLVMX86_64VAStart extends LLVMExpressionNode {
     }
 
     @ExplodeLoop
-    private int calculateUsedFpArea(Object[] realArguments) {
-        assert numberOfExplicitArguments <= realArguments.length;
+    private int calculateUsedFpArea(Object[] arguments) {
+        assert numberOfExplicitArguments <= getUserArgumentCount(arguments);
 
         int usedFpArea = 0;
         final int fpAreaLimit = X86_64BitVarArgs.FP_LIMIT - X86_64BitVarArgs.GP_LIMIT;
         for (int i = 0; i < numberOfExplicitArguments && usedFpArea < fpAreaLimit; i++) {
-            if (getVarArgArea(realArguments[i]) == VarArgArea.FP_AREA) {
+            if (getVarArgArea(getUserArgument(arguments, i)) == VarArgArea.FP_AREA) {
                 usedFpArea += X86_64BitVarArgs.FP_STEP;
             }
         }
@@ -219,12 +223,12 @@ public abstract class LLVMX86_64VAStart extends LLVMExpressionNode {
     }
 
     @ExplodeLoop
-    private int calculateUsedGpArea(Object[] realArguments) {
-        assert numberOfExplicitArguments <= realArguments.length;
+    private int calculateUsedGpArea(Object[] arguments) {
+        assert numberOfExplicitArguments <= getUserArgumentCount(arguments);
 
         int usedGpArea = 0;
         for (int i = 0; i < numberOfExplicitArguments && usedGpArea < X86_64BitVarArgs.GP_LIMIT; i++) {
-            if (getVarArgArea(realArguments[i]) == VarArgArea.GP_AREA) {
+            if (getVarArgArea(getUserArgument(arguments, i)) == VarArgArea.GP_AREA) {
                 usedGpArea += X86_64BitVarArgs.GP_STEP;
             }
         }
@@ -234,8 +238,8 @@ public abstract class LLVMX86_64VAStart extends LLVMExpressionNode {
 
     @Specialization
     protected Object vaStart(VirtualFrame frame, Object targetAddress) {
-        final Object[] arguments = getArgumentsArray(frame);
-        final int vaLength = arguments.length - numberOfExplicitArguments;
+        final Object[] arguments = frame.getArguments();
+        final int vaLength = getUserArgumentCount(arguments) - numberOfExplicitArguments;
 
         Object regSaveArea = stackAllocationNode.executeWithTarget(frame, X86_64BitVarArgs.FP_LIMIT);
         int overflowArgAreaSize = computeOverflowArgAreaSize(arguments);
@@ -253,7 +257,7 @@ public abstract class LLVMX86_64VAStart extends LLVMExpressionNode {
             // TODO (chaeubl): this generates pretty bad machine code as we don't know anything
             // about the arguments
             for (int i = 0; i < vaLength; i++) {
-                final Object object = arguments[numberOfExplicitArguments + i];
+                final Object object = getUserArgument(arguments, numberOfExplicitArguments + i);
                 final VarArgArea area = getVarArgArea(object);
 
                 if (area == VarArgArea.GP_AREA && gpOffset < X86_64BitVarArgs.GP_LIMIT) {
@@ -31,11 +31,22 @@ package com.oracle.truffle.llvm.nodes.memory;
 
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.TruffleLanguage.ContextReference;
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMTruffleManagedMalloc.ManagedMallocObject;
+import com.oracle.truffle.llvm.runtime.LLVMContext;
+import com.oracle.truffle.llvm.runtime.LLVMLanguage;
+import com.oracle.truffle.llvm.runtime.LLVMVirtualAllocationAddress;
+import com.oracle.truffle.llvm.runtime.interop.LLVMTypedForeignObject;
+import com.oracle.truffle.llvm.runtime.interop.access.LLVMInteropHostArray;
+import com.oracle.truffle.llvm.runtime.memory.LLVMManagedHeapObject;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemMoveNode;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.memory.UnsafeArrayAccess;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMToNativeNode;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMManagedPointer;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
 
 public abstract class NativeProfiledMemMove extends LLVMNode implements LLVMMemMoveNode {
@@ -46,6 +57,78 @@ public abstract class NativeProfiledMemMove extends LLVMNode implements LLVMMemM
     @Child private LLVMToNativeNode convertTarget = LLVMToNativeNode.createToNativeWithTarget();
     @Child private LLVMToNativeNode convertSource = LLVMToNativeNode.createToNativeWithTarget();
     @CompilationFinal private LLVMMemory memory;
+    @CompilationFinal private ContextReference<LLVMContext> ctxRef;
+
+    /*
+     * Copies between managed objects are done without escaping the objects to native memory, so
+     * that they keep their managed representation.
+     */
+
+    @Specialization(guards = {"isManagedMallocObject(target)", "isManagedMallocObject(source)", "isWordAligned(target, source, length)"})
+    protected void doManagedMalloc(LLVMManagedPointer target, LLVMManagedPointer source, long length) {
+        ManagedMallocObject targetObject = (ManagedMallocObject) target.getObject();
+        ManagedMallocObject sourceObject = (ManagedMallocObject) source.getObject();
+        int targetIndex = (int) (target.getOffset() / ADDRESS_SIZE_IN_BYTES);
+        int sourceIndex = (int) (source.getOffset() / ADDRESS_SIZE_IN_BYTES);
+        sourceObject.copyTo(sourceIndex, targetObject, targetIndex, (int) (length / ADDRESS_SIZE_IN_BYTES));
+    }
+
+    @Specialization(guards = {"isManagedHeapObject(target)", "isManagedHeapObject(source)", "canCopyManaged(target, source, length)"})
+    protected void doManagedHeap(LLVMManagedPointer target, LLVMManagedPointer source, long length,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess) {
+        LLVMManagedHeapObject sourceObject = (LLVMManagedHeapObject) source.getObject();
+        if (!sourceObject.copyTo(arrayAccess, source.getOffset(), (LLVMManagedHeapObject) target.getObject(), target.getOffset(), length)) {
+            // the target was transformed to native memory by another thread
+            doLong(target, source, length);
+        }
+    }
+
+    @Specialization(guards = {"isManagedHeapObject(target)", "isManagedRange(target, length)"})
+    protected void doNativeToManagedHeap(LLVMManagedPointer target, LLVMNativePointer source, long length,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess) {
+        ((LLVMManagedHeapObject) target.getObject()).copyFromNative(arrayAccess, source.asNative(), target.getOffset(), length);
+    }
+
+    @Specialization(guards = {"isManagedHeapObject(source)", "isManagedRange(source, length)", "!hasManagedPointers(source, length)"})
+    protected void doManagedHeapToNative(LLVMNativePointer target, LLVMManagedPointer source, long length,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess) {
+        ((LLVMManagedHeapObject) source.getObject()).copyToNative(arrayAccess, source.getOffset(), target.asNative(), length);
+    }
+
+    /*
+     * Copies between host primitive arrays and native memory are done as a single bulk copy
+     * instead of reading or writing the array element by element through interop.
+     */
+
+    @Specialization(guards = "canCopyHostArray(target, length)")
+    protected void doNativeToHostArray(LLVMManagedPointer target, LLVMNativePointer source, long length,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess) {
+        LLVMInteropHostArray.copyFromNative(arrayAccess, source.asNative(), getHostArray(target), target.getOffset(), length);
+    }
+
+    @Specialization(guards = "canCopyHostArray(source, length)")
+    protected void doHostArrayToNative(LLVMNativePointer target, LLVMManagedPointer source, long length,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess) {
+        LLVMInteropHostArray.copyToNative(arrayAccess, getHostArray(source), source.getOffset(), target.asNative(), length);
+    }
+
+    @Specialization
+    protected void doVirtual(LLVMVirtualAllocationAddress target, LLVMVirtualAllocationAddress source, long length,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess) {
+        arrayAccess.copy(source.getObject(), source.getOffset(), target.getObject(), target.getOffset(), length);
+    }
+
+    @Specialization
+    protected void doVirtualToNative(LLVMNativePointer target, LLVMVirtualAllocationAddress source, long length,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess) {
+        arrayAccess.copyToNative(source.getObject(), source.getOffset(), target.asNative(), length);
+    }
+
+    @Specialization
+    protected void doNativeToVirtual(LLVMVirtualAllocationAddress target, LLVMNativePointer source, long length,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess) {
+        arrayAccess.copyFromNative(source.asNative(), target.getObject(), target.getOffset(), length);
+    }
 
     @Specialization
     protected void doLong(Object target, Object source, long length) {
@@ -120,6 +203,48 @@ public abstract class NativeProfiledMemMove extends LLVMNode implements LLVMMemM
         }
     }
 
+    protected static boolean isManagedMallocObject(LLVMManagedPointer pointer) {
+        return pointer.getObject() instanceof ManagedMallocObject;
+    }
+
+    protected static boolean isManagedHeapObject(LLVMManagedPointer pointer) {
+        return pointer.getObject() instanceof LLVMManagedHeapObject;
+    }
+
+    protected static boolean isManagedRange(LLVMManagedPointer pointer, long length) {
+        return ((LLVMManagedHeapObject) pointer.getObject()).isManagedRange(pointer.getOffset(), length);
+    }
+
+    protected static boolean hasManagedPointers(LLVMManagedPointer pointer, long length) {
+        return ((LLVMManagedHeapObject) pointer.getObject()).hasManagedPointers(pointer.getOffset(), length);
+    }
+
+    protected static boolean canCopyManaged(LLVMManagedPointer target, LLVMManagedPointer source, long length) {
+        LLVMManagedHeapObject sourceObject = (LLVMManagedHeapObject) source.getObject();
+        return sourceObject.canCopyManaged(source.getOffset(), (LLVMManagedHeapObject) target.getObject(), target.getOffset(), length);
+    }
+
+    protected boolean canCopyHostArray(LLVMManagedPointer pointer, long length) {
+        Object array = getHostArray(pointer);
+        return array != null && LLVMInteropHostArray.canCopyBulk(array, pointer.getOffset(), length);
+    }
+
+    private Object getHostArray(LLVMManagedPointer pointer) {
+        Object object = pointer.getObject();
+        if (object instanceof LLVMTypedForeignObject) {
+            if (ctxRef == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                ctxRef = LLVMLanguage.getLLVMContextReference();
+            }
+            return LLVMInteropHostArray.getHostArray(ctxRef.get().getEnv(), ((LLVMTypedForeignObject) object).getForeign());
+        }
+        return null;
+    }
+
+    protected static boolean isWordAligned(LLVMManagedPointer target, LLVMManagedPointer source, long length) {
+        return (target.getOffset() | source.getOffset() | length) % ADDRESS_SIZE_IN_BYTES == 0;
+    }
+
     @SuppressWarnings("deprecation")
     private static void nativeMemCopy(LLVMMemory memory, LLVMNativePointer target, LLVMNativePointer source, long length) {
         memory.copyMemory(source.asNative(), target.asNative(), length);
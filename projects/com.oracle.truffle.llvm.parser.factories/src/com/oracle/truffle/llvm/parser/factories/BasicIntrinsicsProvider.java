@@ -33,6 +33,8 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.UnaryOperator;
 
 import com.oracle.truffle.api.CompilerAsserts;
@@ -155,9 +157,10 @@ import com.oracle.truffle.llvm.nodes.intrinsics.sulong.LLVMPrintStackTraceNodeGe
 import com.oracle.truffle.llvm.nodes.intrinsics.sulong.LLVMRunDestructorFunctionsNodeGen;
 import com.oracle.truffle.llvm.nodes.intrinsics.sulong.LLVMShouldPrintStackTraceOnAbortNodeGen;
 import com.oracle.truffle.llvm.runtime.ContextExtension;
-import com.oracle.truffle.llvm.runtime.LLVMContext;
 import com.oracle.truffle.llvm.runtime.LLVMContext.ExternalLibrary;
 import com.oracle.truffle.llvm.runtime.LLVMIntrinsicProvider;
+import com.oracle.truffle.llvm.runtime.LLVMLanguage;
+import com.oracle.truffle.llvm.runtime.NodeFactory;
 import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM.ForeignToLLVMType;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.types.FunctionType;
@@ -166,6 +169,11 @@ import com.oracle.truffle.llvm.runtime.types.FunctionType;
  * If an intrinsic is defined for a function, then the intrinsic is used instead of doing a call to
  * native code. The intrinsic is also preferred over LLVM bitcode that is part of a Sulong-internal
  * library.
+ *
+ * The provider is created once per language instance and shared by all of its contexts (see
+ * {@link LLVMLanguage#getIntrinsicProvider}). The intrinsic table is not modified after
+ * {@link #collectIntrinsics()}, and generated intrinsic nodes must not capture context-specific
+ * state, because their call targets are cached for the whole engine.
  */
 public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextExtension {
     private final ExternalLibrary library = new ExternalLibrary("SulongIntrinsics", false);
@@ -189,17 +197,41 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
     @Override
     public final RootCallTarget generateIntrinsic(String name, FunctionType type) {
         CompilerAsserts.neverPartOfCompilation();
-        if (factoriesContainKey(name)) {
-            return wrap(name, factories.get(name).generate(type));
+        LLVMIntrinsicFactory factory = getFactory(name);
+        if (factory != null) {
+            return wrap(name, factory.generate(type));
         }
         return null;
     }
 
+    @Override
+    public final RootCallTarget cachedIntrinsic(String name, FunctionType type) {
+        CompilerAsserts.neverPartOfCompilation();
+        if (forceSplit(name)) {
+            // split intrinsics specialize on their call site, e.g., on the type of a
+            // polyglot_as_typed call, which may differ between contexts
+            return generateIntrinsic(name, type);
+        }
+        IntrinsicKey key = new IntrinsicKey(name, type);
+        RootCallTarget callTarget = callTargets.get(key);
+        if (callTarget == null) {
+            callTarget = generateIntrinsic(name, type);
+            if (callTarget != null) {
+                RootCallTarget existing = callTargets.putIfAbsent(key, callTarget);
+                if (existing != null) {
+                    callTarget = existing;
+                }
+            }
+        }
+        return callTarget;
+    }
+
     @Override
     public final boolean forceInline(String name) {
         CompilerAsserts.neverPartOfCompilation();
-        if (factoriesContainKey(name)) {
-            return factories.get(name).forceInline;
+        LLVMIntrinsicFactory factory = getFactory(name);
+        if (factory != null) {
+            return factory.forceInline;
         }
         return false;
     }
@@ -207,18 +239,45 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
     @Override
     public final boolean forceSplit(String name) {
         CompilerAsserts.neverPartOfCompilation();
-        if (factoriesContainKey(name)) {
-            return factories.get(name).forceSplit;
+        LLVMIntrinsicFactory factory = getFactory(name);
+        if (factory != null) {
+            return factory.forceSplit;
         }
         return false;
     }
 
     protected final Map<String, LLVMIntrinsicFactory> factories = new HashMap<>();
     protected final Demangler demangler = new Demangler();
-    protected final LLVMContext context;
+    protected final LLVMLanguage language;
 
-    public BasicIntrinsicsProvider(LLVMContext context) {
-        this.context = context;
+    private final ConcurrentHashMap<IntrinsicKey, RootCallTarget> callTargets = new ConcurrentHashMap<>();
+
+    public BasicIntrinsicsProvider(LLVMLanguage language) {
+        this.language = language;
+    }
+
+    private static final class IntrinsicKey {
+        private final String name;
+        private final FunctionType type;
+
+        IntrinsicKey(String name, FunctionType type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof IntrinsicKey) {
+                IntrinsicKey other = (IntrinsicKey) obj;
+                return name.equals(other.name) && Objects.equals(type, other.type);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode() ^ Objects.hashCode(type);
+        }
     }
 
     public abstract static class LLVMIntrinsicFactory {
@@ -338,19 +397,26 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
     }
 
     protected boolean factoriesContainKey(String name) {
-        if (factories.containsKey(name)) {
-            return true;
-        }
-        String demangledName = demangler.demangle(name);
-        if (demangledName == null || !factories.containsKey(demangledName)) {
-            return false;
+        return getFactory(name) != null;
+    }
+
+    protected LLVMIntrinsicFactory getFactory(String name) {
+        LLVMIntrinsicFactory factory = factories.get(name);
+        if (factory == null) {
+            String demangledName = demangler.demangle(name);
+            if (demangledName != null) {
+                factory = factories.get(demangledName);
+            }
         }
-        add(name, factories.get(demangledName));
-        return true;
+        return factory;
+    }
+
+    protected NodeFactory getNodeFactory() {
+        return language.getContextReference().get().getNodeFactory();
     }
 
     protected RootCallTarget wrap(String functionName, LLVMExpressionNode node) {
-        return Truffle.getRuntime().createCallTarget(LLVMIntrinsicExpressionNodeGen.create(context.getLanguage(), functionName, node));
+        return Truffle.getRuntime().createCallTarget(LLVMIntrinsicExpressionNodeGen.create(language, functionName, node));
     }
 
     protected LLVMExpressionNode[] argumentsArray(int startIndex, int arity) {
@@ -592,7 +658,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleReadFromNameNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.POINTER), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
+                return LLVMTruffleReadFromNameNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.POINTER), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
             }
         };
         add("@polyglot_get_member", polyglotGetMember);
@@ -602,42 +668,42 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleReadFromNameNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I32), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
+                return LLVMTruffleReadFromNameNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I32), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
             }
         });
         add("@truffle_read_l", new LLVMIntrinsicFactory(true, true) {
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleReadFromNameNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I64), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
+                return LLVMTruffleReadFromNameNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I64), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
             }
         });
         add("@truffle_read_c", new LLVMIntrinsicFactory(true, true) {
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleReadFromNameNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I8), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
+                return LLVMTruffleReadFromNameNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I8), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
             }
         });
         add("@truffle_read_f", new LLVMIntrinsicFactory(true, true) {
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleReadFromNameNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.FLOAT), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
+                return LLVMTruffleReadFromNameNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.FLOAT), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
             }
         });
         add("@truffle_read_d", new LLVMIntrinsicFactory(true, true) {
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleReadFromNameNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.DOUBLE), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
+                return LLVMTruffleReadFromNameNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.DOUBLE), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
             }
         });
         add("@truffle_read_b", new LLVMIntrinsicFactory(true, true) {
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleReadFromNameNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I1), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
+                return LLVMTruffleReadFromNameNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I1), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
             }
         });
 
@@ -645,7 +711,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleReadFromIndexNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.POINTER), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
+                return LLVMTruffleReadFromIndexNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.POINTER), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
             }
         };
         add("@polyglot_get_array_element", polyglotGetArrayElement);
@@ -655,42 +721,42 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleReadFromIndexNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I32), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
+                return LLVMTruffleReadFromIndexNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I32), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
             }
         });
         add("@truffle_read_idx_l", new LLVMIntrinsicFactory(true, true) {
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleReadFromIndexNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I64), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
+                return LLVMTruffleReadFromIndexNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I64), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
             }
         });
         add("@truffle_read_idx_c", new LLVMIntrinsicFactory(true, true) {
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleReadFromIndexNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I8), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
+                return LLVMTruffleReadFromIndexNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I8), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
             }
         });
         add("@truffle_read_idx_f", new LLVMIntrinsicFactory(true, true) {
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleReadFromIndexNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.FLOAT), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
+                return LLVMTruffleReadFromIndexNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.FLOAT), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
             }
         });
         add("@truffle_read_idx_d", new LLVMIntrinsicFactory(true, true) {
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleReadFromIndexNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.DOUBLE), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
+                return LLVMTruffleReadFromIndexNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.DOUBLE), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
             }
         });
         add("@truffle_read_idx_b", new LLVMIntrinsicFactory(true, true) {
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleReadFromIndexNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I1), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
+                return LLVMTruffleReadFromIndexNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I1), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
             }
         });
 
@@ -714,7 +780,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleUnboxNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I8), LLVMArgNodeGen.create(1));
+                return LLVMTruffleUnboxNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I8), LLVMArgNodeGen.create(1));
             }
         };
         add("@polyglot_as_i8", polyglotAsI8);
@@ -724,7 +790,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleUnboxNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I16), LLVMArgNodeGen.create(1));
+                return LLVMTruffleUnboxNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I16), LLVMArgNodeGen.create(1));
             }
         };
         add("@polyglot_as_i16", polyglotAsI16);
@@ -733,7 +799,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleUnboxNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I32), LLVMArgNodeGen.create(1));
+                return LLVMTruffleUnboxNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I32), LLVMArgNodeGen.create(1));
             }
         };
         add("@polyglot_as_i32", polyglotAsI32);
@@ -743,7 +809,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleUnboxNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I64), LLVMArgNodeGen.create(1));
+                return LLVMTruffleUnboxNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I64), LLVMArgNodeGen.create(1));
             }
         };
         add("@polyglot_as_i64", polyglotAsI64);
@@ -753,7 +819,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleUnboxNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.FLOAT), LLVMArgNodeGen.create(1));
+                return LLVMTruffleUnboxNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.FLOAT), LLVMArgNodeGen.create(1));
             }
         };
         add("@polyglot_as_float", polyglotAsFloat);
@@ -763,7 +829,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleUnboxNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.DOUBLE), LLVMArgNodeGen.create(1));
+                return LLVMTruffleUnboxNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.DOUBLE), LLVMArgNodeGen.create(1));
             }
         };
         add("@polyglot_as_double", polyglotAsDouble);
@@ -773,7 +839,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleUnboxNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I1), LLVMArgNodeGen.create(1));
+                return LLVMTruffleUnboxNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I1), LLVMArgNodeGen.create(1));
             }
         };
         add("@polyglot_as_boolean", polyglotAsBoolean);
@@ -793,7 +859,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleInvokeNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.POINTER), argumentsArray(3, type.getArgumentTypes().length - 3),
+                return LLVMTruffleInvokeNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.POINTER), argumentsArray(3, type.getArgumentTypes().length - 3),
                                 LLVMArgNodeGen.create(1),
                                 LLVMArgNodeGen.create(2));
             }
@@ -805,7 +871,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleInvokeNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I32), argumentsArray(3, type.getArgumentTypes().length - 3),
+                return LLVMTruffleInvokeNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I32), argumentsArray(3, type.getArgumentTypes().length - 3),
                                 LLVMArgNodeGen.create(1),
                                 LLVMArgNodeGen.create(2));
             }
@@ -815,7 +881,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleInvokeNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I64), argumentsArray(3, type.getArgumentTypes().length - 3),
+                return LLVMTruffleInvokeNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I64), argumentsArray(3, type.getArgumentTypes().length - 3),
                                 LLVMArgNodeGen.create(1),
                                 LLVMArgNodeGen.create(2));
             }
@@ -825,7 +891,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleInvokeNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I8), argumentsArray(3, type.getArgumentTypes().length - 3),
+                return LLVMTruffleInvokeNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I8), argumentsArray(3, type.getArgumentTypes().length - 3),
                                 LLVMArgNodeGen.create(1),
                                 LLVMArgNodeGen.create(2));
             }
@@ -835,7 +901,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleInvokeNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.FLOAT), argumentsArray(3, type.getArgumentTypes().length - 3),
+                return LLVMTruffleInvokeNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.FLOAT), argumentsArray(3, type.getArgumentTypes().length - 3),
                                 LLVMArgNodeGen.create(1),
                                 LLVMArgNodeGen.create(2));
             }
@@ -845,7 +911,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleInvokeNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.DOUBLE), argumentsArray(3, type.getArgumentTypes().length - 3),
+                return LLVMTruffleInvokeNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.DOUBLE), argumentsArray(3, type.getArgumentTypes().length - 3),
                                 LLVMArgNodeGen.create(1),
                                 LLVMArgNodeGen.create(2));
             }
@@ -855,7 +921,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleInvokeNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I1), argumentsArray(3, type.getArgumentTypes().length - 3),
+                return LLVMTruffleInvokeNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I1), argumentsArray(3, type.getArgumentTypes().length - 3),
                                 LLVMArgNodeGen.create(1),
                                 LLVMArgNodeGen.create(2));
             }
@@ -867,7 +933,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleExecuteNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.POINTER), argumentsArray(2, type.getArgumentTypes().length - 2),
+                return LLVMTruffleExecuteNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.POINTER), argumentsArray(2, type.getArgumentTypes().length - 2),
                                 LLVMArgNodeGen.create(1));
             }
         });
@@ -876,7 +942,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleExecuteNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I32), argumentsArray(2, type.getArgumentTypes().length - 2),
+                return LLVMTruffleExecuteNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I32), argumentsArray(2, type.getArgumentTypes().length - 2),
                                 LLVMArgNodeGen.create(1));
             }
         });
@@ -885,7 +951,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleExecuteNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I64), argumentsArray(2, type.getArgumentTypes().length - 2),
+                return LLVMTruffleExecuteNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I64), argumentsArray(2, type.getArgumentTypes().length - 2),
                                 LLVMArgNodeGen.create(1));
             }
         });
@@ -894,7 +960,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleExecuteNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I8), argumentsArray(2, type.getArgumentTypes().length - 2),
+                return LLVMTruffleExecuteNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I8), argumentsArray(2, type.getArgumentTypes().length - 2),
                                 LLVMArgNodeGen.create(1));
             }
         });
@@ -903,7 +969,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleExecuteNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.FLOAT), argumentsArray(2, type.getArgumentTypes().length - 2),
+                return LLVMTruffleExecuteNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.FLOAT), argumentsArray(2, type.getArgumentTypes().length - 2),
                                 LLVMArgNodeGen.create(1));
             }
         });
@@ -912,7 +978,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleExecuteNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.DOUBLE), argumentsArray(2, type.getArgumentTypes().length - 2),
+                return LLVMTruffleExecuteNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.DOUBLE), argumentsArray(2, type.getArgumentTypes().length - 2),
                                 LLVMArgNodeGen.create(1));
             }
         });
@@ -921,7 +987,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleExecuteNodeGen.create(context.getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I1), argumentsArray(2, type.getArgumentTypes().length - 2),
+                return LLVMTruffleExecuteNodeGen.create(getNodeFactory().createForeignToLLVM(ForeignToLLVMType.I1), argumentsArray(2, type.getArgumentTypes().length - 2),
                                 LLVMArgNodeGen.create(1));
             }
         });
@@ -1078,7 +1144,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMTruffleStringAsCStringNodeGen.create(context.getNodeFactory().createAllocateString(), LLVMArgNodeGen.create(1));
+                return LLVMTruffleStringAsCStringNodeGen.create(getNodeFactory().createAllocateString(), LLVMArgNodeGen.create(1));
             }
         });
 
@@ -1574,7 +1640,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
 
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMCallocNodeGen.create(context.getNodeFactory().createMemSet(), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
+                return LLVMCallocNodeGen.create(getNodeFactory().createMemSet(), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
             }
         });
         add("@realloc", new LLVMIntrinsicFactory(true, false) {
@@ -1594,7 +1660,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
         LLVMIntrinsicFactory memset = new LLVMIntrinsicFactory(true, false) {
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMLibcMemsetNodeGen.create(context.getNodeFactory().createMemSet(), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2), LLVMArgNodeGen.create(3));
+                return LLVMLibcMemsetNodeGen.create(getNodeFactory().createMemSet(), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2), LLVMArgNodeGen.create(3));
             }
         };
         add("@memset", memset);
@@ -1602,7 +1668,7 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
         LLVMIntrinsicFactory memcpy = new LLVMIntrinsicFactory(true, false) {
             @Override
             protected LLVMExpressionNode generate(FunctionType type) {
-                return LLVMLibcMemcpyNodeGen.create(context.getNodeFactory().createMemMove(), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2), LLVMArgNodeGen.create(3));
+                return LLVMLibcMemcpyNodeGen.create(getNodeFactory().createMemMove(), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2), LLVMArgNodeGen.create(3));
             }
         };
         add("@memcpy", memcpy);
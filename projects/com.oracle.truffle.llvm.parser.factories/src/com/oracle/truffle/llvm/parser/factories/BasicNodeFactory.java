@@ -1484,7 +1484,7 @@ public class BasicNodeFactory implements NodeFactory {
         LLVMUniquesRegionAllocNode uniquesRegionAllocNode = LLVMUniquesRegionAllocNodeGen.create(uniquesRegionAllocator);
         return new LLVMDispatchBasicBlockNode(exceptionValueSlot, allFunctionNodes.toArray(new LLVMBasicBlockNode[allFunctionNodes.size()]), uniquesRegionAllocNode, beforeBlockNuller,
                         afterBlockNuller, location,
-                        copyArgumentsToFrame);
+                        copyArgumentsToFrame, context.getSamplingProfiler());
     }
 
     @Override
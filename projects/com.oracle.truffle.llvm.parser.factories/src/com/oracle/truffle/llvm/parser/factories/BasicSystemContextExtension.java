@@ -30,6 +30,7 @@
 package com.oracle.truffle.llvm.parser.factories;
 
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64Syscall;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallAccept4NodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallAcceptNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallAccessNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallArchPrctlNodeGen;
@@ -42,9 +43,15 @@ import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallCloseNode;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallConnectNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallDup2Node;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallDupNode;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallEpollCreate1NodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallEpollCtlNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallEpollWaitNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallEventfd2NodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallExitNode;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallFaccessatNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallFallocateNode;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallFcntlNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallFdatasyncNode;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallFstatNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallFstatfsNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallFtruncateNode;
@@ -66,11 +73,19 @@ import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallIoctlNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallListenNode;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallLseekNode;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallLstatNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallMadviseNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallMmapNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallMprotectNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallMremapNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallMunmapNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallOpenNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallPipe2NodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallPipeNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallPollNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallPread64NodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallPreadvNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallPwrite64NodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallPwritevNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallReadNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallReadvNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallRecvfromNodeGen;
@@ -131,6 +146,10 @@ public class BasicSystemContextExtension extends SystemContextExtension {
                 return new LLVMAMD64SyscallLseekNode();
             case LLVMAMD64Syscall.SYS_mmap:
                 return LLVMAMD64SyscallMmapNodeGen.create();
+            case LLVMAMD64Syscall.SYS_mprotect:
+                return LLVMAMD64SyscallMprotectNodeGen.create();
+            case LLVMAMD64Syscall.SYS_munmap:
+                return LLVMAMD64SyscallMunmapNodeGen.create();
             case LLVMAMD64Syscall.SYS_brk:
                 return LLVMAMD64SyscallBrkNodeGen.create();
             case LLVMAMD64Syscall.SYS_rt_sigaction:
@@ -139,6 +158,10 @@ public class BasicSystemContextExtension extends SystemContextExtension {
                 return LLVMAMD64SyscallRtSigprocmaskNodeGen.create();
             case LLVMAMD64Syscall.SYS_ioctl:
                 return LLVMAMD64SyscallIoctlNodeGen.create();
+            case LLVMAMD64Syscall.SYS_pread64:
+                return LLVMAMD64SyscallPread64NodeGen.create();
+            case LLVMAMD64Syscall.SYS_pwrite64:
+                return LLVMAMD64SyscallPwrite64NodeGen.create();
             case LLVMAMD64Syscall.SYS_readv:
                 return LLVMAMD64SyscallReadvNodeGen.create();
             case LLVMAMD64Syscall.SYS_writev:
@@ -147,6 +170,10 @@ public class BasicSystemContextExtension extends SystemContextExtension {
                 return LLVMAMD64SyscallAccessNodeGen.create();
             case LLVMAMD64Syscall.SYS_pipe:
                 return LLVMAMD64SyscallPipeNodeGen.create();
+            case LLVMAMD64Syscall.SYS_mremap:
+                return LLVMAMD64SyscallMremapNodeGen.create();
+            case LLVMAMD64Syscall.SYS_madvise:
+                return LLVMAMD64SyscallMadviseNodeGen.create();
             case LLVMAMD64Syscall.SYS_dup:
                 return new LLVMAMD64SyscallDupNode();
             case LLVMAMD64Syscall.SYS_dup2:
@@ -186,6 +213,8 @@ public class BasicSystemContextExtension extends SystemContextExtension {
                 return LLVMAMD64SyscallUnameNodeGen.create();
             case LLVMAMD64Syscall.SYS_fcntl:
                 return LLVMAMD64SyscallFcntlNodeGen.create();
+            case LLVMAMD64Syscall.SYS_fdatasync:
+                return new LLVMAMD64SyscallFdatasyncNode();
             case LLVMAMD64Syscall.SYS_ftruncate:
                 return new LLVMAMD64SyscallFtruncateNode();
             case LLVMAMD64Syscall.SYS_getcwd:
@@ -234,14 +263,30 @@ public class BasicSystemContextExtension extends SystemContextExtension {
                 return LLVMAMD64SyscallSetTidAddressNodeGen.create();
             case LLVMAMD64Syscall.SYS_clock_gettime:
                 return LLVMAMD64SyscallClockGetTimeNodeGen.create();
+            case LLVMAMD64Syscall.SYS_epoll_wait:
+                return LLVMAMD64SyscallEpollWaitNodeGen.create();
+            case LLVMAMD64Syscall.SYS_epoll_ctl:
+                return LLVMAMD64SyscallEpollCtlNodeGen.create();
             case LLVMAMD64Syscall.SYS_renameat:
                 return LLVMAMD64SyscallRenameatNodeGen.create();
             case LLVMAMD64Syscall.SYS_faccessat:
                 return LLVMAMD64SyscallFaccessatNodeGen.create();
             case LLVMAMD64Syscall.SYS_utimensat:
                 return LLVMAMD64SyscallUtimensatNodeGen.create();
+            case LLVMAMD64Syscall.SYS_fallocate:
+                return new LLVMAMD64SyscallFallocateNode();
+            case LLVMAMD64Syscall.SYS_accept4:
+                return LLVMAMD64SyscallAccept4NodeGen.create();
+            case LLVMAMD64Syscall.SYS_eventfd2:
+                return LLVMAMD64SyscallEventfd2NodeGen.create();
+            case LLVMAMD64Syscall.SYS_epoll_create1:
+                return LLVMAMD64SyscallEpollCreate1NodeGen.create();
             case LLVMAMD64Syscall.SYS_pipe2:
                 return LLVMAMD64SyscallPipe2NodeGen.create();
+            case LLVMAMD64Syscall.SYS_preadv:
+                return LLVMAMD64SyscallPreadvNodeGen.create();
+            case LLVMAMD64Syscall.SYS_pwritev:
+                return LLVMAMD64SyscallPwritevNodeGen.create();
             default:
                 return new LLVMAMD64UnknownSyscallNode(index);
         }
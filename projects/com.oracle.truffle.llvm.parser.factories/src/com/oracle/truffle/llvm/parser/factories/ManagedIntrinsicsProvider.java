@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.parser.factories;
+
+import com.oracle.truffle.llvm.nodes.func.LLVMArgNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.llvm.LLVMManagedMemoryIntrinsicFactory.LLVMManagedCallocNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.llvm.LLVMManagedMemoryIntrinsicFactory.LLVMManagedFreeNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.llvm.LLVMManagedMemoryIntrinsicFactory.LLVMManagedMallocNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.llvm.LLVMManagedMemoryIntrinsicFactory.LLVMManagedReallocNodeGen;
+import com.oracle.truffle.llvm.runtime.LLVMLanguage;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
+import com.oracle.truffle.llvm.runtime.types.FunctionType;
+
+/**
+ * Intrinsics of the managed configuration: heap allocations are backed by Java objects instead of
+ * native memory.
+ */
+public class ManagedIntrinsicsProvider extends BasicIntrinsicsProvider {
+
+    public ManagedIntrinsicsProvider(LLVMLanguage language) {
+        super(language);
+    }
+
+    @Override
+    protected void registerMemoryFunctionIntrinsics() {
+        super.registerMemoryFunctionIntrinsics();
+        factories.put("@malloc", new LLVMIntrinsicFactory(true, false) {
+
+            @Override
+            protected LLVMExpressionNode generate(FunctionType type) {
+                return LLVMManagedMallocNodeGen.create(LLVMArgNodeGen.create(1));
+            }
+        });
+        factories.put("@calloc", new LLVMIntrinsicFactory(true, false) {
+
+            @Override
+            protected LLVMExpressionNode generate(FunctionType type) {
+                return LLVMManagedCallocNodeGen.create(LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
+            }
+        });
+        factories.put("@realloc", new LLVMIntrinsicFactory(true, false) {
+
+            @Override
+            protected LLVMExpressionNode generate(FunctionType type) {
+                return LLVMManagedReallocNodeGen.create(LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
+            }
+        });
+        factories.put("@free", new LLVMIntrinsicFactory(true, false) {
+
+            @Override
+            protected LLVMExpressionNode generate(FunctionType type) {
+                return LLVMManagedFreeNodeGen.create(LLVMArgNodeGen.create(1));
+            }
+        });
+    }
+}
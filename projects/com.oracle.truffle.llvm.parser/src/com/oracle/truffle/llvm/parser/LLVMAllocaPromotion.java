@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.parser;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.llvm.parser.LLVMLivenessAnalysis.LLVMLocalReadVisitor;
+import com.oracle.truffle.llvm.parser.model.SymbolImpl;
+import com.oracle.truffle.llvm.parser.model.blocks.InstructionBlock;
+import com.oracle.truffle.llvm.parser.model.enums.AtomicOrdering;
+import com.oracle.truffle.llvm.parser.model.functions.FunctionDefinition;
+import com.oracle.truffle.llvm.parser.model.symbols.constants.NullConstant;
+import com.oracle.truffle.llvm.parser.model.symbols.constants.integer.IntegerConstant;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.AllocateInstruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.DbgDeclareInstruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.Instruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.LoadInstruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.PhiInstruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.StoreInstruction;
+import com.oracle.truffle.llvm.runtime.types.PointerType;
+import com.oracle.truffle.llvm.runtime.types.PrimitiveType;
+import com.oracle.truffle.llvm.runtime.types.Type;
+
+/**
+ * Finds the allocas of a function that can live in a frame slot instead of stack memory (a runtime
+ * version of LLVM's mem2reg). This is the case if the alloca holds a single primitive or pointer
+ * value and its address never escapes, i.e., it is only used as the address of non-volatile,
+ * non-atomic loads and stores of a compatible type.
+ *
+ * The frame slot of a promoted alloca holds the current value of the variable instead of its
+ * address. Loads and stores become frame reads and writes, and the alloca itself initializes the
+ * slot. The liveness analysis treats stores to a promoted alloca as reads of its slot, which only
+ * over-approximates how long the value is alive.
+ */
+public final class LLVMAllocaPromotion {
+
+    private LLVMAllocaPromotion() {
+    }
+
+    /**
+     * @param keepDeclaredVariables if true, allocas that are described by a {@code llvm.dbg.declare}
+     *            stay in memory so that the debugger can inspect them
+     */
+    public static Set<AllocateInstruction> promoteAllocas(FunctionDefinition function, FrameDescriptor frame, boolean keepDeclaredVariables) {
+        Set<AllocateInstruction> promotable = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (InstructionBlock block : function.getBlocks()) {
+            for (int i = 0; i < block.getInstructionCount(); i++) {
+                Instruction instruction = block.getInstruction(i);
+                if (instruction instanceof AllocateInstruction && isPromotable((AllocateInstruction) instruction)) {
+                    promotable.add((AllocateInstruction) instruction);
+                }
+            }
+        }
+
+        if (!promotable.isEmpty()) {
+            EscapeVisitor escapeVisitor = new EscapeVisitor(promotable, keepDeclaredVariables);
+            for (InstructionBlock block : function.getBlocks()) {
+                for (int i = 0; i < block.getInstructionCount() && !promotable.isEmpty(); i++) {
+                    block.getInstruction(i).accept(escapeVisitor);
+                }
+            }
+        }
+
+        for (AllocateInstruction alloca : promotable) {
+            FrameSlot slot = frame.findFrameSlot(alloca.getName());
+            frame.setFrameSlotKind(slot, Type.getFrameSlotKind(alloca.getPointeeType()));
+        }
+        return promotable;
+    }
+
+    private static boolean isPromotable(AllocateInstruction alloca) {
+        SymbolImpl count = alloca.getCount();
+        if (!(count instanceof NullConstant) && !(count instanceof IntegerConstant && ((IntegerConstant) count).getValue() == 1)) {
+            return false;
+        }
+        Type type = alloca.getPointeeType();
+        if (type instanceof PointerType) {
+            return true;
+        } else if (type instanceof PrimitiveType) {
+            switch (((PrimitiveType) type).getPrimitiveKind()) {
+                case I1:
+                case I8:
+                case I16:
+                case I32:
+                case I64:
+                case FLOAT:
+                case DOUBLE:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isCompatible(Type accessType, Type allocatedType) {
+        if (accessType instanceof PointerType) {
+            // all pointers have the same representation
+            return allocatedType instanceof PointerType;
+        }
+        return accessType instanceof PrimitiveType && allocatedType instanceof PrimitiveType &&
+                        ((PrimitiveType) accessType).getPrimitiveKind() == ((PrimitiveType) allocatedType).getPrimitiveKind();
+    }
+
+    private static final class EscapeVisitor extends LLVMLocalReadVisitor {
+
+        private final Set<AllocateInstruction> promotable;
+        private final boolean keepDeclaredVariables;
+
+        EscapeVisitor(Set<AllocateInstruction> promotable, boolean keepDeclaredVariables) {
+            this.promotable = promotable;
+            this.keepDeclaredVariables = keepDeclaredVariables;
+        }
+
+        @Override
+        public void visit(LoadInstruction load) {
+            SymbolImpl source = load.getSource();
+            if (source instanceof AllocateInstruction && (load.isVolatile() || load.getAtomicOrdering() != AtomicOrdering.NOT_ATOMIC ||
+                            !isCompatible(load.getType(), ((AllocateInstruction) source).getPointeeType()))) {
+                visitLocalRead(source);
+            }
+        }
+
+        @Override
+        public void visit(StoreInstruction store) {
+            SymbolImpl destination = store.getDestination();
+            if (destination instanceof AllocateInstruction && (store.isVolatile() || store.getAtomicOrdering() != AtomicOrdering.NOT_ATOMIC ||
+                            !isCompatible(store.getSource().getType(), ((AllocateInstruction) destination).getPointeeType()))) {
+                visitLocalRead(destination);
+            }
+            // storing the address itself lets it escape
+            visitLocalRead(store.getSource());
+        }
+
+        @Override
+        public void visit(PhiInstruction phi) {
+            for (int i = 0; i < phi.getSize(); i++) {
+                visitLocalRead(phi.getValue(i));
+            }
+        }
+
+        @Override
+        public void visit(DbgDeclareInstruction inst) {
+            if (keepDeclaredVariables) {
+                visitLocalRead(inst.getValue());
+            }
+        }
+
+        @Override
+        protected void visitLocalRead(SymbolImpl symbol) {
+            if (symbol instanceof AllocateInstruction) {
+                promotable.remove(symbol);
+            }
+        }
+    }
+}
@@ -33,14 +33,16 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
-import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.llvm.parser.LLVMFrameSlotColoring.FrameSlotAssignment;
 import com.oracle.truffle.llvm.parser.LLVMLivenessAnalysis.LLVMLivenessAnalysisResult;
 import com.oracle.truffle.llvm.parser.LLVMPhiManager.Phi;
 import com.oracle.truffle.llvm.parser.metadata.debuginfo.SourceVariable;
 import com.oracle.truffle.llvm.parser.model.blocks.InstructionBlock;
 import com.oracle.truffle.llvm.parser.model.functions.FunctionDefinition;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.AllocateInstruction;
 import com.oracle.truffle.llvm.parser.model.symbols.instructions.Instruction;
 import com.oracle.truffle.llvm.parser.model.visitors.FunctionVisitor;
 import com.oracle.truffle.llvm.parser.nodes.LLVMSymbolReadResolver;
@@ -53,7 +55,7 @@ final class LLVMBitcodeFunctionVisitor implements FunctionVisitor {
 
     private final LLVMContext context;
     private final ExternalLibrary library;
-    private final FrameDescriptor frame;
+    private final FrameSlotAssignment slots;
     private final UniquesRegion uniquesRegion;
     private final List<LLVMStatementNode> blocks;
     private final Map<InstructionBlock, List<Phi>> phis;
@@ -63,14 +65,15 @@ final class LLVMBitcodeFunctionVisitor implements FunctionVisitor {
     private final LLVMLivenessAnalysisResult liveness;
     private final List<FrameSlot> notNullable;
     private final LLVMRuntimeDebugInformation dbgInfoHandler;
+    private final Set<AllocateInstruction> promotedAllocas;
     private boolean initDebugValues;
 
-    LLVMBitcodeFunctionVisitor(LLVMContext context, ExternalLibrary library, FrameDescriptor frame, UniquesRegion uniquesRegion, Map<InstructionBlock, List<Phi>> phis, int argCount,
+    LLVMBitcodeFunctionVisitor(LLVMContext context, ExternalLibrary library, FrameSlotAssignment slots, UniquesRegion uniquesRegion, Map<InstructionBlock, List<Phi>> phis, int argCount,
                     LLVMSymbolReadResolver symbols, FunctionDefinition functionDefinition, LLVMLivenessAnalysisResult liveness, List<FrameSlot> notNullable,
-                    LLVMRuntimeDebugInformation dbgInfoHandler) {
+                    LLVMRuntimeDebugInformation dbgInfoHandler, Set<AllocateInstruction> promotedAllocas) {
         this.context = context;
         this.library = library;
-        this.frame = frame;
+        this.slots = slots;
         this.uniquesRegion = uniquesRegion;
         this.phis = phis;
         this.symbols = symbols;
@@ -79,6 +82,7 @@ final class LLVMBitcodeFunctionVisitor implements FunctionVisitor {
         this.liveness = liveness;
         this.notNullable = notNullable;
         this.dbgInfoHandler = dbgInfoHandler;
+        this.promotedAllocas = promotedAllocas;
         this.blocks = new ArrayList<>();
         this.initDebugValues = dbgInfoHandler.isEnabled();
     }
@@ -95,8 +99,8 @@ final class LLVMBitcodeFunctionVisitor implements FunctionVisitor {
     public void visit(InstructionBlock block) {
         List<Phi> blockPhis = phis.get(block);
         ArrayList<LLVMLivenessAnalysis.NullerInformation> blockNullerInfos = liveness.getNullableWithinBlock()[block.getBlockIndex()];
-        LLVMBitcodeInstructionVisitor visitor = new LLVMBitcodeInstructionVisitor(frame, uniquesRegion, blockPhis, argCount, symbols, context, library, blockNullerInfos,
-                        notNullable, dbgInfoHandler);
+        LLVMBitcodeInstructionVisitor visitor = new LLVMBitcodeInstructionVisitor(slots, uniquesRegion, blockPhis, argCount, symbols, context, library, blockNullerInfos,
+                        notNullable, dbgInfoHandler, promotedAllocas);
 
         if (initDebugValues) {
             for (SourceVariable variable : function.getSourceFunction().getVariables()) {
@@ -32,9 +32,10 @@ package com.oracle.truffle.llvm.parser;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
-import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.llvm.parser.LLVMFrameSlotColoring.FrameSlotAssignment;
 import com.oracle.truffle.llvm.parser.LLVMPhiManager.Phi;
 import com.oracle.truffle.llvm.parser.metadata.MDExpression;
 import com.oracle.truffle.llvm.parser.metadata.debuginfo.SourceVariable;
@@ -110,7 +111,7 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
 
     private static final FrameSlot[] NO_SLOTS = new FrameSlot[0];
 
-    private final FrameDescriptor frame;
+    private final FrameSlotAssignment slots;
     private final List<Phi> blockPhis;
     private final NodeFactory nodeFactory;
     private final int argCount;
@@ -118,10 +119,10 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
     private final LLVMContext context;
     private final ExternalLibrary library;
     private final ArrayList<LLVMLivenessAnalysis.NullerInformation> nullerInfos;
-    private final List<? extends FrameSlot> frameSlots;
     private final List<FrameSlot> notNullable;
     private final LLVMRuntimeDebugInformation dbgInfoHandler;
     private final UniquesRegion uniquesRegion;
+    private final Set<AllocateInstruction> promotedAllocas;
 
     private final List<LLVMStatementNode> blockInstructions;
     private int instructionIndex;
@@ -129,9 +130,10 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
 
     private LLVMSourceLocation lastLocation;
 
-    LLVMBitcodeInstructionVisitor(FrameDescriptor frame, UniquesRegion uniquesRegion, List<Phi> blockPhis, int argCount, LLVMSymbolReadResolver symbols, LLVMContext context,
-                    ExternalLibrary library, ArrayList<LLVMLivenessAnalysis.NullerInformation> nullerInfos, List<FrameSlot> notNullable, LLVMRuntimeDebugInformation dbgInfoHandler) {
-        this.frame = frame;
+    LLVMBitcodeInstructionVisitor(FrameSlotAssignment slots, UniquesRegion uniquesRegion, List<Phi> blockPhis, int argCount, LLVMSymbolReadResolver symbols, LLVMContext context,
+                    ExternalLibrary library, ArrayList<LLVMLivenessAnalysis.NullerInformation> nullerInfos, List<FrameSlot> notNullable, LLVMRuntimeDebugInformation dbgInfoHandler,
+                    Set<AllocateInstruction> promotedAllocas) {
+        this.slots = slots;
         this.blockPhis = blockPhis;
         this.nodeFactory = context.getNodeFactory();
         this.argCount = argCount;
@@ -139,11 +141,11 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
         this.context = context;
         this.library = library;
         this.nullerInfos = nullerInfos;
-        this.frameSlots = frame.getSlots();
         this.notNullable = notNullable;
         this.dbgInfoHandler = dbgInfoHandler;
         this.lastLocation = null;
         this.uniquesRegion = uniquesRegion;
+        this.promotedAllocas = promotedAllocas;
 
         this.blockInstructions = new ArrayList<>();
     }
@@ -168,6 +170,13 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
     @Override
     public void visit(AllocateInstruction allocate) {
         final Type type = allocate.getPointeeType();
+        if (promotedAllocas.contains(allocate)) {
+            // the frame slot holds the value of the variable, start with a defined value
+            final LLVMExpressionNode initialValue = symbols.resolve(new NullConstant(type));
+            addInstruction(nodeFactory.createFrameWrite(type, initialValue, getSlot(allocate.getName()), null));
+            return;
+        }
+
         int alignment;
         if (allocate.getAlign() == 0) {
             alignment = context.getByteAlignment(type);
@@ -298,10 +307,10 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
     private void visitDebugIntrinsic(SymbolImpl value, SourceVariable variable, MDExpression expression, long index, boolean isDeclaration) {
         FrameSlot valueSlot = null;
         if (value instanceof ValueInstruction) {
-            valueSlot = frame.findFrameSlot(((ValueInstruction) value).getName());
+            valueSlot = slots.findFrameSlot(((ValueInstruction) value).getName());
 
         } else if (value instanceof FunctionParameter) {
-            valueSlot = frame.findFrameSlot(((FunctionParameter) value).getName());
+            valueSlot = slots.findFrameSlot(((FunctionParameter) value).getName());
         }
 
         if (valueSlot != null) {
@@ -321,6 +330,11 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
 
     @Override
     public void visit(DbgDeclareInstruction inst) {
+        if (inst.getValue() instanceof AllocateInstruction && promotedAllocas.contains(inst.getValue())) {
+            // the variable is no longer in memory
+            handleNullerInfo();
+            return;
+        }
         visitDebugIntrinsic(inst.getValue(), inst.getVariable(), inst.getExpression(), 0L, true);
     }
 
@@ -642,6 +656,11 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
 
     @Override
     public void visit(LoadInstruction load) {
+        if (load.getSource() instanceof AllocateInstruction && promotedAllocas.contains(load.getSource())) {
+            LLVMExpressionNode value = nodeFactory.createFrameRead(load.getType(), getSlot(((AllocateInstruction) load.getSource()).getName()));
+            createFrameWrite(value, load);
+            return;
+        }
         LLVMExpressionNode source = symbols.resolve(load.getSource());
         LLVMExpressionNode result = nodeFactory.createLoad(load.getType(), source);
         createFrameWrite(result, load);
@@ -695,7 +714,6 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
 
     @Override
     public void visit(StoreInstruction store) {
-        final LLVMExpressionNode pointerNode = symbols.resolve(store.getDestination());
         final LLVMExpressionNode valueNode = symbols.resolve(store.getSource());
 
         Type type = store.getSource().getType();
@@ -706,7 +724,13 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
             source = getSourceLocation(store);
         }
 
-        final LLVMStatementNode node = nodeFactory.createStore(pointerNode, valueNode, type, source);
+        final LLVMStatementNode node;
+        if (store.getDestination() instanceof AllocateInstruction && promotedAllocas.contains(store.getDestination())) {
+            node = nodeFactory.createFrameWrite(type, valueNode, getSlot(((AllocateInstruction) store.getDestination()).getName()), source);
+        } else {
+            final LLVMExpressionNode pointerNode = symbols.resolve(store.getDestination());
+            node = nodeFactory.createStore(pointerNode, valueNode, type, source);
+        }
         addInstruction(node);
     }
 
@@ -859,7 +883,7 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
     }
 
     private FrameSlot getSlot(String name) {
-        return frame.findFrameSlot(name);
+        return slots.findFrameSlot(name);
     }
 
     private FrameSlot getExceptionSlot() {
@@ -886,7 +910,7 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
                 // the nuller information is sorted descending by instructionIndex
                 break;
             } else if (nuller.getInstructionIndex() == instructionIndex) {
-                FrameSlot frameSlot = frameSlots.get(nuller.getFrameSlotIndex());
+                FrameSlot frameSlot = slots.getFrameSlot(nuller.getFrameSlotIndex());
                 if (!notNullable.contains(frameSlot)) {
                     LLVMStatementNode nullerNode = nodeFactory.createFrameNuller(frameSlot);
                     blockInstructions.add(nullerNode);
@@ -0,0 +1,459 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.parser;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.FrameSlotKind;
+import com.oracle.truffle.llvm.parser.LLVMLivenessAnalysis.LLVMLivenessAnalysisResult;
+import com.oracle.truffle.llvm.parser.LLVMLivenessAnalysis.LLVMLocalReadVisitor;
+import com.oracle.truffle.llvm.parser.model.SymbolImpl;
+import com.oracle.truffle.llvm.parser.model.blocks.InstructionBlock;
+import com.oracle.truffle.llvm.parser.model.functions.FunctionDefinition;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.Instruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.PhiInstruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.TerminatingInstruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.ValueInstruction;
+import com.oracle.truffle.llvm.parser.util.SparseBitSet;
+import com.oracle.truffle.llvm.runtime.LLVMContext;
+import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
+import com.oracle.truffle.llvm.runtime.types.PointerType;
+
+/**
+ * Lets values with disjoint live ranges share a frame slot. {@link StackManager} creates one frame
+ * slot per value, which makes the frames of huge functions expensive to allocate and to null out.
+ * This class colors the interference graph that is implied by the live sets of
+ * {@link LLVMLivenessAnalysis} and builds a smaller frame with one slot per color.
+ *
+ * The graph is never built explicitly. The blocks are visited in reverse post order, so the
+ * definition of every value that is alive at some instruction has already been visited (the
+ * function is in SSA form), and each value greedily takes the first color that is not used by a
+ * value that is alive at its definition. A phi is written at the end of its predecessors, after
+ * their last instruction, and the values that die in the terminator or in the phis are nulled
+ * afterwards. Therefore, a phi must not share a slot with any value that is alive at the end of
+ * one of its predecessors, or that is used or defined by its terminator.
+ *
+ * Only values with the same {@link FrameSlotKind} share a slot. For object slots, this is further
+ * restricted to pointers, because the null value of the other object slots depends on the type of
+ * the slot. Parameters, source-level variables, and values in unreachable blocks keep their slot.
+ */
+public final class LLVMFrameSlotColoring {
+
+    private static final int NO_COLOR = -1;
+
+    private final FrameDescriptor frame;
+    private final List<? extends FrameSlot> frameSlots;
+    private final SparseBitSet[] liveIn;
+    private final SparseBitSet[] liveOut;
+    private final int[] colors;
+    private final ArrayList<FrameSlotKind> colorKinds;
+    private final BitSet occupied;
+    private final BitSet forbidden;
+    private final LastReadVisitor lastReadVisitor;
+    private final DeathVisitor deathVisitor;
+
+    private BitSet[] phiInterference;
+    private ArrayList<InstructionBlock>[] constrainingPhiBlocks;
+
+    private LLVMFrameSlotColoring(FrameDescriptor frame, LLVMLivenessAnalysisResult liveness) {
+        this.frame = frame;
+        this.frameSlots = frame.getSlots();
+        this.liveIn = liveness.getLiveIn();
+        this.liveOut = liveness.getLiveOut();
+        this.colors = new int[frame.getSize()];
+        this.colorKinds = new ArrayList<>();
+        this.occupied = new BitSet();
+        this.forbidden = new BitSet();
+        this.lastReadVisitor = new LastReadVisitor(frame.getSize());
+        this.deathVisitor = new DeathVisitor();
+        Arrays.fill(colors, NO_COLOR);
+    }
+
+    public static FrameSlotAssignment colorFrameSlots(FrameDescriptor frame, LLVMContext context, FunctionDefinition function, LLVMLivenessAnalysisResult liveness) {
+        LLVMFrameSlotColoring coloring = new LLVMFrameSlotColoring(frame, liveness);
+        List<InstructionBlock> order = computeReversePostOrder(function.getBlocks());
+        coloring.computePhiInterference(function.getBlocks(), order);
+        for (InstructionBlock block : order) {
+            coloring.colorBlock(block);
+        }
+        FrameSlotAssignment assignment = coloring.createFrame();
+
+        if (SulongEngineOption.isTrue(context.getEnv().getOptions().get(SulongEngineOption.PRINT_LIFE_TIME_ANALYSIS_STATS))) {
+            printStatistics(context, function, frame, assignment.getFrame());
+        }
+        return assignment;
+    }
+
+    private static List<InstructionBlock> computeReversePostOrder(List<InstructionBlock> blocks) {
+        ArrayList<InstructionBlock> postOrder = new ArrayList<>(blocks.size());
+        BitSet visited = new BitSet(blocks.size());
+        ArrayDeque<InstructionBlock> stack = new ArrayDeque<>();
+        ArrayDeque<Integer> nextSuccessor = new ArrayDeque<>();
+
+        InstructionBlock entry = blocks.get(0);
+        visited.set(entry.getBlockIndex());
+        stack.push(entry);
+        nextSuccessor.push(0);
+        while (!stack.isEmpty()) {
+            TerminatingInstruction terminatingInstruction = stack.peek().getTerminatingInstruction();
+            int successorIndex = nextSuccessor.pop();
+            if (successorIndex < terminatingInstruction.getSuccessorCount()) {
+                nextSuccessor.push(successorIndex + 1);
+                InstructionBlock successor = terminatingInstruction.getSuccessor(successorIndex);
+                if (!visited.get(successor.getBlockIndex())) {
+                    visited.set(successor.getBlockIndex());
+                    stack.push(successor);
+                    nextSuccessor.push(0);
+                }
+            } else {
+                postOrder.add(stack.pop());
+            }
+        }
+
+        ArrayList<InstructionBlock> result = new ArrayList<>(postOrder.size());
+        for (int i = postOrder.size() - 1; i >= 0; i--) {
+            result.add(postOrder.get(i));
+        }
+        return result;
+    }
+
+    private void computePhiInterference(List<InstructionBlock> blocks, List<InstructionBlock> order) {
+        // only values in reachable blocks are colored, all other values keep their own slot
+        BitSet candidates = new BitSet(colors.length);
+        for (InstructionBlock block : order) {
+            for (int i = 0; i < block.getInstructionCount(); i++) {
+                int index = getColorableSlotIndex(block.getInstruction(i));
+                if (index >= 0) {
+                    candidates.set(index);
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        ArrayList<InstructionBlock>[] predecessors = new ArrayList[blocks.size()];
+        for (InstructionBlock block : blocks) {
+            TerminatingInstruction terminatingInstruction = block.getTerminatingInstruction();
+            for (int i = 0; i < terminatingInstruction.getSuccessorCount(); i++) {
+                InstructionBlock successor = terminatingInstruction.getSuccessor(i);
+                if (predecessors[successor.getBlockIndex()] == null) {
+                    predecessors[successor.getBlockIndex()] = new ArrayList<>(2);
+                }
+                predecessors[successor.getBlockIndex()].add(block);
+            }
+        }
+
+        phiInterference = new BitSet[blocks.size()];
+        @SuppressWarnings("unchecked")
+        ArrayList<InstructionBlock>[] constraining = new ArrayList[colors.length];
+        constrainingPhiBlocks = constraining;
+        SlotCollector slotCollector = new SlotCollector();
+        for (InstructionBlock block : order) {
+            if (!hasColorablePhi(block) || predecessors[block.getBlockIndex()] == null) {
+                continue;
+            }
+
+            BitSet interference = new BitSet(colors.length);
+            slotCollector.slots = interference;
+            for (InstructionBlock predecessor : predecessors[block.getBlockIndex()]) {
+                liveOut[predecessor.getBlockIndex()].orInto(interference);
+                Instruction terminatingInstruction = predecessor.getInstruction(predecessor.getInstructionCount() - 1);
+                terminatingInstruction.accept(slotCollector);
+                slotCollector.visitLocalRead(terminatingInstruction);
+            }
+            interference.and(candidates);
+            phiInterference[block.getBlockIndex()] = interference;
+
+            int index = -1;
+            while ((index = interference.nextSetBit(index + 1)) >= 0) {
+                if (constrainingPhiBlocks[index] == null) {
+                    constrainingPhiBlocks[index] = new ArrayList<>(2);
+                }
+                constrainingPhiBlocks[index].add(block);
+            }
+        }
+    }
+
+    private boolean hasColorablePhi(InstructionBlock block) {
+        for (int i = 0; i < block.getInstructionCount(); i++) {
+            Instruction instruction = block.getInstruction(i);
+            if (!(instruction instanceof PhiInstruction)) {
+                break;
+            }
+            if (getColorableSlotIndex(instruction) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int getColorableSlotIndex(Instruction instruction) {
+        if (!(instruction instanceof ValueInstruction) || ((ValueInstruction) instruction).isSourceVariable()) {
+            return -1;
+        }
+        int index = LLVMLivenessAnalysis.resolve(frame, (ValueInstruction) instruction);
+        return getColorKind(index) != null ? index : -1;
+    }
+
+    private FrameSlotKind getColorKind(int index) {
+        FrameSlot slot = frameSlots.get(index);
+        FrameSlotKind kind = frame.getFrameSlotKind(slot);
+        switch (kind) {
+            case Boolean:
+            case Byte:
+            case Int:
+            case Long:
+            case Float:
+            case Double:
+                return kind;
+            case Object:
+                return slot.getInfo() instanceof PointerType ? kind : null;
+            default:
+                return null;
+        }
+    }
+
+    private void colorBlock(InstructionBlock block) {
+        SparseBitSet in = liveIn[block.getBlockIndex()];
+        SparseBitSet out = liveOut[block.getBlockIndex()];
+
+        occupied.clear();
+        int index = -1;
+        while ((index = in.nextSetBit(index + 1)) >= 0) {
+            if (colors[index] != NO_COLOR) {
+                occupied.set(colors[index]);
+            }
+        }
+
+        // find the last instruction of the block that reads a value (the reads of phis belong to
+        // the predecessors)
+        lastReadVisitor.blockIndex = block.getBlockIndex();
+        for (int i = 0; i < block.getInstructionCount(); i++) {
+            Instruction instruction = block.getInstruction(i);
+            if (!(instruction instanceof PhiInstruction)) {
+                lastReadVisitor.instructionIndex = i;
+                instruction.accept(lastReadVisitor);
+            }
+        }
+
+        deathVisitor.out = out;
+        for (int i = 0; i < block.getInstructionCount(); i++) {
+            Instruction instruction = block.getInstruction(i);
+            int defined = getColorableSlotIndex(instruction);
+            if (defined >= 0) {
+                // a value does not share a slot with the values that its instruction reads, as
+                // those are only nulled after the instruction
+                BitSet interference = instruction instanceof PhiInstruction ? phiInterference[block.getBlockIndex()] : null;
+                colors[defined] = selectColor(defined, getColorKind(defined), interference);
+                occupied.set(colors[defined]);
+            }
+
+            if (!(instruction instanceof PhiInstruction)) {
+                deathVisitor.instructionIndex = i;
+                instruction.accept(deathVisitor);
+            }
+
+            if (defined >= 0 && !out.get(defined) && lastReadVisitor.getLastRead(defined) <= i) {
+                // the value is never read
+                occupied.clear(colors[defined]);
+            }
+        }
+    }
+
+    private int selectColor(int index, FrameSlotKind kind, BitSet phiInterferenceOfBlock) {
+        forbidden.clear();
+        forbidden.or(occupied);
+        if (constrainingPhiBlocks[index] != null) {
+            for (InstructionBlock block : constrainingPhiBlocks[index]) {
+                forbidPhiColors(block);
+            }
+        }
+        if (phiInterferenceOfBlock != null) {
+            int other = -1;
+            while ((other = phiInterferenceOfBlock.nextSetBit(other + 1)) >= 0) {
+                if (colors[other] != NO_COLOR) {
+                    forbidden.set(colors[other]);
+                }
+            }
+        }
+
+        for (int color = 0; color < colorKinds.size(); color++) {
+            if (colorKinds.get(color) == kind && !forbidden.get(color)) {
+                return color;
+            }
+        }
+        colorKinds.add(kind);
+        return colorKinds.size() - 1;
+    }
+
+    private void forbidPhiColors(InstructionBlock block) {
+        for (int i = 0; i < block.getInstructionCount(); i++) {
+            Instruction instruction = block.getInstruction(i);
+            if (!(instruction instanceof PhiInstruction)) {
+                break;
+            }
+            int index = getColorableSlotIndex(instruction);
+            if (index >= 0 && colors[index] != NO_COLOR) {
+                forbidden.set(colors[index]);
+            }
+        }
+    }
+
+    private FrameSlotAssignment createFrame() {
+        FrameDescriptor coloredFrame = new FrameDescriptor();
+        FrameSlot[] slots = new FrameSlot[colors.length];
+        FrameSlot[] colorSlots = new FrameSlot[colorKinds.size()];
+        for (FrameSlot slot : frame.getSlots()) {
+            int color = colors[slot.getIndex()];
+            if (color == NO_COLOR) {
+                slots[slot.getIndex()] = coloredFrame.addFrameSlot(slot.getIdentifier(), slot.getInfo(), frame.getFrameSlotKind(slot));
+            } else {
+                if (colorSlots[color] == null) {
+                    colorSlots[color] = coloredFrame.addFrameSlot(slot.getIdentifier(), slot.getInfo(), frame.getFrameSlotKind(slot));
+                }
+                slots[slot.getIndex()] = colorSlots[color];
+            }
+        }
+        return new FrameSlotAssignment(frame, coloredFrame, slots);
+    }
+
+    private static void printStatistics(LLVMContext context, FunctionDefinition function, FrameDescriptor frame, FrameDescriptor coloredFrame) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(function.getName());
+        builder.append(": ");
+        builder.append(coloredFrame.getSize());
+        builder.append(" frame slots (");
+        builder.append(frame.getSize());
+        builder.append(" without slot sharing)");
+        SulongEngineOption.getStream(context.getEnv().getOptions().get(SulongEngineOption.PRINT_LIFE_TIME_ANALYSIS_STATS)).println(builder.toString());
+    }
+
+    private final class SlotCollector extends LLVMLocalReadVisitor {
+        private BitSet slots;
+
+        @Override
+        public void visitLocalRead(SymbolImpl symbol) {
+            int index = LLVMLivenessAnalysis.resolve(frame, symbol);
+            if (index >= 0) {
+                slots.set(index);
+            }
+        }
+    }
+
+    private final class LastReadVisitor extends LLVMLocalReadVisitor {
+        // tagging the entries with the block avoids clearing the arrays for every block
+        private final int[] lastRead;
+        private final int[] lastReadBlock;
+        private int blockIndex;
+        private int instructionIndex;
+
+        LastReadVisitor(int frameSize) {
+            this.lastRead = new int[frameSize];
+            this.lastReadBlock = new int[frameSize];
+            Arrays.fill(lastReadBlock, -1);
+        }
+
+        int getLastRead(int index) {
+            return lastReadBlock[index] == blockIndex ? lastRead[index] : -1;
+        }
+
+        @Override
+        public void visitLocalRead(SymbolImpl symbol) {
+            int index = LLVMLivenessAnalysis.resolve(frame, symbol);
+            if (index >= 0) {
+                lastRead[index] = instructionIndex;
+                lastReadBlock[index] = blockIndex;
+            }
+        }
+    }
+
+    private final class DeathVisitor extends LLVMLocalReadVisitor {
+        private SparseBitSet out;
+        private int instructionIndex;
+
+        @Override
+        public void visitLocalRead(SymbolImpl symbol) {
+            // a value dies at its last read in the block unless it is still alive afterwards
+            int index = LLVMLivenessAnalysis.resolve(frame, symbol);
+            if (index >= 0 && colors[index] != NO_COLOR && lastReadVisitor.getLastRead(index) == instructionIndex && !out.get(index)) {
+                occupied.clear(colors[index]);
+            }
+        }
+    }
+
+    /**
+     * Maps the frame slots that were created by {@link StackManager} to the slots of the frame
+     * that is actually used by the function.
+     */
+    public static final class FrameSlotAssignment {
+
+        private final FrameDescriptor originalFrame;
+        private final FrameDescriptor frame;
+        private final FrameSlot[] slots;
+
+        /**
+         * Creates an assignment in which every value keeps its own frame slot.
+         */
+        public FrameSlotAssignment(FrameDescriptor frame) {
+            this(frame, frame, null);
+        }
+
+        private FrameSlotAssignment(FrameDescriptor originalFrame, FrameDescriptor frame, FrameSlot[] slots) {
+            this.originalFrame = originalFrame;
+            this.frame = frame;
+            this.slots = slots;
+        }
+
+        public FrameDescriptor getFrame() {
+            return frame;
+        }
+
+        public FrameSlot findFrameSlot(Object identifier) {
+            FrameSlot slot = originalFrame.findFrameSlot(identifier);
+            if (slot == null || slots == null) {
+                return slot;
+            }
+            return slots[slot.getIndex()];
+        }
+
+        /**
+         * @param index the index of a slot that was created by {@link StackManager}, as used by
+         *            {@link LLVMLivenessAnalysis}
+         */
+        public FrameSlot getFrameSlot(int index) {
+            return slots == null ? frame.getSlots().get(index) : slots[index];
+        }
+    }
+}
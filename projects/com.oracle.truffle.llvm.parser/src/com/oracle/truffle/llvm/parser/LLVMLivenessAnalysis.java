@@ -73,6 +73,7 @@ import com.oracle.truffle.llvm.parser.model.symbols.instructions.UnreachableInst
 import com.oracle.truffle.llvm.parser.model.symbols.instructions.VoidCallInstruction;
 import com.oracle.truffle.llvm.parser.model.symbols.instructions.VoidInvokeInstruction;
 import com.oracle.truffle.llvm.parser.model.visitors.SymbolVisitor;
+import com.oracle.truffle.llvm.parser.util.SparseBitSet;
 import com.oracle.truffle.llvm.runtime.LLVMContext;
 import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
 
@@ -84,122 +85,341 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Computes which values are alive at the borders of the basic blocks of a function, and where the
+ * frame slots of dead values can be nulled out.
+ *
+ * As the function is in SSA form, every value has exactly one definition. Instead of iterating a
+ * dataflow problem over all blocks and frame slots until a fixed point is reached, the analysis
+ * walks backwards from the upward-exposed uses of each value until it reaches the definition. The
+ * values are processed in the order of their frame slots, so the live-in and live-out sets of the
+ * blocks are built as sorted arrays that only take space for the values that are actually alive.
+ */
 public final class LLVMLivenessAnalysis {
 
-    private LLVMLivenessAnalysis() {
+    private static final int NO_BLOCK = -1;
+
+    // the kinds of facts about a value in a block, see computeLiveSets
+    private static final int FACT_KIND_BITS = 2;
+    private static final int FACT_KIND_MASK = (1 << FACT_KIND_BITS) - 1;
+    private static final int FACT_GEN = 0;
+    private static final int FACT_PHI_USE = 1;
+    private static final int FACT_PHI_DEF = 2;
+
+    private final FrameDescriptor frame;
+    private final FunctionDefinition functionDefinition;
+    private final List<InstructionBlock> blocks;
+    private final int frameSize;
+
+    private final int[][] predecessors;
+
+    // the block that defines a value, or NO_BLOCK for the arguments
+    private final int[] definingBlock;
+    private final BitSet definedByPhi;
+
+    // per block: the values that are read before they are defined in the block, the values that
+    // are defined in the block, the values that are defined by its phis, and the values that are
+    // read by the phis of its successors
+    private final int[][] gen;
+    private final int[][] defs;
+    private final int[][] phiDefs;
+    private final int[][] phiUses;
+
+    private final IntList[] liveIn;
+    private final IntList[] liveOut;
+
+    private LLVMLivenessAnalysis(FrameDescriptor frame, FunctionDefinition functionDefinition) {
+        this.frame = frame;
+        this.functionDefinition = functionDefinition;
+        this.blocks = functionDefinition.getBlocks();
+        this.frameSize = frame.getSize();
+
+        this.predecessors = computePredecessors(blocks);
+
+        this.definingBlock = newBlockTags(frameSize);
+        this.definedByPhi = new BitSet();
+
+        this.gen = new int[blocks.size()][];
+        this.defs = new int[blocks.size()][];
+        this.phiDefs = new int[blocks.size()][];
+        this.phiUses = new int[blocks.size()][];
+
+        this.liveIn = new IntList[blocks.size()];
+        this.liveOut = new IntList[blocks.size()];
+        for (int i = 0; i < blocks.size(); i++) {
+            liveIn[i] = new IntList();
+            liveOut[i] = new IntList();
+        }
     }
 
     public static LLVMLivenessAnalysisResult computeLiveness(FrameDescriptor frame, LLVMContext context, Map<InstructionBlock, List<LLVMPhiManager.Phi>> phis, FunctionDefinition functionDefinition) {
-        List<InstructionBlock> blocks = functionDefinition.getBlocks();
-        BlockInfo[] blockInfos = initializeGenKill(frame, phis, functionDefinition, blocks);
-        ArrayList<InstructionBlock>[] predecessors = computePredecessors(blocks);
-        int processedBlocks = iterateToFixedPoint(blocks, frame, blockInfos, predecessors);
+        LLVMLivenessAnalysis analysis = new LLVMLivenessAnalysis(frame, functionDefinition);
+        analysis.initializeBlockInfo(phis);
+        int processedBlocks = analysis.computeLiveSets();
+        assert analysis.verifyLiveSets();
         boolean printStatistics = SulongEngineOption.isTrue(context.getEnv().getOptions().get(SulongEngineOption.PRINT_LIFE_TIME_ANALYSIS_STATS));
         if (printStatistics) {
-            printIntermediateResult(context, frame, functionDefinition, blocks, blockInfos, processedBlocks);
+            analysis.printIntermediateResult(context, processedBlocks);
         }
 
-        LLVMLivenessAnalysisResult result = computeLivenessAnalysisResult(functionDefinition, blocks, frame, blockInfos, predecessors);
+        LLVMLivenessAnalysisResult result = analysis.computeLivenessAnalysisResult();
         if (printStatistics) {
-            printResult(context, frame, blocks, result);
+            printResult(context, frame, analysis.blocks, result);
         }
         return result;
     }
 
-    private static BlockInfo[] initializeGenKill(FrameDescriptor frame, Map<InstructionBlock, List<LLVMPhiManager.Phi>> phis, FunctionDefinition functionDefinition, List<InstructionBlock> blocks) {
-        BlockInfo[] result = new BlockInfo[blocks.size()];
+    private void initializeBlockInfo(Map<InstructionBlock, List<LLVMPhiManager.Phi>> phis) {
+        // tagging the entries with the block avoids clearing the arrays for every block
+        int[] writtenInBlock = newBlockTags(frameSize);
+        int[] genInBlock = newBlockTags(frameSize);
+        int[] phiUseInBlock = newBlockTags(frameSize);
+
+        IntList blockGen = new IntList();
+        IntList blockDefs = new IntList();
+        IntList blockPhiDefs = new IntList();
+        IntList blockPhiUses = new IntList();
+
+        LLVMLivenessReadVisitor readVisitor = new LLVMLivenessReadVisitor(frame, writtenInBlock, genInBlock, blockGen);
         for (int i = 0; i < blocks.size(); i++) {
             InstructionBlock block = blocks.get(i);
-            BlockInfo blockInfo = result[i] = new BlockInfo(frame.getSize());
+            readVisitor.blockIndex = i;
+            blockGen.clear();
+            blockDefs.clear();
+            blockPhiDefs.clear();
+            blockPhiUses.clear();
+
             if (i == 0) {
                 // in the first block, the arguments are also always alive
                 for (FunctionParameter param : functionDefinition.getParameters()) {
-                    processRead(blockInfo, frame.findFrameSlot(param.getName()).getIndex());
+                    readVisitor.processRead(frame.findFrameSlot(param.getName()).getIndex());
                 }
             }
 
-            LLVMLivenessReadVisitor readVisitor = new LLVMLivenessReadVisitor(frame, blockInfo);
             for (int j = 0; j < block.getInstructionCount(); j++) {
                 Instruction instruction = block.getInstruction(j);
-                if (instruction instanceof PhiInstruction) {
-                    processPhiWrite(frame, (PhiInstruction) instruction, blockInfo);
-                } else {
-                    processReads(readVisitor, instruction);
-                    processWrite(frame, instruction, blockInfo);
+                boolean isPhi = instruction instanceof PhiInstruction;
+                if (!isPhi) {
+                    instruction.accept(readVisitor);
+                }
+
+                int frameSlotIndex = resolve(frame, instruction);
+                if (frameSlotIndex >= 0) {
+                    assert definingBlock[frameSlotIndex] == NO_BLOCK : "value is defined more than once: " + instruction;
+                    definingBlock[frameSlotIndex] = i;
+                    blockDefs.add(frameSlotIndex);
+                    if (isPhi) {
+                        // phis are written by the predecessors, i.e., they do not kill a value
+                        // that is read in the block
+                        definedByPhi.set(frameSlotIndex);
+                        blockPhiDefs.add(frameSlotIndex);
+                    } else {
+                        writtenInBlock[frameSlotIndex] = i;
+                    }
                 }
             }
 
             List<LLVMPhiManager.Phi> bbPhis = phis.getOrDefault(block, Collections.emptyList());
             for (LLVMPhiManager.Phi phi : bbPhis) {
-                processValueUsedInPhi(frame, phi.getValue(), blockInfo);
+                int frameSlotIndex = resolve(frame, phi.getValue());
+                if (frameSlotIndex >= 0 && phiUseInBlock[frameSlotIndex] != i) {
+                    phiUseInBlock[frameSlotIndex] = i;
+                    blockPhiUses.add(frameSlotIndex);
+                }
             }
+
+            gen[i] = blockGen.toArray();
+            defs[i] = blockDefs.toArray();
+            phiDefs[i] = blockPhiDefs.toArray();
+            phiUses[i] = blockPhiUses.toArray();
         }
-        return result;
     }
 
-    private static int iterateToFixedPoint(List<InstructionBlock> blocks, FrameDescriptor frame, BlockInfo[] blockInfos, ArrayList<InstructionBlock>[] predecessors) {
-        // by processing the graph bottom-up, we may reach a fixed point more quickly
-        ArrayDeque<InstructionBlock> workList = new ArrayDeque<>(blocks);
-        BitSet blockOnWorkList = new BitSet(blocks.size());
-        blockOnWorkList.set(0, blockOnWorkList.size());
-
-        BitSet newPredecessorOut = new BitSet(frame.getSize());
-        BitSet newIn = new BitSet(frame.getSize());
+    /**
+     * Computes the live-in and live-out sets of all blocks as the least solution of
+     *
+     * <pre>
+     * in(b)  = gen(b) + phiDefs(b) + (out(b) - defs(b))
+     * out(b) = phiUses(b) + union over all successors s of (in(s) - phiDefs(s))
+     * </pre>
+     *
+     * Each value is propagated on its own from the blocks that use it towards its definition, which
+     * adds it to the sets of every block at most once.
+     *
+     * @return the number of blocks that were visited
+     */
+    private int computeLiveSets() {
+        // group the facts about the blocks by value (counting sort)
+        int[] factStart = new int[frameSize + 1];
+        for (int i = 0; i < blocks.size(); i++) {
+            countFacts(factStart, gen[i]);
+            countFacts(factStart, phiUses[i]);
+            countFacts(factStart, phiDefs[i]);
+        }
+        for (int i = 0; i < frameSize; i++) {
+            factStart[i + 1] += factStart[i];
+        }
+        int[] facts = new int[factStart[frameSize]];
+        int[] nextFact = Arrays.copyOf(factStart, frameSize);
+        for (int i = 0; i < blocks.size(); i++) {
+            addFacts(facts, nextFact, gen[i], i, FACT_GEN);
+            addFacts(facts, nextFact, phiUses[i], i, FACT_PHI_USE);
+            addFacts(facts, nextFact, phiDefs[i], i, FACT_PHI_DEF);
+        }
 
+        int[] workList = new int[blocks.size() + 1];
         int processedBlocks = 0;
-        while (!workList.isEmpty()) {
-            processedBlocks++;
-            InstructionBlock block = removeBlockFromWorkList(workList, blockOnWorkList);
-            BlockInfo blockInfo = blockInfos[block.getBlockIndex()];
-
-            newIn.clear();
-            newIn.or(blockInfo.out);
-            newIn.andNot(blockInfo.defs);
-            newIn.or(blockInfo.gen);
-            newIn.or(blockInfo.phiDefs);
-
-            blockInfo.in.clear();
-            blockInfo.in.or(newIn);
-
-            for (InstructionBlock predecessor : predecessors[block.getBlockIndex()]) {
-                BlockInfo predecessorBlockInfo = blockInfos[predecessor.getBlockIndex()];
-                newPredecessorOut.clear();
-                newPredecessorOut.or(blockInfo.in);
-                newPredecessorOut.andNot(blockInfo.phiDefs);
-                newPredecessorOut.or(predecessorBlockInfo.phiUses);
-
-                boolean changed = or(predecessorBlockInfo.out, newPredecessorOut);
-                if (changed) {
-                    addBlockToWorkList(workList, blockOnWorkList, predecessor);
+        for (int value = 0; value < frameSize; value++) {
+            for (int i = factStart[value]; i < factStart[value + 1]; i++) {
+                int block = facts[i] >>> FACT_KIND_BITS;
+                int workListSize = 0;
+                switch (facts[i] & FACT_KIND_MASK) {
+                    case FACT_GEN:
+                        workList[workListSize++] = block;
+                        break;
+                    case FACT_PHI_USE:
+                        workListSize = addLiveOut(block, value, workList, workListSize);
+                        break;
+                    case FACT_PHI_DEF:
+                        // the phi is written by the predecessors, it is not alive before that
+                        liveIn[block].addLast(value);
+                        break;
+                    default:
+                        throw new IllegalStateException();
+                }
+
+                // every block is added to the work list at most once per value
+                while (workListSize > 0) {
+                    int current = workList[--workListSize];
+                    processedBlocks++;
+                    if (!liveIn[current].addLast(value) || (definingBlock[value] == current && definedByPhi.get(value))) {
+                        continue;
+                    }
+                    for (int predecessor : predecessors[current]) {
+                        workListSize = addLiveOut(predecessor, value, workList, workListSize);
+                    }
                 }
             }
         }
         return processedBlocks;
     }
 
-    private static LLVMLivenessAnalysisResult computeLivenessAnalysisResult(FunctionDefinition functionDefinition, List<InstructionBlock> blocks, FrameDescriptor frame, BlockInfo[] blockInfos,
-                    ArrayList<InstructionBlock>[] predecessors) {
+    private static void countFacts(int[] factStart, int[] values) {
+        for (int value : values) {
+            factStart[value + 1]++;
+        }
+    }
+
+    private static void addFacts(int[] facts, int[] nextFact, int[] values, int block, int kind) {
+        for (int value : values) {
+            facts[nextFact[value]++] = (block << FACT_KIND_BITS) | kind;
+        }
+    }
+
+    private int addLiveOut(int block, int value, int[] workList, int workListSize) {
+        if (liveOut[block].addLast(value) && definingBlock[value] != block) {
+            workList[workListSize] = block;
+            return workListSize + 1;
+        }
+        return workListSize;
+    }
+
+    /**
+     * Solves the equations of {@link #computeLiveSets()} once more with the classic iteration over
+     * all blocks until a fixed point is reached, and checks that both arrive at the same sets.
+     * Only called with assertions enabled, so every run of the test suites compares the two.
+     */
+    private boolean verifyLiveSets() {
+        BitSet[] in = new BitSet[blocks.size()];
+        BitSet[] out = new BitSet[blocks.size()];
+        BitSet[] phiDefSets = new BitSet[blocks.size()];
+        for (int i = 0; i < blocks.size(); i++) {
+            in[i] = new BitSet();
+            out[i] = toBitSet(phiUses[i]);
+            phiDefSets[i] = toBitSet(phiDefs[i]);
+        }
+
+        ArrayDeque<Integer> workList = new ArrayDeque<>();
+        BitSet onWorkList = new BitSet();
+        for (int i = 0; i < blocks.size(); i++) {
+            workList.add(i);
+            onWorkList.set(i);
+        }
+        while (!workList.isEmpty()) {
+            int block = workList.removeLast();
+            onWorkList.clear(block);
+
+            BitSet newIn = (BitSet) out[block].clone();
+            for (int value : defs[block]) {
+                newIn.clear(value);
+            }
+            newIn.or(toBitSet(gen[block]));
+            newIn.or(phiDefSets[block]);
+            in[block] = newIn;
+
+            BitSet propagated = (BitSet) newIn.clone();
+            propagated.andNot(phiDefSets[block]);
+            for (int predecessor : predecessors[block]) {
+                int oldCardinality = out[predecessor].cardinality();
+                out[predecessor].or(propagated);
+                if (out[predecessor].cardinality() != oldCardinality && !onWorkList.get(predecessor)) {
+                    workList.addLast(predecessor);
+                    onWorkList.set(predecessor);
+                }
+            }
+        }
+
+        for (int i = 0; i < blocks.size(); i++) {
+            assert in[i].equals(toBitSet(liveIn[i].toArray())) : functionDefinition.getName() + ": live-in of block " + i + " is " + formatLocals(frame, liveIn[i].toArray()) + ", expected " +
+                            formatLocals(frame, in[i].stream().toArray());
+            assert out[i].equals(toBitSet(liveOut[i].toArray())) : functionDefinition.getName() + ": live-out of block " + i + " is " + formatLocals(frame, liveOut[i].toArray()) + ", expected " +
+                            formatLocals(frame, out[i].stream().toArray());
+        }
+        return true;
+    }
+
+    private static BitSet toBitSet(int[] values) {
+        BitSet result = new BitSet();
+        for (int value : values) {
+            result.set(value);
+        }
+        return result;
+    }
+
+    private LLVMLivenessAnalysisResult computeLivenessAnalysisResult() {
         @SuppressWarnings("unchecked")
         ArrayList<NullerInformation>[] nullableWithinBlock = new ArrayList[blocks.size()];
-        BitSet[] nullableBeforeBlock = new BitSet[blocks.size()];
-        BitSet[] nullableAfterBlock = new BitSet[blocks.size()];
-
-        int[] lastInstructionIndexTouchingLocal = new int[frame.getSize()];
-        LLVMNullerReadVisitor nullerReadVisitor = new LLVMNullerReadVisitor(frame, lastInstructionIndexTouchingLocal);
+        SparseBitSet[] nullableBeforeBlock = new SparseBitSet[blocks.size()];
+        SparseBitSet[] nullableAfterBlock = new SparseBitSet[blocks.size()];
+        SparseBitSet[] liveInSets = new SparseBitSet[blocks.size()];
+        SparseBitSet[] liveOutSets = new SparseBitSet[blocks.size()];
+
+        int[] lastInstructionIndexTouchingLocal = new int[frameSize];
+        int[] touchedInBlock = newBlockTags(frameSize);
+        int[] liveInBlock = newBlockTags(frameSize);
+        int[] liveOutOfBlock = newBlockTags(frameSize);
+        int[] phiUseInBlock = newBlockTags(frameSize);
+        int[] dyingInBlock = newBlockTags(frameSize);
+        int[] nullableBeforeInBlock = newBlockTags(frameSize);
+        IntList collected = new IntList();
+
+        LLVMNullerReadVisitor nullerReadVisitor = new LLVMNullerReadVisitor(frame, lastInstructionIndexTouchingLocal, touchedInBlock);
         for (int i = 0; i < blocks.size(); i++) {
             ArrayList<NullerInformation> blockNullers = new ArrayList<>();
-            Arrays.fill(lastInstructionIndexTouchingLocal, -1);
-            BlockInfo blockInfo = blockInfos[i];
-            // we destroy the kill and phiDefs bitsets as they are no longer needed anyways
-            blockInfo.kill.clear();
-            blockInfo.phiDefs.clear();
+            IntList in = liveIn[i];
+            IntList out = liveOut[i];
+            in.tag(liveInBlock, i);
+            out.tag(liveOutOfBlock, i);
+            for (int value : phiUses[i]) {
+                phiUseInBlock[value] = i;
+            }
 
+            nullerReadVisitor.blockIndex = i;
             if (i == 0) {
                 // as an approximation, we claim that the arguments are used by the first
                 // instruction
                 for (FunctionParameter param : functionDefinition.getParameters()) {
-                    int frameSlotIndex = frame.findFrameSlot(param.getName()).getIndex();
-                    lastInstructionIndexTouchingLocal[frameSlotIndex] = 0;
+                    nullerReadVisitor.touch(frame.findFrameSlot(param.getName()).getIndex(), 0);
                 }
             }
 
@@ -210,7 +430,7 @@ public final class LLVMLivenessAnalysis {
                 if (instruction instanceof PhiInstruction) {
                     // we need to skip the reads of phi nodes as they belong to a different block
                 } else {
-                    nullerReadVisitor.setInstructionIndex(j);
+                    nullerReadVisitor.instructionIndex = j;
                     instruction.accept(nullerReadVisitor);
                 }
 
@@ -219,46 +439,76 @@ public final class LLVMLivenessAnalysis {
                     // whenever we have a write that kills a value, we need a value nuller after the
                     // last usage (except when the last usage happened in the same instruction as
                     // the write)
-                    if (lastInstructionIndexTouchingLocal[frameSlotIndex] != -1 && lastInstructionIndexTouchingLocal[frameSlotIndex] != j) {
-                        blockNullers.add(new NullerInformation(frameSlotIndex, lastInstructionIndexTouchingLocal[frameSlotIndex]));
+                    int lastTouch = nullerReadVisitor.getLastTouch(frameSlotIndex);
+                    if (lastTouch != -1 && lastTouch != j) {
+                        blockNullers.add(new NullerInformation(frameSlotIndex, lastTouch));
                     }
-                    lastInstructionIndexTouchingLocal[frameSlotIndex] = j;
+                    nullerReadVisitor.touch(frameSlotIndex, j);
                 }
             }
 
-            // compute the values that die in this block. we do that in place, i.e., we destroy the
-            // def bitset that is no longer needed anyways.
-            blockInfo.defs.or(blockInfo.in);
-            blockInfo.defs.andNot(blockInfo.out);
+            // compute the values that die in this block, i.e., (defs + in) - out
+            collected.clear();
+            for (int k = 0; k < in.size(); k++) {
+                collectIfAbsent(collected, dyingInBlock, liveOutOfBlock, in.get(k), i);
+            }
+            for (int value : defs[i]) {
+                collectIfAbsent(collected, dyingInBlock, liveOutOfBlock, value, i);
+            }
+            collected.sort();
 
             int terminatingInstructionIndex = block.getInstructionCount() - 1;
-            BitSet valuesThatDieInBlock = blockInfo.defs;
-            int bitIndex = -1;
-            while ((bitIndex = valuesThatDieInBlock.nextSetBit(bitIndex + 1)) >= 0) {
-                assert lastInstructionIndexTouchingLocal[bitIndex] >= 0 : "must have a last usage, otherwise the value would not be alive in this block";
-                if (blockInfo.phiUses.get(bitIndex) || lastInstructionIndexTouchingLocal[bitIndex] == terminatingInstructionIndex) {
+            IntList nullableAfter = new IntList();
+            for (int k = 0; k < collected.size(); k++) {
+                int value = collected.get(k);
+                int lastTouch = nullerReadVisitor.getLastTouch(value);
+                assert lastTouch >= 0 : "must have a last usage, otherwise the value would not be alive in this block";
+                if (phiUseInBlock[value] == i || lastTouch == terminatingInstructionIndex) {
                     // if a value dies that is used in a phi function or in a terminating
                     // instruction, it dies after the block
-                    blockInfo.phiDefs.set(bitIndex);
+                    nullableAfter.add(value);
                 } else {
-                    blockNullers.add(new NullerInformation(bitIndex, lastInstructionIndexTouchingLocal[bitIndex]));
+                    blockNullers.add(new NullerInformation(value, lastTouch));
                 }
             }
 
-            // compute the values that can be nulled out before we enter this block.
-            for (InstructionBlock predecessor : predecessors[i]) {
-                BlockInfo predInfo = blockInfos[predecessor.getBlockIndex()];
-                blockInfo.kill.or(predInfo.out);
+            // compute the values that can be nulled out before we enter this block, i.e., the
+            // values that are alive after a predecessor but not when entering this block
+            collected.clear();
+            for (int predecessor : predecessors[i]) {
+                IntList predecessorOut = liveOut[predecessor];
+                for (int k = 0; k < predecessorOut.size(); k++) {
+                    collectIfAbsent(collected, nullableBeforeInBlock, liveInBlock, predecessorOut.get(k), i);
+                }
             }
-            blockInfo.kill.andNot(blockInfo.in);
+            collected.sort();
 
             // collect the results
             Collections.sort(blockNullers);
             nullableWithinBlock[i] = blockNullers;
-            nullableBeforeBlock[i] = blockInfo.kill;
-            nullableAfterBlock[i] = blockInfo.phiDefs;
+            nullableBeforeBlock[i] = collected.toSparseBitSet();
+            nullableAfterBlock[i] = nullableAfter.toSparseBitSet();
+            liveInSets[i] = in.toSparseBitSet();
+            liveOutSets[i] = out.toSparseBitSet();
+        }
+        return new LLVMLivenessAnalysisResult(nullableWithinBlock, nullableBeforeBlock, nullableAfterBlock, liveInSets, liveOutSets);
+    }
+
+    /**
+     * Adds {@code value} to {@code collected} unless it is tagged with {@code block} in
+     * {@code excluded} or was already collected for {@code block}.
+     */
+    private static void collectIfAbsent(IntList collected, int[] collectedInBlock, int[] excluded, int value, int block) {
+        if (excluded[value] != block && collectedInBlock[value] != block) {
+            collectedInBlock[value] = block;
+            collected.add(value);
         }
-        return new LLVMLivenessAnalysisResult(nullableWithinBlock, nullableBeforeBlock, nullableAfterBlock);
+    }
+
+    private static int[] newBlockTags(int frameSize) {
+        int[] tags = new int[frameSize];
+        Arrays.fill(tags, NO_BLOCK);
+        return tags;
     }
 
     public static class NullerInformation implements Comparable<NullerInformation> {
@@ -284,99 +534,31 @@ public final class LLVMLivenessAnalysis {
         }
     }
 
-    private static ArrayList<InstructionBlock>[] computePredecessors(List<InstructionBlock> blocks) {
-        @SuppressWarnings("unchecked")
-        ArrayList<InstructionBlock>[] result = new ArrayList[blocks.size()];
-        for (int i = 0; i < blocks.size(); i++) {
-            result[i] = new ArrayList<>(2);
-        }
-
+    private static int[][] computePredecessors(List<InstructionBlock> blocks) {
+        int[] predecessorCount = new int[blocks.size()];
         for (InstructionBlock block : blocks) {
             TerminatingInstruction terminatingInstruction = block.getTerminatingInstruction();
             for (int i = 0; i < terminatingInstruction.getSuccessorCount(); i++) {
-                result[terminatingInstruction.getSuccessor(i).getBlockIndex()].add(block);
+                predecessorCount[terminatingInstruction.getSuccessor(i).getBlockIndex()]++;
             }
         }
-        return result;
-    }
-
-    private static void addBlockToWorkList(ArrayDeque<InstructionBlock> workList, BitSet blockOnWorkList, InstructionBlock predecessorBlock) {
-        boolean predecessorBlockIndex = blockOnWorkList.get(predecessorBlock.getBlockIndex());
-        if (!predecessorBlockIndex) {
-            workList.addLast(predecessorBlock);
-            blockOnWorkList.set(predecessorBlock.getBlockIndex());
-        }
-    }
-
-    private static InstructionBlock removeBlockFromWorkList(ArrayDeque<InstructionBlock> workList, BitSet blockOnWorkList) {
-        InstructionBlock block = workList.removeLast();
-        blockOnWorkList.clear(block.getBlockIndex());
-        return block;
-    }
-
-    private static boolean or(BitSet dest, BitSet source) {
-        assert dest.size() == source.size();
-        if (isChangeForOrNecessary(dest, source)) {
-            dest.or(source);
-            return true;
-        }
-        return false;
-    }
-
-    private static boolean isChangeForOrNecessary(BitSet dest, BitSet source) {
-        // this could be far faster if we had direct access to the words in the BitSet
-        int bitIndex = -1;
-        while ((bitIndex = source.nextSetBit(bitIndex + 1)) >= 0) {
-            if (!dest.get(bitIndex)) {
-                return true;
-            }
-        }
-        return false;
-    }
 
-    private static void processReads(LLVMLivenessReadVisitor readVisitor, Instruction instruction) {
-        instruction.accept(readVisitor);
-    }
-
-    private static void processWrite(FrameDescriptor frame, SymbolImpl symbol, BlockInfo blockInfo) {
-        int frameSlotIndex = resolve(frame, symbol);
-        if (frameSlotIndex >= 0) {
-            blockInfo.defs.set(frameSlotIndex);
-            if (!blockInfo.gen.get(frameSlotIndex)) {
-                blockInfo.kill.set(frameSlotIndex);
-            }
+        int[][] result = new int[blocks.size()][];
+        for (int i = 0; i < blocks.size(); i++) {
+            result[i] = new int[predecessorCount[i]];
+            predecessorCount[i] = 0;
         }
-    }
-
-    private static void processRead(FrameDescriptor frame, SymbolImpl symbol, BlockInfo blockInfo) {
-        int frameSlotIndex = resolve(frame, symbol);
-        processRead(blockInfo, frameSlotIndex);
-    }
-
-    private static void processRead(BlockInfo blockInfo, int frameSlotIndex) {
-        if (frameSlotIndex >= 0) {
-            if (!blockInfo.kill.get(frameSlotIndex)) {
-                blockInfo.gen.set(frameSlotIndex);
+        for (InstructionBlock block : blocks) {
+            TerminatingInstruction terminatingInstruction = block.getTerminatingInstruction();
+            for (int i = 0; i < terminatingInstruction.getSuccessorCount(); i++) {
+                int successor = terminatingInstruction.getSuccessor(i).getBlockIndex();
+                result[successor][predecessorCount[successor]++] = block.getBlockIndex();
             }
         }
+        return result;
     }
 
-    private static void processValueUsedInPhi(FrameDescriptor frame, SymbolImpl symbol, BlockInfo blockInfo) {
-        int frameSlotIndex = resolve(frame, symbol);
-        if (frameSlotIndex >= 0) {
-            blockInfo.phiUses.set(frameSlotIndex);
-        }
-    }
-
-    private static void processPhiWrite(FrameDescriptor frame, PhiInstruction phi, BlockInfo blockInfo) {
-        int frameSlotIndex = resolve(frame, phi);
-        if (frameSlotIndex >= 0) {
-            blockInfo.phiDefs.set(frameSlotIndex);
-            blockInfo.defs.set(frameSlotIndex);
-        }
-    }
-
-    private static int resolve(FrameDescriptor frame, SymbolImpl symbol) {
+    static int resolve(FrameDescriptor frame, SymbolImpl symbol) {
         if (symbol instanceof ValueSymbol && !(symbol instanceof GlobalValueSymbol || symbol instanceof FunctionDefinition || symbol instanceof FunctionDeclaration)) {
             String name = ((ValueSymbol) symbol).getName();
             assert name != null;
@@ -387,8 +569,7 @@ public final class LLVMLivenessAnalysis {
         return -1;
     }
 
-    private static void printIntermediateResult(LLVMContext context, FrameDescriptor frame, FunctionDefinition functionDefinition, List<InstructionBlock> blocks, BlockInfo[] blockInfos,
-                    int processedBlocks) {
+    private void printIntermediateResult(LLVMContext context, int processedBlocks) {
         StringBuilder builder = new StringBuilder();
         builder.append(functionDefinition.getName());
         builder.append(" (processed ");
@@ -396,8 +577,7 @@ public final class LLVMLivenessAnalysis {
         builder.append(" blocks - CFG has ");
         builder.append(blocks.size());
         builder.append(" blocks)\n");
-        for (int i = 0; i < blockInfos.length; i++) {
-            BlockInfo blockInfo = blockInfos[i];
+        for (int i = 0; i < blocks.size(); i++) {
             builder.append("Basic block ");
             builder.append(i);
             builder.append(" (");
@@ -405,31 +585,27 @@ public final class LLVMLivenessAnalysis {
             builder.append(")\n");
 
             builder.append("  In:      ");
-            builder.append(formatLocals(frame, blockInfo.in));
+            builder.append(formatLocals(frame, liveIn[i].toArray()));
             builder.append("\n");
 
             builder.append("  Gen:     ");
-            builder.append(formatLocals(frame, blockInfo.gen));
-            builder.append("\n");
-
-            builder.append("  Kill:    ");
-            builder.append(formatLocals(frame, blockInfo.kill));
+            builder.append(formatLocals(frame, gen[i]));
             builder.append("\n");
 
             builder.append("  Def:     ");
-            builder.append(formatLocals(frame, blockInfo.defs));
+            builder.append(formatLocals(frame, defs[i]));
             builder.append("\n");
 
             builder.append("  PhiDefs: ");
-            builder.append(formatLocals(frame, blockInfo.phiDefs));
+            builder.append(formatLocals(frame, phiDefs[i]));
             builder.append("\n");
 
             builder.append("  PhiUses: ");
-            builder.append(formatLocals(frame, blockInfo.phiUses));
+            builder.append(formatLocals(frame, phiUses[i]));
             builder.append("\n");
 
             builder.append("  Out:     ");
-            builder.append(formatLocals(frame, blockInfo.out));
+            builder.append(formatLocals(frame, liveOut[i].toArray()));
             builder.append("\n");
         }
 
@@ -461,7 +637,20 @@ public final class LLVMLivenessAnalysis {
         SulongEngineOption.getStream(context.getEnv().getOptions().get(SulongEngineOption.PRINT_LIFE_TIME_ANALYSIS_STATS)).println(builder.toString());
     }
 
-    private static String formatLocals(FrameDescriptor frame, BitSet bitSet) {
+    private static String formatLocals(FrameDescriptor frame, int[] values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        StringBuilder result = new StringBuilder();
+        for (int value : sorted) {
+            if (result.length() > 0) {
+                result.append(", ");
+            }
+            result.append(frame.getSlots().get(value).getIdentifier());
+        }
+        return result.toString();
+    }
+
+    private static String formatLocals(FrameDescriptor frame, SparseBitSet bitSet) {
         StringBuilder result = new StringBuilder();
         int bitIndex = -1;
         while ((bitIndex = bitSet.nextSetBit(bitIndex + 1)) >= 0) {
@@ -486,43 +675,66 @@ public final class LLVMLivenessAnalysis {
 
     private static class LLVMLivenessReadVisitor extends LLVMLocalReadVisitor {
         private final FrameDescriptor frame;
-        private final BlockInfo blockInfo;
+        private final int[] writtenInBlock;
+        private final int[] genInBlock;
+        private final IntList gen;
+        private int blockIndex;
 
-        LLVMLivenessReadVisitor(FrameDescriptor frame, BlockInfo blockInfo) {
+        LLVMLivenessReadVisitor(FrameDescriptor frame, int[] writtenInBlock, int[] genInBlock, IntList gen) {
             this.frame = frame;
-            this.blockInfo = blockInfo;
+            this.writtenInBlock = writtenInBlock;
+            this.genInBlock = genInBlock;
+            this.gen = gen;
         }
 
         @Override
         public void visitLocalRead(SymbolImpl symbol) {
-            processRead(frame, symbol, blockInfo);
+            int frameSlotIndex = resolve(frame, symbol);
+            if (frameSlotIndex >= 0) {
+                processRead(frameSlotIndex);
+            }
+        }
+
+        void processRead(int frameSlotIndex) {
+            if (writtenInBlock[frameSlotIndex] != blockIndex && genInBlock[frameSlotIndex] != blockIndex) {
+                genInBlock[frameSlotIndex] = blockIndex;
+                gen.add(frameSlotIndex);
+            }
         }
     }
 
     private static class LLVMNullerReadVisitor extends LLVMLocalReadVisitor {
         private final FrameDescriptor frame;
         private final int[] lastInstructionIndexTouchingLocal;
+        private final int[] touchedInBlock;
+        private int blockIndex;
         private int instructionIndex;
 
-        LLVMNullerReadVisitor(FrameDescriptor frame, int[] lastInstructionIndexTouchingLocal) {
+        LLVMNullerReadVisitor(FrameDescriptor frame, int[] lastInstructionIndexTouchingLocal, int[] touchedInBlock) {
             this.frame = frame;
             this.lastInstructionIndexTouchingLocal = lastInstructionIndexTouchingLocal;
+            this.touchedInBlock = touchedInBlock;
         }
 
-        public void setInstructionIndex(int instructionIndex) {
-            this.instructionIndex = instructionIndex;
+        int getLastTouch(int frameSlotIndex) {
+            return touchedInBlock[frameSlotIndex] == blockIndex ? lastInstructionIndexTouchingLocal[frameSlotIndex] : -1;
+        }
+
+        void touch(int frameSlotIndex, int index) {
+            touchedInBlock[frameSlotIndex] = blockIndex;
+            lastInstructionIndexTouchingLocal[frameSlotIndex] = index;
         }
 
         @Override
         public void visitLocalRead(SymbolImpl symbol) {
             int frameSlotIndex = resolve(frame, symbol);
             if (frameSlotIndex >= 0) {
-                lastInstructionIndexTouchingLocal[frameSlotIndex] = instructionIndex;
+                touch(frameSlotIndex, instructionIndex);
             }
         }
     }
 
-    private abstract static class LLVMLocalReadVisitor implements SymbolVisitor {
+    abstract static class LLVMLocalReadVisitor implements SymbolVisitor {
 
         @Override
         public void visit(AllocateInstruction allocate) {
@@ -721,25 +933,64 @@ public final class LLVMLivenessAnalysis {
         protected abstract void visitLocalRead(SymbolImpl symbol);
     }
 
-    private static class BlockInfo {
-        public final BitSet in;
-        public final BitSet out;
+    /**
+     * A growable list of frame slot indices.
+     */
+    private static final class IntList {
+        private static final int[] EMPTY = new int[0];
 
-        public final BitSet gen;
-        public final BitSet kill;
-        public final BitSet defs;
-        public final BitSet phiDefs;
-        public final BitSet phiUses;
+        private int[] values = EMPTY;
+        private int size;
 
-        BlockInfo(int frameSlots) {
-            this.in = new BitSet(frameSlots);
-            this.out = new BitSet(frameSlots);
+        int size() {
+            return size;
+        }
 
-            this.gen = new BitSet(frameSlots);
-            this.kill = new BitSet(frameSlots);
-            this.defs = new BitSet(frameSlots);
-            this.phiDefs = new BitSet(frameSlots);
-            this.phiUses = new BitSet(frameSlots);
+        int get(int index) {
+            return values[index];
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.max(4, size * 2));
+            }
+            values[size++] = value;
+        }
+
+        /**
+         * Adds a value that is not smaller than any value in the list.
+         *
+         * @return false if the value was already in the list
+         */
+        boolean addLast(int value) {
+            assert size == 0 || values[size - 1] <= value;
+            if (size > 0 && values[size - 1] == value) {
+                return false;
+            }
+            add(value);
+            return true;
+        }
+
+        void sort() {
+            Arrays.sort(values, 0, size);
+        }
+
+        void tag(int[] tags, int tag) {
+            for (int i = 0; i < size; i++) {
+                tags[values[i]] = tag;
+            }
+        }
+
+        int[] toArray() {
+            return size == 0 ? EMPTY : Arrays.copyOf(values, size);
+        }
+
+        SparseBitSet toSparseBitSet() {
+            return SparseBitSet.create(values, size);
         }
     }
 
@@ -750,25 +1001,45 @@ public final class LLVMLivenessAnalysis {
      */
     public static class LLVMLivenessAnalysisResult {
         private final ArrayList<NullerInformation>[] nullableWithinBlock;
-        private final BitSet[] nullableBeforeBlock;
-        private final BitSet[] nullableAfterBlock;
+        private final SparseBitSet[] nullableBeforeBlock;
+        private final SparseBitSet[] nullableAfterBlock;
+        private final SparseBitSet[] liveIn;
+        private final SparseBitSet[] liveOut;
 
-        public LLVMLivenessAnalysisResult(ArrayList<NullerInformation>[] nullableWithinBlock, BitSet[] nullableBeforeBlock, BitSet[] nullableAfterBlock) {
+        public LLVMLivenessAnalysisResult(ArrayList<NullerInformation>[] nullableWithinBlock, SparseBitSet[] nullableBeforeBlock, SparseBitSet[] nullableAfterBlock, SparseBitSet[] liveIn,
+                        SparseBitSet[] liveOut) {
             this.nullableWithinBlock = nullableWithinBlock;
             this.nullableBeforeBlock = nullableBeforeBlock;
             this.nullableAfterBlock = nullableAfterBlock;
+            this.liveIn = liveIn;
+            this.liveOut = liveOut;
         }
 
         public ArrayList<NullerInformation>[] getNullableWithinBlock() {
             return nullableWithinBlock;
         }
 
-        public BitSet[] getNullableBeforeBlock() {
+        public SparseBitSet[] getNullableBeforeBlock() {
             return nullableBeforeBlock;
         }
 
-        public BitSet[] getNullableAfterBlock() {
+        public SparseBitSet[] getNullableAfterBlock() {
             return nullableAfterBlock;
         }
+
+        /**
+         * The values that are alive when entering a block (including the phis of the block).
+         */
+        public SparseBitSet[] getLiveIn() {
+            return liveIn;
+        }
+
+        /**
+         * The values that are alive when leaving a block (including the values that are used by
+         * the phis of its successors).
+         */
+        public SparseBitSet[] getLiveOut() {
+            return liveOut;
+        }
     }
 }
@@ -30,9 +30,9 @@
 package com.oracle.truffle.llvm.parser;
 
 import java.util.ArrayList;
-import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.RootCallTarget;
@@ -41,6 +41,7 @@ import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.nodes.RootNode;
 import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.llvm.parser.LLVMFrameSlotColoring.FrameSlotAssignment;
 import com.oracle.truffle.llvm.parser.LLVMLivenessAnalysis.LLVMLivenessAnalysisResult;
 import com.oracle.truffle.llvm.parser.LLVMPhiManager.Phi;
 import com.oracle.truffle.llvm.parser.metadata.debuginfo.DebugInfoFunctionProcessor;
@@ -51,7 +52,9 @@ import com.oracle.truffle.llvm.parser.model.blocks.InstructionBlock;
 import com.oracle.truffle.llvm.parser.model.functions.FunctionDefinition;
 import com.oracle.truffle.llvm.parser.model.functions.FunctionParameter;
 import com.oracle.truffle.llvm.parser.model.functions.LazyFunctionParser;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.AllocateInstruction;
 import com.oracle.truffle.llvm.parser.nodes.LLVMSymbolReadResolver;
+import com.oracle.truffle.llvm.parser.util.SparseBitSet;
 import com.oracle.truffle.llvm.runtime.GetStackSpaceFactory;
 import com.oracle.truffle.llvm.runtime.LLVMFunctionDescriptor.LazyToTruffleConverter;
 import com.oracle.truffle.llvm.runtime.debug.scope.LLVMSourceLocation;
@@ -61,6 +64,7 @@ import com.oracle.truffle.llvm.runtime.memory.LLVMStack;
 import com.oracle.truffle.llvm.runtime.memory.LLVMStack.UniquesRegion;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMStatementNode;
+import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
 import com.oracle.truffle.llvm.runtime.types.PointerType;
 import com.oracle.truffle.llvm.runtime.types.PrimitiveType;
 import com.oracle.truffle.llvm.runtime.types.StructureType;
@@ -95,30 +99,40 @@ public class LazyToTruffleConverterImpl implements LazyToTruffleConverter {
         // setup the frameDescriptor
         final FrameDescriptor frame = StackManager.createFrame(method);
 
+        // keep local variables whose address does not escape in frame slots
+        final boolean debugInfoEnabled = runtime.getContext().getEnv().getOptions().get(SulongEngineOption.ENABLE_LVI);
+        final Set<AllocateInstruction> promotedAllocas = LLVMAllocaPromotion.promoteAllocas(method, frame, debugInfoEnabled);
+
         // setup the uniquesRegion
         UniquesRegion uniquesRegion = new UniquesRegion();
         GetStackSpaceFactory getStackSpaceFactory = GetStackSpaceFactory.createGetUniqueStackSpaceFactory(uniquesRegion);
 
         LLVMLivenessAnalysisResult liveness = LLVMLivenessAnalysis.computeLiveness(frame, runtime.getContext(), phis, method);
-        LLVMSymbolReadResolver symbols = new LLVMSymbolReadResolver(runtime, frame, getStackSpaceFactory);
+
+        // let values with disjoint live ranges share a frame slot (the debugger needs to find
+        // every source-level value in its own slot)
+        final FrameSlotAssignment slots = debugInfoEnabled ? new FrameSlotAssignment(frame) : LLVMFrameSlotColoring.colorFrameSlots(frame, runtime.getContext(), method, liveness);
+        final FrameDescriptor functionFrame = slots.getFrame();
+
+        LLVMSymbolReadResolver symbols = new LLVMSymbolReadResolver(runtime, slots, getStackSpaceFactory);
         List<FrameSlot> notNullable = new ArrayList<>();
 
-        LLVMRuntimeDebugInformation dbgInfoHandler = new LLVMRuntimeDebugInformation(frame, runtime.getContext(), notNullable, symbols);
+        LLVMRuntimeDebugInformation dbgInfoHandler = new LLVMRuntimeDebugInformation(functionFrame, runtime.getContext(), notNullable, symbols);
         dbgInfoHandler.registerStaticDebugSymbols(method);
 
-        LLVMBitcodeFunctionVisitor visitor = new LLVMBitcodeFunctionVisitor(runtime.getContext(), runtime.getLibrary(), frame, uniquesRegion, phis, method.getParameters().size(), symbols, method,
-                        liveness, notNullable, dbgInfoHandler);
+        LLVMBitcodeFunctionVisitor visitor = new LLVMBitcodeFunctionVisitor(runtime.getContext(), runtime.getLibrary(), slots, uniquesRegion, phis, method.getParameters().size(), symbols, method,
+                        liveness, notNullable, dbgInfoHandler, promotedAllocas);
         method.accept(visitor);
-        FrameSlot[][] nullableBeforeBlock = getNullableFrameSlots(frame, liveness.getNullableBeforeBlock(), notNullable);
-        FrameSlot[][] nullableAfterBlock = getNullableFrameSlots(frame, liveness.getNullableAfterBlock(), notNullable);
+        FrameSlot[][] nullableBeforeBlock = getNullableFrameSlots(slots, liveness.getNullableBeforeBlock(), notNullable);
+        FrameSlot[][] nullableAfterBlock = getNullableFrameSlots(slots, liveness.getNullableAfterBlock(), notNullable);
         LLVMSourceLocation location = method.getLexicalScope();
 
-        List<LLVMStatementNode> copyArgumentsToFrame = copyArgumentsToFrame(frame);
+        List<LLVMStatementNode> copyArgumentsToFrame = copyArgumentsToFrame(functionFrame);
         LLVMStatementNode[] copyArgumentsToFrameArray = copyArgumentsToFrame.toArray(new LLVMStatementNode[copyArgumentsToFrame.size()]);
-        LLVMExpressionNode body = runtime.getContext().getNodeFactory().createFunctionBlockNode(frame.findFrameSlot(LLVMUserException.FRAME_SLOT_ID), visitor.getBlocks(), uniquesRegion.build(),
-                        nullableBeforeBlock, nullableAfterBlock, location, copyArgumentsToFrameArray);
+        LLVMExpressionNode body = runtime.getContext().getNodeFactory().createFunctionBlockNode(functionFrame.findFrameSlot(LLVMUserException.FRAME_SLOT_ID), visitor.getBlocks(),
+                        uniquesRegion.build(), nullableBeforeBlock, nullableAfterBlock, location, copyArgumentsToFrameArray);
 
-        RootNode rootNode = runtime.getContext().getNodeFactory().createFunctionStartNode(body, frame, method.getName(), method.getSourceName(),
+        RootNode rootNode = runtime.getContext().getNodeFactory().createFunctionStartNode(body, functionFrame, method.getName(), method.getSourceName(),
                         method.getParameters().size(), source, location);
         method.onAfterParse();
 
@@ -130,18 +144,18 @@ public class LazyToTruffleConverterImpl implements LazyToTruffleConverter {
         return method.getSourceFunction().getSourceType();
     }
 
-    private static FrameSlot[][] getNullableFrameSlots(FrameDescriptor frame, BitSet[] nullablePerBlock, List<FrameSlot> notNullable) {
-        List<? extends FrameSlot> frameSlots = frame.getSlots();
+    private static FrameSlot[][] getNullableFrameSlots(FrameSlotAssignment slots, SparseBitSet[] nullablePerBlock, List<FrameSlot> notNullable) {
         FrameSlot[][] result = new FrameSlot[nullablePerBlock.length][];
 
         for (int i = 0; i < nullablePerBlock.length; i++) {
-            BitSet nullable = nullablePerBlock[i];
+            SparseBitSet nullable = nullablePerBlock[i];
             int bitIndex = -1;
 
             ArrayList<FrameSlot> nullableSlots = new ArrayList<>();
             while ((bitIndex = nullable.nextSetBit(bitIndex + 1)) >= 0) {
-                FrameSlot frameSlot = frameSlots.get(bitIndex);
-                if (!notNullable.contains(frameSlot)) {
+                FrameSlot frameSlot = slots.getFrameSlot(bitIndex);
+                // values that share a slot may be nulled at the same place
+                if (!notNullable.contains(frameSlot) && !nullableSlots.contains(frameSlot)) {
                     nullableSlots.add(frameSlot);
                 }
             }
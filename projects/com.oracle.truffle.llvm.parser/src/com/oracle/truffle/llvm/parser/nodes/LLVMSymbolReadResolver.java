@@ -35,6 +35,7 @@ import java.util.List;
 
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.llvm.parser.LLVMFrameSlotColoring.FrameSlotAssignment;
 import com.oracle.truffle.llvm.parser.LLVMParserRuntime;
 import com.oracle.truffle.llvm.parser.model.SymbolImpl;
 import com.oracle.truffle.llvm.parser.model.functions.FunctionDeclaration;
@@ -89,7 +90,7 @@ public final class LLVMSymbolReadResolver {
     private final LLVMParserRuntime runtime;
     private final LLVMContext context;
     private final NodeFactory nodeFactory;
-    private final FrameDescriptor frame;
+    private final FrameSlotAssignment frameSlots;
     private final GetStackSpaceFactory getStackSpaceFactory;
 
     private final InternalVisitor visitor = new InternalVisitor();
@@ -394,22 +395,26 @@ public final class LLVMSymbolReadResolver {
 
         @Override
         public void visit(FunctionParameter param) {
-            final FrameSlot slot = frame.findFrameSlot(param.getName());
+            final FrameSlot slot = frameSlots.findFrameSlot(param.getName());
             resolvedNode = nodeFactory.createFrameRead(param.getType(), slot);
         }
 
         @Override
         public void visitValueInstruction(ValueInstruction value) {
-            final FrameSlot slot = frame.findFrameSlot(value.getName());
+            final FrameSlot slot = frameSlots.findFrameSlot(value.getName());
             resolvedNode = nodeFactory.createFrameRead(value.getType(), slot);
         }
     }
 
     public LLVMSymbolReadResolver(LLVMParserRuntime runtime, FrameDescriptor frame, GetStackSpaceFactory getStackSpaceFactory) {
+        this(runtime, new FrameSlotAssignment(frame), getStackSpaceFactory);
+    }
+
+    public LLVMSymbolReadResolver(LLVMParserRuntime runtime, FrameSlotAssignment frameSlots, GetStackSpaceFactory getStackSpaceFactory) {
         this.runtime = runtime;
         this.context = runtime.getContext();
         this.nodeFactory = context.getNodeFactory();
-        this.frame = frame;
+        this.frameSlots = frameSlots;
         this.getStackSpaceFactory = getStackSpaceFactory;
     }
 
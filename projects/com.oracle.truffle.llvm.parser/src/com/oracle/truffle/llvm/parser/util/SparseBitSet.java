@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.parser.util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * An immutable set of non-negative integers that is stored as a sorted array. In contrast to
+ * {@link BitSet}, its size depends on the number of elements and not on the largest one, which
+ * makes it a better fit for the per-block results of analyses over functions with many values.
+ * The query methods follow the {@link BitSet} API.
+ */
+public final class SparseBitSet {
+
+    public static final SparseBitSet EMPTY = new SparseBitSet(new int[0]);
+
+    private final int[] values;
+
+    private SparseBitSet(int[] values) {
+        this.values = values;
+    }
+
+    /**
+     * @param values the elements of the set in ascending order
+     * @param length the number of elements to take from {@code values}
+     */
+    public static SparseBitSet create(int[] values, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+        assert isStrictlyAscending(values, length);
+        return new SparseBitSet(Arrays.copyOf(values, length));
+    }
+
+    private static boolean isStrictlyAscending(int[] values, int length) {
+        for (int i = 1; i < length; i++) {
+            if (values[i - 1] >= values[i]) {
+                return false;
+            }
+        }
+        return length == 0 || values[0] >= 0;
+    }
+
+    public boolean get(int bitIndex) {
+        return Arrays.binarySearch(values, bitIndex) >= 0;
+    }
+
+    /**
+     * @return the smallest element that is greater than or equal to {@code fromIndex}, or -1 if
+     *         there is no such element
+     */
+    public int nextSetBit(int fromIndex) {
+        int position = Arrays.binarySearch(values, fromIndex);
+        if (position < 0) {
+            position = -position - 1;
+        }
+        return position < values.length ? values[position] : -1;
+    }
+
+    public int cardinality() {
+        return values.length;
+    }
+
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    /**
+     * Adds all elements of this set to {@code target}.
+     */
+    public void orInto(BitSet target) {
+        for (int value : values) {
+            target.set(value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(values[i]);
+        }
+        return builder.append('}').toString();
+    }
+}
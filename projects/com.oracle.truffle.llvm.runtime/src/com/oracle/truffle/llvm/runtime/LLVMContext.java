@@ -29,6 +29,7 @@
  */
 package com.oracle.truffle.llvm.runtime;
 
+import java.io.PrintStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -51,21 +52,30 @@ import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.TruffleFile;
 import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.interop.ForeignAccess;
+import com.oracle.truffle.api.interop.InteropException;
+import com.oracle.truffle.api.interop.Message;
 import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.nodes.ControlFlowException;
+import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.llvm.runtime.datalayout.DataLayout;
 import com.oracle.truffle.llvm.runtime.debug.LLVMSourceContext;
 import com.oracle.truffle.llvm.runtime.except.LLVMLinkerException;
 import com.oracle.truffle.llvm.runtime.global.LLVMGlobal;
 import com.oracle.truffle.llvm.runtime.global.LLVMGlobalContainer;
+import com.oracle.truffle.llvm.runtime.global.LLVMGlobalIndex;
 import com.oracle.truffle.llvm.runtime.interop.LLVMTypedForeignObject;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemoryMappings;
+import com.oracle.truffle.llvm.runtime.memory.LLVMProgramBreak;
 import com.oracle.truffle.llvm.runtime.memory.LLVMStack.StackPointer;
 import com.oracle.truffle.llvm.runtime.memory.LLVMThreadingStack;
 import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMManagedPointer;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMPointer;
+import com.oracle.truffle.llvm.runtime.profiling.LLVMAllocationTracker;
+import com.oracle.truffle.llvm.runtime.profiling.LLVMSamplingProfiler;
 import com.oracle.truffle.llvm.runtime.types.AggregateType;
 import com.oracle.truffle.llvm.runtime.types.FunctionType;
 import com.oracle.truffle.llvm.runtime.types.Type;
@@ -74,8 +84,8 @@ public final class LLVMContext {
     private final List<Path> libraryPaths = new ArrayList<>();
     private final List<ExternalLibrary> externalLibraries = new ArrayList<>();
 
-    // map that contains all non-native globals, needed for pointer->global lookups
-    private final HashMap<LLVMPointer, LLVMGlobal> globalsReverseMap = new HashMap<>();
+    // index of all non-native globals, needed for pointer->global lookups
+    private final LLVMGlobalIndex globalsIndex = new LLVMGlobalIndex();
     // allocations used to store non-pointer globals (need to be freed when context is disposed)
     private final ArrayList<LLVMPointer> globalsNonPointerStore = new ArrayList<>();
 
@@ -83,10 +93,15 @@ public final class LLVMContext {
 
     private final List<LLVMThread> runningThreads = new ArrayList<>();
     private final LLVMThreadingStack threadingStack;
+    private final LLVMMemoryMappings memoryMappings = new LLVMMemoryMappings();
+    private final PrintStream memoryMappingStatsStream;
+    private final LLVMProgramBreak programBreak;
     private final Object[] mainArguments;
     private final Map<String, String> environment;
     private final LinkedList<LLVMNativePointer> caughtExceptionStack = new LinkedList<>();
     private final HashMap<String, Integer> nativeCallStatistics;
+    private final LLVMSamplingProfiler samplingProfiler;
+    private final LLVMAllocationTracker allocationTracker;
 
     private static final class Handle {
 
@@ -162,7 +177,17 @@ public final class LLVMContext {
         this.dataLayout = new DataLayout();
         this.destructorFunctions = new ArrayList<>();
         this.nativeCallStatistics = SulongEngineOption.isTrue(env.getOptions().get(SulongEngineOption.NATIVE_CALL_STATS)) ? new HashMap<>() : null;
-        this.threadingStack = new LLVMThreadingStack(Thread.currentThread(), env.getOptions().get(SulongEngineOption.STACK_SIZE_KB));
+        String sampler = env.getOptions().get(SulongEngineOption.SAMPLER);
+        this.samplingProfiler = SulongEngineOption.isTrue(sampler) ? new LLVMSamplingProfiler(SulongEngineOption.getStream(sampler), env.getOptions().get(SulongEngineOption.SAMPLER_INTERVAL)) : null;
+        String trackAllocations = env.getOptions().get(SulongEngineOption.TRACK_ALLOCATIONS);
+        // only the malloc intrinsics of the basic configuration report to the tracker, the managed
+        // configuration allocates Java objects that are never seen by it
+        boolean basicConfiguration = SulongEngineOption.CONFIGURATION.getDefaultValue().equals(activeConfiguration.getConfigurationName());
+        this.allocationTracker = basicConfiguration && SulongEngineOption.isTrue(trackAllocations) ? new LLVMAllocationTracker(SulongEngineOption.getStream(trackAllocations)) : null;
+        this.threadingStack = new LLVMThreadingStack(Thread.currentThread(), env.getOptions().get(SulongEngineOption.STACK_SIZE_KB) * 1024L);
+        this.programBreak = new LLVMProgramBreak(env.getOptions().get(SulongEngineOption.BRK_SIZE_KB) * 1024L);
+        String memoryMappingStats = env.getOptions().get(SulongEngineOption.PRINT_MEMORY_MAPPING_STATS);
+        this.memoryMappingStatsStream = SulongEngineOption.isTrue(memoryMappingStats) ? SulongEngineOption.getStream(memoryMappingStats) : null;
         this.sigDfl = LLVMNativePointer.create(0);
         this.sigIgn = LLVMNativePointer.create(1);
         this.sigErr = LLVMNativePointer.create(-1);
@@ -256,6 +281,9 @@ public final class LLVMContext {
 
     public void dispose(LLVMMemory memory) {
         printNativeCallStatistic();
+        if (samplingProfiler != null) {
+            samplingProfiler.dispose();
+        }
 
         // the following cases exist for cleanup:
         // - exit() or interop: execute all atexit functions, shutdown stdlib, flush IO, and execute
@@ -273,10 +301,12 @@ public final class LLVMContext {
         }
 
         threadingStack.freeMainStack(memory);
+        programBreak.dispose(memory);
+        disposeMemoryMappings();
 
         // free the space allocated for non-pointer globals
         LLVMIntrinsicProvider provider = getContextExtension(LLVMIntrinsicProvider.class);
-        RootCallTarget free = provider.generateIntrinsic("@free", null);
+        RootCallTarget free = provider.cachedIntrinsic("@free", null);
 
         for (LLVMPointer store : globalsNonPointerStore) {
             if (store != null) {
@@ -285,16 +315,45 @@ public final class LLVMContext {
         }
 
         // free the space which might have been when putting pointer-type globals into native memory
-        for (LLVMPointer pointer : globalsReverseMap.keySet()) {
-            if (LLVMManagedPointer.isInstance(pointer)) {
-                TruffleObject object = LLVMManagedPointer.cast(pointer).getObject();
-                if (object instanceof LLVMGlobalContainer) {
-                    ((LLVMGlobalContainer) object).dispose();
+        for (Object object : globalsIndex.getContainers()) {
+            if (object instanceof LLVMGlobalContainer) {
+                ((LLVMGlobalContainer) object).dispose();
+            }
+        }
+
+        if (allocationTracker != null) {
+            allocationTracker.dispose();
+        }
+    }
+
+    private void disposeMemoryMappings() {
+        if (memoryMappingStatsStream != null) {
+            memoryMappings.printStatistics(memoryMappingStatsStream);
+        }
+        long[] ranges = memoryMappings.removeAll();
+        if (ranges.length > 0) {
+            // guest mappings are created through the native posix bridge, so NFI is available
+            NFIContextExtension nfiContextExtension = getContextExtension(NFIContextExtension.class);
+            TruffleObject munmap = nfiContextExtension.getNativeFunction(this, "@__sulong_posix_munmap", "(POINTER,UINT64):SINT32");
+            Node execute = Message.EXECUTE.createNode();
+            for (int i = 0; i < ranges.length; i += 2) {
+                try {
+                    ForeignAccess.sendExecute(execute, munmap, ranges[i], ranges[i + 1] - ranges[i]);
+                } catch (InteropException e) {
+                    throw new AssertionError(e);
                 }
             }
         }
     }
 
+    public LLVMSamplingProfiler getSamplingProfiler() {
+        return samplingProfiler;
+    }
+
+    public LLVMAllocationTracker getAllocationTracker() {
+        return allocationTracker;
+    }
+
     public NodeFactory getNodeFactory() {
         return nodeFactory;
     }
@@ -558,6 +617,14 @@ public final class LLVMContext {
         return threadingStack;
     }
 
+    public LLVMMemoryMappings getMemoryMappings() {
+        return memoryMappings;
+    }
+
+    public LLVMProgramBreak getProgramBreak() {
+        return programBreak;
+    }
+
     public void registerDestructorFunctions(RootCallTarget destructor) {
         assert destructor != null;
         assert !destructorFunctions.contains(destructor);
@@ -615,16 +682,25 @@ public final class LLVMContext {
 
     @TruffleBoundary
     public LLVMGlobal findGlobal(LLVMPointer pointer) {
-        LLVMGlobal result = globalsReverseMap.get(pointer);
+        LLVMGlobal result = globalsIndex.find(pointer);
         if (result == null) {
             throw new IllegalStateException("Could not find pointer " + pointer);
         }
         return result;
     }
 
-    public void registerGlobals(LLVMPointer nonPointerStore, HashMap<LLVMPointer, LLVMGlobal> reverseMap) {
+    /**
+     * Finds the global whose storage contains the given (possibly interior) native address, or
+     * returns {@code null} if the address does not belong to a global.
+     */
+    @TruffleBoundary
+    public LLVMGlobal findGlobalContaining(long address) {
+        return globalsIndex.findContaining(address);
+    }
+
+    public void registerGlobals(LLVMPointer nonPointerStore, LLVMGlobalIndex.Builder globals) {
         globalsNonPointerStore.add(nonPointerStore);
-        globalsReverseMap.putAll(reverseMap);
+        globalsIndex.register(globals);
     }
 
     public void setCleanupNecessary(boolean value) {
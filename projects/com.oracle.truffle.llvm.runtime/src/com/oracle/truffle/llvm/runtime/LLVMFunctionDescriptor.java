@@ -119,14 +119,17 @@ public final class LLVMFunctionDescriptor implements LLVMSymbol, LLVMInternalTru
         }
 
         public RootCallTarget generateCallTarget(FunctionType type) {
-            return generate(type);
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            RootCallTarget newTarget = provider.generateIntrinsic(intrinsicName, type);
+            assert newTarget != null;
+            return newTarget;
         }
 
         public RootCallTarget cachedCallTarget(FunctionType type) {
             if (exists(type)) {
                 return get(type);
             } else {
-                return generate(type);
+                return lookup(type);
             }
         }
 
@@ -140,9 +143,9 @@ public final class LLVMFunctionDescriptor implements LLVMSymbol, LLVMInternalTru
             return overloadingMap.get(type);
         }
 
-        private RootCallTarget generate(FunctionType type) {
+        private RootCallTarget lookup(FunctionType type) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
-            RootCallTarget newTarget = provider.generateIntrinsic(intrinsicName, type);
+            RootCallTarget newTarget = provider.cachedIntrinsic(intrinsicName, type);
             assert newTarget != null;
             overloadingMap.put(type, newTarget);
             return newTarget;
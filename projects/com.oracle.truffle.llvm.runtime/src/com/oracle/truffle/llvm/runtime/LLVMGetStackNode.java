@@ -53,8 +53,9 @@ public abstract class LLVMGetStackNode extends LLVMNode {
     }
 
     @SuppressWarnings("unused")
-    @Specialization(limit = "3", guards = "currentThread == cachedThread")
+    @Specialization(limit = "3", guards = {"stack == cachedThreadingStack", "currentThread == cachedThread"})
     protected LLVMStack cached(LLVMThreadingStack stack, Thread currentThread,
+                    @Cached("stack") LLVMThreadingStack cachedThreadingStack,
                     @Cached("currentThread") Thread cachedThread,
                     @Cached("getStack(stack, cachedThread)") LLVMStack cachedStack) {
         return cachedStack;
@@ -39,80 +39,130 @@ import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
 
 // see https://bugs.chromium.org/p/nativeclient/issues/detail?id=3360 for use cases where variable ints arise
+/**
+ * An integer of arbitrary bit width. Values of width {@link #I128_BITS} ({@code __int128}) are the
+ * common case: they are stored as their two 64-bit halves, and their operations are computed on
+ * these halves without a byte array or {@link BigInteger}. All other widths take the generic path.
+ */
 @ValueType
 public final class LLVMIVarBit {
 
+    public static final int I128_BITS = 128;
+    private static final int I128_BYTES = I128_BITS / Byte.SIZE;
+
     private final int bits;
 
-    private final byte[] arr; // represents value as big-endian two's-complement
+    private final byte[] arr; // represents value as big-endian two's-complement, null for i128
+
+    private final long high; // upper 64 bits of an i128 value
+    private final long low; // lower 64 bits of an i128 value
 
     private LLVMIVarBit() {
         this.bits = 0;
         this.arr = new byte[0];
+        this.high = 0;
+        this.low = 0;
+    }
+
+    private LLVMIVarBit(long high, long low) {
+        this.bits = I128_BITS;
+        this.arr = null;
+        this.high = high;
+        this.low = low;
     }
 
-    private LLVMIVarBit(int bits, byte[] arr, int arrBits, boolean signExtend) {
+    private LLVMIVarBit(int bits, byte[] arr) {
+        assert arr.length == getByteSize(bits);
         this.bits = bits;
+        if (bits == I128_BITS) {
+            this.arr = null;
+            this.high = getLong(arr, 0);
+            this.low = getLong(arr, Long.BYTES);
+        } else {
+            this.arr = arr;
+            this.high = 0;
+            this.low = 0;
+        }
+    }
 
-        this.arr = new byte[getByteSize()];
-        if (getByteSize() >= arr.length) {
-            System.arraycopy(arr, 0, this.arr, getByteSize() - arr.length, arr.length);
+    private static byte[] extend(int bits, byte[] arr, int arrBits, boolean signExtend) {
+        byte[] result = new byte[getByteSize(bits)];
+        if (result.length >= arr.length) {
+            System.arraycopy(arr, 0, result, result.length - arr.length, arr.length);
         } else {
-            System.arraycopy(arr, arr.length - getByteSize(), this.arr, 0, this.arr.length);
+            System.arraycopy(arr, arr.length - result.length, result, 0, result.length);
         }
 
         int mostSignificantByte = arr.length - (arrBits / Byte.SIZE) - (arrBits % Byte.SIZE != 0 ? 1 : 0);
         if (mostSignificantByte >= 0) {
             boolean shouldAddLeadingOnes = signExtend && ((arr[mostSignificantByte] & (1 << ((arrBits - 1) %
                             Byte.SIZE))) != 0);
-            int thisArrMostSignificantByte = Math.max(0, this.arr.length - arr.length + mostSignificantByte);
+            int thisArrMostSignificantByte = Math.max(0, result.length - arr.length + mostSignificantByte);
             if (shouldAddLeadingOnes) {
                 // set MSB bit's outside of given bitwidth
-                if (getByteSize() >= arr.length) {
+                if (result.length >= arr.length) {
                     for (int i = 0; i < thisArrMostSignificantByte; i++) {
-                        this.arr[i] = (byte) 0xFF;
+                        result[i] = (byte) 0xFF;
                     }
                 }
                 if (arrBits % Byte.SIZE != 0) {
-                    this.arr[thisArrMostSignificantByte] |= 0xFF << (arrBits % Byte.SIZE);
+                    result[thisArrMostSignificantByte] |= 0xFF << (arrBits % Byte.SIZE);
                 }
             } else {
                 // clear MSB bit's outside of given bitwidth
-                if (getByteSize() >= arr.length) {
+                if (result.length >= arr.length) {
                     for (int i = 0; i < thisArrMostSignificantByte; i++) {
-                        this.arr[i] = (byte) 0x00;
+                        result[i] = (byte) 0x00;
                     }
                 }
                 if (arrBits % Byte.SIZE != 0) {
-                    this.arr[thisArrMostSignificantByte] &= 0xFF >>> (8 - (arrBits % Byte.SIZE));
+                    result[thisArrMostSignificantByte] &= 0xFF >>> (8 - (arrBits % Byte.SIZE));
                 }
             }
         }
-
-        assert this.arr.length == getByteSize();
+        return result;
     }
 
     public static LLVMIVarBit create(int bitWidth, byte[] loadedBytes, int loadedArrBits, boolean signExtend) {
-        return new LLVMIVarBit(bitWidth, loadedBytes, loadedArrBits, signExtend);
+        return new LLVMIVarBit(bitWidth, extend(bitWidth, loadedBytes, loadedArrBits, signExtend));
     }
 
     public static LLVMIVarBit createNull() {
         return new LLVMIVarBit();
     }
 
+    /**
+     * Creates a 128-bit value from its upper and lower 64 bits.
+     */
+    public static LLVMIVarBit createI128(long high, long low) {
+        return new LLVMIVarBit(high, low);
+    }
+
     public static LLVMIVarBit createZeroExt(int bits, byte from) {
+        if (bits == I128_BITS) {
+            return createI128(0, from & 0xFFL);
+        }
         return create(bits, ByteBuffer.allocate(Byte.BYTES).put(from).array(), Byte.SIZE, false);
     }
 
     public static LLVMIVarBit createZeroExt(int bits, short from) {
+        if (bits == I128_BITS) {
+            return createI128(0, from & 0xFFFFL);
+        }
         return create(bits, ByteBuffer.allocate(Short.BYTES).putShort(from).array(), Short.SIZE, false);
     }
 
     public static LLVMIVarBit createZeroExt(int bits, int from) {
+        if (bits == I128_BITS) {
+            return createI128(0, from & 0xFFFFFFFFL);
+        }
         return create(bits, ByteBuffer.allocate(Integer.BYTES).putInt(from).array(), Integer.SIZE, false);
     }
 
     public static LLVMIVarBit createZeroExt(int bits, long from) {
+        if (bits == I128_BITS) {
+            return createI128(0, from);
+        }
         return create(bits, ByteBuffer.allocate(Long.BYTES).putLong(from).array(), Long.SIZE, false);
     }
 
@@ -121,22 +171,74 @@ public final class LLVMIVarBit {
     }
 
     public static LLVMIVarBit fromByte(int bits, byte from) {
+        if (bits == I128_BITS) {
+            return createI128(from >> (Byte.SIZE - 1), from);
+        }
         return create(bits, ByteBuffer.allocate(Byte.BYTES).put(from).array(), Byte.SIZE, true);
     }
 
     public static LLVMIVarBit fromShort(int bits, short from) {
+        if (bits == I128_BITS) {
+            return createI128(from >> (Short.SIZE - 1), from);
+        }
         return create(bits, ByteBuffer.allocate(Short.BYTES).putShort(from).array(), Short.SIZE, true);
     }
 
     public static LLVMIVarBit fromInt(int bits, int from) {
+        if (bits == I128_BITS) {
+            return createI128(from >> (Integer.SIZE - 1), from);
+        }
         return create(bits, ByteBuffer.allocate(Integer.BYTES).putInt(from).array(), Integer.SIZE, true);
     }
 
     public static LLVMIVarBit fromLong(int bits, long from) {
+        if (bits == I128_BITS) {
+            return createI128(from >> (Long.SIZE - 1), from);
+        }
         return create(bits, ByteBuffer.allocate(Long.BYTES).putLong(from).array(), Long.SIZE, true);
     }
 
+    public boolean isI128() {
+        return bits == I128_BITS;
+    }
+
+    /**
+     * @return the upper 64 bits of a {@link #isI128() 128-bit} value
+     */
+    public long getI128High() {
+        assert isI128();
+        return high;
+    }
+
+    /**
+     * @return the lower 64 bits of a {@link #isI128() 128-bit} value
+     */
+    public long getI128Low() {
+        assert isI128();
+        return low;
+    }
+
+    private static long getLong(byte[] arr, int offset) {
+        long result = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            result = (result << Byte.SIZE) | (arr[offset + i] & 0xFFL);
+        }
+        return result;
+    }
+
+    private static void putLong(byte[] arr, int offset, long value) {
+        long remaining = value;
+        for (int i = Long.BYTES - 1; i >= 0; i--) {
+            arr[offset + i] = (byte) remaining;
+            remaining >>>= Byte.SIZE;
+        }
+    }
+
     private int getByteSize() {
+        return getByteSize(bits);
+    }
+
+    private static int getByteSize(int bits) {
         int nrFullBytes = bits / Byte.SIZE;
         if (bits % Byte.SIZE != 0) {
             return nrFullBytes + 1;
@@ -155,18 +257,20 @@ public final class LLVMIVarBit {
 
     @TruffleBoundary
     public BigInteger asUnsignedBigInteger() {
-        if (arr == null || arr.length == 0) {
+        byte[] bytes = getBytes();
+        if (bytes.length == 0) {
             return BigInteger.ZERO;
         }
-        byte[] newArr = new byte[arr.length + 1];
-        System.arraycopy(arr, 0, newArr, 1, arr.length);
+        byte[] newArr = new byte[bytes.length + 1];
+        System.arraycopy(bytes, 0, newArr, 1, bytes.length);
         return new BigInteger(newArr);
     }
 
     @TruffleBoundary
     public BigInteger asBigInteger() {
-        if (arr != null && arr.length != 0) {
-            return new BigInteger(arr);
+        byte[] bytes = getBytes();
+        if (bytes.length != 0) {
+            return new BigInteger(bytes);
         } else {
             return BigInteger.ZERO;
         }
@@ -174,6 +278,7 @@ public final class LLVMIVarBit {
 
     @TruffleBoundary
     private ByteBuffer getByteBuffer(int minSizeBytes, boolean signExtend) {
+        byte[] bytes = getBytes();
         int allocationSize = Math.max(minSizeBytes, getByteSize());
         ByteBuffer bb = ByteBuffer.allocate(allocationSize).order(ByteOrder.BIG_ENDIAN);
         boolean truncation = bits > minSizeBytes * Byte.SIZE;
@@ -191,12 +296,12 @@ public final class LLVMIVarBit {
             }
         }
         if (bits % Byte.SIZE == 0) {
-            bb.put(arr, 0, getByteSize());
+            bb.put(bytes, 0, getByteSize());
         } else {
             BitSet bitSet = new BitSet(Byte.SIZE);
             int bitsToSet = bits % Byte.SIZE;
             for (int i = 0; i < bitsToSet; i++) {
-                boolean isBitSet = ((arr[0] >> i) & 1) == 1;
+                boolean isBitSet = ((bytes[0] >> i) & 1) == 1;
                 if (isBitSet) {
                     bitSet.set(i);
                 }
@@ -215,8 +320,8 @@ public final class LLVMIVarBit {
             }
             // FIXME actually need to truncate or sign extend individual bits
             bb.put(firstByteResult);
-            for (int i = 1; i < arr.length; i++) {
-                bb.put(arr[i]);
+            for (int i = 1; i < bytes.length; i++) {
+                bb.put(bytes[i]);
             }
         }
 
@@ -225,106 +330,199 @@ public final class LLVMIVarBit {
     }
 
     private boolean mostSignificantBit() {
+        if (isI128()) {
+            return high < 0;
+        }
         return getBit(bits - 1);
     }
 
     private boolean getBit(int pos) {
-        int selectedBytePos = arr.length - 1 - (pos / Byte.SIZE);
-        byte selectedByte = arr[selectedBytePos];
+        byte[] bytes = getBytes();
+        int selectedBytePos = bytes.length - 1 - (pos / Byte.SIZE);
+        byte selectedByte = bytes[selectedBytePos];
         int selectedBitPos = pos % Byte.SIZE;
         return ((selectedByte >> selectedBitPos) & 1) == 1;
     }
 
     @TruffleBoundary
+    private long getValue(int sizeBytes, boolean signExtend) {
+        ByteBuffer bb = getByteBuffer(sizeBytes, signExtend);
+        switch (sizeBytes) {
+            case Byte.BYTES:
+                return bb.get();
+            case Short.BYTES:
+                return bb.getShort();
+            case Integer.BYTES:
+                return bb.getInt();
+            default:
+                return bb.getLong();
+        }
+    }
+
+    // truncating a 128-bit value to at most 64 bits only needs the lower half
+
     public byte getByteValue() {
-        return getByteBuffer(Byte.BYTES, true).get();
+        return (byte) (isI128() ? getI128Low() : getValue(Byte.BYTES, true));
     }
 
-    @TruffleBoundary
     public byte getZeroExtendedByteValue() {
-        return getByteBuffer(Byte.BYTES, false).get();
+        return (byte) (isI128() ? getI128Low() : getValue(Byte.BYTES, false));
     }
 
-    @TruffleBoundary
     public short getShortValue() {
-        return getByteBuffer(Short.BYTES, true).getShort();
+        return (short) (isI128() ? getI128Low() : getValue(Short.BYTES, true));
     }
 
-    @TruffleBoundary
     public short getZeroExtendedShortValue() {
-        return getByteBuffer(Short.BYTES, false).getShort();
+        return (short) (isI128() ? getI128Low() : getValue(Short.BYTES, false));
     }
 
-    @TruffleBoundary
     public int getIntValue() {
-        return getByteBuffer(Integer.BYTES, true).getInt();
+        return (int) (isI128() ? getI128Low() : getValue(Integer.BYTES, true));
     }
 
-    @TruffleBoundary
     public int getZeroExtendedIntValue() {
-        return getByteBuffer(Integer.BYTES, false).getInt();
+        return (int) (isI128() ? getI128Low() : getValue(Integer.BYTES, false));
     }
 
-    @TruffleBoundary
     public long getLongValue() {
-        return getByteBuffer(Long.BYTES, true).getLong();
+        return isI128() ? getI128Low() : getValue(Long.BYTES, true);
     }
 
-    @TruffleBoundary
     public long getZeroExtendedLongValue() {
-        return getByteBuffer(Long.BYTES, false).getLong();
+        return isI128() ? getI128Low() : getValue(Long.BYTES, false);
     }
 
     public int getBitSize() {
         return bits;
     }
 
+    /**
+     * @return the value as big-endian two's-complement; a new array for {@link #isI128() 128-bit}
+     *         values
+     */
     public byte[] getBytes() {
+        if (isI128()) {
+            byte[] bytes = new byte[I128_BYTES];
+            putLong(bytes, 0, high);
+            putLong(bytes, Long.BYTES, low);
+            return bytes;
+        }
         assert arr.length == getByteSize() : arr.length + " " + getByteSize();
         return arr;
     }
 
     @TruffleBoundary
     public byte[] getSignExtendedBytes() {
-        return getByteBuffer(arr.length, true).array();
+        return getByteBuffer(getByteSize(), true).array();
+    }
+
+    private boolean isI128(LLVMIVarBit right) {
+        return isI128() && right.isI128();
+    }
+
+    /**
+     * @return true if this is a 128-bit value that is the sign extension of a {@code long}
+     */
+    private boolean fitsInLong() {
+        return isI128() && getI128High() == (getI128Low() >> (Long.SIZE - 1));
     }
 
-    @TruffleBoundary
     public LLVMIVarBit add(LLVMIVarBit right) {
-        return asIVar(asBigInteger().add(asBigInteger(right)));
+        if (isI128(right)) {
+            long low = getI128Low() + right.getI128Low();
+            long carry = Long.compareUnsigned(low, getI128Low()) < 0 ? 1 : 0;
+            return createI128(getI128High() + right.getI128High() + carry, low);
+        }
+        return addSlowPath(right);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit addSlowPath(LLVMIVarBit right) {
+        return asIVar(asBigInteger().add(asBigInteger(right)));
+    }
+
     public LLVMIVarBit mul(LLVMIVarBit right) {
-        return asIVar(asBigInteger().multiply(asBigInteger(right)));
+        if (isI128(right)) {
+            long leftLow = getI128Low();
+            long rightLow = right.getI128Low();
+            long high = LongMultiplication.multiplyHighUnsigned(leftLow, rightLow) + leftLow * right.getI128High() + getI128High() * rightLow;
+            return createI128(high, leftLow * rightLow);
+        }
+        return mulSlowPath(right);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit mulSlowPath(LLVMIVarBit right) {
+        return asIVar(asBigInteger().multiply(asBigInteger(right)));
+    }
+
     public LLVMIVarBit sub(LLVMIVarBit right) {
-        return asIVar(asBigInteger().subtract(asBigInteger(right)));
+        if (isI128(right)) {
+            long borrow = Long.compareUnsigned(getI128Low(), right.getI128Low()) < 0 ? 1 : 0;
+            return createI128(getI128High() - right.getI128High() - borrow, getI128Low() - right.getI128Low());
+        }
+        return subSlowPath(right);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit subSlowPath(LLVMIVarBit right) {
+        return asIVar(asBigInteger().subtract(asBigInteger(right)));
+    }
+
     public LLVMIVarBit div(LLVMIVarBit right) {
-        return asIVar(asBigInteger().divide(asBigInteger(right)));
+        if (fitsInLong() && right.fitsInLong() && right.getI128Low() != 0 && !(getI128Low() == Long.MIN_VALUE && right.getI128Low() == -1)) {
+            return fromLong(I128_BITS, getI128Low() / right.getI128Low());
+        }
+        return divSlowPath(right);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit divSlowPath(LLVMIVarBit right) {
+        return asIVar(asBigInteger().divide(asBigInteger(right)));
+    }
+
     public LLVMIVarBit rem(LLVMIVarBit right) {
-        return asIVar(asBigInteger().remainder(asBigInteger(right)));
+        if (fitsInLong() && right.fitsInLong() && right.getI128Low() != 0) {
+            return fromLong(I128_BITS, getI128Low() % right.getI128Low());
+        }
+        return remSlowPath(right);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit remSlowPath(LLVMIVarBit right) {
+        return asIVar(asBigInteger().remainder(asBigInteger(right)));
+    }
+
     public LLVMIVarBit unsignedRem(LLVMIVarBit right) {
-        return asIVar(asUnsignedBigInteger().remainder(asBigInteger(right)));
+        if (isI128(right) && getI128High() == 0 && right.getI128High() == 0 && right.getI128Low() != 0) {
+            return createI128(0, Long.remainderUnsigned(getI128Low(), right.getI128Low()));
+        }
+        return unsignedRemSlowPath(right);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit unsignedRemSlowPath(LLVMIVarBit right) {
+        return asIVar(asUnsignedBigInteger().remainder(right.asUnsignedBigInteger()));
+    }
+
     public LLVMIVarBit unsignedDiv(LLVMIVarBit right) {
-        return asIVar(asUnsignedBigInteger().divide(asBigInteger(right)));
+        if (isI128(right) && getI128High() == 0 && right.getI128High() == 0 && right.getI128Low() != 0) {
+            return createI128(0, Long.divideUnsigned(getI128Low(), right.getI128Low()));
+        }
+        return unsignedDivSlowPath(right);
+    }
+
+    @TruffleBoundary
+    private LLVMIVarBit unsignedDivSlowPath(LLVMIVarBit right) {
+        return asIVar(asUnsignedBigInteger().divide(right.asUnsignedBigInteger()));
     }
 
     public int compare(LLVMIVarBit other) {
+        if (isI128(other)) {
+            int result = Long.compare(getI128High(), other.getI128High());
+            return result != 0 ? result : Long.compareUnsigned(getI128Low(), other.getI128Low());
+        }
         int thisWidth = bits;
         int otherWidth = other.bits;
         if (thisWidth != otherWidth) {
@@ -355,26 +553,67 @@ public final class LLVMIVarBit {
         for (int i = 0; i < newArr.length; i++) {
             newArr[i] = op.op(arr[i], other[i]);
         }
-        return new LLVMIVarBit(bits, newArr, bits, false);
+        return new LLVMIVarBit(bits, extend(bits, newArr, bits, false));
     }
 
-    @TruffleBoundary
     public LLVMIVarBit and(LLVMIVarBit right) {
-        return performOp(right, (byte a, byte b) -> (byte) (a & b));
+        if (isI128(right)) {
+            return createI128(getI128High() & right.getI128High(), getI128Low() & right.getI128Low());
+        }
+        return andSlowPath(right);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit andSlowPath(LLVMIVarBit right) {
+        return performOp(right, (byte a, byte b) -> (byte) (a & b));
+    }
+
     public LLVMIVarBit or(LLVMIVarBit right) {
-        return performOp(right, (byte a, byte b) -> (byte) (a | b));
+        if (isI128(right)) {
+            return createI128(getI128High() | right.getI128High(), getI128Low() | right.getI128Low());
+        }
+        return orSlowPath(right);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit orSlowPath(LLVMIVarBit right) {
+        return performOp(right, (byte a, byte b) -> (byte) (a | b));
+    }
+
     public LLVMIVarBit xor(LLVMIVarBit right) {
-        return performOp(right, (byte a, byte b) -> (byte) (a ^ b));
+        if (isI128(right)) {
+            return createI128(getI128High() ^ right.getI128High(), getI128Low() ^ right.getI128Low());
+        }
+        return xorSlowPath(right);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit xorSlowPath(LLVMIVarBit right) {
+        return performOp(right, (byte a, byte b) -> (byte) (a ^ b));
+    }
+
+    /**
+     * @return true if {@code right} is a 128-bit shift amount in the range {@code (0, 128)}
+     */
+    private boolean isI128Shift(LLVMIVarBit right) {
+        return isI128(right) && right.getI128High() == 0 && right.getI128Low() > 0 && right.getI128Low() < I128_BITS;
+    }
+
     public LLVMIVarBit leftShift(LLVMIVarBit right) {
+        if (isI128Shift(right)) {
+            int shift = (int) right.getI128Low();
+            long high = getI128High();
+            long low = getI128Low();
+            if (shift >= Long.SIZE) {
+                return createI128(low << (shift - Long.SIZE), 0);
+            }
+            return createI128((high << shift) | (low >>> (Long.SIZE - shift)), low << shift);
+        }
+        return leftShiftSlowPath(right);
+    }
+
+    @TruffleBoundary
+    private LLVMIVarBit leftShiftSlowPath(LLVMIVarBit right) {
         BigInteger result = asBigInteger().shiftLeft(right.getIntValue());
         return asIVar(bits, result);
     }
@@ -404,35 +643,84 @@ public final class LLVMIVarBit {
             }
         }
         int resultLengthIncludingSign = result.bitLength() + (result.signum() == -1 ? 1 : 0);
-        return new LLVMIVarBit(bitSize, newArr, resultLengthIncludingSign, result.signum() == -1);
+        return new LLVMIVarBit(bitSize, extend(bitSize, newArr, resultLengthIncludingSign, result.signum() == -1));
     }
 
-    @TruffleBoundary
     public LLVMIVarBit logicalRightShift(LLVMIVarBit right) {
+        if (isI128Shift(right)) {
+            int shift = (int) right.getI128Low();
+            long high = getI128High();
+            long low = getI128Low();
+            if (shift >= Long.SIZE) {
+                return createI128(0, high >>> (shift - Long.SIZE));
+            }
+            return createI128(high >>> shift, (low >>> shift) | (high << (Long.SIZE - shift)));
+        }
+        return logicalRightShiftSlowPath(right);
+    }
+
+    @TruffleBoundary
+    private LLVMIVarBit logicalRightShiftSlowPath(LLVMIVarBit right) {
         int shiftAmount = right.getIntValue();
         BigInteger mask = BigInteger.valueOf(-1).shiftLeft(bits - shiftAmount).not();
-        BigInteger result = new BigInteger(arr).shiftRight(shiftAmount).and(mask);
+        BigInteger result = asBigInteger().shiftRight(shiftAmount).and(mask);
         return asIVar(result);
     }
 
-    @TruffleBoundary
     public LLVMIVarBit arithmeticRightShift(LLVMIVarBit right) {
+        if (isI128Shift(right)) {
+            int shift = (int) right.getI128Low();
+            long high = getI128High();
+            long low = getI128Low();
+            if (shift >= Long.SIZE) {
+                return createI128(high >> (Long.SIZE - 1), high >> (shift - Long.SIZE));
+            }
+            return createI128(high >> shift, (low >>> shift) | (high << (Long.SIZE - shift)));
+        }
+        return arithmeticRightShiftSlowPath(right);
+    }
+
+    @TruffleBoundary
+    private LLVMIVarBit arithmeticRightShiftSlowPath(LLVMIVarBit right) {
         BigInteger result = asBigInteger().shiftRight(right.getIntValue());
         return asIVar(result);
     }
 
-    @TruffleBoundary
     public int signedCompare(LLVMIVarBit other) {
-        return asBigInteger().compareTo(other.asBigInteger());
+        if (isI128(other)) {
+            int result = Long.compare(getI128High(), other.getI128High());
+            return result != 0 ? result : Long.compareUnsigned(getI128Low(), other.getI128Low());
+        }
+        return signedCompareSlowPath(other);
     }
 
     @TruffleBoundary
+    private int signedCompareSlowPath(LLVMIVarBit other) {
+        return asBigInteger().compareTo(other.asBigInteger());
+    }
+
     public int unsignedCompare(LLVMIVarBit other) {
-        return asUnsignedBigInteger().compareTo(other.asUnsignedBigInteger());
+        if (isI128(other)) {
+            int result = Long.compareUnsigned(getI128High(), other.getI128High());
+            return result != 0 ? result : Long.compareUnsigned(getI128Low(), other.getI128Low());
+        }
+        return unsignedCompareSlowPath(other);
     }
 
     @TruffleBoundary
+    private int unsignedCompareSlowPath(LLVMIVarBit other) {
+        return asUnsignedBigInteger().compareTo(other.asUnsignedBigInteger());
+    }
+
     public boolean isZero() {
+        if (isI128()) {
+            return (getI128High() | getI128Low()) == 0;
+        }
+        return isZeroSlowPath();
+    }
+
+    @TruffleBoundary
+    private boolean isZeroSlowPath() {
         return arr == null || arr.length == 0 || BigInteger.ZERO.equals(asBigInteger());
     }
 
@@ -449,7 +737,7 @@ public final class LLVMIVarBit {
     public int hashCode() {
         final int prime = 31;
         int result = 1;
-        result = prime * result + Arrays.hashCode(arr);
+        result = prime * result + (isI128() ? prime * Long.hashCode(high) + Long.hashCode(low) : Arrays.hashCode(arr));
         result = prime * result + bits;
         return result;
     }
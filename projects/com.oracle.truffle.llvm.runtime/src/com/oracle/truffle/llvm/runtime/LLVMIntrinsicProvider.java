@@ -38,6 +38,13 @@ public interface LLVMIntrinsicProvider {
 
     RootCallTarget generateIntrinsic(String name, FunctionType type);
 
+    /**
+     * Like {@link #generateIntrinsic}, but returns the same call target for all requests with the
+     * same name and type. Intrinsics that are {@link #forceSplit split} are never shared, every
+     * request returns a new call target.
+     */
+    RootCallTarget cachedIntrinsic(String name, FunctionType type);
+
     boolean forceInline(String name);
 
     boolean forceSplit(String name);
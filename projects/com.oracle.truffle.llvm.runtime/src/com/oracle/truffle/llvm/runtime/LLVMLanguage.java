@@ -29,6 +29,9 @@
  */
 package com.oracle.truffle.llvm.runtime;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
 import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.TruffleLanguage;
@@ -58,8 +61,19 @@ public abstract class LLVMLanguage extends TruffleLanguage<LLVMContext> {
 
     public static final String NAME = "llvm";
 
+    /**
+     * Intrinsic providers are read-only after construction and shared by all contexts of this
+     * language instance, so that intrinsic call targets are created and compiled once per engine.
+     */
+    private final ConcurrentHashMap<String, LLVMIntrinsicProvider> intrinsicProviders = new ConcurrentHashMap<>();
+
     public abstract LLVMContext findLLVMContext();
 
+    @SuppressWarnings("unchecked")
+    public <T extends LLVMIntrinsicProvider> T getIntrinsicProvider(String configurationName, Function<LLVMLanguage, T> factory) {
+        return (T) intrinsicProviders.computeIfAbsent(configurationName, name -> factory.apply(this));
+    }
+
     public static ContextReference<LLVMContext> getLLVMContextReference() {
         return getCurrentLanguage(LLVMLanguage.class).getContextReference();
     }
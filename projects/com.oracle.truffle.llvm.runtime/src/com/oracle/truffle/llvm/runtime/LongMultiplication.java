@@ -27,28 +27,31 @@
  * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
  * OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-package com.oracle.truffle.llvm.nodes.asm.support;
-
-import java.math.BigInteger;
-
-import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+package com.oracle.truffle.llvm.runtime;
 
 /*
  * This functionality is in the standard class library since Java 9:
  * https://bugs.openjdk.java.net/browse/JDK-5100935
  */
-public class LongMultiplication {
-    private static long high(BigInteger x) {
-        BigInteger hi = x.shiftRight(64);
-        return hi.longValue();
+public final class LongMultiplication {
+
+    private LongMultiplication() {
     }
 
-    @TruffleBoundary
-    public static long multiplyHigh(long u, long v) {
-        BigInteger x = BigInteger.valueOf(u);
-        BigInteger y = BigInteger.valueOf(v);
-        BigInteger z = x.multiply(y);
-        return high(z);
+    public static long multiplyHigh(long x, long y) {
+        // Hacker's Delight, 8-2: split both factors into 32-bit halves
+        long x1 = x >> 32;
+        long x2 = x & 0xFFFFFFFFL;
+        long y1 = y >> 32;
+        long y2 = y & 0xFFFFFFFFL;
+
+        long z2 = x2 * y2;
+        long t = x1 * y2 + (z2 >>> 32);
+        long z1 = t & 0xFFFFFFFFL;
+        long z0 = t >> 32;
+        z1 += x2 * y1;
+
+        return x1 * y1 + z0 + (z1 >> 32);
     }
 
     public static long multiplyHighUnsigned(long x, long y) {
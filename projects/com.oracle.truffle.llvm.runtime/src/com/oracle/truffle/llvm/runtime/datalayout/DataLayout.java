@@ -37,6 +37,7 @@ import com.oracle.truffle.llvm.runtime.datalayout.DataLayoutParser.DataTypeSpeci
 import com.oracle.truffle.llvm.runtime.types.FunctionType;
 import com.oracle.truffle.llvm.runtime.types.PointerType;
 import com.oracle.truffle.llvm.runtime.types.PrimitiveType;
+import com.oracle.truffle.llvm.runtime.types.PrimitiveType.PrimitiveKind;
 import com.oracle.truffle.llvm.runtime.types.Type;
 import com.oracle.truffle.llvm.runtime.types.VariableBitWidthType;
 
@@ -47,11 +48,22 @@ import com.oracle.truffle.llvm.runtime.types.VariableBitWidthType;
  *
  * Besides that, this class is hardly used and most other Sulong code parts contain hard-coded
  * assumptions regarding sizes/alignments...
+ *
+ * The alignments of primitive types, pointers and the integer widths are looked up once and then
+ * memoized, because they are queried for every type size computation during parsing. The layout of
+ * structures is cached in the {@link com.oracle.truffle.llvm.runtime.types.StructureType} itself,
+ * keyed by the identity of the data layout it was computed for.
  */
 public final class DataLayout {
 
+    private static final int NOT_COMPUTED = 0;
+
     private final List<DataTypeSpecification> dataLayout;
 
+    private final int[] primitiveBitAlignments = new int[PrimitiveKind.values().length];
+    private int pointerBitAlignment = NOT_COMPUTED;
+    private int[] integerWidths;
+
     public DataLayout() {
         this.dataLayout = new ArrayList<>();
     }
@@ -65,15 +77,30 @@ public final class DataLayout {
     }
 
     public int getBitAlignment(Type baseType) {
-        if (baseType instanceof VariableBitWidthType) {
+        if (baseType instanceof PrimitiveType) {
+            int ordinal = ((PrimitiveType) baseType).getPrimitiveKind().ordinal();
+            int alignment = primitiveBitAlignments[ordinal];
+            if (alignment == NOT_COMPUTED) {
+                alignment = getSpecifiedBitAlignment(baseType);
+                primitiveBitAlignments[ordinal] = alignment;
+            }
+            return alignment;
+        } else if (baseType instanceof PointerType || baseType instanceof FunctionType) {
+            int alignment = pointerBitAlignment;
+            if (alignment == NOT_COMPUTED) {
+                alignment = getSpecifiedBitAlignment(baseType);
+                pointerBitAlignment = alignment;
+            }
+            return alignment;
+        } else if (baseType instanceof VariableBitWidthType) {
             /*
              * Handling of integer datatypes when the exact match not found
              * http://releases.llvm.org/3.9.0/docs/LangRef.html#data-layout
              */
-            DataTypeSpecification integerLayout = dataLayout.stream().filter(d -> d.getType() == DataLayoutType.INTEGER_WIDTHS).findFirst().orElseThrow(IllegalStateException::new);
-            int minPossibleSize = Arrays.stream(integerLayout.getValues()).max().orElseThrow(IllegalStateException::new);
+            int[] widths = getIntegerWidths();
+            int minPossibleSize = Arrays.stream(widths).max().orElseThrow(IllegalStateException::new);
             int size = baseType.getBitSize();
-            for (int value : integerLayout.getValues()) {
+            for (int value : widths) {
                 if (size < value && minPossibleSize > value) {
                     minPossibleSize = value;
                 }
@@ -85,12 +112,29 @@ public final class DataLayout {
                 return ((size + 7) / 8) * 8;
             }
         } else {
-            DataTypeSpecification spec = getDataTypeSpecification(baseType);
-            if (spec == null) {
-                throw new IllegalStateException("No data specification found for " + baseType);
+            return getSpecifiedBitAlignment(baseType);
+        }
+    }
+
+    private int getSpecifiedBitAlignment(Type baseType) {
+        DataTypeSpecification spec = getDataTypeSpecification(baseType);
+        if (spec == null) {
+            throw new IllegalStateException("No data specification found for " + baseType);
+        }
+        return spec.getAbiAlignment();
+    }
+
+    private int[] getIntegerWidths() {
+        int[] widths = integerWidths;
+        if (widths == null) {
+            DataTypeSpecification integerLayout = getDataTypeSpecification(DataLayoutType.INTEGER_WIDTHS);
+            if (integerLayout == null) {
+                throw new IllegalStateException();
             }
-            return spec.getAbiAlignment();
+            widths = integerLayout.getValues();
+            integerWidths = widths;
         }
+        return widths;
     }
 
     public DataLayout merge(DataLayout other) {
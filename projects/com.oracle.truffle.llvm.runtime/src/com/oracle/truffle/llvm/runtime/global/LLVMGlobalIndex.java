@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.runtime.global;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.graalvm.collections.EconomicMap;
+import org.graalvm.collections.Equivalence;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMManagedPointer;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMPointer;
+
+/**
+ * Maps addresses to the {@link LLVMGlobal} they belong to.
+ *
+ * The non-pointer globals of a module are allocated as one contiguous {@code globals_struct}. For
+ * each such allocation, the index keeps a {@link Segment} with the sorted start offsets and end
+ * offsets of all globals in it, so that any (interior) pointer can be resolved with two binary
+ * searches and without boxing. Native segments are sorted by their base address; segments that
+ * live in managed objects, as well as globals with a dedicated {@link LLVMGlobalContainer}, are
+ * found by the identity of their base object.
+ *
+ * Registrations are rare and lookups are frequent, so {@link #register} publishes a new immutable
+ * snapshot of the index and the lookups read the current snapshot without locking.
+ */
+public final class LLVMGlobalIndex {
+
+    private static final Segment[] NO_SEGMENTS = new Segment[0];
+
+    private volatile Snapshot snapshot = new Snapshot(NO_SEGMENTS, EconomicMap.create(Equivalence.IDENTITY_WITH_SYSTEM_HASHCODE), EconomicMap.create(Equivalence.IDENTITY_WITH_SYSTEM_HASHCODE));
+
+    public static Builder builder(LLVMPointer store) {
+        return new Builder(store);
+    }
+
+    /**
+     * Collects the globals of one {@code globals_struct} allocation. Globals must be added in
+     * ascending offset order.
+     */
+    public static final class Builder {
+
+        private final LLVMPointer store;
+
+        private long[] starts = new long[16];
+        private long[] ends = new long[16];
+        private LLVMGlobal[] globals = new LLVMGlobal[16];
+        private int count;
+
+        private final EconomicMap<Object, LLVMGlobal> containers = EconomicMap.create(Equivalence.IDENTITY_WITH_SYSTEM_HASHCODE);
+
+        private Builder(LLVMPointer store) {
+            this.store = store;
+        }
+
+        public void add(long offset, long size, LLVMGlobal global) {
+            assert count == 0 || ends[count - 1] <= offset : "globals must be added in ascending order";
+            if (count == starts.length) {
+                int newLength = count * 2;
+                starts = Arrays.copyOf(starts, newLength);
+                ends = Arrays.copyOf(ends, newLength);
+                globals = Arrays.copyOf(globals, newLength);
+            }
+            starts[count] = offset;
+            ends[count] = offset + Math.max(size, 1);
+            globals[count] = global;
+            count++;
+        }
+
+        public void addContainer(LLVMManagedPointer container, LLVMGlobal global) {
+            assert container.getOffset() == 0;
+            containers.put(container.getObject(), global);
+        }
+
+        private Segment build(long base) {
+            return new Segment(base, Arrays.copyOf(starts, count), Arrays.copyOf(ends, count), Arrays.copyOf(globals, count));
+        }
+    }
+
+    private static final class Segment {
+
+        private final long base;
+        private final long[] starts;
+        private final long[] ends;
+        private final LLVMGlobal[] globals;
+
+        Segment(long base, long[] starts, long[] ends, LLVMGlobal[] globals) {
+            this.base = base;
+            this.starts = starts;
+            this.ends = ends;
+            this.globals = globals;
+        }
+
+        long getEnd() {
+            return base + (ends.length == 0 ? 0 : ends[ends.length - 1]);
+        }
+
+        /**
+         * Returns the index of the global containing {@code offset}, or -1.
+         */
+        int find(long offset) {
+            int low = 0;
+            int high = starts.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] <= offset) {
+                    if (offset < ends[mid]) {
+                        return mid;
+                    }
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * The state of the index. A snapshot is never modified after it was published, so lookups can
+     * read it without locking while {@link #register} builds the next one.
+     */
+    private static final class Snapshot {
+
+        private final Segment[] nativeSegments;
+        private final EconomicMap<Object, Segment> managedSegments;
+        private final EconomicMap<Object, LLVMGlobal> containers;
+
+        Snapshot(Segment[] nativeSegments, EconomicMap<Object, Segment> managedSegments, EconomicMap<Object, LLVMGlobal> containers) {
+            this.nativeSegments = nativeSegments;
+            this.managedSegments = managedSegments;
+            this.containers = containers;
+        }
+    }
+
+    public synchronized void register(Builder builder) {
+        Snapshot old = snapshot;
+        Segment[] newNativeSegments = old.nativeSegments;
+        EconomicMap<Object, Segment> newManagedSegments = old.managedSegments;
+        EconomicMap<Object, LLVMGlobal> newContainers = old.containers;
+        if (!builder.containers.isEmpty()) {
+            newContainers = EconomicMap.create(Equivalence.IDENTITY_WITH_SYSTEM_HASHCODE, old.containers);
+            newContainers.putAll(builder.containers);
+        }
+        if (builder.count > 0) {
+            if (LLVMNativePointer.isInstance(builder.store)) {
+                Segment segment = builder.build(LLVMNativePointer.cast(builder.store).asNative());
+                newNativeSegments = Arrays.copyOf(old.nativeSegments, old.nativeSegments.length + 1);
+                int pos = newNativeSegments.length - 1;
+                while (pos > 0 && newNativeSegments[pos - 1].base > segment.base) {
+                    newNativeSegments[pos] = newNativeSegments[pos - 1];
+                    pos--;
+                }
+                newNativeSegments[pos] = segment;
+                assert pos == 0 || newNativeSegments[pos - 1].getEnd() <= segment.base : "overlapping globals allocations";
+                assert pos == newNativeSegments.length - 1 || segment.getEnd() <= newNativeSegments[pos + 1].base : "overlapping globals allocations";
+            } else {
+                LLVMManagedPointer store = LLVMManagedPointer.cast(builder.store);
+                newManagedSegments = EconomicMap.create(Equivalence.IDENTITY_WITH_SYSTEM_HASHCODE, old.managedSegments);
+                newManagedSegments.put(store.getObject(), builder.build(store.getOffset()));
+            }
+        }
+        snapshot = new Snapshot(newNativeSegments, newManagedSegments, newContainers);
+    }
+
+    /**
+     * Finds the global that starts exactly at {@code pointer}, or returns {@code null}.
+     */
+    @TruffleBoundary
+    public LLVMGlobal find(LLVMPointer pointer) {
+        Snapshot current = snapshot;
+        if (LLVMNativePointer.isInstance(pointer)) {
+            return lookupNative(current, LLVMNativePointer.cast(pointer).asNative(), true);
+        }
+        LLVMManagedPointer managed = LLVMManagedPointer.cast(pointer);
+        Object object = managed.getObject();
+        LLVMGlobal container = current.containers.get(object);
+        if (container != null) {
+            return managed.getOffset() == 0 ? container : null;
+        }
+        Segment segment = current.managedSegments.get(object);
+        return segment == null ? null : lookupInSegment(segment, managed.getOffset(), true);
+    }
+
+    /**
+     * Finds the global whose native storage contains {@code address}, or returns {@code null}.
+     */
+    @TruffleBoundary
+    public LLVMGlobal findContaining(long address) {
+        return lookupNative(snapshot, address, false);
+    }
+
+    /**
+     * Returns the objects of all globals with a dedicated {@link LLVMGlobalContainer}.
+     */
+    public List<Object> getContainers() {
+        List<Object> result = new ArrayList<>();
+        for (Object container : snapshot.containers.getKeys()) {
+            result.add(container);
+        }
+        return result;
+    }
+
+    private static LLVMGlobal lookupNative(Snapshot current, long address, boolean exact) {
+        Segment[] segments = current.nativeSegments;
+        int low = 0;
+        int high = segments.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Segment segment = segments[mid];
+            if (segment.base <= address) {
+                if (address < segment.getEnd()) {
+                    return lookupInSegment(segment, address, exact);
+                }
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return null;
+    }
+
+    private static LLVMGlobal lookupInSegment(Segment segment, long address, boolean exact) {
+        long offset = address - segment.base;
+        int index = segment.find(offset);
+        if (index < 0 || (exact && segment.starts[index] != offset)) {
+            return null;
+        }
+        return segment.globals[index];
+    }
+}
@@ -31,7 +31,6 @@ package com.oracle.truffle.llvm.runtime.interop;
 
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerDirectives;
-import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.ArityException;
@@ -48,7 +47,6 @@ import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM.ForeignToLL
 import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM.SlowPathForeignToLLVM;
 import com.oracle.truffle.llvm.runtime.memory.LLVMStack;
 import com.oracle.truffle.llvm.runtime.memory.LLVMStack.StackPointer;
-import com.oracle.truffle.llvm.runtime.memory.LLVMThreadingStack;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMNode;
 import com.oracle.truffle.llvm.runtime.types.StructureType;
 import com.oracle.truffle.llvm.runtime.types.Type;
@@ -150,16 +148,6 @@ public abstract class LLVMForeignCallNode extends LLVMNode {
 
     public abstract Object executeCall(LLVMFunctionDescriptor function, Object[] arguments);
 
-    @CompilationFinal private LLVMThreadingStack threadingStack = null;
-
-    private LLVMThreadingStack getThreadingStack(LLVMContext context) {
-        if (threadingStack == null) {
-            CompilerDirectives.transferToInterpreterAndInvalidate();
-            threadingStack = context.getThreadingStack();
-        }
-        return threadingStack;
-    }
-
     @SuppressWarnings("unused")
     @Specialization(limit = "3", guards = {"function == cachedFunction", "cachedLength == arguments.length"})
     protected Object callDirectCached(LLVMFunctionDescriptor function, Object[] arguments,
@@ -175,7 +163,7 @@ public abstract class LLVMForeignCallNode extends LLVMNode {
 
     private Object directCall(Object[] arguments, DirectCallNode callNode, PackForeignArgumentsNode packNode, LLVMGetStackNode getStack, LLVMContext context) {
         Object result;
-        LLVMStack stack = getStack.executeWithTarget(getThreadingStack(context), Thread.currentThread());
+        LLVMStack stack = getStack.executeWithTarget(context.getThreadingStack(), Thread.currentThread());
         try (StackPointer stackPointer = stack.newFrame()) {
             result = callNode.call(packNode.pack(arguments, stackPointer));
         }
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.runtime.interop.access;
+
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM.ForeignToLLVMType;
+import com.oracle.truffle.llvm.runtime.memory.UnsafeArrayAccess;
+
+/**
+ * Direct access to host primitive arrays that are passed to LLVM code as polyglot pointers. The
+ * backing Java array is resolved once per access, elements are read and written without going
+ * through the interop messages, and bulk copies to and from native memory are done with a single
+ * memory copy.
+ */
+public final class LLVMInteropHostArray {
+
+    private LLVMInteropHostArray() {
+    }
+
+    /**
+     * Returns the Java primitive array backing {@code foreign}, or {@code null} if
+     * {@code foreign} is not a host primitive array.
+     */
+    public static Object getHostArray(Env env, Object foreign) {
+        if (env.isHostObject(foreign)) {
+            Object object = env.asHostObject(foreign);
+            if (getElementType(object.getClass()) != null) {
+                return object;
+            }
+        }
+        return null;
+    }
+
+    public static Class<?> getHostArrayClass(Env env, Object foreign) {
+        Object array = getHostArray(env, foreign);
+        return array == null ? null : array.getClass();
+    }
+
+    /**
+     * Returns the LLVM type of the elements of {@code arrayClass}, or {@code null} if it is not a
+     * primitive array class.
+     */
+    public static ForeignToLLVMType getElementType(Class<?> arrayClass) {
+        if (arrayClass == int[].class) {
+            return ForeignToLLVMType.I32;
+        } else if (arrayClass == long[].class) {
+            return ForeignToLLVMType.I64;
+        } else if (arrayClass == double[].class) {
+            return ForeignToLLVMType.DOUBLE;
+        } else if (arrayClass == float[].class) {
+            return ForeignToLLVMType.FLOAT;
+        } else if (arrayClass == byte[].class) {
+            return ForeignToLLVMType.I8;
+        } else if (arrayClass == short[].class || arrayClass == char[].class) {
+            return ForeignToLLVMType.I16;
+        } else if (arrayClass == boolean[].class) {
+            return ForeignToLLVMType.I1;
+        } else {
+            return null;
+        }
+    }
+
+    public static long getBaseOffset(Class<?> arrayClass) {
+        if (arrayClass == int[].class) {
+            return UnsafeArrayAccess.ARRAY_INT_BASE_OFFSET;
+        } else if (arrayClass == long[].class) {
+            return UnsafeArrayAccess.ARRAY_LONG_BASE_OFFSET;
+        } else if (arrayClass == double[].class) {
+            return UnsafeArrayAccess.ARRAY_DOUBLE_BASE_OFFSET;
+        } else if (arrayClass == float[].class) {
+            return UnsafeArrayAccess.ARRAY_FLOAT_BASE_OFFSET;
+        } else if (arrayClass == byte[].class) {
+            return UnsafeArrayAccess.ARRAY_BYTE_BASE_OFFSET;
+        } else if (arrayClass == short[].class) {
+            return UnsafeArrayAccess.ARRAY_SHORT_BASE_OFFSET;
+        } else if (arrayClass == char[].class) {
+            return UnsafeArrayAccess.ARRAY_CHAR_BASE_OFFSET;
+        } else if (arrayClass == boolean[].class) {
+            return UnsafeArrayAccess.ARRAY_BOOLEAN_BASE_OFFSET;
+        } else {
+            throw new IllegalArgumentException("not a primitive array class: " + arrayClass);
+        }
+    }
+
+    public static long getByteLength(Object array, ForeignToLLVMType elementType) {
+        return (long) java.lang.reflect.Array.getLength(array) * elementType.getSizeInBytes();
+    }
+
+    /**
+     * Bulk copies with native memory are restricted to arrays where every bit pattern is a valid
+     * element, which excludes {@code boolean[]}.
+     */
+    public static boolean canCopyBulk(Object array, long offset, long length) {
+        ForeignToLLVMType elementType = getElementType(array.getClass());
+        return elementType != null && elementType != ForeignToLLVMType.I1 && offset >= 0 && length >= 0 && offset + length <= getByteLength(array, elementType);
+    }
+
+    public static void copyFromNative(UnsafeArrayAccess arrayAccess, long sourceAddress, Object array, long offset, long length) {
+        arrayAccess.copyFromNative(sourceAddress, array, getBaseOffset(array.getClass()), offset, length);
+    }
+
+    public static void copyToNative(UnsafeArrayAccess arrayAccess, Object array, long offset, long targetAddress, long length) {
+        arrayAccess.copyToNative(array, getBaseOffset(array.getClass()), offset, targetAddress, length);
+    }
+
+    /**
+     * Checks whether an access of {@code elementType} at {@code offset} maps to exactly one array
+     * element, given the (optional) interop type the LLVM code attached to the array.
+     */
+    public static boolean isDirectAccess(LLVMInteropType.Structured type, ForeignToLLVMType elementType, long offset) {
+        int elementSize = elementType.getSizeInBytes();
+        if (offset < 0 || offset % elementSize != 0) {
+            return false;
+        }
+        if (type == null) {
+            return true;
+        } else if (type instanceof LLVMInteropType.Array) {
+            LLVMInteropType.Array array = (LLVMInteropType.Array) type;
+            if (array.elementSize != elementSize || !(array.elementType instanceof LLVMInteropType.Value)) {
+                return false;
+            }
+            return ((LLVMInteropType.Value) array.elementType).kind != LLVMInteropType.ValueKind.POINTER;
+        } else {
+            return false;
+        }
+    }
+
+    public static boolean isInBounds(Object array, long index) {
+        return Long.compareUnsigned(index, java.lang.reflect.Array.getLength(array)) < 0;
+    }
+
+    public static Object read(Object array, ForeignToLLVMType elementType, int index) {
+        switch (elementType) {
+            case I1:
+                return ((boolean[]) array)[index];
+            case I8:
+                return ((byte[]) array)[index];
+            case I16:
+                if (array instanceof char[]) {
+                    return (short) ((char[]) array)[index];
+                }
+                return ((short[]) array)[index];
+            case I32:
+                return ((int[]) array)[index];
+            case I64:
+                return ((long[]) array)[index];
+            case FLOAT:
+                return ((float[]) array)[index];
+            case DOUBLE:
+                return ((double[]) array)[index];
+            default:
+                throw new IllegalStateException("unexpected element type " + elementType);
+        }
+    }
+
+    /**
+     * Checks whether {@code value} can be stored into an array with elements of
+     * {@code elementType} without conversion.
+     */
+    public static boolean isWritable(ForeignToLLVMType elementType, Object value) {
+        switch (elementType) {
+            case I1:
+                return value instanceof Boolean;
+            case I8:
+                return value instanceof Byte;
+            case I16:
+                return value instanceof Short;
+            case I32:
+                return value instanceof Integer;
+            case I64:
+                return value instanceof Long;
+            case FLOAT:
+                return value instanceof Float;
+            case DOUBLE:
+                return value instanceof Double;
+            default:
+                return false;
+        }
+    }
+
+    public static void write(Object array, ForeignToLLVMType elementType, int index, Object value) {
+        switch (elementType) {
+            case I1:
+                ((boolean[]) array)[index] = (boolean) value;
+                break;
+            case I8:
+                ((byte[]) array)[index] = (byte) value;
+                break;
+            case I16:
+                if (array instanceof char[]) {
+                    ((char[]) array)[index] = (char) (short) value;
+                } else {
+                    ((short[]) array)[index] = (short) value;
+                }
+                break;
+            case I32:
+                ((int[]) array)[index] = (int) value;
+                break;
+            case I64:
+                ((long[]) array)[index] = (long) value;
+                break;
+            case FLOAT:
+                ((float[]) array)[index] = (float) value;
+                break;
+            case DOUBLE:
+                ((double[]) array)[index] = (double) value;
+                break;
+            default:
+                throw new IllegalStateException("unexpected element type " + elementType);
+        }
+    }
+}
@@ -30,8 +30,9 @@
 package com.oracle.truffle.llvm.runtime.interop.access;
 
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.TruffleLanguage.ContextReference;
 import com.oracle.truffle.api.dsl.Cached;
-import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.ForeignAccess;
 import com.oracle.truffle.api.interop.Message;
@@ -39,6 +40,8 @@ import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.interop.UnknownIdentifierException;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.llvm.runtime.LLVMContext;
+import com.oracle.truffle.llvm.runtime.LLVMLanguage;
 import com.oracle.truffle.llvm.runtime.except.LLVMPolyglotException;
 import com.oracle.truffle.llvm.runtime.interop.access.LLVMInteropAccessNode.AccessLocation;
 import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM;
@@ -57,6 +60,8 @@ public abstract class LLVMInteropReadNode extends LLVMNode {
     private final int elementAccessSize;
     private final ForeignToLLVMType llvmType;
 
+    @CompilationFinal private ContextReference<LLVMContext> ctxRef;
+
     protected LLVMInteropReadNode(ForeignToLLVMType llvmType) {
         this.read = Message.READ.createNode();
         this.elementAccessSize = llvmType.getSizeInBytes();
@@ -65,6 +70,19 @@ public abstract class LLVMInteropReadNode extends LLVMNode {
 
     public abstract Object execute(LLVMInteropType.Structured type, TruffleObject foreign, long offset);
 
+    @Specialization(guards = {"isLLVMType(elementType)", "hostArrayClass == getHostArrayClass(foreign)", "isDirectAccess(type, elementType, offset)"})
+    Object doHostArray(@SuppressWarnings("unused") LLVMInteropType.Structured type, TruffleObject foreign, long offset,
+                    @Cached("getHostArrayClass(foreign)") Class<?> hostArrayClass,
+                    @Cached("getElementType(hostArrayClass)") ForeignToLLVMType elementType) {
+        Object array = hostArrayClass.cast(getHostArray(foreign));
+        long index = offset / elementAccessSize;
+        if (!LLVMInteropHostArray.isInBounds(array, index)) {
+            CompilerDirectives.transferToInterpreter();
+            throw new LLVMPolyglotException(this, "Member '%s' not found.", index);
+        }
+        return LLVMInteropHostArray.read(array, elementType, (int) index);
+    }
+
     @Specialization(guards = "type != null")
     Object doKnownType(LLVMInteropType.Structured type, TruffleObject foreign, long offset,
                     @Cached("create()") LLVMInteropAccessNode access) {
@@ -72,13 +90,41 @@ public abstract class LLVMInteropReadNode extends LLVMNode {
         return read(location);
     }
 
-    @Fallback
+    @Specialization(guards = "type == null")
     Object doUnknownType(@SuppressWarnings("unused") LLVMInteropType.Structured type, TruffleObject foreign, long offset) {
         // type unknown: fall back to "array of unknown value type"
         AccessLocation location = new AccessLocation(foreign, Long.divideUnsigned(offset, elementAccessSize), null);
         return read(location);
     }
 
+    boolean isLLVMType(ForeignToLLVMType elementType) {
+        return elementType == llvmType;
+    }
+
+    static ForeignToLLVMType getElementType(Class<?> hostArrayClass) {
+        return hostArrayClass == null ? null : LLVMInteropHostArray.getElementType(hostArrayClass);
+    }
+
+    static boolean isDirectAccess(LLVMInteropType.Structured type, ForeignToLLVMType elementType, long offset) {
+        return LLVMInteropHostArray.isDirectAccess(type, elementType, offset);
+    }
+
+    Class<?> getHostArrayClass(TruffleObject foreign) {
+        return LLVMInteropHostArray.getHostArrayClass(getContext().getEnv(), foreign);
+    }
+
+    private Object getHostArray(TruffleObject foreign) {
+        return LLVMInteropHostArray.getHostArray(getContext().getEnv(), foreign);
+    }
+
+    private LLVMContext getContext() {
+        if (ctxRef == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            ctxRef = LLVMLanguage.getLLVMContextReference();
+        }
+        return ctxRef.get();
+    }
+
     private Object read(AccessLocation location) {
         Object ret;
         try {
@@ -30,8 +30,9 @@
 package com.oracle.truffle.llvm.runtime.interop.access;
 
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.TruffleLanguage.ContextReference;
 import com.oracle.truffle.api.dsl.Cached;
-import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.ForeignAccess;
 import com.oracle.truffle.api.interop.Message;
@@ -40,9 +41,12 @@ import com.oracle.truffle.api.interop.UnknownIdentifierException;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.interop.UnsupportedTypeException;
 import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.llvm.runtime.LLVMContext;
+import com.oracle.truffle.llvm.runtime.LLVMLanguage;
 import com.oracle.truffle.llvm.runtime.except.LLVMPolyglotException;
 import com.oracle.truffle.llvm.runtime.interop.access.LLVMInteropAccessNode.AccessLocation;
 import com.oracle.truffle.llvm.runtime.interop.access.LLVMInteropWriteNodeGen.GetValueSizeNodeGen;
+import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM.ForeignToLLVMType;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMNode;
 
 public abstract class LLVMInteropWriteNode extends LLVMNode {
@@ -53,8 +57,24 @@ public abstract class LLVMInteropWriteNode extends LLVMNode {
 
     @Child Node write = Message.WRITE.createNode();
 
+    @CompilationFinal private ContextReference<LLVMContext> ctxRef;
+
     public abstract void execute(LLVMInteropType.Structured type, TruffleObject foreign, long offset, Object value);
 
+    @Specialization(guards = {"elementType != null", "hostArrayClass == getHostArrayClass(foreign)", "isDirectAccess(type, elementType, offset)",
+                    "isWritable(elementType, value)"})
+    void doHostArray(@SuppressWarnings("unused") LLVMInteropType.Structured type, TruffleObject foreign, long offset, Object value,
+                    @Cached("getHostArrayClass(foreign)") Class<?> hostArrayClass,
+                    @Cached("getElementType(hostArrayClass)") ForeignToLLVMType elementType) {
+        Object array = hostArrayClass.cast(getHostArray(foreign));
+        long index = offset / elementType.getSizeInBytes();
+        if (!LLVMInteropHostArray.isInBounds(array, index)) {
+            CompilerDirectives.transferToInterpreter();
+            throw new LLVMPolyglotException(this, "Member '%s' not found.", index);
+        }
+        LLVMInteropHostArray.write(array, elementType, (int) index, value);
+    }
+
     @Specialization(guards = "type != null")
     void doKnownType(LLVMInteropType.Structured type, TruffleObject foreign, long offset, Object value,
                     @Cached("create()") LLVMInteropAccessNode access) {
@@ -64,7 +84,7 @@ public abstract class LLVMInteropWriteNode extends LLVMNode {
 
     @Child GetValueSizeNode getSize;
 
-    @Fallback
+    @Specialization(guards = "type == null")
     void doUnknownType(@SuppressWarnings("unused") LLVMInteropType.Structured type, TruffleObject foreign, long offset, Object value) {
         if (getSize == null) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -77,6 +97,34 @@ public abstract class LLVMInteropWriteNode extends LLVMNode {
         write(location, value);
     }
 
+    static ForeignToLLVMType getElementType(Class<?> hostArrayClass) {
+        return hostArrayClass == null ? null : LLVMInteropHostArray.getElementType(hostArrayClass);
+    }
+
+    static boolean isDirectAccess(LLVMInteropType.Structured type, ForeignToLLVMType elementType, long offset) {
+        return LLVMInteropHostArray.isDirectAccess(type, elementType, offset);
+    }
+
+    static boolean isWritable(ForeignToLLVMType elementType, Object value) {
+        return LLVMInteropHostArray.isWritable(elementType, value);
+    }
+
+    Class<?> getHostArrayClass(TruffleObject foreign) {
+        return LLVMInteropHostArray.getHostArrayClass(getContext().getEnv(), foreign);
+    }
+
+    private Object getHostArray(TruffleObject foreign) {
+        return LLVMInteropHostArray.getHostArray(getContext().getEnv(), foreign);
+    }
+
+    private LLVMContext getContext() {
+        if (ctxRef == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            ctxRef = LLVMLanguage.getLLVMContextReference();
+        }
+        return ctxRef.get();
+    }
+
     private void write(AccessLocation location, Object value) {
         try {
             ForeignAccess.sendWrite(write, location.base, location.identifier, value);
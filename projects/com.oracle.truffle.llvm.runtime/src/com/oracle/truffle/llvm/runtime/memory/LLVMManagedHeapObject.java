@@ -0,0 +1,631 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.runtime.memory;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.interop.CanResolve;
+import com.oracle.truffle.api.interop.ForeignAccess;
+import com.oracle.truffle.api.interop.InteropException;
+import com.oracle.truffle.api.interop.MessageResolution;
+import com.oracle.truffle.api.interop.Resolve;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.llvm.runtime.LLVMLanguage;
+import com.oracle.truffle.llvm.runtime.interop.LLVMInternalTruffleObject;
+import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM.ForeignToLLVMType;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMObjectAccess;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMToNativeNode;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
+
+@MessageResolution(receiverType = LLVMManagedHeapObject.class)
+class ManagedHeapObjectForeignAccess {
+
+    @CanResolve
+    public abstract static class Check extends Node {
+
+        protected static boolean test(TruffleObject receiver) {
+            return receiver instanceof LLVMManagedHeapObject;
+        }
+    }
+
+    @Resolve(message = "IS_POINTER")
+    public abstract static class ForeignIsPointerNode extends Node {
+
+        protected boolean access(LLVMManagedHeapObject receiver) {
+            return receiver.isInNative();
+        }
+    }
+
+    @Resolve(message = "AS_POINTER")
+    public abstract static class ForeignAsPointerNode extends Node {
+
+        protected long access(LLVMManagedHeapObject receiver) {
+            return receiver.getNativeAddress();
+        }
+    }
+
+    @Resolve(message = "TO_NATIVE")
+    public abstract static class ForeignToNativeNode extends Node {
+
+        @Child private LLVMToNativeNode toNative;
+
+        protected Object access(LLVMManagedHeapObject receiver) {
+            if (!receiver.isInNative()) {
+                if (toNative == null) {
+                    CompilerDirectives.transferToInterpreterAndInvalidate();
+                    toNative = insert(LLVMToNativeNode.createToNativeWithTarget());
+                }
+                receiver.transformToNative(toNative);
+            }
+            return receiver;
+        }
+    }
+}
+
+/**
+ * A heap allocation of the managed configuration. Primitive data lives in an {@code int[]}, pointer
+ * values that do not have a native representation are kept in a separate slot per 8-byte word, so
+ * that a pointer to another managed object can be stored without forcing it to native memory.
+ *
+ * The object is transformed to native memory as soon as it escapes (i.e., it is converted to a
+ * native pointer) or is accessed in a way that cannot be expressed on the managed representation,
+ * for example by reading the bytes of a stored managed pointer. From then on, all accesses go to the
+ * native copy.
+ *
+ * The object can be accessed by several threads. The transformation to native memory, free and
+ * all changes of the pointer slots hold the lock of the object. {@link #data} is cleared before
+ * the data is copied, and {@link #address} is only published once the copy is complete. A read
+ * that still sees {@link #data} returns a value from before the transformation. A write that sees
+ * {@link #data} cleared after it wrote the managed copy repeats the write on the native copy, after
+ * waiting for the transformation to finish.
+ */
+public final class LLVMManagedHeapObject implements LLVMObjectAccess, LLVMInternalTruffleObject {
+
+    private final long size;
+
+    volatile int[] data;
+    volatile Object[] pointers;
+    private volatile long address;
+    private volatile boolean freed;
+
+    // the native copy while the transformation is in progress, guarded by the object lock
+    private long pendingAddress;
+
+    public LLVMManagedHeapObject(long size) {
+        this.size = size;
+        this.data = new int[(int) ((size + 3) / 4)];
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public boolean isInNative() {
+        return address != 0;
+    }
+
+    public long getAddress() {
+        return address;
+    }
+
+    /**
+     * Returns the address of the native copy, waiting for a transformation that is in progress in
+     * another thread.
+     */
+    long getNativeAddress() {
+        long result = address;
+        if (result == 0) {
+            result = waitForNativeAddress();
+        }
+        return result;
+    }
+
+    @TruffleBoundary
+    private synchronized long waitForNativeAddress() {
+        if (freed) {
+            throw new IllegalAccessError(String.format("Use after free of a managed allocation of %d bytes.", size));
+        }
+        // a transformation of this thread can be pending if the object (indirectly) points to itself
+        return address != 0 ? address : pendingAddress;
+    }
+
+    /**
+     * Checks whether {@link #copyTo} can be used, i.e., both objects are still managed, the ranges
+     * are in bounds and no stored managed pointer would end up at an unaligned position.
+     */
+    public boolean canCopyManaged(long sourceOffset, LLVMManagedHeapObject target, long targetOffset, long length) {
+        if (!isManagedRange(sourceOffset, length) || !target.isManagedRange(targetOffset, length)) {
+            return false;
+        }
+        return (sourceOffset | targetOffset | length) % 8 == 0 || !hasManagedPointers(sourceOffset, length);
+    }
+
+    /**
+     * Copies {@code length} bytes to another managed heap object, including the stored managed
+     * pointers. Overlapping ranges are handled like {@code memmove}. If one of the objects was
+     * transformed to native memory in the meantime, the bytes are copied from or to its native
+     * copy.
+     *
+     * @return false if nothing was copied because managed pointers would have to be stored in a
+     *         target that is no longer managed
+     */
+    @TruffleBoundary
+    public boolean copyTo(UnsafeArrayAccess memory, long sourceOffset, LLVMManagedHeapObject target, long targetOffset, long length) {
+        if (length == 0) {
+            return true;
+        }
+        // read the pointers before the data, both are cleared in the reverse order
+        Object[] sourcePointers = pointers;
+        int[] sourceData = data;
+        if (sourceData == null) {
+            target.copyFromNative(memory, getNativeAddress() + sourceOffset, targetOffset, length);
+            return true;
+        }
+        Object[] copiedPointers = null;
+        if (sourcePointers != null) {
+            copiedPointers = Arrays.copyOfRange(sourcePointers, (int) (sourceOffset / 8), (int) ((sourceOffset + length + 7) / 8));
+        }
+        synchronized (target) {
+            int[] targetData = target.data;
+            if (targetData == null) {
+                if (copiedPointers != null && hasPointerIn(copiedPointers, 0, copiedPointers.length)) {
+                    return false;
+                }
+                memory.copyToNative(sourceData, sourceOffset, target.getNativeAddress() + targetOffset, length);
+                return true;
+            }
+            memory.copy(sourceData, sourceOffset, targetData, targetOffset, length);
+            target.clearPointersLocked(targetOffset, length);
+            if (copiedPointers != null) {
+                for (int i = 0; i < copiedPointers.length; i++) {
+                    if (copiedPointers[i] != null) {
+                        target.setPointerLocked(targetOffset + i * 8L, copiedPointers[i]);
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if {@code [offset, offset + length)} is in bounds and the object still has its
+     *         managed representation
+     */
+    public boolean isManagedRange(long offset, long length) {
+        return data != null && offset >= 0 && length >= 0 && offset + length <= size;
+    }
+
+    /**
+     * @return true if managed pointers are stored somewhere in {@code [offset, offset + length)}
+     */
+    public boolean hasManagedPointers(long offset, long length) {
+        return length > 0 && hasPointerIn(offset, length);
+    }
+
+    /**
+     * Copies {@code length} bytes of native memory into this object; overwritten managed pointers
+     * are dropped.
+     */
+    @TruffleBoundary
+    public synchronized void copyFromNative(UnsafeArrayAccess memory, long sourceAddress, long offset, long length) {
+        assert offset >= 0 && offset + length <= size;
+        if (length > 0) {
+            int[] d = data;
+            if (d == null) {
+                getNativeMemory().copyMemory(sourceAddress, getNativeAddress() + offset, length);
+            } else {
+                memory.copyFromNative(sourceAddress, d, offset, length);
+                clearPointersLocked(offset, length);
+            }
+        }
+    }
+
+    /**
+     * Copies {@code length} bytes of this object to native memory. The range must not contain
+     * managed pointers.
+     */
+    @TruffleBoundary
+    public void copyToNative(UnsafeArrayAccess memory, long offset, long targetAddress, long length) {
+        assert offset >= 0 && offset + length <= size;
+        int[] d = data;
+        if (d == null) {
+            getNativeMemory().copyMemory(getNativeAddress() + offset, targetAddress, length);
+        } else {
+            memory.copyToNative(d, offset, targetAddress, length);
+        }
+    }
+
+    /**
+     * Releases the object. Later accesses raise an error, and so does a second free.
+     */
+    @TruffleBoundary
+    public synchronized void free(LLVMMemory memory) {
+        if (freed) {
+            throw new IllegalAccessError(String.format("Double free of a managed allocation of %d bytes.", size));
+        }
+        freed = true;
+        data = null;
+        pointers = null;
+        long nativeAddress = address;
+        address = 0;
+        if (nativeAddress != 0) {
+            memory.free(nativeAddress);
+        }
+    }
+
+    Object getPointer(long offset) {
+        Object[] p = pointers;
+        return p == null ? null : p[(int) (offset / 8)];
+    }
+
+    boolean hasPointerIn(long offset, long length) {
+        Object[] p = pointers;
+        return p != null && hasPointerIn(p, offset / 8, (offset + length - 1) / 8 - offset / 8 + 1);
+    }
+
+    private static boolean hasPointerIn(Object[] p, long firstWord, long words) {
+        for (long i = firstWord; i < firstWord + words; i++) {
+            if (p[(int) i] != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return false if the object is no longer managed, the pointer then has to be written to the
+     *         native copy
+     */
+    @TruffleBoundary
+    synchronized boolean setPointer(long offset, Object value) {
+        if (data == null) {
+            return false;
+        }
+        setPointerLocked(offset, value);
+        return true;
+    }
+
+    private void setPointerLocked(long offset, Object value) {
+        if (pointers == null) {
+            pointers = new Object[(int) ((size + 7) / 8)];
+        }
+        pointers[(int) (offset / 8)] = value;
+    }
+
+    void clearPointers(long offset, long length) {
+        if (pointers != null) {
+            clearPointersSynchronized(offset, length);
+        }
+    }
+
+    @TruffleBoundary
+    private synchronized void clearPointersSynchronized(long offset, long length) {
+        clearPointersLocked(offset, length);
+    }
+
+    private void clearPointersLocked(long offset, long length) {
+        Object[] p = pointers;
+        if (p != null) {
+            for (long i = offset / 8; i <= (offset + length - 1) / 8; i++) {
+                p[(int) i] = null;
+            }
+        }
+    }
+
+    void checkBounds(long offset, int length) {
+        if (offset < 0 || offset + length > size) {
+            CompilerDirectives.transferToInterpreter();
+            throw new IllegalAccessError(String.format("Out of bounds access (offset %d, length %d) to a managed allocation of %d bytes.", offset, length, size));
+        }
+    }
+
+    @TruffleBoundary
+    synchronized void transformToNative(LLVMToNativeNode toNative) {
+        if (freed) {
+            throw new IllegalAccessError(String.format("Use after free of a managed allocation of %d bytes.", size));
+        }
+        int[] d = data;
+        if (d == null) {
+            // already native, or a transformation of this thread is pending
+            return;
+        }
+        LLVMMemory memory = getNativeMemory();
+        UnsafeArrayAccess arrayAccess = LLVMLanguage.getLanguage().getCapability(UnsafeArrayAccess.class);
+        long nativeAddress = memory.allocateMemory(Math.max(size, 1)).asNative();
+        pendingAddress = nativeAddress;
+        // from now on, concurrent writes to the managed copy are repeated on the native copy
+        data = null;
+        arrayAccess.copyToNative(d, 0, nativeAddress, size);
+        Object[] p = pointers;
+        if (p != null) {
+            for (int i = 0; i < p.length; i++) {
+                if (p[i] != null) {
+                    memory.putPointer(nativeAddress + i * 8L, toNative.executeWithTarget(p[i]));
+                }
+            }
+        }
+        pointers = null;
+        pendingAddress = 0;
+        address = nativeAddress;
+    }
+
+    private static LLVMMemory getNativeMemory() {
+        return LLVMLanguage.getLanguage().getCapability(LLVMMemory.class);
+    }
+
+    @Override
+    public ForeignAccess getForeignAccess() {
+        return ManagedHeapObjectForeignAccessForeign.ACCESS;
+    }
+
+    @Override
+    public LLVMObjectReadNode createReadNode(ForeignToLLVMType type) {
+        return new LLVMManagedHeapObjectReadNode(type);
+    }
+
+    @Override
+    public LLVMObjectWriteNode createWriteNode(ForeignToLLVMType type) {
+        return new LLVMManagedHeapObjectWriteNode(type);
+    }
+
+    @Override
+    @TruffleBoundary
+    public String toString() {
+        return String.format("LLVMManagedHeapObject (size = %d, address = 0x%x%s)", size, address, freed ? ", freed" : "");
+    }
+
+    static class LLVMManagedHeapObjectReadNode extends LLVMObjectReadNode {
+
+        private final ForeignToLLVMType type;
+
+        @Child private LLVMToNativeNode toNative;
+        @CompilationFinal private LLVMMemory memory;
+        @CompilationFinal private UnsafeArrayAccess arrayAccess;
+
+        LLVMManagedHeapObjectReadNode(ForeignToLLVMType type) {
+            this.type = type;
+        }
+
+        @Override
+        public boolean canAccess(Object obj) {
+            return obj instanceof LLVMManagedHeapObject;
+        }
+
+        @Override
+        public Object executeRead(Object obj, long offset) throws InteropException {
+            LLVMManagedHeapObject object = (LLVMManagedHeapObject) obj;
+            int[] data = object.data;
+            if (data != null) {
+                int length = type.getSizeInBytes();
+                object.checkBounds(offset, length);
+                if (type == ForeignToLLVMType.POINTER) {
+                    Object pointer = offset % 8 == 0 ? object.getPointer(offset) : null;
+                    if (pointer != null) {
+                        return pointer;
+                    }
+                }
+                if (!object.hasPointerIn(offset, length)) {
+                    return readManaged(data, offset);
+                }
+                // the bytes of a managed pointer are requested
+                if (toNative == null) {
+                    CompilerDirectives.transferToInterpreterAndInvalidate();
+                    toNative = insert(LLVMToNativeNode.createToNativeWithTarget());
+                }
+                object.transformToNative(toNative);
+            }
+            return readNative(object.getNativeAddress() + offset);
+        }
+
+        private Object readManaged(int[] data, long offset) {
+            if (arrayAccess == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                arrayAccess = getUnsafeArrayAccess();
+            }
+            switch (type) {
+                case DOUBLE:
+                    return arrayAccess.getDouble(data, offset);
+                case FLOAT:
+                    return arrayAccess.getFloat(data, offset);
+                case I1:
+                    return arrayAccess.getI1(data, offset);
+                case I16:
+                    return arrayAccess.getI16(data, offset);
+                case I32:
+                    return arrayAccess.getI32(data, offset);
+                case I64:
+                    return arrayAccess.getI64(data, offset);
+                case I8:
+                    return arrayAccess.getI8(data, offset);
+                case POINTER:
+                    return LLVMNativePointer.create(arrayAccess.getI64(data, offset));
+                default:
+                    throw new IllegalStateException("unexpected type " + type);
+            }
+        }
+
+        private Object readNative(long ptr) {
+            if (memory == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                memory = getLLVMMemory();
+            }
+            switch (type) {
+                case DOUBLE:
+                    return memory.getDouble(ptr);
+                case FLOAT:
+                    return memory.getFloat(ptr);
+                case I1:
+                    return memory.getI1(ptr);
+                case I16:
+                    return memory.getI16(ptr);
+                case I32:
+                    return memory.getI32(ptr);
+                case I64:
+                    return memory.getI64(ptr);
+                case I8:
+                    return memory.getI8(ptr);
+                case POINTER:
+                    return memory.getPointer(ptr);
+                default:
+                    throw new IllegalStateException("unexpected type " + type);
+            }
+        }
+    }
+
+    static class LLVMManagedHeapObjectWriteNode extends LLVMObjectWriteNode {
+
+        private final ForeignToLLVMType type;
+
+        @Child private LLVMToNativeNode toNative;
+        @CompilationFinal private LLVMMemory memory;
+        @CompilationFinal private UnsafeArrayAccess arrayAccess;
+
+        LLVMManagedHeapObjectWriteNode(ForeignToLLVMType type) {
+            this.type = type;
+        }
+
+        @Override
+        public boolean canAccess(Object obj) {
+            return obj instanceof LLVMManagedHeapObject;
+        }
+
+        @Override
+        public void executeWrite(Object obj, long offset, Object value) throws InteropException {
+            LLVMManagedHeapObject object = (LLVMManagedHeapObject) obj;
+            int[] data = object.data;
+            if (data != null) {
+                int length = type.getSizeInBytes();
+                object.checkBounds(offset, length);
+                if ((type == ForeignToLLVMType.POINTER || type == ForeignToLLVMType.I64) && !(value instanceof Long) && !LLVMNativePointer.isInstance(value)) {
+                    if (offset % 8 == 0 && object.setPointer(offset, value)) {
+                        return;
+                    }
+                    // a managed pointer that is not word aligned has to go to native memory, or the
+                    // object was transformed concurrently
+                    object.transformToNative(getToNative());
+                } else {
+                    object.clearPointers(offset, length);
+                    writeManaged(data, offset, value);
+                    if (object.data != null) {
+                        return;
+                    }
+                    // the object was transformed concurrently, the write may not have been copied
+                }
+            }
+            writeNative(object.getNativeAddress() + offset, value);
+        }
+
+        private LLVMToNativeNode getToNative() {
+            if (toNative == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                toNative = insert(LLVMToNativeNode.createToNativeWithTarget());
+            }
+            return toNative;
+        }
+
+        private void writeManaged(int[] data, long offset, Object value) {
+            if (arrayAccess == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                arrayAccess = getUnsafeArrayAccess();
+            }
+            switch (type) {
+                case DOUBLE:
+                    arrayAccess.writeDouble(data, offset, (double) value);
+                    break;
+                case FLOAT:
+                    arrayAccess.writeFloat(data, offset, (float) value);
+                    break;
+                case I1:
+                    arrayAccess.writeI1(data, offset, (boolean) value);
+                    break;
+                case I16:
+                    arrayAccess.writeI16(data, offset, (short) value);
+                    break;
+                case I32:
+                    arrayAccess.writeI32(data, offset, (int) value);
+                    break;
+                case I8:
+                    arrayAccess.writeI8(data, offset, (byte) value);
+                    break;
+                case I64:
+                case POINTER:
+                    if (value instanceof Long) {
+                        arrayAccess.writeI64(data, offset, (long) value);
+                    } else {
+                        arrayAccess.writeI64(data, offset, LLVMNativePointer.cast(value).asNative());
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("unexpected type " + type);
+            }
+        }
+
+        private void writeNative(long ptr, Object value) {
+            if (memory == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                memory = getLLVMMemory();
+            }
+            switch (type) {
+                case DOUBLE:
+                    memory.putDouble(ptr, (double) value);
+                    break;
+                case FLOAT:
+                    memory.putFloat(ptr, (float) value);
+                    break;
+                case I1:
+                    memory.putI1(ptr, (boolean) value);
+                    break;
+                case I16:
+                    memory.putI16(ptr, (short) value);
+                    break;
+                case I32:
+                    memory.putI32(ptr, (int) value);
+                    break;
+                case I8:
+                    memory.putI8(ptr, (byte) value);
+                    break;
+                case I64:
+                case POINTER:
+                    if (value instanceof Long) {
+                        memory.putI64(ptr, (long) value);
+                    } else {
+                        memory.putPointer(ptr, getToNative().executeWithTarget(value));
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("unexpected type " + type);
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.runtime.memory;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Keeps track of the memory regions that the guest mapped via the mmap/mremap syscalls of one
+ * LLVMContext.
+ *
+ * The syscalls that modify existing mappings (munmap, mremap, mprotect and madvise) and mmap or
+ * mremap at a fixed address are only forwarded to the OS for ranges that are completely covered by
+ * guest mappings, so that guest code cannot unmap, replace or protect memory owned by the VM. The
+ * mappings that are still alive when the context is disposed are unmapped by the context.
+ *
+ * The registry also counts the mapped bytes, their peak, and the bytes that were handed back to the
+ * OS by madvise. A page is only counted as released once until it is mapped again. These are
+ * bookkeeping numbers, not a resident set size measurement.
+ */
+public final class LLVMMemoryMappings {
+
+    private final PageRanges mappings = new PageRanges();
+    private final PageRanges released = new PageRanges();
+
+    private long mappedBytes;
+    private long peakMappedBytes;
+    private long releasedBytes;
+
+    /**
+     * Rounds {@code length} up to a multiple of {@link LLVMStack#PAGE_SIZE}. Unlike
+     * {@link LLVMStack#roundToPageSize}, a length of {@code 0} stays {@code 0}.
+     */
+    public static long pageAlign(long length) {
+        return (length + LLVMStack.PAGE_SIZE - 1) & -LLVMStack.PAGE_SIZE;
+    }
+
+    @TruffleBoundary
+    public synchronized void map(long start, long length) {
+        long end = start + pageAlign(length);
+        // a MAP_FIXED mapping replaces whatever was mapped before
+        remove(start, end);
+        mappedBytes += mappings.add(start, end);
+        peakMappedBytes = Math.max(peakMappedBytes, mappedBytes);
+    }
+
+    @TruffleBoundary
+    public synchronized void unmap(long start, long length) {
+        remove(start, start + pageAlign(length));
+    }
+
+    @TruffleBoundary
+    public synchronized void remap(long oldStart, long oldLength, long newStart, long newLength) {
+        remove(oldStart, oldStart + pageAlign(oldLength));
+        map(newStart, newLength);
+    }
+
+    /**
+     * Records that the pages in the given range were handed back to the OS (e.g.,
+     * {@code MADV_DONTNEED}) while the mapping itself stays valid.
+     */
+    @TruffleBoundary
+    public synchronized void release(long start, long length) {
+        releasedBytes += released.add(start, start + pageAlign(length));
+    }
+
+    /**
+     * @return true if every byte in {@code [start, start + length)} belongs to a guest mapping
+     */
+    @TruffleBoundary
+    public synchronized boolean isMapped(long start, long length) {
+        return mappings.covers(start, start + pageAlign(length));
+    }
+
+    /**
+     * Forgets all mappings and returns them as pairs of start and end (exclusive) addresses, so
+     * that they can be unmapped when the context is disposed.
+     */
+    public synchronized long[] removeAll() {
+        long[] result = mappings.toArray();
+        mappings.clear();
+        released.clear();
+        mappedBytes = 0;
+        return result;
+    }
+
+    public synchronized long getMappedBytes() {
+        return mappedBytes;
+    }
+
+    public synchronized long getPeakMappedBytes() {
+        return peakMappedBytes;
+    }
+
+    public synchronized long getReleasedBytes() {
+        return releasedBytes;
+    }
+
+    @TruffleBoundary
+    public synchronized void printStatistics(PrintStream output) {
+        output.println(String.format("Memory mappings: %d bytes mapped, %d bytes peak, %d bytes released", mappedBytes, peakMappedBytes, releasedBytes));
+    }
+
+    private void remove(long start, long end) {
+        mappedBytes -= mappings.remove(start, end);
+        released.remove(start, end);
+    }
+
+    /**
+     * A set of disjoint address ranges. Adjacent ranges are merged.
+     */
+    private static final class PageRanges {
+
+        // start address -> end address (exclusive)
+        private final TreeMap<Long, Long> ranges = new TreeMap<>();
+
+        /**
+         * @return the number of bytes in {@code [start, end)} that were not yet in the set
+         */
+        long add(long start, long end) {
+            if (start >= end) {
+                return 0;
+            }
+            long newStart = start;
+            long newEnd = end;
+            long present = 0;
+            Map.Entry<Long, Long> entry = ranges.floorEntry(end);
+            while (entry != null && entry.getValue() >= start) {
+                long entryStart = entry.getKey();
+                long entryEnd = entry.getValue();
+                present += Math.max(0, Math.min(entryEnd, end) - Math.max(entryStart, start));
+                newStart = Math.min(newStart, entryStart);
+                newEnd = Math.max(newEnd, entryEnd);
+                ranges.remove(entryStart);
+                entry = ranges.lowerEntry(entryStart);
+            }
+            ranges.put(newStart, newEnd);
+            return end - start - present;
+        }
+
+        /**
+         * @return the number of bytes in {@code [start, end)} that were removed from the set
+         */
+        long remove(long start, long end) {
+            long removed = 0;
+            Map.Entry<Long, Long> entry = ranges.lowerEntry(end);
+            while (entry != null && entry.getValue() > start) {
+                long entryStart = entry.getKey();
+                long entryEnd = entry.getValue();
+                ranges.remove(entryStart);
+                if (entryStart < start) {
+                    ranges.put(entryStart, start);
+                }
+                if (entryEnd > end) {
+                    ranges.put(end, entryEnd);
+                }
+                removed += Math.min(entryEnd, end) - Math.max(entryStart, start);
+                entry = ranges.lowerEntry(entryStart);
+            }
+            return removed;
+        }
+
+        boolean covers(long start, long end) {
+            long position = start;
+            while (position < end) {
+                Map.Entry<Long, Long> entry = ranges.floorEntry(position);
+                if (entry == null || entry.getValue() <= position) {
+                    return false;
+                }
+                position = entry.getValue();
+            }
+            return true;
+        }
+
+        long[] toArray() {
+            long[] result = new long[ranges.size() * 2];
+            int i = 0;
+            for (Map.Entry<Long, Long> entry : ranges.entrySet()) {
+                result[i++] = entry.getKey();
+                result[i++] = entry.getValue();
+            }
+            return result;
+        }
+
+        void clear() {
+            ranges.clear();
+        }
+    }
+}
@@ -241,6 +241,10 @@ public final class LLVMNativeMemory extends LLVMMemory {
 
     @Override
     public LLVMIVarBit getIVarBit(LLVMNativePointer addr, int bitWidth) {
+        if (bitWidth == LLVMIVarBit.I128_BITS) {
+            long ptr = addr.asNative();
+            return LLVMIVarBit.createI128(getI64(ptr + Long.BYTES), getI64(ptr));
+        }
         if (bitWidth % Byte.SIZE != 0) {
             CompilerDirectives.transferToInterpreter();
             throw new AssertionError();
@@ -367,6 +371,12 @@ public final class LLVMNativeMemory extends LLVMMemory {
 
     @Override
     public void putIVarBit(LLVMNativePointer addr, LLVMIVarBit value) {
+        if (value.isI128()) {
+            long ptr = addr.asNative();
+            putI64(ptr, value.getI128Low());
+            putI64(ptr + Long.BYTES, value.getI128High());
+            return;
+        }
         byte[] bytes = value.getBytes();
         long currentptr = addr.asNative();
         for (int i = bytes.length - 1; i >= 0; i--) {
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.runtime.memory;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
+
+/**
+ * Emulates the program break of one LLVMContext for the brk syscall.
+ *
+ * The heap that the break moves in is a single region that is reserved on the first brk call. Like
+ * the stack, it is served by an anonymous mapping of the native allocator, so the operating system
+ * only commits the pages that are actually touched and growing the break is a pointer bump. When the
+ * break is lowered, the whole pages above it are handed back to the operating system, so they read
+ * as zero when the break grows again. The remaining memory that becomes accessible again is
+ * cleared, since allocators such as dlmalloc expect fresh brk memory to be zero.
+ */
+public final class LLVMProgramBreak {
+
+    /**
+     * Releases the physical pages of a page-aligned range of the heap, e.g., with
+     * {@code madvise(MADV_DONTNEED)}. Returns {@code false} if the pages were not released.
+     */
+    public interface PageReleaser {
+        boolean release(long start, long length);
+    }
+
+    private final long size;
+
+    private long allocation;
+    private long start;
+    private long end;
+    private long current;
+    private long highWaterMark;
+
+    /**
+     * @param size the maximal size of the heap in bytes, rounded up to a multiple of
+     *            {@link LLVMStack#PAGE_SIZE}
+     */
+    public LLVMProgramBreak(long size) {
+        this.size = LLVMStack.roundToPageSize(size);
+    }
+
+    /**
+     * Moves the program break to {@code requested} if it lies within the heap. As the Linux
+     * syscall, this returns the new break on success and the unchanged break otherwise, so
+     * {@code brk(0)} queries the current break.
+     */
+    @TruffleBoundary
+    public synchronized long brk(LLVMMemory memory, long requested, PageReleaser releaser) {
+        if (allocation == 0 && !reserve(memory)) {
+            return 0;
+        }
+        if (requested < start || requested > end) {
+            return current;
+        }
+        if (requested < current) {
+            long releaseStart = (requested + LLVMStack.PAGE_SIZE - 1) & -LLVMStack.PAGE_SIZE;
+            long releaseEnd = (highWaterMark + LLVMStack.PAGE_SIZE - 1) & -LLVMStack.PAGE_SIZE;
+            if (releaseStart < releaseEnd && releaser.release(releaseStart, releaseEnd - releaseStart)) {
+                highWaterMark = releaseStart;
+            }
+        }
+        if (requested > current && current < highWaterMark) {
+            long dirtyEnd = Math.min(requested, highWaterMark);
+            memory.memset(LLVMNativePointer.create(current), dirtyEnd - current, (byte) 0);
+        }
+        current = requested;
+        highWaterMark = Math.max(highWaterMark, current);
+        return current;
+    }
+
+    private boolean reserve(LLVMMemory memory) {
+        try {
+            allocation = memory.allocateMemory(size + LLVMStack.PAGE_SIZE).asNative();
+        } catch (OutOfMemoryError e) {
+            return false;
+        }
+        start = (allocation + LLVMStack.PAGE_SIZE - 1) & -LLVMStack.PAGE_SIZE;
+        end = start + size;
+        current = start;
+        highWaterMark = start;
+        return true;
+    }
+
+    public synchronized void dispose(LLVMMemory memory) {
+        if (allocation != 0) {
+            memory.free(allocation);
+            allocation = 0;
+        }
+    }
+}
@@ -30,38 +30,66 @@
 package com.oracle.truffle.llvm.runtime.memory;
 
 import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.FrameUtil;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.llvm.runtime.except.LLVMStackOverflowError;
 
 /**
  * Implements a stack that grows from the top to the bottom. The stack is allocated lazily when it
  * is accessed for the first time.
+ *
+ * The stack is reserved as one page-granular region. Large reservations are served by anonymous
+ * mappings of the native allocator, so the operating system only commits the pages that are
+ * actually touched. The lowest {@link #GUARD_SIZE} bytes of the region are never handed out: an
+ * allocation that would reach into them raises an {@link LLVMStackOverflowError} instead of
+ * silently corrupting the memory below the stack.
  */
 public final class LLVMStack {
 
     public static final String FRAME_ID = "<stackpointer>";
 
-    private final int stackSize;
+    public static final long PAGE_SIZE = 4096;
+    public static final long GUARD_SIZE = PAGE_SIZE;
+
+    private final long stackSize;
 
     private long lowerBounds;
     private long upperBounds;
+    private long stackLimit;
     private boolean isAllocated;
 
     private long stackPointer;
     private long uniquesRegionPointer;
 
-    public LLVMStack(int stackSize) {
-        this.stackSize = stackSize;
+    // the thread this stack is currently assigned to, maintained by LLVMThreadingStack
+    volatile Thread owner;
+
+    /**
+     * @param stackSize the usable size of the stack in bytes, rounded up to a multiple of
+     *            {@link #PAGE_SIZE}
+     */
+    public LLVMStack(long stackSize) {
+        this.stackSize = roundToPageSize(stackSize);
 
         lowerBounds = 0;
         upperBounds = 0;
+        stackLimit = 0;
         stackPointer = 0;
         uniquesRegionPointer = 0;
         isAllocated = false;
     }
 
+    public static long roundToPageSize(long size) {
+        return (Math.max(size, PAGE_SIZE) + PAGE_SIZE - 1) & -PAGE_SIZE;
+    }
+
+    public long getStackSize() {
+        return stackSize;
+    }
+
     public final class StackPointer implements AutoCloseable {
         private long basePointer;
         private final long uniquesRegionBasePointer;
@@ -83,6 +111,14 @@ public final class LLVMStack {
             stackPointer = sp;
         }
 
+        void setChecked(long sp) {
+            if (sp < stackLimit) {
+                CompilerDirectives.transferToInterpreter();
+                throw stackOverflow(sp);
+            }
+            stackPointer = sp;
+        }
+
         public long getUniquesRegionPointer() {
             return uniquesRegionPointer;
         }
@@ -99,8 +135,26 @@ public final class LLVMStack {
             }
         }
 
-        public StackPointer newFrame() {
-            return new StackPointer(stackPointer, uniquesRegionPointer);
+        /**
+         * Returns the current stack pointer without allocating the stack. Calls pass their
+         * {@link StackPointer} on to the callee and pop the frame of the callee with
+         * {@link #restore}, which is cheaper than creating a new {@link StackPointer} per call.
+         */
+        public long save() {
+            return stackPointer;
+        }
+
+        /**
+         * Pops everything that was allocated on the stack since {@link #save} returned
+         * {@code savedStackPointer}.
+         */
+        public void restore(long savedStackPointer, long savedUniquesRegionPointer) {
+            // if the stack was allocated in the meantime, the saved state is that of an empty stack
+            long sp = savedStackPointer != 0 ? savedStackPointer : basePointer;
+            if (sp != 0) {
+                stackPointer = sp;
+                uniquesRegionPointer = savedUniquesRegionPointer;
+            }
         }
 
         @TruffleBoundary
@@ -159,7 +213,7 @@ public final class LLVMStack {
                 long uniquesRegionPointer = getAlignedBasePointer(stackPointer);
                 basePointer.setUniquesRegionPointer(uniquesRegionPointer);
                 long alignedAllocation = getAlignedAllocation(uniquesRegionPointer, uniquesRegionSize, NO_ALIGNMENT_REQUIREMENTS);
-                basePointer.set(alignedAllocation);
+                basePointer.setChecked(alignedAllocation);
             }
 
             long getAlignedBasePointer(long address) {
@@ -187,14 +241,29 @@ public final class LLVMStack {
 
     @TruffleBoundary
     private void allocate(LLVMMemory memory) {
-        long size = stackSize * 1024L;
+        long size = stackSize + GUARD_SIZE;
         long stackAllocation = memory.allocateMemory(size).asNative();
         lowerBounds = stackAllocation;
         upperBounds = stackAllocation + size;
+        stackLimit = lowerBounds + GUARD_SIZE;
         isAllocated = true;
         stackPointer = upperBounds;
     }
 
+    @TruffleBoundary
+    private LLVMStackOverflowError stackOverflow(long sp) {
+        return new LLVMStackOverflowError(null, String.format("Stack overflow: stack pointer 0x%x is below the stack limit 0x%x (stack size %d bytes).", sp, stackLimit, stackSize));
+    }
+
+    /**
+     * Resets a stack that is no longer used by any thread so that it can be handed to a new
+     * thread without releasing and re-reserving its memory.
+     */
+    void reset() {
+        stackPointer = upperBounds;
+        uniquesRegionPointer = 0;
+    }
+
     private long getStackPointer(LLVMMemory memory) {
         if (!isAllocated) {
             allocate(memory);
@@ -215,6 +284,7 @@ public final class LLVMStack {
             memory.free(lowerBounds);
             lowerBounds = 0;
             upperBounds = 0;
+            stackLimit = 0;
             stackPointer = 0;
             isAllocated = false;
         }
@@ -227,7 +297,7 @@ public final class LLVMStack {
         long stackPointer = basePointer.get(memory);
         assert stackPointer != 0;
         long alignedAllocation = getAlignedAllocation(stackPointer, size, alignment);
-        basePointer.set(alignedAllocation);
+        basePointer.setChecked(alignedAllocation);
         return alignedAllocation;
     }
 
@@ -29,6 +29,7 @@
  */
 package com.oracle.truffle.llvm.runtime.memory;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -36,21 +37,45 @@ import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
 /**
  * Holds the (lazily allocated) stacks of all threads that are active in one particular LLVMContext.
+ *
+ * Stacks of threads that are disposed are kept in a small pool and handed to new threads, which
+ * avoids releasing and re-reserving the memory for short-lived threads.
+ *
+ * The current thread's stack is looked up without locking: the main thread's stack is kept in a
+ * field that compiled code can read directly, all other threads use a {@link ThreadLocal}. The
+ * {@link #threadMap} is only needed to free stacks of threads that are disposed from another
+ * thread, so it is only accessed under the lock.
  */
 public final class LLVMThreadingStack {
-    // we are not able to clean up a thread local properly, so we are using a map instead
+    private static final int MAX_POOLED_STACKS = 8;
+
+    // we are not able to clean up a thread local properly, so we also keep a map for cleanup
     private final Map<Thread, LLVMStack> threadMap;
-    private final int stackSize;
+    private final ThreadLocal<LLVMStack> currentStack;
+    private final ArrayList<LLVMStack> stackPool;
+    private final long stackSize;
     private final Thread mainThread;
 
-    public LLVMThreadingStack(Thread mainTread, int stackSize) {
+    private LLVMStack mainStack;
+
+    /**
+     * @param stackSize the default stack size in bytes
+     */
+    public LLVMThreadingStack(Thread mainTread, long stackSize) {
         this.mainThread = mainTread;
-        this.stackSize = stackSize;
+        this.stackSize = LLVMStack.roundToPageSize(stackSize);
         this.threadMap = new HashMap<>();
+        this.stackPool = new ArrayList<>();
+        this.currentStack = new ThreadLocal<>();
     }
 
     public LLVMStack getStack() {
-        LLVMStack s = getCurrentStack();
+        Thread thread = Thread.currentThread();
+        LLVMStack s = mainStack;
+        if (thread == mainThread && s != null) {
+            return s;
+        }
+        s = getCurrentStack(thread);
         if (s == null) {
             s = createNewStack();
         }
@@ -58,17 +83,39 @@ public final class LLVMThreadingStack {
     }
 
     @TruffleBoundary
-    private LLVMStack getCurrentStack() {
-        return threadMap.get(Thread.currentThread());
+    private LLVMStack getCurrentStack(Thread thread) {
+        LLVMStack s = currentStack.get();
+        if (s != null && s.owner != thread) {
+            // the stack was released by another thread in the meantime
+            currentStack.remove();
+            return null;
+        }
+        return s;
     }
 
     @TruffleBoundary
     private synchronized LLVMStack createNewStack() {
-        LLVMStack s = new LLVMStack(stackSize);
-        threadMap.put(Thread.currentThread(), s);
+        Thread thread = Thread.currentThread();
+        LLVMStack s = threadMap.get(thread);
+        if (s == null) {
+            s = takeFromPool();
+            s.owner = thread;
+            threadMap.put(thread, s);
+        }
+        currentStack.set(s);
+        if (thread == mainThread) {
+            mainStack = s;
+        }
         return s;
     }
 
+    private LLVMStack takeFromPool() {
+        if (!stackPool.isEmpty()) {
+            return stackPool.remove(stackPool.size() - 1);
+        }
+        return new LLVMStack(stackSize);
+    }
+
     @TruffleBoundary
     public void freeStack(LLVMMemory memory, Thread thread) {
         /*
@@ -76,20 +123,46 @@ public final class LLVMThreadingStack {
          * Sulong#disposeContext, which needs to call destructors that need a SP.
          */
         if (mainThread != Thread.currentThread()) {
-            free(memory, thread);
+            release(memory, thread);
         }
     }
 
     @TruffleBoundary
-    public void freeMainStack(LLVMMemory memory) {
+    public synchronized void freeMainStack(LLVMMemory memory) {
         free(memory, mainThread);
+        for (LLVMStack pooled : stackPool) {
+            pooled.free(memory);
+        }
+        stackPool.clear();
+    }
+
+    private synchronized void release(LLVMMemory memory, Thread thread) {
+        if (thread == Thread.currentThread()) {
+            currentStack.remove();
+        }
+        LLVMStack s = threadMap.remove(thread);
+        if (s != null) {
+            s.owner = null;
+            if (stackPool.size() < MAX_POOLED_STACKS) {
+                s.reset();
+                stackPool.add(s);
+            } else {
+                s.free(memory);
+            }
+        }
     }
 
     private synchronized void free(LLVMMemory memory, Thread thread) {
-        LLVMStack s = threadMap.get(thread);
+        if (thread == Thread.currentThread()) {
+            currentStack.remove();
+        }
+        if (thread == mainThread) {
+            mainStack = null;
+        }
+        LLVMStack s = threadMap.remove(thread);
         if (s != null) {
+            s.owner = null;
             s.free(memory);
-            threadMap.remove(thread);
         }
     }
 }
@@ -242,4 +242,36 @@ public final class UnsafeArrayAccess {
     public double getDouble(Object arr, long baseOffset, long offset) {
         return unsafe.getDouble(arr, baseOffset + offset);
     }
+
+    /**
+     * Copies {@code length} bytes between two {@code int[]} backed allocations. Overlapping
+     * regions are handled like {@code memmove}.
+     */
+    public void copy(int[] source, long sourceOffset, int[] target, long targetOffset, long length) {
+        if ((sourceOffset | targetOffset | length) % Integer.BYTES == 0) {
+            System.arraycopy(source, (int) (sourceOffset / Integer.BYTES), target, (int) (targetOffset / Integer.BYTES), (int) (length / Integer.BYTES));
+        } else {
+            unsafe.copyMemory(source, ARRAY_INT_BASE_OFFSET + sourceOffset, target, ARRAY_INT_BASE_OFFSET + targetOffset, length);
+        }
+    }
+
+    public void copyFromNative(long sourceAddress, int[] target, long targetOffset, long length) {
+        unsafe.copyMemory(null, sourceAddress, target, ARRAY_INT_BASE_OFFSET + targetOffset, length);
+    }
+
+    public void copyToNative(int[] source, long sourceOffset, long targetAddress, long length) {
+        unsafe.copyMemory(source, ARRAY_INT_BASE_OFFSET + sourceOffset, null, targetAddress, length);
+    }
+
+    public void copyFromNative(long sourceAddress, Object target, long baseOffset, long targetOffset, long length) {
+        unsafe.copyMemory(null, sourceAddress, target, baseOffset + targetOffset, length);
+    }
+
+    public void copyToNative(Object source, long baseOffset, long sourceOffset, long targetAddress, long length) {
+        unsafe.copyMemory(source, baseOffset + sourceOffset, null, targetAddress, length);
+    }
+
+    public void setMemory(int[] arr, long offset, long length, byte value) {
+        unsafe.setMemory(arr, ARRAY_INT_BASE_OFFSET + offset, length, value);
+    }
 }
@@ -47,12 +47,16 @@ public final class SulongEngineOption {
 
     public static final OptionKey<String> CONFIGURATION = new OptionKey<>("basic");
     public static final String CONFIGURATION_NAME = "llvm.configuration";
-    public static final String CONFIGURATION_INFO = "Sulongs configuration (default=basic).";
+    public static final String CONFIGURATION_INFO = "Sulongs configuration: basic or managed (default=basic).";
 
     public static final OptionKey<Integer> STACK_SIZE_KB = new OptionKey<>(81920);
     public static final String STACK_SIZE_KB_NAME = "llvm.stackSizeKB";
     public static final String STACK_SIZE_KB_INFO = "The stack size in KB.";
 
+    public static final OptionKey<Integer> BRK_SIZE_KB = new OptionKey<>(1024 * 1024);
+    public static final String BRK_SIZE_KB_NAME = "llvm.brkSizeKB";
+    public static final String BRK_SIZE_KB_INFO = "The maximal size in KB of the heap that the brk syscall can grow. It is reserved on the first brk call and only committed when touched.";
+
     public static final OptionKey<String> LIBRARY_PATH = new OptionKey<>("");
     public static final String LIBRARY_PATH_NAME = "llvm.libraryPath";
     public static final String LIBRARY_PATH_INFO = "A list of paths where Sulong will search for relative libraries. Paths are delimited by " + OPTION_ARRAY_SEPARATOR + " .";
@@ -106,10 +110,27 @@ public final class SulongEngineOption {
     public static final String STACKTRACE_ON_ABORT_NAME = "llvm.printStackTraceOnAbort";
     public static final String STACKTRACE_ON_ABORT_INFO = "Prints a C stack trace when abort() is called.";
 
+    public static final OptionKey<String> SAMPLER = new OptionKey<>(String.valueOf(false));
+    public static final String SAMPLER_NAME = "llvm.sampler";
+    public static final String SAMPLER_INFO = "Samples the guest stack periodically and prints the samples as collapsed stacks for flame graphs when the context is disposed. Can be \'true\', \'false\', \'stdout\' or \'stderr\'.";
+
+    public static final OptionKey<Integer> SAMPLER_INTERVAL = new OptionKey<>(10);
+    public static final String SAMPLER_INTERVAL_NAME = "llvm.samplerInterval";
+    public static final String SAMPLER_INTERVAL_INFO = "The sampling interval of llvm.sampler in milliseconds.";
+
+    public static final OptionKey<String> TRACK_ALLOCATIONS = new OptionKey<>(String.valueOf(false));
+    public static final String TRACK_ALLOCATIONS_NAME = "llvm.trackAllocations";
+    public static final String TRACK_ALLOCATIONS_INFO = "Records the heap allocations per call site of malloc, calloc and realloc and prints them together with a leak report when the context is disposed. Only supported in the basic configuration. Can be \'true\', \'false\', \'stdout\' or \'stderr\'.";
+
+    public static final OptionKey<String> PRINT_MEMORY_MAPPING_STATS = new OptionKey<>(String.valueOf(false));
+    public static final String PRINT_MEMORY_MAPPING_STATS_NAME = "llvm.printMemoryMappingStats";
+    public static final String PRINT_MEMORY_MAPPING_STATS_INFO = "Prints the mapped, peak mapped and released bytes of the guest mmap syscalls when the context is disposed. Can be \'true\', \'false\', \'stdout\' or \'stderr\'.";
+
     public static List<OptionDescriptor> describeOptions() {
         ArrayList<OptionDescriptor> options = new ArrayList<>();
         options.add(OptionDescriptor.newBuilder(CONFIGURATION, CONFIGURATION_NAME).help(CONFIGURATION_INFO).category(OptionCategory.USER).build());
         options.add(OptionDescriptor.newBuilder(STACK_SIZE_KB, STACK_SIZE_KB_NAME).help(STACK_SIZE_KB_INFO).category(OptionCategory.USER).build());
+        options.add(OptionDescriptor.newBuilder(BRK_SIZE_KB, BRK_SIZE_KB_NAME).help(BRK_SIZE_KB_INFO).category(OptionCategory.USER).build());
         options.add(OptionDescriptor.newBuilder(LIBRARIES, LIBRARIES_NAME).help(LIBRARIES_INFO).category(OptionCategory.USER).build());
         options.add(OptionDescriptor.newBuilder(LIBRARY_PATH, LIBRARY_PATH_NAME).help(LIBRARY_PATH_INFO).category(OptionCategory.USER).build());
         options.add(OptionDescriptor.newBuilder(ENABLE_NFI, ENABLE_NFI_NAME).help(ENABLE_NFI_INFO).category(OptionCategory.USER).build());
@@ -122,6 +143,10 @@ public final class SulongEngineOption {
         options.add(OptionDescriptor.newBuilder(LL_DEBUG, LL_DEBUG_NAME).help(LL_DEBUG_INFO).category(OptionCategory.DEBUG).build());
         options.add(OptionDescriptor.newBuilder(LL_DEBUG_SOURCES, LL_DEBUG_SOURCES_NAME).help(LL_DEBUG_SOURCES_INFO).category(OptionCategory.DEBUG).build());
         options.add(OptionDescriptor.newBuilder(STACKTRACE_ON_ABORT, STACKTRACE_ON_ABORT_NAME).help(STACKTRACE_ON_ABORT_INFO).category(OptionCategory.DEBUG).build());
+        options.add(OptionDescriptor.newBuilder(SAMPLER, SAMPLER_NAME).help(SAMPLER_INFO).category(OptionCategory.USER).build());
+        options.add(OptionDescriptor.newBuilder(SAMPLER_INTERVAL, SAMPLER_INTERVAL_NAME).help(SAMPLER_INTERVAL_INFO).category(OptionCategory.USER).build());
+        options.add(OptionDescriptor.newBuilder(TRACK_ALLOCATIONS, TRACK_ALLOCATIONS_NAME).help(TRACK_ALLOCATIONS_INFO).category(OptionCategory.USER).build());
+        options.add(OptionDescriptor.newBuilder(PRINT_MEMORY_MAPPING_STATS, PRINT_MEMORY_MAPPING_STATS_NAME).help(PRINT_MEMORY_MAPPING_STATS_INFO).category(OptionCategory.USER).build());
         return options;
     }
 
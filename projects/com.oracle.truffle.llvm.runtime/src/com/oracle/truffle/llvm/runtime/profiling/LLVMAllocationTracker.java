@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.runtime.profiling;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.FrameInstance;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.llvm.runtime.debug.scope.LLVMSourceLocation;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMNode;
+
+/**
+ * Records the heap allocations done by the malloc, calloc, realloc and free intrinsics per call
+ * site, and prints a report of the allocation sites and of the memory that is still live when the
+ * context is disposed. The managed configuration replaces these intrinsics, so the tracker is only
+ * used in the basic configuration.
+ *
+ * Live allocations are kept in striped open-addressing tables keyed by the raw address, so that
+ * no boxing is necessary and concurrent allocations rarely contend. The per-site counters are
+ * atomic.
+ */
+public final class LLVMAllocationTracker {
+
+    private static final int SEGMENT_COUNT = 64;
+
+    private final PrintStream output;
+    private final ConcurrentHashMap<Node, Site> sites = new ConcurrentHashMap<>();
+    private final Site unknownSite = new Site("<unknown>");
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    public LLVMAllocationTracker(PrintStream output) {
+        this.output = output;
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    @TruffleBoundary
+    public void allocated(long address, long size) {
+        if (address != 0) {
+            Site site = findCallerSite();
+            site.allocated(size);
+            segmentFor(address).put(address, size, site);
+        }
+    }
+
+    @TruffleBoundary
+    public void freed(long address) {
+        if (address != 0) {
+            segmentFor(address).remove(address);
+        }
+    }
+
+    @TruffleBoundary
+    public void reallocated(long oldAddress, long newAddress, long size) {
+        if (newAddress != 0) {
+            freed(oldAddress);
+            allocated(newAddress, size);
+        }
+    }
+
+    private Segment segmentFor(long address) {
+        return segments[(int) (hash(address) >>> 58) & (SEGMENT_COUNT - 1)];
+    }
+
+    private static long hash(long address) {
+        return address * 0x9E3779B97F4A7C15L;
+    }
+
+    private Site findCallerSite() {
+        FrameInstance caller = Truffle.getRuntime().getCallerFrame();
+        Node callNode = caller == null ? null : caller.getCallNode();
+        if (callNode == null) {
+            return unknownSite;
+        }
+        Site site = sites.get(callNode);
+        if (site == null) {
+            Site newSite = new Site(describeCallSite(callNode));
+            site = sites.putIfAbsent(callNode, newSite);
+            if (site == null) {
+                site = newSite;
+            }
+        }
+        return site;
+    }
+
+    private static String describeCallSite(Node callNode) {
+        RootNode rootNode = callNode.getRootNode();
+        String name = rootNode == null ? "<unknown>" : rootNode.getName();
+        for (Node current = callNode; current != null; current = current.getParent()) {
+            if (current instanceof LLVMNode) {
+                LLVMSourceLocation location = ((LLVMNode) current).getSourceLocation();
+                if (location != null) {
+                    return name + " (" + location.describeLocation() + ")";
+                }
+            }
+        }
+        return name;
+    }
+
+    public void dispose() {
+        List<Site> allSites = new ArrayList<>(sites.values());
+        if (unknownSite.allocationCount.get() > 0) {
+            allSites.add(unknownSite);
+        }
+        allSites.sort((a, b) -> Long.compare(b.allocatedBytes.get(), a.allocatedBytes.get()));
+
+        long leakedBytes = 0;
+        long leakedAllocations = 0;
+        output.println("Allocation sites:");
+        output.println(String.format("%16s %12s %16s %16s  %s", "allocated bytes", "allocations", "live bytes", "peak live bytes", "site"));
+        for (Site site : allSites) {
+            output.println(String.format("%16d %12d %16d %16d  %s", site.allocatedBytes.get(), site.allocationCount.get(), site.liveBytes.get(), site.peakLiveBytes.get(), site.description));
+            leakedBytes += site.liveBytes.get();
+            leakedAllocations += site.liveCount.get();
+        }
+        output.println();
+        output.println(String.format("Leak report: %d bytes in %d allocations are still live", leakedBytes, leakedAllocations));
+        for (Site site : allSites) {
+            if (site.liveCount.get() > 0) {
+                output.println(String.format("%16d bytes in %8d allocations  %s", site.liveBytes.get(), site.liveCount.get(), site.description));
+            }
+        }
+        output.flush();
+    }
+
+    private static final class Site {
+
+        private final String description;
+        private final AtomicLong allocatedBytes = new AtomicLong();
+        private final AtomicLong allocationCount = new AtomicLong();
+        private final AtomicLong liveBytes = new AtomicLong();
+        private final AtomicLong liveCount = new AtomicLong();
+        private final AtomicLong peakLiveBytes = new AtomicLong();
+
+        Site(String description) {
+            this.description = description;
+        }
+
+        void allocated(long size) {
+            allocatedBytes.addAndGet(size);
+            allocationCount.incrementAndGet();
+            liveCount.incrementAndGet();
+            long live = liveBytes.addAndGet(size);
+            long peak = peakLiveBytes.get();
+            while (live > peak && !peakLiveBytes.compareAndSet(peak, live)) {
+                peak = peakLiveBytes.get();
+            }
+        }
+
+        void freed(long size) {
+            liveBytes.addAndGet(-size);
+            liveCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Open-addressing table from address to size and allocation site with linear probing. The
+     * address 0 marks empty slots, removal shifts the following entries back instead of leaving
+     * tombstones.
+     */
+    private static final class Segment {
+
+        private long[] addresses = new long[16];
+        private long[] sizes = new long[16];
+        private Site[] sites = new Site[16];
+        private int count;
+
+        synchronized void put(long address, long size, Site site) {
+            if ((count + 1) * 4 > addresses.length * 3) {
+                grow();
+            }
+            int mask = addresses.length - 1;
+            int index = slot(address, mask);
+            while (addresses[index] != 0 && addresses[index] != address) {
+                index = (index + 1) & mask;
+            }
+            if (addresses[index] == address) {
+                // the previous allocation at this address was freed without us seeing it
+                sites[index].freed(sizes[index]);
+            } else {
+                count++;
+            }
+            addresses[index] = address;
+            sizes[index] = size;
+            sites[index] = site;
+        }
+
+        synchronized void remove(long address) {
+            int mask = addresses.length - 1;
+            int index = slot(address, mask);
+            while (addresses[index] != address) {
+                if (addresses[index] == 0) {
+                    // not allocated by a tracked intrinsic
+                    return;
+                }
+                index = (index + 1) & mask;
+            }
+            sites[index].freed(sizes[index]);
+            count--;
+
+            int hole = index;
+            int next = (hole + 1) & mask;
+            while (addresses[next] != 0) {
+                int home = slot(addresses[next], mask);
+                // move the entry into the hole unless its home slot lies cyclically in (hole, next]
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    addresses[hole] = addresses[next];
+                    sizes[hole] = sizes[next];
+                    sites[hole] = sites[next];
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            addresses[hole] = 0;
+            sites[hole] = null;
+        }
+
+        private void grow() {
+            long[] oldAddresses = addresses;
+            long[] oldSizes = sizes;
+            Site[] oldSites = sites;
+            addresses = new long[oldAddresses.length * 2];
+            sizes = new long[oldAddresses.length * 2];
+            sites = new Site[oldAddresses.length * 2];
+            int mask = addresses.length - 1;
+            for (int i = 0; i < oldAddresses.length; i++) {
+                if (oldAddresses[i] != 0) {
+                    int index = slot(oldAddresses[i], mask);
+                    while (addresses[index] != 0) {
+                        index = (index + 1) & mask;
+                    }
+                    addresses[index] = oldAddresses[i];
+                    sizes[index] = oldSizes[i];
+                    sites[index] = oldSites[i];
+                }
+            }
+        }
+
+        private static int slot(long address, int mask) {
+            return (int) (hash(address) >>> 20) & mask;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.runtime.profiling;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * A low-overhead sampling profiler for guest code. A daemon thread requests a sample every
+ * interval, and the next guest thread that reaches a poll (function entry or loop header) records
+ * its own stack. The samples are printed as collapsed stacks (one line per distinct stack, frames
+ * separated by {@code ;}, followed by the sample count), which is the input format of
+ * {@code flamegraph.pl} and compatible tools.
+ */
+public final class LLVMSamplingProfiler {
+
+    private final PrintStream output;
+    private final ConcurrentHashMap<String, AtomicLong> samples = new ConcurrentHashMap<>();
+    private final Thread timer;
+
+    private volatile boolean sampleRequested;
+
+    public LLVMSamplingProfiler(PrintStream output, long intervalMillis) {
+        this.output = output;
+        this.timer = new Thread(() -> {
+            try {
+                while (true) {
+                    Thread.sleep(intervalMillis);
+                    sampleRequested = true;
+                }
+            } catch (InterruptedException e) {
+                // disposed
+            }
+        }, "Sulong Sampling Profiler");
+        this.timer.setDaemon(true);
+        this.timer.start();
+    }
+
+    public boolean isSampleRequested() {
+        return sampleRequested;
+    }
+
+    /**
+     * Records one sample. The frames are ordered from the innermost to the outermost frame.
+     */
+    @TruffleBoundary
+    public void addSample(List<String> frames) {
+        sampleRequested = false;
+        StringBuilder builder = new StringBuilder(sanitize(Thread.currentThread().getName()));
+        for (int i = frames.size() - 1; i >= 0; i--) {
+            builder.append(';').append(sanitize(frames.get(i)));
+        }
+        String stack = builder.toString();
+        AtomicLong count = samples.get(stack);
+        if (count == null) {
+            AtomicLong newCount = new AtomicLong();
+            count = samples.putIfAbsent(stack, newCount);
+            if (count == null) {
+                count = newCount;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    private static String sanitize(String frame) {
+        return frame.replace(';', ',').replace('\n', ' ');
+    }
+
+    public void dispose() {
+        timer.interrupt();
+        List<Map.Entry<String, AtomicLong>> entries = new ArrayList<>(samples.entrySet());
+        entries.sort(Map.Entry.comparingByKey());
+        for (Map.Entry<String, AtomicLong> entry : entries) {
+            output.println(entry.getKey() + " " + entry.getValue().get());
+        }
+        output.flush();
+    }
+}
@@ -45,6 +45,32 @@ public final class StructureType extends AggregateType {
     private final boolean isPacked;
     @CompilationFinal(dimensions = 1) private final Type[] types;
 
+    /*
+     * Memoized layout for the data layout it was last queried with. The element types may still be
+     * filled in while the type table is parsed, so a layout is only cached once all of them are
+     * known.
+     */
+    private Layout layout;
+
+    private static final class Layout {
+
+        private final DataLayout dataLayout;
+        private final int size;
+        private final int alignment;
+        // offset before the padding of element i (index types.length holds the unpadded size)
+        private final int[] rawOffsets;
+        // offset of element i after its padding
+        private final int[] offsets;
+
+        private Layout(DataLayout dataLayout, int size, int alignment, int[] rawOffsets, int[] offsets) {
+            this.dataLayout = dataLayout;
+            this.size = size;
+            this.alignment = alignment;
+            this.rawOffsets = rawOffsets;
+            this.offsets = offsets;
+        }
+    }
+
     public StructureType(String name, boolean isPacked, Type[] types) {
         this.name = name;
         this.isPacked = isPacked;
@@ -95,25 +121,59 @@ public final class StructureType extends AggregateType {
 
     @Override
     public int getAlignment(DataLayout targetDataLayout) {
-        return isPacked ? 1 : getLargestAlignment(targetDataLayout);
+        if (targetDataLayout == null) {
+            return isPacked ? 1 : getLargestAlignment(null);
+        }
+        return getLayout(targetDataLayout).alignment;
     }
 
     @Override
     public int getSize(DataLayout targetDataLayout) {
+        return getLayout(targetDataLayout).size;
+    }
+
+    private Layout getLayout(DataLayout targetDataLayout) {
+        Layout result = layout;
+        if (result == null || result.dataLayout != targetDataLayout) {
+            result = computeLayout(targetDataLayout);
+            if (isResolved()) {
+                layout = result;
+            }
+        }
+        return result;
+    }
+
+    private boolean isResolved() {
+        for (Type type : types) {
+            if (type == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Layout computeLayout(DataLayout targetDataLayout) {
+        int alignment = isPacked ? 1 : getLargestAlignment(targetDataLayout);
+        int[] rawOffsets = new int[types.length + 1];
+        int[] offsets = new int[types.length];
         int sumByte = 0;
-        for (final Type elementType : types) {
+        for (int i = 0; i < types.length; i++) {
+            final Type elementType = types[i];
+            rawOffsets[i] = sumByte;
             if (!isPacked) {
                 sumByte += Type.getPadding(sumByte, elementType, targetDataLayout);
             }
+            offsets[i] = sumByte;
             sumByte += elementType.getSize(targetDataLayout);
         }
+        rawOffsets[types.length] = sumByte;
 
         int padding = 0;
         if (!isPacked && sumByte != 0) {
-            padding = Type.getPadding(sumByte, getAlignment(targetDataLayout));
+            padding = Type.getPadding(sumByte, alignment);
         }
 
-        return sumByte + padding;
+        return new Layout(targetDataLayout, sumByte + padding, alignment, rawOffsets, offsets);
     }
 
     @Override
@@ -125,17 +185,11 @@ public final class StructureType extends AggregateType {
 
     @Override
     public long getOffsetOf(long index, DataLayout targetDataLayout) {
-        int offset = 0;
-        for (int i = 0; i < index; i++) {
-            final Type elementType = types[i];
-            if (!isPacked) {
-                offset += Type.getPadding(offset, elementType, targetDataLayout);
-            }
-            offset += elementType.getSize(targetDataLayout);
-        }
-        if (!isPacked && getSize(targetDataLayout) > offset) {
-            assert index == (int) index;
-            offset += Type.getPadding(offset, types[(int) index], targetDataLayout);
+        assert index == (int) index;
+        Layout l = getLayout(targetDataLayout);
+        int offset = l.rawOffsets[(int) index];
+        if (!isPacked && l.size > offset && index < types.length) {
+            return l.offsets[(int) index];
         }
         return offset;
     }
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.llvm.pipe.CaptureNativeOutput;
+import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
+import com.oracle.truffle.llvm.runtime.profiling.LLVMAllocationTracker;
+import com.oracle.truffle.llvm.test.options.TestOptions;
+import com.oracle.truffle.llvm.test.util.ProcessUtil;
+import com.oracle.truffle.llvm.test.util.ProcessUtil.ProcessResult;
+
+public final class AllocationTrackerTest {
+
+    private static final File TEST_FILE = new File(TestOptions.PROJECT_ROOT + "/../cache/tests/other/allocationTracker/allocationTracker_clang_O1.bc");
+
+    private static final Pattern LEAK_REPORT = Pattern.compile("Leak report: ([0-9]+) bytes in ([0-9]+) allocations are still live");
+
+    /*
+     * The tracker distributes the addresses over 64 tables of initially 16 slots. These mirror its
+     * hash functions, so that the tests can pick addresses that collide in one table.
+     */
+    private static final int INITIAL_SLOTS = 16;
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private final LLVMAllocationTracker tracker = new LLVMAllocationTracker(new PrintStream(output));
+
+    private static int segment(long address) {
+        return (int) ((address * 0x9E3779B97F4A7C15L) >>> 58) & 63;
+    }
+
+    private static int slot(long address) {
+        return (int) ((address * 0x9E3779B97F4A7C15L) >>> 20) & (INITIAL_SLOTS - 1);
+    }
+
+    private static long findAddress(int segment, int slot, long after) {
+        for (long address = after + 16; address > 0; address += 16) {
+            if (segment(address) == segment && slot(address) == slot) {
+                return address;
+            }
+        }
+        throw new AssertionError("no address found");
+    }
+
+    private void assertLive(long bytes, long allocations) {
+        output.reset();
+        tracker.dispose();
+        Matcher matcher = LEAK_REPORT.matcher(output.toString());
+        Assert.assertTrue(output.toString(), matcher.find());
+        Assert.assertEquals("live bytes", bytes, Long.parseLong(matcher.group(1)));
+        Assert.assertEquals("live allocations", allocations, Long.parseLong(matcher.group(2)));
+    }
+
+    @Test
+    public void testInsertRemove() {
+        tracker.allocated(0x1000, 10);
+        tracker.allocated(0x2000, 20);
+        assertLive(30, 2);
+        tracker.freed(0x1000);
+        assertLive(20, 1);
+        tracker.freed(0x2000);
+        assertLive(0, 0);
+    }
+
+    @Test
+    public void testUntrackedAddresses() {
+        tracker.allocated(0, 10);
+        tracker.allocated(0x1000, 10);
+        tracker.freed(0);
+        tracker.freed(0x2000);
+        tracker.freed(0x1000);
+        tracker.freed(0x1000);
+        assertLive(0, 0);
+    }
+
+    @Test
+    public void testReallocation() {
+        tracker.allocated(0x1000, 10);
+        tracker.reallocated(0x1000, 0x3000, 50);
+        assertLive(50, 1);
+        // a failed realloc keeps the old allocation
+        tracker.reallocated(0x3000, 0, 100);
+        assertLive(50, 1);
+        tracker.freed(0x3000);
+        assertLive(0, 0);
+    }
+
+    @Test
+    public void testAllocationAtLiveAddress() {
+        // the allocation at 0x1000 was freed by code that does not report to the tracker
+        tracker.allocated(0x1000, 10);
+        tracker.allocated(0x1000, 30);
+        assertLive(30, 1);
+    }
+
+    @Test
+    public void testCollisions() {
+        long[] addresses = new long[5];
+        long address = 0;
+        for (int i = 0; i < addresses.length; i++) {
+            address = findAddress(3, 7, address);
+            addresses[i] = address;
+            tracker.allocated(address, i + 1);
+        }
+        assertLive(15, 5);
+
+        tracker.freed(addresses[2]);
+        assertLive(12, 4);
+        tracker.freed(addresses[0]);
+        assertLive(11, 3);
+        tracker.freed(addresses[4]);
+        assertLive(6, 2);
+        tracker.freed(addresses[1]);
+        tracker.freed(addresses[3]);
+        assertLive(0, 0);
+    }
+
+    @Test
+    public void testWrapAroundRemoval() {
+        // a and b start in the last slot, b and c wrap around to the start of the table
+        long a = findAddress(5, INITIAL_SLOTS - 1, 0);
+        long b = findAddress(5, INITIAL_SLOTS - 1, a);
+        long c = findAddress(5, 0, 0);
+        tracker.allocated(a, 1);
+        tracker.allocated(b, 2);
+        tracker.allocated(c, 4);
+
+        // removing a shifts b back into the last slot and c back into its home slot
+        tracker.freed(a);
+        assertLive(6, 2);
+        tracker.freed(c);
+        assertLive(2, 1);
+        tracker.freed(b);
+        assertLive(0, 0);
+    }
+
+    @Test
+    public void testWrapAroundRemovalKeepsHomeSlot() {
+        long a = findAddress(6, INITIAL_SLOTS - 1, 0);
+        long b = findAddress(6, INITIAL_SLOTS - 1, a);
+        long c = findAddress(6, 1, 0);
+        tracker.allocated(a, 1);
+        tracker.allocated(b, 2);
+        tracker.allocated(c, 4);
+
+        // c is in its home slot and must not be moved into the slot that b leaves
+        tracker.freed(a);
+        tracker.freed(b);
+        assertLive(4, 1);
+        tracker.freed(c);
+        assertLive(0, 0);
+    }
+
+    @Test
+    public void testGrow() {
+        long[] addresses = new long[100];
+        long address = 0;
+        for (int i = 0; i < addresses.length; i++) {
+            address = findAddress(9, i % INITIAL_SLOTS, address);
+            addresses[i] = address;
+            tracker.allocated(address, 8);
+        }
+        assertLive(800, 100);
+        for (int i = 0; i < addresses.length; i += 2) {
+            tracker.freed(addresses[i]);
+        }
+        assertLive(400, 50);
+        for (int i = 1; i < addresses.length; i += 2) {
+            tracker.freed(addresses[i]);
+        }
+        assertLive(0, 0);
+    }
+
+    private static ProcessResult run(String configuration) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        options.put(SulongEngineOption.CONFIGURATION_NAME, configuration);
+        options.put(SulongEngineOption.TRACK_ALLOCATIONS_NAME, "stdout");
+        ProcessResult result = ProcessUtil.executeSulongTestMain(TEST_FILE, new String[0], options, c -> new CaptureNativeOutput());
+        Assert.assertEquals(0, result.getReturnValue());
+        return result;
+    }
+
+    @Test
+    public void testLeakReport() throws Exception {
+        String stdout = run("basic").getStdOutput();
+        Assert.assertTrue(stdout, LEAK_REPORT.matcher(stdout).find());
+
+        String leakSection = stdout.substring(stdout.indexOf("Leak report:"));
+        Assert.assertTrue(stdout, Pattern.compile(" 24 bytes in +1 allocations .*\\bleak\\b").matcher(leakSection).find());
+        Assert.assertTrue(stdout, Pattern.compile(" 64 bytes in +1 allocations .*\\bleakResized\\b").matcher(leakSection).find());
+        Assert.assertFalse(stdout, leakSection.contains("allocateAndFree"));
+
+        String sitesSection = stdout.substring(0, stdout.indexOf("Leak report:"));
+        Assert.assertTrue(stdout, Pattern.compile(" 100 +1 +0 +100 .*\\ballocateAndFree\\b").matcher(sitesSection).find());
+    }
+
+    @Test
+    public void testManagedConfigurationIsNotTracked() throws Exception {
+        String stdout = run("managed").getStdOutput();
+        Assert.assertFalse(stdout, stdout.contains("Leak report:"));
+    }
+}
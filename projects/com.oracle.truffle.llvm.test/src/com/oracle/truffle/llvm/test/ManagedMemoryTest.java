@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.test;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.llvm.runtime.LLVMLanguage;
+import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
+import com.oracle.truffle.llvm.test.options.TestOptions;
+
+/**
+ * Checks that the heap allocations of the managed configuration detect invalid accesses.
+ */
+public final class ManagedMemoryTest {
+
+    private static final File TEST_FILE = new File(TestOptions.PROJECT_ROOT + "/../cache/tests/other/managedMemory/managedMemory_clang_O1.bc");
+
+    private static int run(String scenario) throws IOException {
+        Source source = Source.newBuilder(LLVMLanguage.NAME, TEST_FILE).build();
+        try (Context context = Context.newBuilder().option(SulongEngineOption.CONFIGURATION_NAME, "managed").arguments(LLVMLanguage.NAME, new String[]{scenario}).allowAllAccess(true).build()) {
+            return context.eval(source).execute().asInt();
+        }
+    }
+
+    private static void runExpectingError(String scenario, String message) throws IOException {
+        try {
+            run(scenario);
+            Assert.fail(scenario + " did not fail.");
+        } catch (PolyglotException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains(message));
+        }
+    }
+
+    @Test
+    public void testInBounds() throws IOException {
+        Assert.assertEquals(15, run("inBounds"));
+    }
+
+    @Test
+    public void testEscaped() throws IOException {
+        Assert.assertEquals(5 + 'o', run("escaped"));
+    }
+
+    @Test
+    public void testOutOfBounds() throws IOException {
+        runExpectingError("outOfBounds", "Out of bounds access (offset 16, length 1)");
+    }
+
+    @Test
+    public void testNegativeOffset() throws IOException {
+        runExpectingError("negativeOffset", "Out of bounds access (offset -1, length 1)");
+    }
+
+    @Test
+    public void testUseAfterFree() throws IOException {
+        runExpectingError("useAfterFree", "Use after free");
+    }
+
+    @Test
+    public void testUseAfterRealloc() throws IOException {
+        runExpectingError("useAfterRealloc", "Use after free");
+    }
+
+    @Test
+    public void testDoubleFree() throws IOException {
+        runExpectingError("doubleFree", "Double free");
+    }
+
+    @Test
+    public void testInteriorFree() throws IOException {
+        runExpectingError("interiorFree", "Cannot free an interior pointer");
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.llvm.pipe.CaptureNativeOutput;
+import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
+import com.oracle.truffle.llvm.runtime.profiling.LLVMSamplingProfiler;
+import com.oracle.truffle.llvm.test.options.TestOptions;
+import com.oracle.truffle.llvm.test.util.ProcessUtil;
+import com.oracle.truffle.llvm.test.util.ProcessUtil.ProcessResult;
+
+public final class SamplingProfilerTest {
+
+    private static final File TEST_FILE = new File(TestOptions.PROJECT_ROOT + "/../cache/tests/other/sampler/sampler_clang_O1.bc");
+
+    private static final Pattern COLLAPSED_STACK = Pattern.compile("[^;]+(;[^;]+)+ [1-9][0-9]*");
+
+    @Test
+    public void testCollapsedStackFormat() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        LLVMSamplingProfiler profiler = new LLVMSamplingProfiler(new PrintStream(bytes), Long.MAX_VALUE);
+        profiler.addSample(Arrays.asList("inner", "outer"));
+        profiler.addSample(Arrays.asList("a;b", "outer"));
+        profiler.addSample(Arrays.asList("inner", "outer"));
+        profiler.dispose();
+
+        String thread = Thread.currentThread().getName().replace(';', ',');
+        String expected = thread + ";outer;a,b 1" + System.lineSeparator() + thread + ";outer;inner 2" + System.lineSeparator();
+        Assert.assertEquals(expected, bytes.toString());
+    }
+
+    @Test
+    public void testLoopIsSampled() throws Exception {
+        Map<String, String> options = new HashMap<>();
+        options.put(SulongEngineOption.SAMPLER_NAME, "stdout");
+        options.put(SulongEngineOption.SAMPLER_INTERVAL_NAME, "1");
+        ProcessResult result = ProcessUtil.executeSulongTestMain(TEST_FILE, new String[0], options, c -> new CaptureNativeOutput());
+        Assert.assertEquals(0, result.getReturnValue());
+
+        String[] lines = result.getStdOutput().split("\n");
+        boolean sampledLoop = false;
+        for (String line : lines) {
+            Assert.assertTrue(line, COLLAPSED_STACK.matcher(line).matches());
+            sampledLoop |= line.matches(".*;main;spin [0-9]+");
+        }
+        Assert.assertTrue(result.getStdOutput(), sampledLoop);
+    }
+}
@@ -46,7 +46,7 @@ import org.junit.runners.Parameterized.Parameters;
 import com.oracle.truffle.llvm.test.options.TestOptions;
 
 @RunWith(Parameterized.class)
-public final class SulongSuite extends BaseSuiteHarness {
+public class SulongSuite extends BaseSuiteHarness {
 
     private static final boolean IS_MAC = System.getProperty("os.name").toLowerCase().indexOf("mac") >= 0;
     @Parameter(value = 0) public Path path;
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.test.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Locale;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+
+import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
+
+/**
+ * Runs a benchmark kernel of the {@code com.oracle.truffle.llvm.tests.benchmarks} suite through the
+ * polyglot API. The kernel exports a function {@code int benchmark(void)} that returns a checksum.
+ * The harness times every invocation separately so that the warm-up curve, the time to the first
+ * result and the peak performance can be reported as separate metrics.
+ *
+ * <pre>
+ * PolyglotBenchmarkHarness &lt;bitcode file&gt; [--name &lt;name&gt;] [--iterations &lt;n&gt;] [--peak-iterations &lt;k&gt;]
+ *                          [--configuration &lt;configuration&gt;]
+ * </pre>
+ *
+ * The configuration is passed to the context as the {@value SulongEngineOption#CONFIGURATION_NAME}
+ * option, e.g., {@code managed} to run the kernel with Java-heap backed allocations. Without it,
+ * the default (native) configuration is used.
+ *
+ * The peak time is the average over the last {@code k} iterations. All times are printed in
+ * milliseconds in the format {@code <name>: <metric>: <value> <unit>} that the
+ * {@code sulong-polyglot} benchmark suite parses.
+ */
+public final class PolyglotBenchmarkHarness {
+
+    private static final String BENCHMARK_FUNCTION = "benchmark";
+
+    private static final int DEFAULT_ITERATIONS = 30;
+    private static final int DEFAULT_PEAK_ITERATIONS = 10;
+
+    private PolyglotBenchmarkHarness() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        File file = null;
+        String name = null;
+        int iterations = DEFAULT_ITERATIONS;
+        int peakIterations = DEFAULT_PEAK_ITERATIONS;
+        String configuration = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--name":
+                    name = getArgument(args, ++i);
+                    break;
+                case "--iterations":
+                    iterations = Integer.parseInt(getArgument(args, ++i));
+                    break;
+                case "--peak-iterations":
+                    peakIterations = Integer.parseInt(getArgument(args, ++i));
+                    break;
+                case "--configuration":
+                    configuration = getArgument(args, ++i);
+                    break;
+                default:
+                    if (file != null) {
+                        throw new IllegalArgumentException("unexpected argument: " + args[i]);
+                    }
+                    file = new File(args[i]);
+                    break;
+            }
+        }
+        if (file == null) {
+            throw new IllegalArgumentException("no bitcode file given");
+        }
+        if (iterations < 1 || peakIterations < 1 || peakIterations > iterations) {
+            throw new IllegalArgumentException("invalid number of iterations: " + iterations + " (peak: " + peakIterations + ")");
+        }
+        if (name == null) {
+            name = file.getName();
+        }
+
+        System.exit(run(file, name, configuration, iterations, peakIterations, System.out));
+    }
+
+    private static String getArgument(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("missing value for " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    private static int run(File file, String name, String configuration, int iterations, int peakIterations, PrintStream out) throws IOException {
+        long[] times = new long[iterations];
+        long timeToFirstResult = 0;
+        long start = System.nanoTime();
+
+        Context.Builder builder = Context.newBuilder().allowAllAccess(true);
+        if (configuration != null) {
+            builder.option(SulongEngineOption.CONFIGURATION_NAME, configuration);
+        }
+        try (Context context = builder.build()) {
+            Value library = context.eval(Source.newBuilder("llvm", file).build());
+            Value benchmark = library.getMember(BENCHMARK_FUNCTION);
+            if (benchmark == null || !benchmark.canExecute()) {
+                out.println("error: " + file + " does not export a function '" + BENCHMARK_FUNCTION + "'");
+                return 1;
+            }
+
+            int expected = 0;
+            for (int i = 0; i < iterations; i++) {
+                long iterationStart = System.nanoTime();
+                int result = benchmark.execute().asInt();
+                long iterationEnd = System.nanoTime();
+                times[i] = iterationEnd - iterationStart;
+
+                if (i == 0) {
+                    timeToFirstResult = iterationEnd - start;
+                    expected = result;
+                } else if (result != expected) {
+                    out.println("error: " + name + ": iteration " + i + " returned " + result + ", expected " + expected);
+                    return 1;
+                }
+                out.println(name + ": iteration " + i + ": " + format(times[i]) + " ms");
+            }
+        }
+
+        long peak = 0;
+        for (int i = iterations - peakIterations; i < iterations; i++) {
+            peak += times[i];
+        }
+        double peakMillis = peak / 1e6 / peakIterations;
+
+        out.println(name + ": time-to-first-result: " + format(timeToFirstResult) + " ms");
+        out.println(name + ": peak: " + format(peakMillis) + " ms");
+        out.println(name + ": throughput: " + format(1000 / peakMillis) + " ops/s");
+        return 0;
+    }
+
+    private static String format(long nanos) {
+        return format(nanos / 1e6);
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
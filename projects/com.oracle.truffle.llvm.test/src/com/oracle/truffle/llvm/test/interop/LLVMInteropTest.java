@@ -40,14 +40,17 @@ import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.interop.UnsupportedTypeException;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.llvm.Sulong;
+import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
 import com.oracle.truffle.llvm.test.interop.values.BoxedTestValue;
 import com.oracle.truffle.llvm.test.options.TestOptions;
 import java.io.File;
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
 import org.graalvm.polyglot.PolyglotException;
 import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
@@ -163,6 +166,64 @@ public class LLVMInteropTest {
         }
     }
 
+    @Test
+    public void testMultipleContexts() {
+        Assume.assumeFalse("JavaInterop not supported", TruffleOptions.AOT);
+        ProxyExecutable doubler = new ProxyExecutable() {
+
+            @Override
+            public Object execute(Value... t) {
+                return t[0].asInt() * 2;
+            }
+        };
+        try (Engine engine = Engine.create()) {
+            try (Runner first = new Runner("multiContext", engine); Runner second = new Runner("multiContext", engine)) {
+                ClassC a = new ClassC();
+                first.export(a, "foreign");
+                first.export(doubler, "callback");
+                ClassC b = new ClassC();
+                second.export(b, "foreign");
+                second.export(doubler, "callback");
+
+                Assert.assertEquals(12, first.run());
+                Assert.assertEquals(12, second.run());
+                Assert.assertEquals(15, first.run());
+
+                Assert.assertEquals(5, a.valueI);
+                Assert.assertEquals(4, b.valueI);
+            }
+        }
+    }
+
+    @Test
+    public void testMultipleContextsTypeID() {
+        Assume.assumeFalse("JavaInterop not supported", TruffleOptions.AOT);
+        try (Engine engine = Engine.create()) {
+            try (Runner first = new Runner("multiContextTypeID", engine); Runner second = new Runner("multiContextTypeID", engine)) {
+                first.export(new ClassC(), "foreign");
+                second.export(new ClassC(), "foreign");
+
+                Assert.assertEquals(7, first.run());
+                Assert.assertEquals(7, second.run());
+                Assert.assertEquals(7, first.run());
+            }
+        }
+    }
+
+    @Test
+    public void testMemMove() {
+        try (Runner runner = new Runner("memMove")) {
+            Assert.assertEquals(0, runner.run());
+        }
+    }
+
+    @Test
+    public void testMemMoveManaged() {
+        try (Runner runner = new Runner("memMove", Collections.singletonMap(SulongEngineOption.CONFIGURATION_NAME, "managed"))) {
+            Assert.assertEquals(0, runner.run());
+        }
+    }
+
     @Test
     public void test008() {
         try (Runner runner = new Runner("interop008")) {
@@ -520,6 +581,94 @@ public class LLVMInteropTest {
         }
     }
 
+    @Test
+    public void testHostArrayAccess() {
+        try (Runner runner = new Runner("hostArray")) {
+            runner.run();
+
+            byte[] b = new byte[]{1, 2, 3};
+            Assert.assertEquals(2, runner.findGlobalSymbol("get_i8").execute(b, 1).asByte());
+            runner.findGlobalSymbol("set_i8").execute(b, 2, (byte) -4);
+            Assert.assertArrayEquals(new byte[]{1, 2, -4}, b);
+
+            short[] s = new short[]{1, 2, 3};
+            Assert.assertEquals(2, runner.findGlobalSymbol("get_i16").execute(s, 1).asShort());
+            runner.findGlobalSymbol("set_i16").execute(s, 0, (short) -5);
+            Assert.assertArrayEquals(new short[]{-5, 2, 3}, s);
+
+            char[] c = new char[]{'a', 'b', 'c'};
+            Assert.assertEquals('b', runner.findGlobalSymbol("get_u16").execute(c, 1).asInt());
+            runner.findGlobalSymbol("set_u16").execute(c, 1, (short) 'x');
+            Assert.assertArrayEquals(new char[]{'a', 'x', 'c'}, c);
+
+            int[] i = new int[]{1, 2, 3};
+            Assert.assertEquals(3, runner.findGlobalSymbol("get_i32").execute(i, 2).asInt());
+            runner.findGlobalSymbol("set_i32").execute(i, 1, 42);
+            Assert.assertArrayEquals(new int[]{1, 42, 3}, i);
+
+            long[] l = new long[]{1, 2, 3};
+            Assert.assertEquals(1, runner.findGlobalSymbol("get_i64").execute(l, 0).asLong());
+            runner.findGlobalSymbol("set_i64").execute(l, 2, Long.MIN_VALUE);
+            Assert.assertArrayEquals(new long[]{1, 2, Long.MIN_VALUE}, l);
+
+            float[] f = new float[]{1.5F, 2.5F, 3.5F};
+            Assert.assertEquals(2.5F, runner.findGlobalSymbol("get_float").execute(f, 1).asFloat(), 0);
+            runner.findGlobalSymbol("set_float").execute(f, 0, -0.25F);
+            Assert.assertArrayEquals(new float[]{-0.25F, 2.5F, 3.5F}, f, 0);
+
+            double[] d = new double[]{1.5, 2.5, 3.5};
+            Assert.assertEquals(3.5, runner.findGlobalSymbol("get_double").execute(d, 2).asDouble(), 0);
+            runner.findGlobalSymbol("set_double").execute(d, 1, 1e100);
+            Assert.assertArrayEquals(new double[]{1.5, 1e100, 3.5}, d, 0);
+        }
+    }
+
+    @Test(expected = PolyglotException.class)
+    public void testHostArrayReadOutOfBounds() {
+        try (Runner runner = new Runner("hostArray")) {
+            runner.run();
+            runner.findGlobalSymbol("get_i32").execute(new int[]{1, 2, 3}, 3);
+        }
+    }
+
+    @Test(expected = PolyglotException.class)
+    public void testHostArrayReadNegativeIndex() {
+        try (Runner runner = new Runner("hostArray")) {
+            runner.run();
+            runner.findGlobalSymbol("get_double").execute(new double[]{1, 2, 3}, -1);
+        }
+    }
+
+    @Test(expected = PolyglotException.class)
+    public void testHostArrayWriteOutOfBounds() {
+        try (Runner runner = new Runner("hostArray")) {
+            runner.run();
+            runner.findGlobalSymbol("set_i64").execute(new long[]{1, 2, 3}, 3, 4L);
+        }
+    }
+
+    @Test
+    public void testHostArrayMemMove() {
+        try (Runner runner = new Runner("hostArray")) {
+            runner.run();
+
+            int[] i = new int[]{1, 5, 7, 9};
+            Assert.assertEquals(22, runner.findGlobalSymbol("increment_i32").execute(i, i.length).asLong());
+            Assert.assertArrayEquals(new int[]{1, 2, 6, 8}, i);
+
+            byte[] b = new byte[]{10, 20, 30};
+            Assert.assertEquals(60, runner.findGlobalSymbol("increment_i8").execute(b, b.length).asLong());
+            Assert.assertArrayEquals(new byte[]{10, 11, 21}, b);
+
+            double[] d = new double[]{0.5, 4.0};
+            Assert.assertEquals(4.5, runner.findGlobalSymbol("increment_double").execute(d, d.length).asDouble(), 0);
+            Assert.assertArrayEquals(new double[]{0.5, 1.5}, d, 0);
+
+            int[] unaligned = new int[]{0x11223344, 0x55667788};
+            Assert.assertEquals(0x77881122, runner.findGlobalSymbol("copy_unaligned").execute(unaligned).asLong());
+        }
+    }
+
     @Test
     @Ignore(value = "test semantics not clear")
     public void test040() throws Exception {
@@ -1427,6 +1576,18 @@ public class LLVMInteropTest {
             this.library = null;
         }
 
+        Runner(String testName, Map<String, String> options) {
+            this.testName = testName;
+            this.context = Context.newBuilder().options(options).allowAllAccess(true).build();
+            this.library = null;
+        }
+
+        Runner(String testName, Engine engine) {
+            this.testName = testName;
+            this.context = Context.newBuilder().engine(engine).allowAllAccess(true).build();
+            this.library = null;
+        }
+
         public Value findGlobalSymbol(String string) {
             return library.getMember(string);
         }
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.types.floating.test;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.oracle.truffle.api.interop.ForeignAccess;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.llvm.runtime.global.LLVMGlobal;
+import com.oracle.truffle.llvm.runtime.global.LLVMGlobalIndex;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMManagedPointer;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
+import com.oracle.truffle.llvm.runtime.types.PointerType;
+import com.oracle.truffle.llvm.runtime.types.PrimitiveType;
+
+public class LLVMGlobalIndexTest {
+
+    private static final class Storage implements TruffleObject {
+
+        @Override
+        public ForeignAccess getForeignAccess() {
+            return null;
+        }
+    }
+
+    private static LLVMGlobal global(String name) {
+        return LLVMGlobal.create(name, new PointerType(PrimitiveType.I32), null, false);
+    }
+
+    private static LLVMNativePointer nativePointer(long address) {
+        return LLVMNativePointer.create(address);
+    }
+
+    @Test
+    public void testNativeBoundaries() {
+        LLVMGlobal a = global("a");
+        LLVMGlobal b = global("b");
+        LLVMGlobal c = global("c");
+        LLVMGlobal empty = global("empty");
+        LLVMGlobalIndex.Builder builder = LLVMGlobalIndex.builder(nativePointer(1000));
+        builder.add(0, 8, a);
+        builder.add(8, 4, b);
+        builder.add(16, 8, c);
+        builder.add(24, 0, empty);
+        LLVMGlobalIndex index = new LLVMGlobalIndex();
+        index.register(builder);
+
+        Assert.assertSame(a, index.find(nativePointer(1000)));
+        Assert.assertNull(index.find(nativePointer(1004)));
+        Assert.assertSame(b, index.find(nativePointer(1008)));
+        Assert.assertSame(c, index.find(nativePointer(1016)));
+        Assert.assertSame(empty, index.find(nativePointer(1024)));
+
+        Assert.assertNull(index.findContaining(999));
+        Assert.assertSame(a, index.findContaining(1000));
+        Assert.assertSame(a, index.findContaining(1007));
+        Assert.assertSame(b, index.findContaining(1008));
+        Assert.assertSame(b, index.findContaining(1011));
+        Assert.assertNull(index.findContaining(1012));
+        Assert.assertNull(index.findContaining(1015));
+        Assert.assertSame(c, index.findContaining(1016));
+        Assert.assertSame(c, index.findContaining(1023));
+        Assert.assertSame(empty, index.findContaining(1024));
+        Assert.assertNull(index.findContaining(1025));
+    }
+
+    @Test
+    public void testAdjacentRegistrations() {
+        LLVMGlobal first = global("first");
+        LLVMGlobal second = global("second");
+        LLVMGlobal third = global("third");
+        LLVMGlobalIndex index = new LLVMGlobalIndex();
+
+        // registered out of address order
+        LLVMGlobalIndex.Builder builder = LLVMGlobalIndex.builder(nativePointer(2016));
+        builder.add(0, 16, second);
+        index.register(builder);
+        builder = LLVMGlobalIndex.builder(nativePointer(2032));
+        builder.add(0, 8, third);
+        index.register(builder);
+        builder = LLVMGlobalIndex.builder(nativePointer(2000));
+        builder.add(0, 16, first);
+        index.register(builder);
+
+        Assert.assertNull(index.findContaining(1999));
+        Assert.assertSame(first, index.findContaining(2000));
+        Assert.assertSame(first, index.findContaining(2015));
+        Assert.assertSame(second, index.findContaining(2016));
+        Assert.assertSame(second, index.findContaining(2031));
+        Assert.assertSame(third, index.findContaining(2032));
+        Assert.assertSame(third, index.findContaining(2039));
+        Assert.assertNull(index.findContaining(2040));
+        Assert.assertSame(second, index.find(nativePointer(2016)));
+        Assert.assertNull(index.find(nativePointer(2017)));
+    }
+
+    @Test
+    public void testOverlappingRegistrations() {
+        Assume.assumeTrue("overlaps are only detected with assertions enabled", LLVMGlobalIndex.class.desiredAssertionStatus());
+
+        LLVMGlobalIndex index = new LLVMGlobalIndex();
+        LLVMGlobalIndex.Builder builder = LLVMGlobalIndex.builder(nativePointer(3000));
+        builder.add(0, 16, global("a"));
+        index.register(builder);
+
+        builder = LLVMGlobalIndex.builder(nativePointer(3008));
+        builder.add(0, 16, global("b"));
+        try {
+            index.register(builder);
+            Assert.fail("overlapping registration was accepted");
+        } catch (AssertionError e) {
+            // expected
+        }
+
+        builder = LLVMGlobalIndex.builder(nativePointer(2992));
+        builder.add(0, 16, global("c"));
+        try {
+            index.register(builder);
+            Assert.fail("overlapping registration was accepted");
+        } catch (AssertionError e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testManagedSegments() {
+        Storage firstStorage = new Storage();
+        Storage secondStorage = new Storage();
+        LLVMGlobal a1 = global("a1");
+        LLVMGlobal b1 = global("b1");
+        LLVMGlobal a2 = global("a2");
+        LLVMGlobalIndex index = new LLVMGlobalIndex();
+
+        LLVMGlobalIndex.Builder builder = LLVMGlobalIndex.builder(LLVMManagedPointer.create(firstStorage));
+        builder.add(0, 8, a1);
+        builder.add(8, 8, b1);
+        index.register(builder);
+        builder = LLVMGlobalIndex.builder(LLVMManagedPointer.create(secondStorage));
+        builder.add(0, 8, a2);
+        index.register(builder);
+
+        Assert.assertSame(a1, index.find(LLVMManagedPointer.create(firstStorage, 0)));
+        Assert.assertSame(b1, index.find(LLVMManagedPointer.create(firstStorage, 8)));
+        Assert.assertNull(index.find(LLVMManagedPointer.create(firstStorage, 4)));
+        Assert.assertNull(index.find(LLVMManagedPointer.create(firstStorage, 16)));
+        Assert.assertSame(a2, index.find(LLVMManagedPointer.create(secondStorage, 0)));
+        Assert.assertNull(index.find(LLVMManagedPointer.create(secondStorage, 8)));
+        Assert.assertNull(index.find(LLVMManagedPointer.create(new Storage(), 0)));
+    }
+
+    @Test
+    public void testContainers() {
+        Storage container = new Storage();
+        LLVMGlobal global = global("container");
+        LLVMGlobalIndex index = new LLVMGlobalIndex();
+
+        LLVMGlobalIndex.Builder builder = LLVMGlobalIndex.builder(nativePointer(4000));
+        builder.addContainer(LLVMManagedPointer.create(container), global);
+        index.register(builder);
+
+        Assert.assertSame(global, index.find(LLVMManagedPointer.create(container, 0)));
+        Assert.assertNull(index.find(LLVMManagedPointer.create(container, 4)));
+        Assert.assertNull(index.findContaining(4000));
+
+        List<Object> containers = index.getContainers();
+        Assert.assertEquals(1, containers.size());
+        Assert.assertSame(container, containers.get(0));
+
+        // the result is a copy that does not change with later registrations
+        builder = LLVMGlobalIndex.builder(nativePointer(5000));
+        builder.addContainer(LLVMManagedPointer.create(new Storage()), global("other"));
+        index.register(builder);
+        Assert.assertEquals(1, containers.size());
+        Assert.assertEquals(2, index.getContainers().size());
+    }
+}
@@ -29,6 +29,299 @@
  */
 package com.oracle.truffle.llvm.types.floating.test;
 
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
+import com.oracle.truffle.llvm.runtime.LongMultiplication;
+
+/**
+ * Checks the operations of {@link LLVMIVarBit} against {@link BigInteger} arithmetic. The 128-bit
+ * values use the fast paths on the two 64-bit halves, the 96-bit values use the generic paths.
+ */
 public class LLVMIVarBitTest {
 
+    private static final int ITERATIONS = 10000;
+
+    private static final long[] EDGE_VALUES = {0, 1, -1, 2, -2, 63, 64, 127, 128, Integer.MIN_VALUE, Integer.MAX_VALUE, 0xFFFFFFFFL, Long.MIN_VALUE, Long.MIN_VALUE + 1, Long.MAX_VALUE,
+                    Long.MAX_VALUE - 1};
+
+    private static final BigInteger MASK_64 = BigInteger.ONE.shiftLeft(Long.SIZE).subtract(BigInteger.ONE);
+
+    private static final int GENERIC_BITS = 96;
+
+    private final Random random = new Random(42);
+
+    private static LLVMIVarBit i128(long high, long low) {
+        return LLVMIVarBit.createI128(high, low);
+    }
+
+    private long nextLong() {
+        return random.nextBoolean() ? random.nextLong() : EDGE_VALUES[random.nextInt(EDGE_VALUES.length)];
+    }
+
+    /**
+     * Returns a random value whose upper half is zero, all ones, the sign extension of the lower
+     * half or random, so that the narrower fast paths of div and rem are taken as well.
+     */
+    private LLVMIVarBit nextI128() {
+        long low = nextLong();
+        switch (random.nextInt(4)) {
+            case 0:
+                return i128(0, low);
+            case 1:
+                return i128(-1, low);
+            case 2:
+                return i128(low >> (Long.SIZE - 1), low);
+            default:
+                return i128(nextLong(), low);
+        }
+    }
+
+    private LLVMIVarBit nextNonZeroI128() {
+        LLVMIVarBit value;
+        do {
+            value = nextI128();
+        } while (value.isZero());
+        return value;
+    }
+
+    private LLVMIVarBit nextGeneric() {
+        return LLVMIVarBit.fromBigInteger(GENERIC_BITS, nextI128().asBigInteger());
+    }
+
+    private LLVMIVarBit nextNonZeroGeneric() {
+        LLVMIVarBit value;
+        do {
+            value = nextGeneric();
+        } while (value.isZero());
+        return value;
+    }
+
+    private static BigInteger unsigned(LLVMIVarBit value) {
+        return toUnsigned(value.asBigInteger(), value.getBitSize());
+    }
+
+    private static BigInteger toUnsigned(BigInteger value, int bits) {
+        return value.and(BigInteger.ONE.shiftLeft(bits).subtract(BigInteger.ONE));
+    }
+
+    /**
+     * Wraps {@code value} around to a signed integer of {@code bits} bits.
+     */
+    private static BigInteger wrap(BigInteger value, int bits) {
+        BigInteger result = toUnsigned(value, bits);
+        return result.testBit(bits - 1) ? result.subtract(BigInteger.ONE.shiftLeft(bits)) : result;
+    }
+
+    private interface BinaryOperation {
+        LLVMIVarBit apply(LLVMIVarBit left, LLVMIVarBit right);
+    }
+
+    private interface Reference {
+        BigInteger apply(LLVMIVarBit left, LLVMIVarBit right);
+    }
+
+    private static void assertResult(String name, BinaryOperation operation, Reference reference, LLVMIVarBit left, LLVMIVarBit right) {
+        int bits = left.getBitSize();
+        LLVMIVarBit actual = operation.apply(left, right);
+        Assert.assertEquals(name + "(" + left + ", " + right + ") width", bits, actual.getBitSize());
+        Assert.assertEquals(name + "(" + left + ", " + right + ")", wrap(reference.apply(left, right), bits), actual.asBigInteger());
+    }
+
+    private void assertRandomResults(String name, BinaryOperation operation, Reference reference, boolean nonZeroRight) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            LLVMIVarBit right = nonZeroRight ? nextNonZeroI128() : nextI128();
+            assertResult(name, operation, reference, nextI128(), right);
+            LLVMIVarBit genericRight = nonZeroRight ? nextNonZeroGeneric() : nextGeneric();
+            assertResult(name, operation, reference, nextGeneric(), genericRight);
+        }
+    }
+
+    private static final Reference ADD = (l, r) -> l.asBigInteger().add(r.asBigInteger());
+    private static final Reference SUB = (l, r) -> l.asBigInteger().subtract(r.asBigInteger());
+    private static final Reference MUL = (l, r) -> l.asBigInteger().multiply(r.asBigInteger());
+    private static final Reference DIV = (l, r) -> l.asBigInteger().divide(r.asBigInteger());
+    private static final Reference REM = (l, r) -> l.asBigInteger().remainder(r.asBigInteger());
+    private static final Reference UNSIGNED_DIV = (l, r) -> unsigned(l).divide(unsigned(r));
+    private static final Reference UNSIGNED_REM = (l, r) -> unsigned(l).remainder(unsigned(r));
+    private static final Reference AND = (l, r) -> l.asBigInteger().and(r.asBigInteger());
+    private static final Reference OR = (l, r) -> l.asBigInteger().or(r.asBigInteger());
+    private static final Reference XOR = (l, r) -> l.asBigInteger().xor(r.asBigInteger());
+
+    @Test
+    public void testAdd() {
+        assertRandomResults("add", LLVMIVarBit::add, ADD, false);
+        assertResult("add", LLVMIVarBit::add, ADD, i128(0, -1), i128(0, 1));
+        assertResult("add", LLVMIVarBit::add, ADD, i128(Long.MAX_VALUE, -1), i128(0, 1));
+        assertResult("add", LLVMIVarBit::add, ADD, i128(-1, -1), i128(-1, -1));
+    }
+
+    @Test
+    public void testSub() {
+        assertRandomResults("sub", LLVMIVarBit::sub, SUB, false);
+        assertResult("sub", LLVMIVarBit::sub, SUB, i128(1, 0), i128(0, 1));
+        assertResult("sub", LLVMIVarBit::sub, SUB, i128(Long.MIN_VALUE, 0), i128(0, 1));
+        assertResult("sub", LLVMIVarBit::sub, SUB, i128(0, 0), i128(-1, -1));
+    }
+
+    @Test
+    public void testMul() {
+        assertRandomResults("mul", LLVMIVarBit::mul, MUL, false);
+        assertResult("mul", LLVMIVarBit::mul, MUL, i128(0, -1), i128(0, -1));
+        assertResult("mul", LLVMIVarBit::mul, MUL, i128(-1, -1), i128(Long.MIN_VALUE, 0));
+        assertResult("mul", LLVMIVarBit::mul, MUL, i128(-1, Long.MIN_VALUE), i128(-1, Long.MIN_VALUE));
+    }
+
+    @Test
+    public void testDivRem() {
+        assertRandomResults("div", LLVMIVarBit::div, DIV, true);
+        assertRandomResults("rem", LLVMIVarBit::rem, REM, true);
+        assertRandomResults("unsignedDiv", LLVMIVarBit::unsignedDiv, UNSIGNED_DIV, true);
+        assertRandomResults("unsignedRem", LLVMIVarBit::unsignedRem, UNSIGNED_REM, true);
+
+        LLVMIVarBit minusOne = i128(-1, -1);
+        LLVMIVarBit longMin = i128(-1, Long.MIN_VALUE);
+        LLVMIVarBit i128Min = i128(Long.MIN_VALUE, 0);
+        for (LLVMIVarBit left : new LLVMIVarBit[]{longMin, i128Min, i128(0, Long.MIN_VALUE), i128(0, 7), i128(-1, -7)}) {
+            for (LLVMIVarBit right : new LLVMIVarBit[]{minusOne, i128(0, 1), i128(0, 2), i128(-1, -2), longMin}) {
+                assertResult("div", LLVMIVarBit::div, DIV, left, right);
+                assertResult("rem", LLVMIVarBit::rem, REM, left, right);
+                assertResult("unsignedDiv", LLVMIVarBit::unsignedDiv, UNSIGNED_DIV, left, right);
+                assertResult("unsignedRem", LLVMIVarBit::unsignedRem, UNSIGNED_REM, left, right);
+            }
+        }
+        Assert.assertEquals(BigInteger.ONE.shiftLeft(Long.SIZE - 1), longMin.div(minusOne).asBigInteger());
+        Assert.assertEquals(BigInteger.ZERO, longMin.rem(minusOne).asBigInteger());
+    }
+
+    @Test
+    public void testBitwise() {
+        assertRandomResults("and", LLVMIVarBit::and, AND, false);
+        assertRandomResults("or", LLVMIVarBit::or, OR, false);
+        assertRandomResults("xor", LLVMIVarBit::xor, XOR, false);
+    }
+
+    private static void assertShifts(LLVMIVarBit value, int amount) {
+        int bits = value.getBitSize();
+        LLVMIVarBit shift = LLVMIVarBit.fromInt(bits, amount);
+        String description = value + ", " + amount;
+        Assert.assertEquals("leftShift(" + description + ")", wrap(value.asBigInteger().shiftLeft(amount), bits), value.leftShift(shift).asBigInteger());
+        Assert.assertEquals("logicalRightShift(" + description + ")", wrap(unsigned(value).shiftRight(amount), bits), value.logicalRightShift(shift).asBigInteger());
+        Assert.assertEquals("arithmeticRightShift(" + description + ")", value.asBigInteger().shiftRight(amount), value.arithmeticRightShift(shift).asBigInteger());
+    }
+
+    @Test
+    public void testShifts() {
+        int[] amounts = {0, 1, 63, 64, 65, 95, 127};
+        for (int i = 0; i < ITERATIONS; i++) {
+            LLVMIVarBit value = nextI128();
+            int amount = i < amounts.length * 100 ? amounts[i % amounts.length] : random.nextInt(LLVMIVarBit.I128_BITS);
+            assertShifts(value, amount);
+            assertShifts(LLVMIVarBit.fromBigInteger(GENERIC_BITS, value.asBigInteger()), amount % GENERIC_BITS);
+        }
+    }
+
+    private static void assertComparison(LLVMIVarBit left, LLVMIVarBit right) {
+        String description = "(" + left + ", " + right + ")";
+        Assert.assertEquals("signedCompare" + description, left.asBigInteger().compareTo(right.asBigInteger()), Integer.signum(left.signedCompare(right)));
+        Assert.assertEquals("unsignedCompare" + description, unsigned(left).compareTo(unsigned(right)), Integer.signum(left.unsignedCompare(right)));
+    }
+
+    @Test
+    public void testCompare() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            LLVMIVarBit left = nextI128();
+            assertComparison(left, nextI128());
+            assertComparison(left, left);
+            LLVMIVarBit genericLeft = nextGeneric();
+            assertComparison(genericLeft, nextGeneric());
+        }
+        LLVMIVarBit minusOne = i128(-1, -1);
+        LLVMIVarBit one = i128(0, 1);
+        assertComparison(minusOne, one);
+        assertComparison(i128(Long.MIN_VALUE, 0), i128(Long.MAX_VALUE, -1));
+        assertComparison(i128(0, -1), i128(0, 1));
+        Assert.assertTrue(minusOne.signedCompare(one) < 0);
+        Assert.assertTrue(minusOne.unsignedCompare(one) > 0);
+    }
+
+    @Test
+    public void testConversions() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            long value = nextLong();
+            BigInteger signed = BigInteger.valueOf(value);
+            Assert.assertEquals(signed, LLVMIVarBit.fromLong(LLVMIVarBit.I128_BITS, value).asBigInteger());
+            Assert.assertEquals(BigInteger.valueOf((int) value), LLVMIVarBit.fromInt(LLVMIVarBit.I128_BITS, (int) value).asBigInteger());
+            Assert.assertEquals(BigInteger.valueOf((short) value), LLVMIVarBit.fromShort(LLVMIVarBit.I128_BITS, (short) value).asBigInteger());
+            Assert.assertEquals(BigInteger.valueOf((byte) value), LLVMIVarBit.fromByte(LLVMIVarBit.I128_BITS, (byte) value).asBigInteger());
+            Assert.assertEquals(signed.and(MASK_64), LLVMIVarBit.createZeroExt(LLVMIVarBit.I128_BITS, value).asBigInteger());
+            Assert.assertEquals(value & 0xFFFFFFFFL, LLVMIVarBit.createZeroExt(LLVMIVarBit.I128_BITS, (int) value).getLongValue());
+            Assert.assertEquals(value & 0xFFFFL, LLVMIVarBit.createZeroExt(LLVMIVarBit.I128_BITS, (short) value).getLongValue());
+            Assert.assertEquals(value & 0xFFL, LLVMIVarBit.createZeroExt(LLVMIVarBit.I128_BITS, (byte) value).getLongValue());
+
+            LLVMIVarBit wide = nextI128();
+            Assert.assertEquals(wide.asBigInteger().longValue(), wide.getLongValue());
+            Assert.assertEquals(wide.asBigInteger().intValue(), wide.getIntValue());
+            Assert.assertEquals(wide.asBigInteger().shortValue(), wide.getShortValue());
+            Assert.assertEquals(wide.asBigInteger().byteValue(), wide.getByteValue());
+            Assert.assertEquals(wide.asBigInteger().shiftRight(Long.SIZE).longValue(), wide.getI128High());
+            Assert.assertEquals(wide.asBigInteger().longValue(), wide.getI128Low());
+        }
+    }
+
+    @Test
+    public void testBytes() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            LLVMIVarBit value = nextI128();
+            byte[] bytes = value.getBytes();
+            Assert.assertEquals(LLVMIVarBit.I128_BITS / Byte.SIZE, bytes.length);
+            Assert.assertEquals(value.asBigInteger(), new BigInteger(bytes));
+
+            LLVMIVarBit copy = LLVMIVarBit.create(LLVMIVarBit.I128_BITS, bytes, LLVMIVarBit.I128_BITS, false);
+            Assert.assertTrue(copy.isI128());
+            Assert.assertEquals(value.getI128High(), copy.getI128High());
+            Assert.assertEquals(value.getI128Low(), copy.getI128Low());
+            Assert.assertEquals(value, copy);
+            Assert.assertEquals(value.hashCode(), copy.hashCode());
+
+            // the result of a generic operation is a 128-bit value as well
+            LLVMIVarBit fromBigInteger = LLVMIVarBit.fromBigInteger(LLVMIVarBit.I128_BITS, value.asBigInteger());
+            Assert.assertEquals(value.getI128High(), fromBigInteger.getI128High());
+            Assert.assertEquals(value.getI128Low(), fromBigInteger.getI128Low());
+        }
+        byte[] loaded = {(byte) 0x80, 0, 0, 0, 0, 0, 0, 1};
+        LLVMIVarBit signExtended = LLVMIVarBit.create(LLVMIVarBit.I128_BITS, loaded, Long.SIZE, true);
+        Assert.assertEquals(-1, signExtended.getI128High());
+        Assert.assertEquals(Long.MIN_VALUE + 1, signExtended.getI128Low());
+        LLVMIVarBit zeroExtended = LLVMIVarBit.create(LLVMIVarBit.I128_BITS, loaded, Long.SIZE, false);
+        Assert.assertEquals(0, zeroExtended.getI128High());
+        Assert.assertEquals(Long.MIN_VALUE + 1, zeroExtended.getI128Low());
+    }
+
+    private static BigInteger unsigned(long value) {
+        return BigInteger.valueOf(value).and(MASK_64);
+    }
+
+    private static void assertMultiplyHigh(long x, long y) {
+        long expected = BigInteger.valueOf(x).multiply(BigInteger.valueOf(y)).shiftRight(Long.SIZE).longValue();
+        Assert.assertEquals("multiplyHigh(" + x + ", " + y + ")", expected, LongMultiplication.multiplyHigh(x, y));
+        long expectedUnsigned = unsigned(x).multiply(unsigned(y)).shiftRight(Long.SIZE).longValue();
+        Assert.assertEquals("multiplyHighUnsigned(" + x + ", " + y + ")", expectedUnsigned, LongMultiplication.multiplyHighUnsigned(x, y));
+    }
+
+    @Test
+    public void testMultiplyHigh() {
+        for (long x : EDGE_VALUES) {
+            for (long y : EDGE_VALUES) {
+                assertMultiplyHigh(x, y);
+            }
+        }
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertMultiplyHigh(nextLong(), nextLong());
+        }
+    }
 }
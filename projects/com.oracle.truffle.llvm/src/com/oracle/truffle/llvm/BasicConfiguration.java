@@ -67,7 +67,7 @@ public final class BasicConfiguration implements Configuration {
     @Override
     public List<ContextExtension> createContextExtensions(LLVMContext context) {
         List<ContextExtension> result = new ArrayList<>();
-        result.add(new BasicIntrinsicsProvider(context).collectIntrinsics());
+        result.add(context.getLanguage().getIntrinsicProvider(getConfigurationName(), language -> new BasicIntrinsicsProvider(language).collectIntrinsics()));
         result.add(new BasicSystemContextExtension());
         if (context.getEnv().getOptions().get(SulongEngineOption.ENABLE_NFI)) {
             result.add(new NFIContextExtension(context.getEnv()));
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.graalvm.options.OptionDescriptor;
+
+import com.oracle.truffle.llvm.parser.factories.BasicNodeFactory;
+import com.oracle.truffle.llvm.parser.factories.BasicSystemContextExtension;
+import com.oracle.truffle.llvm.parser.factories.ManagedIntrinsicsProvider;
+import com.oracle.truffle.llvm.runtime.Configuration;
+import com.oracle.truffle.llvm.runtime.ContextExtension;
+import com.oracle.truffle.llvm.runtime.LLVMContext;
+import com.oracle.truffle.llvm.runtime.NFIContextExtension;
+import com.oracle.truffle.llvm.runtime.NodeFactory;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.memory.LLVMNativeMemory;
+import com.oracle.truffle.llvm.runtime.memory.UnsafeArrayAccess;
+import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
+
+/**
+ * Like the {@link BasicConfiguration}, but malloc, calloc, realloc and free allocate Java objects
+ * that are only copied to native memory when they escape. Stack and global memory is unchanged.
+ */
+public final class ManagedConfiguration implements Configuration {
+
+    @Override
+    public String getConfigurationName() {
+        return "managed";
+    }
+
+    @Override
+    public List<OptionDescriptor> getOptionDescriptors() {
+        // the options are shared with the basic configuration
+        return Collections.emptyList();
+    }
+
+    @Override
+    public NodeFactory createNodeFactory(LLVMContext context) {
+        return new BasicNodeFactory(context);
+    }
+
+    @Override
+    public List<ContextExtension> createContextExtensions(LLVMContext context) {
+        List<ContextExtension> result = new ArrayList<>();
+        result.add(context.getLanguage().getIntrinsicProvider(getConfigurationName(), language -> new ManagedIntrinsicsProvider(language).collectIntrinsics()));
+        result.add(new BasicSystemContextExtension());
+        if (context.getEnv().getOptions().get(SulongEngineOption.ENABLE_NFI)) {
+            result.add(new NFIContextExtension(context.getEnv()));
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public <E> E getCapability(Class<E> type) {
+        if (type.equals(LLVMMemory.class)) {
+            return type.cast(LLVMNativeMemory.getInstance());
+        } else if (type.equals(UnsafeArrayAccess.class)) {
+            return type.cast(UnsafeArrayAccess.getInstance());
+        }
+        return null;
+    }
+}
@@ -104,6 +104,7 @@ import com.oracle.truffle.llvm.runtime.except.LLVMLinkerException;
 import com.oracle.truffle.llvm.runtime.except.LLVMParserException;
 import com.oracle.truffle.llvm.runtime.global.LLVMGlobal;
 import com.oracle.truffle.llvm.runtime.global.LLVMGlobalContainer;
+import com.oracle.truffle.llvm.runtime.global.LLVMGlobalIndex;
 import com.oracle.truffle.llvm.runtime.interop.LLVMForeignCallNode;
 import com.oracle.truffle.llvm.runtime.interop.LLVMForeignCallNodeGen;
 import com.oracle.truffle.llvm.runtime.memory.LLVMAllocateStructNode;
@@ -404,13 +405,21 @@ public final class Runner {
         LLVMPointer nonPointerStore = allocationNode.executeWithTarget();
         LLVMScope fileScope = res.getRuntime().getFileScope();
 
-        HashMap<LLVMPointer, LLVMGlobal> reverseMap = new HashMap<>();
+        LLVMGlobalIndex.Builder globalsIndex = LLVMGlobalIndex.builder(nonPointerStore);
         int nonPointerOffset = 0;
         for (GlobalVariable global : res.getDefinedGlobals()) {
             Type type = global.getType().getPointeeType();
-            LLVMPointer ref;
+            LLVMGlobal descriptor = fileScope.getGlobalVariable(global.getName());
+            // because of our symbol overriding support, it can happen that the global was
+            // already bound before to a different target location
+            boolean bind = !descriptor.isInitialized();
+
             if (isSpecialGlobalSlot(global.getType().getPointeeType())) {
-                ref = LLVMManagedPointer.create(new LLVMGlobalContainer());
+                LLVMManagedPointer ref = LLVMManagedPointer.create(new LLVMGlobalContainer());
+                if (bind) {
+                    descriptor.setTarget(ref);
+                    globalsIndex.addContainer(ref, descriptor);
+                }
             } else {
                 // allocate at least one byte per global (to make the pointers unique)
                 if (type.getSize(dataLayout) == 0) {
@@ -418,20 +427,16 @@ public final class Runner {
                 }
                 int alignment = getAlignment(dataLayout, global, type);
                 nonPointerOffset += Type.getPadding(nonPointerOffset, alignment);
-                ref = nonPointerStore.increment(nonPointerOffset);
-                nonPointerOffset += type.getSize(dataLayout);
-            }
-
-            LLVMGlobal descriptor = fileScope.getGlobalVariable(global.getName());
-            if (!descriptor.isInitialized()) {
-                // because of our symbol overriding support, it can happen that the global was
-                // already bound before to a different target location
-                descriptor.setTarget(ref);
-                reverseMap.put(ref, descriptor);
+                int size = type.getSize(dataLayout);
+                if (bind) {
+                    descriptor.setTarget(nonPointerStore.increment(nonPointerOffset));
+                    globalsIndex.add(nonPointerOffset, size, descriptor);
+                }
+                nonPointerOffset += size;
             }
         }
 
-        context.registerGlobals(nonPointerStore, reverseMap);
+        context.registerGlobals(nonPointerStore, globalsIndex);
     }
 
     private static ArrayList<Type> getNonPointerTypes(LLVMParserResult res, DataLayout dataLayout) {
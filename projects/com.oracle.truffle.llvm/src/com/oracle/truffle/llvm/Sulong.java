@@ -74,6 +74,7 @@ public final class Sulong extends LLVMLanguage {
 
     static {
         configurations.add(new BasicConfiguration());
+        configurations.add(new ManagedConfiguration());
         for (Configuration f : ServiceLoader.load(Configuration.class)) {
             configurations.add(f);
         }
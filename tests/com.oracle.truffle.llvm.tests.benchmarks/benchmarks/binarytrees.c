@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdio.h>
+#include <stdlib.h>
+
+/* binary-trees from the Computer Language Benchmarks Game */
+
+#define MIN_DEPTH 4
+#define MAX_DEPTH 16
+
+struct node {
+    struct node *left;
+    struct node *right;
+};
+
+static struct node *create(int depth) {
+    struct node *n = malloc(sizeof(*n));
+    if (depth > 0) {
+        n->left = create(depth - 1);
+        n->right = create(depth - 1);
+    } else {
+        n->left = NULL;
+        n->right = NULL;
+    }
+    return n;
+}
+
+static int check(struct node *n) {
+    if (n->left == NULL) {
+        return 1;
+    }
+    return 1 + check(n->left) + check(n->right);
+}
+
+static void destroy(struct node *n) {
+    if (n->left != NULL) {
+        destroy(n->left);
+        destroy(n->right);
+    }
+    free(n);
+}
+
+int benchmark(void) {
+    int result = 0;
+    struct node *stretch = create(MAX_DEPTH + 1);
+    result += check(stretch);
+    destroy(stretch);
+
+    struct node *longLived = create(MAX_DEPTH);
+    for (int depth = MIN_DEPTH; depth <= MAX_DEPTH; depth += 2) {
+        int iterations = 1 << (MAX_DEPTH - depth + MIN_DEPTH);
+        for (int i = 0; i < iterations; i++) {
+            struct node *n = create(depth);
+            result += check(n);
+            destroy(n);
+        }
+    }
+    result += check(longLived);
+    destroy(longLived);
+    return result;
+}
+
+int main(void) {
+    printf("%d\n", benchmark());
+    return 0;
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+
+/*
+ * LZ77 compression with hash chains, followed by decompression and a CRC-32 of the compressed
+ * data. The input is generated text.
+ */
+
+#define INPUT_SIZE (256 * 1024)
+#define WINDOW_SIZE 4096
+#define HASH_BITS 12
+#define MIN_MATCH 3
+#define MAX_MATCH (127 + MIN_MATCH)
+#define MAX_CHAIN 16
+#define MAX_LITERALS 128
+
+static const char *const words[] = { "the",    "of",      "and",   "to",    "in",     "is",     "that",   "for",     "it",       "as",     "was",
+                                     "with",   "be",      "by",    "on",    "not",    "he",     "this",   "are",     "or",       "his",    "from",
+                                     "at",     "which",   "but",   "have",  "an",     "had",    "they",   "you",     "were",     "their",  "one",
+                                     "all",    "we",      "can",   "her",   "has",    "there",  "been",   "if",      "more",     "when",   "will",
+                                     "would",  "who",     "so",    "no",    "memory", "pointer", "frame", "compile", "bitcode", "native", "value",
+                                     "module", "runtime", "stack", "heap",  "symbol", "global", "thread", "signal",  "function" };
+
+static unsigned crc_table[256];
+
+static void init_crc_table(void) {
+    for (unsigned i = 0; i < 256; i++) {
+        unsigned c = i;
+        for (int k = 0; k < 8; k++) {
+            c = (c & 1) ? 0xedb88320u ^ (c >> 1) : c >> 1;
+        }
+        crc_table[i] = c;
+    }
+}
+
+static unsigned crc32(const unsigned char *data, int length) {
+    unsigned crc = 0xffffffffu;
+    for (int i = 0; i < length; i++) {
+        crc = crc_table[(crc ^ data[i]) & 0xff] ^ (crc >> 8);
+    }
+    return crc ^ 0xffffffffu;
+}
+
+static void generate_input(unsigned char *input) {
+    unsigned seed = 7;
+    int pos = 0;
+    while (pos < INPUT_SIZE) {
+        seed = seed * 1103515245 + 12345;
+        const char *word = words[(seed >> 16) % (sizeof(words) / sizeof(words[0]))];
+        while (*word != '\0' && pos < INPUT_SIZE) {
+            input[pos++] = (unsigned char) *word++;
+        }
+        if (pos < INPUT_SIZE) {
+            input[pos++] = (seed >> 8) % 13 == 0 ? '\n' : ' ';
+        }
+    }
+}
+
+static unsigned hash3(const unsigned char *p) {
+    return ((p[0] << 16 | p[1] << 8 | p[2]) * 2654435761u) >> (32 - HASH_BITS);
+}
+
+static int flush_literals(unsigned char *out, int outPos, const unsigned char *literals, int count) {
+    if (count > 0) {
+        out[outPos++] = (unsigned char) (count - 1);
+        memcpy(out + outPos, literals, count);
+        outPos += count;
+    }
+    return outPos;
+}
+
+/*
+ * Tokens start with a control byte. Values below 128 are followed by that many literals (plus
+ * one), larger values encode a match of length (control - 128 + MIN_MATCH) that is followed by a
+ * two-byte offset.
+ */
+static int compress(const unsigned char *in, int length, unsigned char *out) {
+    int *head = malloc((1 << HASH_BITS) * sizeof(int));
+    int *prev = malloc(WINDOW_SIZE * sizeof(int));
+    for (int i = 0; i < (1 << HASH_BITS); i++) {
+        head[i] = -1;
+    }
+
+    int outPos = 0;
+    int literalStart = 0;
+    int pos = 0;
+    while (pos < length) {
+        int bestLength = 0;
+        int bestOffset = 0;
+        if (pos + MIN_MATCH <= length) {
+            unsigned h = hash3(in + pos);
+            int candidate = head[h];
+            int maxLength = length - pos < MAX_MATCH ? length - pos : MAX_MATCH;
+            for (int chain = 0; chain < MAX_CHAIN && candidate >= 0 && pos - candidate < WINDOW_SIZE; chain++) {
+                int l = 0;
+                while (l < maxLength && in[candidate + l] == in[pos + l]) {
+                    l++;
+                }
+                if (l > bestLength) {
+                    bestLength = l;
+                    bestOffset = pos - candidate;
+                }
+                candidate = prev[candidate % WINDOW_SIZE];
+            }
+            prev[pos % WINDOW_SIZE] = head[h];
+            head[h] = pos;
+        }
+
+        if (bestLength >= MIN_MATCH) {
+            outPos = flush_literals(out, outPos, in + literalStart, pos - literalStart);
+            out[outPos++] = (unsigned char) (128 + bestLength - MIN_MATCH);
+            out[outPos++] = (unsigned char) (bestOffset >> 8);
+            out[outPos++] = (unsigned char) bestOffset;
+            for (int i = 1; i < bestLength; i++) {
+                if (pos + i + MIN_MATCH <= length) {
+                    unsigned h = hash3(in + pos + i);
+                    prev[(pos + i) % WINDOW_SIZE] = head[h];
+                    head[h] = pos + i;
+                }
+            }
+            pos += bestLength;
+            literalStart = pos;
+        } else {
+            pos++;
+            if (pos - literalStart == MAX_LITERALS) {
+                outPos = flush_literals(out, outPos, in + literalStart, MAX_LITERALS);
+                literalStart = pos;
+            }
+        }
+    }
+    outPos = flush_literals(out, outPos, in + literalStart, pos - literalStart);
+    free(head);
+    free(prev);
+    return outPos;
+}
+
+static int decompress(const unsigned char *in, int length, unsigned char *out) {
+    int inPos = 0;
+    int outPos = 0;
+    while (inPos < length) {
+        int control = in[inPos++];
+        if (control < 128) {
+            int count = control + 1;
+            memcpy(out + outPos, in + inPos, count);
+            inPos += count;
+            outPos += count;
+        } else {
+            int matchLength = control - 128 + MIN_MATCH;
+            int offset = in[inPos] << 8 | in[inPos + 1];
+            inPos += 2;
+            for (int i = 0; i < matchLength; i++) {
+                out[outPos + i] = out[outPos - offset + i];
+            }
+            outPos += matchLength;
+        }
+    }
+    return outPos;
+}
+
+int benchmark(void) {
+    unsigned char *input = malloc(INPUT_SIZE);
+    unsigned char *compressed = malloc(INPUT_SIZE + INPUT_SIZE / MAX_LITERALS + 16);
+    unsigned char *output = malloc(INPUT_SIZE);
+    init_crc_table();
+    generate_input(input);
+
+    int compressedLength = compress(input, INPUT_SIZE, compressed);
+    int outputLength = decompress(compressed, compressedLength, output);
+    int result;
+    if (outputLength != INPUT_SIZE || memcmp(input, output, INPUT_SIZE) != 0) {
+        result = -1;
+    } else {
+        result = (int) crc32(compressed, compressedLength) ^ compressedLength;
+    }
+    free(input);
+    free(compressed);
+    free(output);
+    return result;
+}
+
+int main(void) {
+    printf("%d\n", benchmark());
+    return 0;
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdint.h>
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+
+/* SHA-256 hashing and ChaCha20 encryption of a generated buffer. */
+
+#define DATA_SIZE (512 * 1024)
+
+#define ROTR32(x, n) (((x) >> (n)) | ((x) << (32 - (n))))
+#define ROTL32(x, n) (((x) << (n)) | ((x) >> (32 - (n))))
+
+static const uint32_t k[64] = { 0x428a2f98, 0x71374491, 0xb5c0fbcf, 0xe9b5dba5, 0x3956c25b, 0x59f111f1, 0x923f82a4, 0xab1c5ed5, 0xd807aa98, 0x12835b01, 0x243185be,
+                                0x550c7dc3, 0x72be5d74, 0x80deb1fe, 0x9bdc06a7, 0xc19bf174, 0xe49b69c1, 0xefbe4786, 0x0fc19dc6, 0x240ca1cc, 0x2de92c6f, 0x4a7484aa,
+                                0x5cb0a9dc, 0x76f988da, 0x983e5152, 0xa831c66d, 0xb00327c8, 0xbf597fc7, 0xc6e00bf3, 0xd5a79147, 0x06ca6351, 0x14292967, 0x27b70a85,
+                                0x2e1b2138, 0x4d2c6dfc, 0x53380d13, 0x650a7354, 0x766a0abb, 0x81c2c92e, 0x92722c85, 0xa2bfe8a1, 0xa81a664b, 0xc24b8b70, 0xc76c51a3,
+                                0xd192e819, 0xd6990624, 0xf40e3585, 0x106aa070, 0x19a4c116, 0x1e376c08, 0x2748774c, 0x34b0bcb5, 0x391c0cb3, 0x4ed8aa4a, 0x5b9cca4f,
+                                0x682e6ff3, 0x748f82ee, 0x78a5636f, 0x84c87814, 0x8cc70208, 0x90befffa, 0xa4506ceb, 0xbef9a3f7, 0xc67178f2 };
+
+static void sha256_block(uint32_t *state, const uint8_t *block) {
+    uint32_t w[64];
+    for (int i = 0; i < 16; i++) {
+        w[i] = (uint32_t) block[4 * i] << 24 | (uint32_t) block[4 * i + 1] << 16 | (uint32_t) block[4 * i + 2] << 8 | block[4 * i + 3];
+    }
+    for (int i = 16; i < 64; i++) {
+        uint32_t s0 = ROTR32(w[i - 15], 7) ^ ROTR32(w[i - 15], 18) ^ (w[i - 15] >> 3);
+        uint32_t s1 = ROTR32(w[i - 2], 17) ^ ROTR32(w[i - 2], 19) ^ (w[i - 2] >> 10);
+        w[i] = w[i - 16] + s0 + w[i - 7] + s1;
+    }
+
+    uint32_t a = state[0], b = state[1], c = state[2], d = state[3];
+    uint32_t e = state[4], f = state[5], g = state[6], h = state[7];
+    for (int i = 0; i < 64; i++) {
+        uint32_t s1 = ROTR32(e, 6) ^ ROTR32(e, 11) ^ ROTR32(e, 25);
+        uint32_t ch = (e & f) ^ (~e & g);
+        uint32_t t1 = h + s1 + ch + k[i] + w[i];
+        uint32_t s0 = ROTR32(a, 2) ^ ROTR32(a, 13) ^ ROTR32(a, 22);
+        uint32_t maj = (a & b) ^ (a & c) ^ (b & c);
+        uint32_t t2 = s0 + maj;
+        h = g;
+        g = f;
+        f = e;
+        e = d + t1;
+        d = c;
+        c = b;
+        b = a;
+        a = t1 + t2;
+    }
+    state[0] += a;
+    state[1] += b;
+    state[2] += c;
+    state[3] += d;
+    state[4] += e;
+    state[5] += f;
+    state[6] += g;
+    state[7] += h;
+}
+
+static void sha256(const uint8_t *data, size_t length, uint32_t *state) {
+    static const uint32_t initial[8] = { 0x6a09e667, 0xbb67ae85, 0x3c6ef372, 0xa54ff53a, 0x510e527f, 0x9b05688c, 0x1f83d9ab, 0x5be0cd19 };
+    memcpy(state, initial, sizeof(initial));
+
+    size_t offset = 0;
+    for (; offset + 64 <= length; offset += 64) {
+        sha256_block(state, data + offset);
+    }
+
+    uint8_t last[128] = { 0 };
+    size_t rest = length - offset;
+    memcpy(last, data + offset, rest);
+    last[rest] = 0x80;
+    size_t lastLength = rest + 9 <= 64 ? 64 : 128;
+    uint64_t bits = (uint64_t) length * 8;
+    for (int i = 0; i < 8; i++) {
+        last[lastLength - 1 - i] = (uint8_t) (bits >> (8 * i));
+    }
+    for (size_t i = 0; i < lastLength; i += 64) {
+        sha256_block(state, last + i);
+    }
+}
+
+#define QUARTER_ROUND(a, b, c, d)                                                                                                                                        \
+    a += b;                                                                                                                                                              \
+    d = ROTL32(d ^ a, 16);                                                                                                                                               \
+    c += d;                                                                                                                                                              \
+    b = ROTL32(b ^ c, 12);                                                                                                                                               \
+    a += b;                                                                                                                                                              \
+    d = ROTL32(d ^ a, 8);                                                                                                                                                \
+    c += d;                                                                                                                                                              \
+    b = ROTL32(b ^ c, 7);
+
+static void chacha20_block(const uint32_t *input, uint8_t *output) {
+    uint32_t x[16];
+    memcpy(x, input, sizeof(x));
+    for (int i = 0; i < 10; i++) {
+        QUARTER_ROUND(x[0], x[4], x[8], x[12]);
+        QUARTER_ROUND(x[1], x[5], x[9], x[13]);
+        QUARTER_ROUND(x[2], x[6], x[10], x[14]);
+        QUARTER_ROUND(x[3], x[7], x[11], x[15]);
+        QUARTER_ROUND(x[0], x[5], x[10], x[15]);
+        QUARTER_ROUND(x[1], x[6], x[11], x[12]);
+        QUARTER_ROUND(x[2], x[7], x[8], x[13]);
+        QUARTER_ROUND(x[3], x[4], x[9], x[14]);
+    }
+    for (int i = 0; i < 16; i++) {
+        uint32_t v = x[i] + input[i];
+        output[4 * i] = (uint8_t) v;
+        output[4 * i + 1] = (uint8_t) (v >> 8);
+        output[4 * i + 2] = (uint8_t) (v >> 16);
+        output[4 * i + 3] = (uint8_t) (v >> 24);
+    }
+}
+
+static void chacha20(const uint32_t *key, const uint32_t *nonce, uint8_t *data, size_t length) {
+    uint32_t state[16] = { 0x61707865, 0x3320646e, 0x79622d32, 0x6b206574 };
+    memcpy(state + 4, key, 8 * sizeof(uint32_t));
+    state[12] = 1;
+    memcpy(state + 13, nonce, 3 * sizeof(uint32_t));
+
+    uint8_t keyStream[64];
+    for (size_t offset = 0; offset < length; offset += 64) {
+        chacha20_block(state, keyStream);
+        state[12]++;
+        size_t blockLength = length - offset < 64 ? length - offset : 64;
+        for (size_t i = 0; i < blockLength; i++) {
+            data[offset + i] ^= keyStream[i];
+        }
+    }
+}
+
+int benchmark(void) {
+    uint8_t *data = malloc(DATA_SIZE);
+    uint32_t seed = 1;
+    for (int i = 0; i < DATA_SIZE; i++) {
+        seed = seed * 1664525 + 1013904223;
+        data[i] = (uint8_t) (seed >> 24);
+    }
+
+    uint32_t key[8] = { 0x03020100, 0x07060504, 0x0b0a0908, 0x0f0e0d0c, 0x13121110, 0x17161514, 0x1b1a1918, 0x1f1e1d1c };
+    uint32_t nonce[3] = { 0x09000000, 0x4a000000, 0x00000000 };
+    chacha20(key, nonce, data, DATA_SIZE);
+
+    uint32_t digest[8];
+    sha256(data, DATA_SIZE, digest);
+    free(data);
+
+    uint32_t result = 0;
+    for (int i = 0; i < 8; i++) {
+        result = result * 31 + digest[i];
+    }
+    return (int) result;
+}
+
+int main(void) {
+    printf("%d\n", benchmark());
+    return 0;
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdio.h>
+
+/* fannkuch-redux from the Computer Language Benchmarks Game */
+
+#define N 9
+
+int benchmark(void) {
+    int perm[N];
+    int perm1[N];
+    int count[N];
+    int maxFlips = 0;
+    int checksum = 0;
+    int permCount = 0;
+    int r = N;
+
+    for (int i = 0; i < N; i++) {
+        perm1[i] = i;
+    }
+
+    for (;;) {
+        while (r != 1) {
+            count[r - 1] = r;
+            r--;
+        }
+
+        for (int i = 0; i < N; i++) {
+            perm[i] = perm1[i];
+        }
+        int flips = 0;
+        int k;
+        while ((k = perm[0]) != 0) {
+            for (int i = 0, j = k; i < j; i++, j--) {
+                int t = perm[i];
+                perm[i] = perm[j];
+                perm[j] = t;
+            }
+            flips++;
+        }
+        if (flips > maxFlips) {
+            maxFlips = flips;
+        }
+        checksum += (permCount % 2 == 0) ? flips : -flips;
+
+        for (;;) {
+            if (r == N) {
+                return checksum * 100 + maxFlips;
+            }
+            int perm0 = perm1[0];
+            for (int i = 0; i < r; i++) {
+                perm1[i] = perm1[i + 1];
+            }
+            perm1[r] = perm0;
+            count[r]--;
+            if (count[r] > 0) {
+                break;
+            }
+            r++;
+        }
+        permCount++;
+    }
+}
+
+int main(void) {
+    printf("%d\n", benchmark());
+    return 0;
+}
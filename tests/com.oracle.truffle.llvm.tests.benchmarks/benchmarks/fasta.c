@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+
+/* fasta from the Computer Language Benchmarks Game, writing into a buffer instead of stdout */
+
+#define IM 139968
+#define IA 3877
+#define IC 29573
+#define LINE_LENGTH 60
+#define SEQUENCE_LENGTH 250000
+
+struct amino {
+    char c;
+    double p;
+};
+
+static const char alu[] = "GGCCGGGCGCGGTGGCTCACGCCTGTAATCCCAGCACTTTGG"
+                          "GAGGCCGAGGCGGGCGGATCACCTGAGGTCAGGAGTTCGAGA"
+                          "CCAGCCTGGCCAACATGGTGAAACCCCGTCTCTACTAAAAAT"
+                          "ACAAAAATTAGCCGGGCGTGGTGGCGCGCGCCTGTAATCCCA"
+                          "GCTACTCGGGAGGCTGAGGCAGGAGAATCGCTTGAACCCGGG"
+                          "AGGCGGAGGTTGCAGTGAGCCGAGATCGCGCCACTGCACTCC"
+                          "AGCCTGGGCGACAGAGCGAGACTCCGTCTCAAAAA";
+
+static struct amino iub[] = { { 'a', 0.27 }, { 'c', 0.12 }, { 'g', 0.12 }, { 't', 0.27 }, { 'B', 0.02 }, { 'D', 0.02 }, { 'H', 0.02 }, { 'K', 0.02 },
+                              { 'M', 0.02 }, { 'N', 0.02 }, { 'R', 0.02 }, { 'S', 0.02 }, { 'V', 0.02 }, { 'W', 0.02 }, { 'Y', 0.02 } };
+
+static struct amino homosapiens[] = { { 'a', 0.3029549426680 }, { 'c', 0.1979883004921 }, { 'g', 0.1975473066391 }, { 't', 0.3015094502008 } };
+
+static unsigned last = 42;
+
+static double random_number(double max) {
+    last = (last * IA + IC) % IM;
+    return max * last / IM;
+}
+
+static void make_cumulative(struct amino *table, int size) {
+    double p = 0;
+    for (int i = 0; i < size; i++) {
+        p += table[i].p;
+        table[i].p = p;
+    }
+}
+
+static char *repeat_fasta(char *out, const char *s, int n) {
+    int len = strlen(s);
+    int pos = 0;
+    while (n > 0) {
+        int line = n < LINE_LENGTH ? n : LINE_LENGTH;
+        for (int i = 0; i < line; i++) {
+            *out++ = s[pos];
+            pos = pos + 1 == len ? 0 : pos + 1;
+        }
+        *out++ = '\n';
+        n -= line;
+    }
+    return out;
+}
+
+static char *random_fasta(char *out, const struct amino *table, int size, int n) {
+    while (n > 0) {
+        int line = n < LINE_LENGTH ? n : LINE_LENGTH;
+        for (int i = 0; i < line; i++) {
+            double r = random_number(1.0);
+            int j = 0;
+            while (j < size - 1 && r >= table[j].p) {
+                j++;
+            }
+            *out++ = table[j].c;
+        }
+        *out++ = '\n';
+        n -= line;
+    }
+    return out;
+}
+
+int benchmark(void) {
+    struct amino iubCumulative[sizeof(iub) / sizeof(iub[0])];
+    struct amino homosapiensCumulative[sizeof(homosapiens) / sizeof(homosapiens[0])];
+    memcpy(iubCumulative, iub, sizeof(iub));
+    memcpy(homosapiensCumulative, homosapiens, sizeof(homosapiens));
+    make_cumulative(iubCumulative, sizeof(iub) / sizeof(iub[0]));
+    make_cumulative(homosapiensCumulative, sizeof(homosapiens) / sizeof(homosapiens[0]));
+
+    int n = SEQUENCE_LENGTH;
+    char *buffer = malloc((size_t) n * 10 * (LINE_LENGTH + 1) / LINE_LENGTH + 1024);
+    char *out = buffer;
+    last = 42;
+    out = repeat_fasta(out, alu, n * 2);
+    out = random_fasta(out, iubCumulative, sizeof(iub) / sizeof(iub[0]), n * 3);
+    out = random_fasta(out, homosapiensCumulative, sizeof(homosapiens) / sizeof(homosapiens[0]), n * 5);
+
+    unsigned hash = 0;
+    for (char *p = buffer; p < out; p++) {
+        hash = hash * 31 + (unsigned char) *p;
+    }
+    free(buffer);
+    return (int) hash;
+}
+
+int main(void) {
+    printf("%d\n", benchmark());
+    return 0;
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdio.h>
+
+/*
+ * A stack-based bytecode interpreter that counts primes by trial division. With
+ * USE_COMPUTED_GOTOS, the opcodes are dispatched as threaded code like in CPython's ceval.
+ */
+
+#define LIMIT 30000
+
+enum opcode { OP_PUSH, OP_LOAD, OP_STORE, OP_ADD, OP_MUL, OP_MOD, OP_LT, OP_JMP, OP_JZ, OP_HALT };
+
+enum reg { R_N, R_D, R_COUNT, REGISTERS };
+
+struct program {
+    int code[128];
+    int length;
+};
+
+static int emit(struct program *p, int op) {
+    p->code[p->length++] = op;
+    return p->length - 1;
+}
+
+static int emit_arg(struct program *p, int op, int arg) {
+    p->code[p->length++] = op;
+    p->code[p->length++] = arg;
+    return p->length - 1;
+}
+
+static void patch(struct program *p, int location) {
+    p->code[location] = p->length;
+}
+
+static void compile(struct program *p) {
+    p->length = 0;
+    emit_arg(p, OP_PUSH, 2);
+    emit_arg(p, OP_STORE, R_N);
+    emit_arg(p, OP_PUSH, 0);
+    emit_arg(p, OP_STORE, R_COUNT);
+
+    /* while (n < LIMIT) */
+    int outer = p->length;
+    emit_arg(p, OP_LOAD, R_N);
+    emit_arg(p, OP_PUSH, LIMIT);
+    emit(p, OP_LT);
+    int exitLoop = emit_arg(p, OP_JZ, 0);
+    emit_arg(p, OP_PUSH, 2);
+    emit_arg(p, OP_STORE, R_D);
+
+    /* while (!(n < d * d)) */
+    int inner = p->length;
+    emit_arg(p, OP_LOAD, R_N);
+    emit_arg(p, OP_LOAD, R_D);
+    emit_arg(p, OP_LOAD, R_D);
+    emit(p, OP_MUL);
+    emit(p, OP_LT);
+    int checkDivisor = emit_arg(p, OP_JZ, 0);
+    int isPrime = emit_arg(p, OP_JMP, 0);
+
+    /* if (n % d == 0) the number is not prime, otherwise try the next divisor */
+    patch(p, checkDivisor);
+    emit_arg(p, OP_LOAD, R_N);
+    emit_arg(p, OP_LOAD, R_D);
+    emit(p, OP_MOD);
+    int notPrime = emit_arg(p, OP_JZ, 0);
+    emit_arg(p, OP_LOAD, R_D);
+    emit_arg(p, OP_PUSH, 1);
+    emit(p, OP_ADD);
+    emit_arg(p, OP_STORE, R_D);
+    emit_arg(p, OP_JMP, inner);
+
+    patch(p, isPrime);
+    emit_arg(p, OP_LOAD, R_COUNT);
+    emit_arg(p, OP_PUSH, 1);
+    emit(p, OP_ADD);
+    emit_arg(p, OP_STORE, R_COUNT);
+
+    patch(p, notPrime);
+    emit_arg(p, OP_LOAD, R_N);
+    emit_arg(p, OP_PUSH, 1);
+    emit(p, OP_ADD);
+    emit_arg(p, OP_STORE, R_N);
+    emit_arg(p, OP_JMP, outer);
+
+    patch(p, exitLoop);
+    emit_arg(p, OP_LOAD, R_COUNT);
+    emit(p, OP_HALT);
+}
+
+#ifdef USE_COMPUTED_GOTOS
+static int execute(const int *code) {
+    static void *const dispatch[] = { &&op_push, &&op_load, &&op_store, &&op_add, &&op_mul, &&op_mod, &&op_lt, &&op_jmp, &&op_jz, &&op_halt };
+    int stack[16];
+    int regs[REGISTERS] = { 0 };
+    int sp = 0;
+    int pc = 0;
+
+#define DISPATCH() goto *dispatch[code[pc++]]
+    DISPATCH();
+op_push:
+    stack[sp++] = code[pc++];
+    DISPATCH();
+op_load:
+    stack[sp++] = regs[code[pc++]];
+    DISPATCH();
+op_store:
+    regs[code[pc++]] = stack[--sp];
+    DISPATCH();
+op_add:
+    sp--;
+    stack[sp - 1] += stack[sp];
+    DISPATCH();
+op_mul:
+    sp--;
+    stack[sp - 1] *= stack[sp];
+    DISPATCH();
+op_mod:
+    sp--;
+    stack[sp - 1] %= stack[sp];
+    DISPATCH();
+op_lt:
+    sp--;
+    stack[sp - 1] = stack[sp - 1] < stack[sp];
+    DISPATCH();
+op_jmp:
+    pc = code[pc];
+    DISPATCH();
+op_jz:
+    if (stack[--sp] == 0) {
+        pc = code[pc];
+    } else {
+        pc++;
+    }
+    DISPATCH();
+op_halt:
+    return stack[sp - 1];
+#undef DISPATCH
+}
+#else
+static int execute(const int *code) {
+    int stack[16];
+    int regs[REGISTERS] = { 0 };
+    int sp = 0;
+    int pc = 0;
+    for (;;) {
+        switch (code[pc++]) {
+            case OP_PUSH:
+                stack[sp++] = code[pc++];
+                break;
+            case OP_LOAD:
+                stack[sp++] = regs[code[pc++]];
+                break;
+            case OP_STORE:
+                regs[code[pc++]] = stack[--sp];
+                break;
+            case OP_ADD:
+                sp--;
+                stack[sp - 1] += stack[sp];
+                break;
+            case OP_MUL:
+                sp--;
+                stack[sp - 1] *= stack[sp];
+                break;
+            case OP_MOD:
+                sp--;
+                stack[sp - 1] %= stack[sp];
+                break;
+            case OP_LT:
+                sp--;
+                stack[sp - 1] = stack[sp - 1] < stack[sp];
+                break;
+            case OP_JMP:
+                pc = code[pc];
+                break;
+            case OP_JZ:
+                if (stack[--sp] == 0) {
+                    pc = code[pc];
+                } else {
+                    pc++;
+                }
+                break;
+            case OP_HALT:
+                return stack[sp - 1];
+            default:
+                return -1;
+        }
+    }
+}
+#endif
+
+int benchmark(void) {
+    struct program p;
+    compile(&p);
+    return execute(p.code);
+}
+
+int main(void) {
+    printf("%d\n", benchmark());
+    return 0;
+}
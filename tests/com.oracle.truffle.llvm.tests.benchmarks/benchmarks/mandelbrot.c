@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdio.h>
+
+/* mandelbrot from the Computer Language Benchmarks Game, without writing the bitmap */
+
+#define SIZE 400
+#define ITERATIONS 50
+
+int benchmark(void) {
+    unsigned hash = 0;
+    for (int y = 0; y < SIZE; y++) {
+        double ci = 2.0 * y / SIZE - 1.0;
+        unsigned char bits = 0;
+        for (int x = 0; x < SIZE; x++) {
+            double cr = 2.0 * x / SIZE - 1.5;
+            double zr = 0;
+            double zi = 0;
+            double tr = 0;
+            double ti = 0;
+            int i;
+            for (i = 0; i < ITERATIONS && tr + ti <= 4.0; i++) {
+                zi = 2.0 * zr * zi + ci;
+                zr = tr - ti + cr;
+                tr = zr * zr;
+                ti = zi * zi;
+            }
+            bits = (unsigned char) ((bits << 1) | (tr + ti <= 4.0));
+            if ((x & 7) == 7) {
+                hash = hash * 31 + bits;
+                bits = 0;
+            }
+        }
+    }
+    return (int) hash;
+}
+
+int main(void) {
+    printf("%d\n", benchmark());
+    return 0;
+}
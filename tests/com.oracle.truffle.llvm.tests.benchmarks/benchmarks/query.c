@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdio.h>
+#include <stdlib.h>
+
+/*
+ * Relational queries on generated in-memory tables: a hash join with aggregation, a filtered
+ * group-by with a hash table, and a top-k order by.
+ */
+
+#define ORDERS 200000
+#define CUSTOMERS 5000
+#define PRODUCTS 10000
+#define REGIONS 10
+#define TOP 10
+
+struct order {
+    int id;
+    int customer;
+    int product;
+    int quantity;
+    int price;
+};
+
+struct customer {
+    int id;
+    int region;
+};
+
+struct group {
+    int key;
+    int count;
+    long sum;
+};
+
+static unsigned seed;
+
+static int next_random(int bound) {
+    seed = seed * 1103515245 + 12345;
+    return (int) ((seed >> 8) % (unsigned) bound);
+}
+
+static unsigned hash(int key) {
+    unsigned h = (unsigned) key * 2654435761u;
+    return h ^ (h >> 15);
+}
+
+/* SELECT c.region, SUM(o.quantity * o.price) FROM orders o JOIN customers c ON o.customer = c.id GROUP BY c.region */
+static long revenue_by_region(const struct order *orders, const struct customer *customers) {
+    int capacity = 2 * CUSTOMERS;
+    int *index = malloc(capacity * sizeof(int));
+    for (int i = 0; i < capacity; i++) {
+        index[i] = -1;
+    }
+    for (int i = 0; i < CUSTOMERS; i++) {
+        unsigned slot = hash(customers[i].id) % capacity;
+        while (index[slot] != -1) {
+            slot = (slot + 1) % capacity;
+        }
+        index[slot] = i;
+    }
+
+    long revenue[REGIONS] = { 0 };
+    for (int i = 0; i < ORDERS; i++) {
+        unsigned slot = hash(orders[i].customer) % capacity;
+        while (index[slot] != -1) {
+            const struct customer *c = &customers[index[slot]];
+            if (c->id == orders[i].customer) {
+                revenue[c->region] += (long) orders[i].quantity * orders[i].price;
+                break;
+            }
+            slot = (slot + 1) % capacity;
+        }
+    }
+    free(index);
+
+    long result = 0;
+    for (int i = 0; i < REGIONS; i++) {
+        result = result * 31 + revenue[i];
+    }
+    return result;
+}
+
+/* SELECT product, COUNT(*), SUM(quantity) FROM orders WHERE quantity > 5 GROUP BY product HAVING COUNT(*) > 8 */
+static long popular_products(const struct order *orders) {
+    int capacity = 2 * PRODUCTS;
+    struct group *groups = malloc(capacity * sizeof(struct group));
+    for (int i = 0; i < capacity; i++) {
+        groups[i].key = -1;
+    }
+    for (int i = 0; i < ORDERS; i++) {
+        if (orders[i].quantity <= 5) {
+            continue;
+        }
+        unsigned slot = hash(orders[i].product) % capacity;
+        while (groups[slot].key != -1 && groups[slot].key != orders[i].product) {
+            slot = (slot + 1) % capacity;
+        }
+        if (groups[slot].key == -1) {
+            groups[slot].key = orders[i].product;
+            groups[slot].count = 0;
+            groups[slot].sum = 0;
+        }
+        groups[slot].count++;
+        groups[slot].sum += orders[i].quantity;
+    }
+
+    long result = 0;
+    for (int i = 0; i < capacity; i++) {
+        if (groups[i].key != -1 && groups[i].count > 8) {
+            result += groups[i].key * groups[i].sum;
+        }
+    }
+    free(groups);
+    return result;
+}
+
+/* SELECT id FROM orders ORDER BY price DESC, id LIMIT 10 */
+static long most_expensive(const struct order *orders) {
+    const struct order *top[TOP];
+    int size = 0;
+    for (int i = 0; i < ORDERS; i++) {
+        const struct order *o = &orders[i];
+        if (size == TOP && o->price <= top[size - 1]->price) {
+            continue;
+        }
+        int j = size < TOP ? size++ : TOP - 1;
+        while (j > 0 && top[j - 1]->price < o->price) {
+            top[j] = top[j - 1];
+            j--;
+        }
+        top[j] = o;
+    }
+
+    long result = 0;
+    for (int i = 0; i < size; i++) {
+        result = result * 31 + top[i]->id;
+    }
+    return result;
+}
+
+int benchmark(void) {
+    struct order *orders = malloc(ORDERS * sizeof(struct order));
+    struct customer *customers = malloc(CUSTOMERS * sizeof(struct customer));
+    seed = 42;
+    for (int i = 0; i < CUSTOMERS; i++) {
+        customers[i].id = i * 7 + 3;
+        customers[i].region = next_random(REGIONS);
+    }
+    for (int i = 0; i < ORDERS; i++) {
+        orders[i].id = i;
+        orders[i].customer = customers[next_random(CUSTOMERS)].id;
+        orders[i].product = next_random(PRODUCTS);
+        orders[i].quantity = 1 + next_random(10);
+        orders[i].price = 100 + next_random(100000);
+    }
+
+    long result = revenue_by_region(orders, customers);
+    result = result * 31 + popular_products(orders);
+    result = result * 31 + most_expensive(orders);
+    free(orders);
+    free(customers);
+    return (int) (result ^ (result >> 32));
+}
+
+int main(void) {
+    printf("%d\n", benchmark());
+    return 0;
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <math.h>
+#include <stdio.h>
+#include <stdlib.h>
+
+/* spectral-norm from the Computer Language Benchmarks Game */
+
+#define N 300
+
+static double eval_a(int i, int j) {
+    return 1.0 / ((i + j) * (i + j + 1) / 2 + i + 1);
+}
+
+static void multiply_av(int n, const double *v, double *av) {
+    for (int i = 0; i < n; i++) {
+        double sum = 0;
+        for (int j = 0; j < n; j++) {
+            sum += eval_a(i, j) * v[j];
+        }
+        av[i] = sum;
+    }
+}
+
+static void multiply_atv(int n, const double *v, double *atv) {
+    for (int i = 0; i < n; i++) {
+        double sum = 0;
+        for (int j = 0; j < n; j++) {
+            sum += eval_a(j, i) * v[j];
+        }
+        atv[i] = sum;
+    }
+}
+
+static void multiply_atav(int n, const double *v, double *atav, double *tmp) {
+    multiply_av(n, v, tmp);
+    multiply_atv(n, tmp, atav);
+}
+
+int benchmark(void) {
+    double *u = malloc(N * sizeof(double));
+    double *v = malloc(N * sizeof(double));
+    double *tmp = malloc(N * sizeof(double));
+    for (int i = 0; i < N; i++) {
+        u[i] = 1;
+    }
+    for (int i = 0; i < 10; i++) {
+        multiply_atav(N, u, v, tmp);
+        multiply_atav(N, v, u, tmp);
+    }
+    double vbv = 0;
+    double vv = 0;
+    for (int i = 0; i < N; i++) {
+        vbv += u[i] * v[i];
+        vv += v[i] * v[i];
+    }
+    free(u);
+    free(v);
+    free(tmp);
+    return (int) (sqrt(vbv / vv) * 1e9);
+}
+
+int main(void) {
+    printf("%d\n", benchmark());
+    return 0;
+}
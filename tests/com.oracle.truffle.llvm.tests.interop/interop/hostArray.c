@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdint.h>
+#include <stdlib.h>
+#include <string.h>
+
+/*
+ * The arrays are host primitive arrays, so the element accesses below and the copies between them
+ * and native memory go through the direct host array access.
+ */
+
+#define ACCESSORS(name, type)                                                                                                                        \
+  type get_##name(type *a, int idx) { return a[idx]; }                                                                                               \
+  void set_##name(type *a, int idx, type value) { a[idx] = value; }
+
+ACCESSORS(i8, int8_t)
+ACCESSORS(i16, int16_t)
+ACCESSORS(u16, uint16_t)
+ACCESSORS(i32, int32_t)
+ACCESSORS(i64, int64_t)
+ACCESSORS(float, float)
+ACCESSORS(double, double)
+
+/*
+ * Copies the host array to native memory, increments every element there and copies it back to
+ * the host array, shifted by one element.
+ */
+int64_t increment_i32(int32_t *a, int length) {
+  int32_t *buffer = malloc(length * sizeof(int32_t));
+  memcpy(buffer, a, length * sizeof(int32_t));
+  int64_t sum = 0;
+  for (int i = 0; i < length; i++) {
+    sum += buffer[i];
+    buffer[i]++;
+  }
+  memmove(a + 1, buffer, (length - 1) * sizeof(int32_t));
+  free(buffer);
+  return sum;
+}
+
+int64_t increment_i8(int8_t *a, int length) {
+  int8_t *buffer = malloc(length);
+  memcpy(buffer, a, length);
+  int64_t sum = 0;
+  for (int i = 0; i < length; i++) {
+    sum += buffer[i];
+    buffer[i]++;
+  }
+  memmove(a + 1, buffer, length - 1);
+  free(buffer);
+  return sum;
+}
+
+double increment_double(double *a, int length) {
+  double *buffer = malloc(length * sizeof(double));
+  memcpy(buffer, a, length * sizeof(double));
+  double sum = 0;
+  for (int i = 0; i < length; i++) {
+    sum += buffer[i];
+    buffer[i]++;
+  }
+  memmove(a + 1, buffer, (length - 1) * sizeof(double));
+  free(buffer);
+  return sum;
+}
+
+/*
+ * Copies a byte range that does not start at an element boundary from a host int array.
+ */
+int64_t copy_unaligned(int32_t *a) {
+  int32_t value = 0;
+  memcpy(&value, (char *) a + 2, sizeof(int32_t));
+  return value;
+}
+
+int main() { return 0; }
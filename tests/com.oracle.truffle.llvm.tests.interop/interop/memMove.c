@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdlib.h>
+#include <string.h>
+#include <truffle.h>
+
+#define SIZE 64
+
+/*
+ * Every move is repeated on a buffer on the stack, which is native memory, and the results are
+ * compared. The bits of the result tell which scenario failed.
+ */
+
+static void fill(char *p, int seed) {
+  for (int i = 0; i < SIZE; i++) {
+    p[i] = (char) (seed * 31 + i * 7);
+  }
+}
+
+static int same(const char *p, const char *expected) {
+  for (int i = 0; i < SIZE; i++) {
+    if (p[i] != expected[i]) {
+      return 0;
+    }
+  }
+  return 1;
+}
+
+static int testOverlap(char *p) {
+  char ref[SIZE];
+  fill(p, 1);
+  fill(ref, 1);
+  memmove(p + 1, p, 40);
+  memmove(ref + 1, ref, 40);
+  memmove(p, p + 3, 40);
+  memmove(ref, ref + 3, 40);
+  memmove(p + 8, p, 48);
+  memmove(ref + 8, ref, 48);
+  memmove(p, p + 16, 48);
+  memmove(ref, ref + 16, 48);
+  return same(p, ref);
+}
+
+static int testBetween(char *p, char *q) {
+  char refP[SIZE];
+  char refQ[SIZE];
+  fill(p, 2);
+  fill(refP, 2);
+  fill(q, 3);
+  fill(refQ, 3);
+  memmove(q + 3, p + 5, 30);
+  memmove(refQ + 3, refP + 5, 30);
+  memmove(p + 1, q + 7, 50);
+  memmove(refP + 1, refQ + 7, 50);
+  memcpy(q + 8, p + 16, 40);
+  memcpy(refQ + 8, refP + 16, 40);
+  memcpy(p, q, SIZE);
+  memcpy(refP, refQ, SIZE);
+  return same(p, refP) && same(q, refQ);
+}
+
+static int testMemset(char *p) {
+  char ref[SIZE];
+  fill(p, 4);
+  fill(ref, 4);
+  memset(p + 3, 0x5a, 21);
+  memset(ref + 3, 0x5a, 21);
+  return same(p, ref);
+}
+
+static int values[8];
+
+static int testManagedPointers() {
+  int **m = truffle_managed_malloc(8 * sizeof(int *));
+  int *ref[8];
+  for (int i = 0; i < 8; i++) {
+    m[i] = &values[i];
+    ref[i] = &values[i];
+  }
+  memmove(m + 1, m, 6 * sizeof(int *));
+  memmove(ref + 1, ref, 6 * sizeof(int *));
+  memmove(m, m + 2, 5 * sizeof(int *));
+  memmove(ref, ref + 2, 5 * sizeof(int *));
+  for (int i = 0; i < 8; i++) {
+    if (m[i] != ref[i]) {
+      return 0;
+    }
+  }
+  return 1;
+}
+
+int main() {
+  char *heap1 = malloc(SIZE);
+  char *heap2 = malloc(SIZE);
+  char *virtual1 = truffle_virtual_malloc(SIZE);
+  char *virtual2 = truffle_virtual_malloc(SIZE);
+  char stack[SIZE];
+
+  int result = 0;
+  result |= testOverlap(heap1) ? 0 : 1;
+  result |= testOverlap(virtual1) ? 0 : 2;
+  result |= testBetween(heap1, heap2) ? 0 : 4;
+  result |= testBetween(virtual1, virtual2) ? 0 : 8;
+  result |= testBetween(heap1, virtual1) ? 0 : 16;
+  result |= testBetween(virtual1, heap1) ? 0 : 32;
+  result |= testBetween(heap1, stack) ? 0 : 64;
+  result |= testBetween(stack, heap1) ? 0 : 128;
+  result |= testMemset(heap1) ? 0 : 256;
+  result |= testMemset(virtual1) ? 0 : 512;
+  result |= testManagedPointers() ? 0 : 1024;
+
+  free(heap1);
+  free(heap2);
+  return result;
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <alloca.h>
+#include <stdio.h>
+
+int main() {
+  int *slots[5];
+  for (int i = 0; i < 5; i++) {
+    // a new allocation in every iteration
+    int *slot = alloca(sizeof(int));
+    *slot = i * 10;
+    slots[i] = slot;
+  }
+  int distinct = 1;
+  for (int i = 0; i < 5; i++) {
+    for (int j = i + 1; j < 5; j++) {
+      distinct &= slots[i] != slots[j];
+    }
+    printf("%d\n", *slots[i]);
+  }
+  printf("distinct: %d\n", distinct);
+
+  // a block-scoped local is re-initialized in every iteration
+  int total = 0;
+  for (int i = 0; i < 5; i++) {
+    int local = 1;
+    local += i;
+    total += local;
+  }
+  printf("%d\n", total);
+
+  // variable length arrays in a loop
+  for (int n = 1; n <= 3; n++) {
+    int vla[n];
+    for (int k = 0; k < n; k++) {
+      vla[k] = k + n;
+    }
+    printf("%d\n", vla[n - 1]);
+  }
+  return 0;
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdio.h>
+
+__attribute__((noinline)) int loopCarried(int n) {
+  int previous;
+  int sum = 0;
+  for (int i = 0; i < n; i++) {
+    if (i > 0) {
+      // the load precedes the store in the block layout
+      sum += previous;
+    }
+    previous = i * i;
+  }
+  return sum;
+}
+
+__attribute__((noinline)) int maskedUninitialized(int n) {
+  unsigned int uninitialized;
+  uninitialized &= 0;
+  return uninitialized + n;
+}
+
+__attribute__((noinline)) double conditionallyInitialized(int n) {
+  double value;
+  if (n > 3) {
+    value = n * 0.5;
+  }
+  if (n > 3) {
+    return value;
+  }
+  return -1;
+}
+
+int main() {
+  printf("%d\n", loopCarried(10));
+  printf("%d\n", maskedUninitialized(7));
+  printf("%f\n", conditionallyInitialized(2));
+  printf("%f\n", conditionallyInitialized(9));
+  return 0;
+}
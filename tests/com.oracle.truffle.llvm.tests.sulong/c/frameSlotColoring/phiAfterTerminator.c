@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdio.h>
+
+/*
+ * The incoming values of the phis are defined right before the branch, and
+ * the branch condition dies in the terminator. Both are alive when the phis
+ * are written after the terminator.
+ */
+
+__attribute__((noinline)) int step(int x) {
+  return x * 3 + 1;
+}
+
+__attribute__((noinline)) int iterate(int x, int limit) {
+  int count = 0;
+  do {
+    x = step(x);
+    count++;
+  } while (x < limit);
+  return count * 1000 + x % 1000;
+}
+
+__attribute__((noinline)) int select(int n) {
+  int even = 0;
+  int odd = 0;
+  for (int i = 0; i < n; i++) {
+    int value = step(i);
+    if (value % 2 == 0) {
+      even = value;
+    } else {
+      odd = value;
+    }
+  }
+  return even * 1000 + odd;
+}
+
+__attribute__((noinline)) int countdown(int n) {
+  int sum = 0;
+  int i = n;
+  while (i) {
+    sum += i;
+    i = i - 1;
+  }
+  return sum;
+}
+
+int main() {
+  printf("%d\n", iterate(1, 1000));
+  printf("%d\n", iterate(5, 6));
+  printf("%d\n", select(10));
+  printf("%d\n", countdown(100));
+  return 0;
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdio.h>
+
+/*
+ * After mem2reg, the loop variables become phis whose incoming values are
+ * the other phis, so the phis of the loop header form cycles.
+ */
+
+__attribute__((noinline)) int swap(int n) {
+  int a = 1;
+  int b = 2;
+  for (int i = 0; i < n; i++) {
+    int t = a;
+    a = b;
+    b = t;
+  }
+  return a * 10 + b;
+}
+
+__attribute__((noinline)) long rotate(int n) {
+  long a = 1;
+  long b = 2;
+  long c = 3;
+  for (int i = 0; i < n; i++) {
+    long t = a;
+    a = b;
+    b = c;
+    c = t;
+  }
+  return a * 100 + b * 10 + c;
+}
+
+__attribute__((noinline)) double fibonacci(int n) {
+  double a = 0;
+  double b = 1;
+  for (int i = 0; i < n; i++) {
+    double next = a + b;
+    a = b;
+    b = next;
+  }
+  return a;
+}
+
+__attribute__((noinline)) const char *swapPointers(int n) {
+  const char *first = "first";
+  const char *second = "second";
+  while (n-- > 0) {
+    const char *t = first;
+    first = second;
+    second = t;
+  }
+  return first;
+}
+
+int main() {
+  for (int n = 0; n < 4; n++) {
+    printf("%d %ld %f %s\n", swap(n), rotate(n), fibonacci(n * 10), swapPointers(n));
+  }
+  return 0;
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdio.h>
+
+/*
+ * At O0, the loop variables are allocas that are promoted to frame slots.
+ * They are alive across the back edges, while the many temporaries in the
+ * loop bodies can share slots.
+ */
+
+__attribute__((noinline)) double nested(int n) {
+  double total = 0;
+  long product = 1;
+  for (int i = 1; i <= n; i++) {
+    float scale = i * 0.5f;
+    for (int j = 1; j <= i; j++) {
+      short small = (short) (i * j);
+      char c = (char) (small % 26);
+      total += scale * small + c;
+      product = (product * (j + 1)) % 1000003;
+    }
+  }
+  return total + product;
+}
+
+__attribute__((noinline)) int earlyExit(int *values, int n, int target) {
+  int index = -1;
+  for (int i = 0; i < n; i++) {
+    int value = values[i];
+    int doubled = value * 2;
+    if (doubled == target) {
+      index = i;
+      break;
+    }
+  }
+  return index;
+}
+
+int main() {
+  int values[] = {5, 8, 13, 21, 34};
+  printf("%f\n", nested(12));
+  printf("%d %d\n", earlyExit(values, 5, 42), earlyExit(values, 5, 7));
+  return 0;
+}
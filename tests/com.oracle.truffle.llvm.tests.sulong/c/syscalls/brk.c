@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdio.h>
+#include <stdint.h>
+#include <string.h>
+#include <sys/syscall.h>
+
+#define PAGE 4096
+
+/*
+ * Issue the syscall directly, so that it is handled by the syscall node of
+ * Sulong rather than by the native libc.
+ */
+static char *sys_brk(char *addr) {
+  int64_t result;
+  __asm__ volatile("syscall" : "=a"(result) : "a"((int64_t) SYS_brk), "D"(addr) : "memory", "rcx", "r11");
+  return (char *) result;
+}
+
+static char *my_sbrk(long increment) {
+  char *old = sys_brk(NULL);
+  if (increment != 0 && sys_brk(old + increment) != old + increment) {
+    return (char *) -1;
+  }
+  return old;
+}
+
+static int allEqual(const char *p, long length, char value) {
+  for (long i = 0; i < length; i++) {
+    if (p[i] != value) {
+      return 0;
+    }
+  }
+  return 1;
+}
+
+int main() {
+  /*
+   * The native libc allocates from the same break, so nothing is printed
+   * until the break is restored.
+   */
+  char *base = my_sbrk(0);
+  int queryIsStable = my_sbrk(0) == base;
+
+  char *heap = (char *) (((uintptr_t) base + PAGE - 1) & -PAGE);
+  char *grown = sys_brk(heap + 4 * PAGE);
+  int growMovesBreak = grown == heap + 4 * PAGE && my_sbrk(0) == grown;
+  memset(heap, 'x', 4 * PAGE);
+
+  char *old = my_sbrk(-3 * PAGE);
+  int shrinkReturnsOldBreak = old == heap + 4 * PAGE;
+  int shrinkMovesBreak = my_sbrk(0) == heap + PAGE;
+
+  old = my_sbrk(3 * PAGE);
+  int regrowReturnsOldBreak = old == heap + PAGE;
+  int keptPage = allEqual(heap, PAGE, 'x');
+  int regrownPagesAreZero = allEqual(heap + PAGE, 3 * PAGE, 0);
+
+  char *current = my_sbrk(0);
+  int beyondLimitFails = my_sbrk(1L << 46) == (char *) -1;
+  int beyondLimitKeepsBreak = my_sbrk(0) == current;
+  int belowStartKeepsBreak = sys_brk((char *) PAGE) == current;
+
+  sys_brk(base);
+  int restored = my_sbrk(0) == base;
+
+  printf("query is stable: %d\n", queryIsStable);
+  printf("grow moves break: %d\n", growMovesBreak);
+  printf("shrink returns old break: %d\n", shrinkReturnsOldBreak);
+  printf("shrink moves break: %d\n", shrinkMovesBreak);
+  printf("regrow returns old break: %d\n", regrowReturnsOldBreak);
+  printf("kept page: %d\n", keptPage);
+  printf("regrown pages are zero: %d\n", regrownPagesAreZero);
+  printf("beyond limit fails: %d\n", beyondLimitFails);
+  printf("beyond limit keeps break: %d\n", beyondLimitKeepsBreak);
+  printf("below start keeps break: %d\n", belowStartKeepsBreak);
+  printf("restored: %d\n", restored);
+  return 0;
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#define _GNU_SOURCE
+#include <fcntl.h>
+#include <stdio.h>
+#include <stdint.h>
+#include <string.h>
+#include <sys/epoll.h>
+#include <sys/eventfd.h>
+#include <sys/socket.h>
+#include <sys/syscall.h>
+#include <sys/un.h>
+
+/*
+ * Issue the syscalls directly, so that they are handled by the syscall nodes
+ * of Sulong rather than by the native libc.
+ */
+static int64_t sys6(int64_t id, int64_t a1, int64_t a2, int64_t a3, int64_t a4, int64_t a5, int64_t a6) {
+  int64_t result;
+  register int64_t r10 __asm__("r10") = a4;
+  register int64_t r8 __asm__("r8") = a5;
+  register int64_t r9 __asm__("r9") = a6;
+  __asm__ volatile("syscall"
+                   : "=a"(result)
+                   : "a"(id), "D"(a1), "S"(a2), "d"(a3), "r"(r10), "r"(r8), "r"(r9)
+                   : "memory", "rcx", "r11");
+  return result;
+}
+
+static int64_t writeCounter(int fd, uint64_t value) {
+  return sys6(SYS_write, fd, (int64_t) &value, sizeof(value), 0, 0, 0);
+}
+
+static void testEventfd() {
+  int efd = (int) sys6(SYS_eventfd2, 3, EFD_NONBLOCK | EFD_CLOEXEC, 0, 0, 0, 0);
+  printf("eventfd2: %d\n", efd >= 0);
+
+  uint64_t value = 0;
+  printf("write: %ld\n", (long) writeCounter(efd, 5));
+  printf("read: %ld\n", (long) sys6(SYS_read, efd, (int64_t) &value, sizeof(value), 0, 0, 0));
+  printf("value: %lu\n", (unsigned long) value);
+  printf("read empty: %ld\n", (long) sys6(SYS_read, efd, (int64_t) &value, sizeof(value), 0, 0, 0));
+  printf("close-on-exec: %d\n", (sys6(SYS_fcntl, efd, F_GETFD, 0, 0, 0, 0) & FD_CLOEXEC) != 0);
+  printf("non-blocking: %d\n", (sys6(SYS_fcntl, efd, F_GETFL, 0, 0, 0, 0) & O_NONBLOCK) != 0);
+  sys6(SYS_close, efd, 0, 0, 0, 0, 0);
+}
+
+static void testEpoll() {
+  int efd = (int) sys6(SYS_eventfd2, 0, EFD_NONBLOCK, 0, 0, 0, 0);
+  int epfd = (int) sys6(SYS_epoll_create1, EPOLL_CLOEXEC, 0, 0, 0, 0, 0);
+  printf("epoll_create1: %d\n", epfd >= 0);
+
+  struct epoll_event event;
+  memset(&event, 0, sizeof(event));
+  event.events = EPOLLIN;
+  event.data.u64 = 42;
+  printf("epoll_ctl add: %ld\n", (long) sys6(SYS_epoll_ctl, epfd, EPOLL_CTL_ADD, efd, (int64_t) &event, 0, 0));
+  printf("epoll_ctl add twice: %ld\n", (long) sys6(SYS_epoll_ctl, epfd, EPOLL_CTL_ADD, efd, (int64_t) &event, 0, 0));
+  printf("epoll_ctl bad fd: %ld\n", (long) sys6(SYS_epoll_ctl, epfd, EPOLL_CTL_ADD, -1, (int64_t) &event, 0, 0));
+
+  struct epoll_event events[4];
+  memset(events, 0, sizeof(events));
+  printf("epoll_wait idle: %ld\n", (long) sys6(SYS_epoll_wait, epfd, (int64_t) events, 4, 0, 0, 0));
+
+  writeCounter(efd, 1);
+  long ready = (long) sys6(SYS_epoll_wait, epfd, (int64_t) events, 4, 1000, 0, 0);
+  printf("epoll_wait ready: %ld, readable: %d, data: %lu\n", ready, (events[0].events & EPOLLIN) != 0, (unsigned long) events[0].data.u64);
+
+  printf("epoll_ctl del: %ld\n", (long) sys6(SYS_epoll_ctl, epfd, EPOLL_CTL_DEL, efd, 0, 0, 0));
+  printf("epoll_wait after del: %ld\n", (long) sys6(SYS_epoll_wait, epfd, (int64_t) events, 4, 0, 0, 0));
+  printf("epoll_ctl del twice: %ld\n", (long) sys6(SYS_epoll_ctl, epfd, EPOLL_CTL_DEL, efd, 0, 0, 0));
+
+  sys6(SYS_close, epfd, 0, 0, 0, 0, 0);
+  sys6(SYS_close, efd, 0, 0, 0, 0, 0);
+}
+
+static void testAccept4() {
+  struct sockaddr_un address;
+  memset(&address, 0, sizeof(address));
+  address.sun_family = AF_UNIX;
+  // an abstract socket name does not create a file
+  snprintf(address.sun_path + 1, sizeof(address.sun_path) - 1, "sulong-accept4-%ld", (long) sys6(SYS_getpid, 0, 0, 0, 0, 0, 0));
+  int64_t length = sizeof(address);
+
+  int server = (int) sys6(SYS_socket, AF_UNIX, SOCK_STREAM | SOCK_NONBLOCK, 0, 0, 0, 0);
+  printf("bind: %ld\n", (long) sys6(SYS_bind, server, (int64_t) &address, length, 0, 0, 0));
+  printf("listen: %ld\n", (long) sys6(SYS_listen, server, 1, 0, 0, 0, 0));
+  printf("accept4 without client: %ld\n", (long) sys6(SYS_accept4, server, 0, 0, SOCK_NONBLOCK, 0, 0));
+
+  int client = (int) sys6(SYS_socket, AF_UNIX, SOCK_STREAM, 0, 0, 0, 0);
+  printf("connect: %ld\n", (long) sys6(SYS_connect, client, (int64_t) &address, length, 0, 0, 0));
+  int accepted = (int) sys6(SYS_accept4, server, 0, 0, SOCK_NONBLOCK | SOCK_CLOEXEC, 0, 0);
+  printf("accept4: %d\n", accepted >= 0);
+  printf("close-on-exec: %d\n", (sys6(SYS_fcntl, accepted, F_GETFD, 0, 0, 0, 0) & FD_CLOEXEC) != 0);
+  printf("non-blocking: %d\n", (sys6(SYS_fcntl, accepted, F_GETFL, 0, 0, 0, 0) & O_NONBLOCK) != 0);
+
+  char c = 'x';
+  sys6(SYS_write, client, (int64_t) &c, 1, 0, 0, 0);
+  c = 0;
+  long received = (long) sys6(SYS_read, accepted, (int64_t) &c, 1, 0, 0, 0);
+  printf("read accepted: %ld %c\n", received, c);
+
+  sys6(SYS_close, accepted, 0, 0, 0, 0, 0);
+  sys6(SYS_close, client, 0, 0, 0, 0, 0);
+  sys6(SYS_close, server, 0, 0, 0, 0, 0);
+}
+
+int main() {
+  testEventfd();
+  testEpoll();
+  testAccept4();
+  return 0;
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#define _GNU_SOURCE
+#include <stdio.h>
+#include <stdint.h>
+#include <string.h>
+#include <sys/mman.h>
+#include <sys/syscall.h>
+
+#define PAGE 4096
+
+/*
+ * Issue the syscalls directly, so that they are handled by the syscall nodes
+ * of Sulong rather than by the native libc.
+ */
+static int64_t sys6(int64_t id, int64_t a1, int64_t a2, int64_t a3, int64_t a4, int64_t a5, int64_t a6) {
+  int64_t result;
+  register int64_t r10 __asm__("r10") = a4;
+  register int64_t r8 __asm__("r8") = a5;
+  register int64_t r9 __asm__("r9") = a6;
+  __asm__ volatile("syscall"
+                   : "=a"(result)
+                   : "a"(id), "D"(a1), "S"(a2), "d"(a3), "r"(r10), "r"(r8), "r"(r9)
+                   : "memory", "rcx", "r11");
+  return result;
+}
+
+static char *sys_mmap(char *addr, size_t length, int prot, int flags) {
+  return (char *) sys6(SYS_mmap, (int64_t) addr, length, prot, flags, -1, 0);
+}
+
+int main() {
+  char *p = sys_mmap(NULL, 4 * PAGE, PROT_READ | PROT_WRITE, MAP_PRIVATE | MAP_ANONYMOUS);
+  if ((int64_t) p < 0) {
+    return 1;
+  }
+  for (int i = 0; i < 4; i++) {
+    memset(p + i * PAGE, 'a' + i, PAGE);
+  }
+
+  printf("munmap with length 0: %ld\n", (long) sys6(SYS_munmap, (int64_t) p, 0, 0, 0, 0, 0));
+
+  printf("madvise: %ld\n", (long) sys6(SYS_madvise, (int64_t) p, 2 * PAGE, MADV_DONTNEED, 0, 0, 0));
+  printf("madvise again: %ld\n", (long) sys6(SYS_madvise, (int64_t) p, 2 * PAGE, MADV_DONTNEED, 0, 0, 0));
+  printf("released pages: %d %d, kept pages: %c %c\n", p[0], p[PAGE + 1], p[2 * PAGE], p[3 * PAGE + 1]);
+
+  char *q = (char *) sys6(SYS_mremap, (int64_t) p, 4 * PAGE, 8 * PAGE, MREMAP_MAYMOVE, 0, 0);
+  if ((int64_t) q < 0) {
+    return 2;
+  }
+  printf("after mremap: %c %c\n", q[2 * PAGE], q[4 * PAGE - 1]);
+  q[8 * PAGE - 1] = 'z';
+
+  char *fixed = sys_mmap(q + PAGE, PAGE, PROT_READ | PROT_WRITE, MAP_PRIVATE | MAP_ANONYMOUS | MAP_FIXED);
+  printf("MAP_FIXED inside own mapping: %d, content %d\n", fixed == q + PAGE, fixed[0]);
+
+  printf("mprotect read-only: %ld\n", (long) sys6(SYS_mprotect, (int64_t) q, PAGE, PROT_READ, 0, 0, 0));
+  printf("mprotect read-write: %ld\n", (long) sys6(SYS_mprotect, (int64_t) q, PAGE, PROT_READ | PROT_WRITE, 0, 0, 0));
+  q[0] = 'x';
+
+  printf("munmap: %ld\n", (long) sys6(SYS_munmap, (int64_t) q, 8 * PAGE, 0, 0, 0, 0));
+  return 0;
+}
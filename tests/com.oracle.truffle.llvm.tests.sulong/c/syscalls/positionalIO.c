@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#define _GNU_SOURCE
+#include <fcntl.h>
+#include <stdio.h>
+#include <stdint.h>
+#include <string.h>
+#include <sys/stat.h>
+#include <sys/syscall.h>
+#include <sys/uio.h>
+#include <unistd.h>
+
+/*
+ * Issue the syscalls directly, so that they are handled by the syscall nodes
+ * of Sulong rather than by the native libc.
+ */
+static int64_t sys6(int64_t id, int64_t a1, int64_t a2, int64_t a3, int64_t a4, int64_t a5, int64_t a6) {
+  int64_t result;
+  register int64_t r10 __asm__("r10") = a4;
+  register int64_t r8 __asm__("r8") = a5;
+  register int64_t r9 __asm__("r9") = a6;
+  __asm__ volatile("syscall"
+                   : "=a"(result)
+                   : "a"(id), "D"(a1), "S"(a2), "d"(a3), "r"(r10), "r"(r8), "r"(r9)
+                   : "memory", "rcx", "r11");
+  return result;
+}
+
+static long offset(int fd) {
+  return (long) sys6(SYS_lseek, fd, 0, SEEK_CUR, 0, 0, 0);
+}
+
+static long size(int fd) {
+  struct stat st;
+  if (sys6(SYS_fstat, fd, (int64_t) &st, 0, 0, 0, 0) != 0) {
+    return -1;
+  }
+  return (long) st.st_size;
+}
+
+static void printBytes(const char *label, const char *p, int length) {
+  printf("%s: ", label);
+  for (int i = 0; i < length; i++) {
+    putchar(p[i] == 0 ? '.' : p[i]);
+  }
+  putchar('\n');
+}
+
+int main() {
+  char path[64];
+  snprintf(path, sizeof(path), "/tmp/sulong-positionalIO-%ld", (long) sys6(SYS_getpid, 0, 0, 0, 0, 0, 0));
+  int fd = (int) sys6(SYS_open, (int64_t) path, O_RDWR | O_CREAT | O_TRUNC, 0600, 0, 0, 0);
+  if (fd < 0) {
+    return 1;
+  }
+
+  printf("write: %ld\n", (long) sys6(SYS_write, fd, (int64_t) "0123456789", 10, 0, 0, 0));
+  printf("offset: %ld\n", offset(fd));
+
+  printf("pwrite64: %ld\n", (long) sys6(SYS_pwrite64, fd, (int64_t) "AB", 2, 3, 0, 0));
+  printf("offset after pwrite64: %ld\n", offset(fd));
+
+  char buffer[16];
+  memset(buffer, 0, sizeof(buffer));
+  printf("pread64: %ld\n", (long) sys6(SYS_pread64, fd, (int64_t) buffer, 4, 2, 0, 0));
+  printBytes("pread64 data", buffer, 4);
+  printf("offset after pread64: %ld\n", offset(fd));
+  printf("pread64 beyond end: %ld\n", (long) sys6(SYS_pread64, fd, (int64_t) buffer, 4, 100, 0, 0));
+
+  struct iovec out[2];
+  out[0].iov_base = "xy";
+  out[0].iov_len = 2;
+  out[1].iov_base = "zzz";
+  out[1].iov_len = 3;
+  printf("pwritev: %ld\n", (long) sys6(SYS_pwritev, fd, (int64_t) out, 2, 12, 0, 0));
+  printf("offset after pwritev: %ld\n", offset(fd));
+  printf("size after pwritev: %ld\n", size(fd));
+
+  char first[3];
+  char second[7];
+  memset(first, 0, sizeof(first));
+  memset(second, 0, sizeof(second));
+  struct iovec in[2];
+  in[0].iov_base = first;
+  in[0].iov_len = sizeof(first);
+  in[1].iov_base = second;
+  in[1].iov_len = sizeof(second);
+  printf("preadv: %ld\n", (long) sys6(SYS_preadv, fd, (int64_t) in, 2, 8, 0, 0));
+  printBytes("preadv first", first, sizeof(first));
+  printBytes("preadv second", second, sizeof(second));
+  printf("offset after preadv: %ld\n", offset(fd));
+
+  printf("fdatasync: %ld\n", (long) sys6(SYS_fdatasync, fd, 0, 0, 0, 0, 0));
+
+  long allocated = (long) sys6(SYS_fallocate, fd, 0, 0, 8192, 0, 0);
+  printf("fallocate: %ld, size: %ld\n", allocated, size(fd));
+  long kept = (long) sys6(SYS_fallocate, fd, FALLOC_FL_KEEP_SIZE, 16384, 4096, 0, 0);
+  printf("fallocate keep size: %ld, size: %ld\n", kept, size(fd));
+  printf("offset after fallocate: %ld\n", offset(fd));
+
+  printf("pread64 bad fd: %ld\n", (long) sys6(SYS_pread64, -1, (int64_t) buffer, 4, 0, 0, 0));
+  printf("fdatasync bad fd: %ld\n", (long) sys6(SYS_fdatasync, -1, 0, 0, 0, 0, 0));
+
+  sys6(SYS_close, fd, 0, 0, 0, 0, 0);
+  sys6(SYS_unlink, (int64_t) path, 0, 0, 0, 0, 0);
+  return 0;
+}
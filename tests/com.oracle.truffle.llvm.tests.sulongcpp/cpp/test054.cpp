@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <alloca.h>
+#include <stdint.h>
+#include <stdio.h>
+#include <string.h>
+
+/*
+ * Each call allocates on the stack and leaves with an exception, so the frames are never left
+ * through a return. The caller's stack pointer must still be back where it was afterwards.
+ */
+
+__attribute__((noinline)) uintptr_t stackAddress() {
+  volatile char local = 0;
+  return (uintptr_t) &local;
+}
+
+__attribute__((noinline)) void allocateAndThrow(int depth) {
+  char *buffer = (char *) alloca(4096);
+  memset(buffer, depth, 4096);
+  if (depth == 0) {
+    throw buffer[0] + 42;
+  }
+  allocateAndThrow(depth - 1);
+}
+
+int main() {
+  uintptr_t before = stackAddress();
+  int caught = 0;
+  for (int i = 0; i < 10000; i++) {
+    try {
+      allocateAndThrow(i % 4);
+    } catch (int value) {
+      caught += value == 42;
+    }
+  }
+  uintptr_t after = stackAddress();
+  printf("caught %d\n", caught);
+  printf("stack restored: %d\n", before == after);
+  return 0;
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdlib.h>
+#include <string.h>
+
+/*
+ * Accesses a heap allocation in the way selected by the first argument. The
+ * helpers are not inlined so that the compiler keeps the invalid accesses.
+ */
+__attribute__((noinline)) int readByte(volatile char *p, long i) {
+  return p[i];
+}
+
+__attribute__((noinline)) void release(void *p) {
+  free(p);
+}
+
+int main(int argc, char **argv) {
+  volatile char *p = malloc(16);
+  for (int i = 0; i < 16; i++) {
+    p[i] = (char) i;
+  }
+  if (argc < 2) {
+    return 1;
+  }
+  const char *scenario = argv[1];
+  if (strcmp(scenario, "inBounds") == 0) {
+    char **pointers = calloc(2, sizeof(char *));
+    pointers[1] = (char *) p;
+    pointers = realloc(pointers, 4 * sizeof(char *));
+    int result = readByte(pointers[1], 15);
+    release(pointers);
+    release((void *) p);
+    return result;
+  } else if (strcmp(scenario, "escaped") == 0) {
+    char *s = malloc(6);
+    strcpy(s, "hello");
+    int result = strlen(s) + readByte(s, 4);
+    release(s);
+    return result;
+  } else if (strcmp(scenario, "outOfBounds") == 0) {
+    return readByte(p, 16);
+  } else if (strcmp(scenario, "negativeOffset") == 0) {
+    return readByte(p, -1);
+  } else if (strcmp(scenario, "useAfterFree") == 0) {
+    release((void *) p);
+    return readByte(p, 0);
+  } else if (strcmp(scenario, "useAfterRealloc") == 0) {
+    volatile char *q = realloc((void *) p, 32);
+    return readByte(p, 0) + readByte(q, 0);
+  } else if (strcmp(scenario, "doubleFree") == 0) {
+    release((void *) p);
+    release((void *) p);
+    return 0;
+  } else if (strcmp(scenario, "interiorFree") == 0) {
+    release((void *) (p + 8));
+    return 0;
+  }
+  return 2;
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#define _GNU_SOURCE
+#include <errno.h>
+#include <stdint.h>
+#include <sys/mman.h>
+#include <sys/syscall.h>
+
+#define PAGE 4096
+
+static int64_t sys6(int64_t id, int64_t a1, int64_t a2, int64_t a3, int64_t a4, int64_t a5, int64_t a6) {
+  int64_t result;
+  register int64_t r10 __asm__("r10") = a4;
+  register int64_t r8 __asm__("r8") = a5;
+  register int64_t r9 __asm__("r9") = a6;
+  __asm__ volatile("syscall"
+                   : "=a"(result)
+                   : "a"(id), "D"(a1), "S"(a2), "d"(a3), "r"(r10), "r"(r8), "r"(r9)
+                   : "memory", "rcx", "r11");
+  return result;
+}
+
+/*
+ * Checks that Sulong refuses to map or remap at fixed addresses outside of the
+ * guest mappings, and that the mapping statistics count each released page once.
+ * The stack of the program is memory owned by the VM.
+ */
+int main() {
+  char onStack[2 * PAGE];
+  char *vmMemory = (char *) (((uintptr_t) onStack + PAGE - 1) & -PAGE);
+
+  char *p = (char *) sys6(SYS_mmap, 0, 8 * PAGE, PROT_READ | PROT_WRITE, MAP_PRIVATE | MAP_ANONYMOUS, -1, 0);
+  if ((int64_t) p < 0) {
+    return 1;
+  }
+  if (sys6(SYS_mmap, (int64_t) vmMemory, PAGE, PROT_READ | PROT_WRITE, MAP_PRIVATE | MAP_ANONYMOUS | MAP_FIXED, -1, 0) != -EINVAL) {
+    return 2;
+  }
+  if (sys6(SYS_mremap, (int64_t) p, PAGE, PAGE, MREMAP_MAYMOVE | MREMAP_FIXED, (int64_t) vmMemory, 0) != -EINVAL) {
+    return 3;
+  }
+  if (sys6(SYS_madvise, (int64_t) p, 2 * PAGE, MADV_DONTNEED, 0, 0, 0) != 0 || sys6(SYS_madvise, (int64_t) p, 2 * PAGE, MADV_DONTNEED, 0, 0, 0) != 0) {
+    return 4;
+  }
+  if (sys6(SYS_munmap, (int64_t) p, 0, 0, 0, 0, 0) != -EINVAL) {
+    return 5;
+  }
+  if (sys6(SYS_munmap, (int64_t) p + 4 * PAGE, 4 * PAGE, 0, 0, 0, 0) != 0) {
+    return 6;
+  }
+  // the remaining four pages are unmapped when the context is disposed
+  return 0;
+}